@@ -3,8 +3,10 @@ package com.ishan.user_service;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @EnableAsync //tells Spring: “methods marked with @Async should run in a separate background thread.”
+@EnableScheduling // @Scheduled tasks: import job heartbeats + resuming orphaned import jobs, export / upload retention
 @SpringBootApplication
 public class UserServiceApplication {
 
@@ -0,0 +1,89 @@
+package com.ishan.user_service.component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Keeps the big multipart limit to the ONE endpoint that needs it.
+ *
+ * WHY?
+ * - spring.servlet.multipart.max-file-size / max-request-size apply to EVERY endpoint of the
+ *   DispatcherServlet; they are set to import.csv-upload.max-file-size so multi-GB exports can be imported
+ * - Any other endpoint accepting a multipart body would then accept multi-GB bodies as well
+ *
+ * HOW:
+ * - Multipart requests to any other path are checked against upload.default-max-request-size
+ *   BEFORE the body is read (Content-Length), too big -> 413 in the GlobalExceptionHandler layout
+ * - Unknown length (chunked) is only allowed on the CSV import endpoint -> 411
+ * - The CSV import endpoint keeps the finite servlet limit (MaxUploadSizeExceededException -> 413)
+ */
+@Component
+public class UploadSizeLimitFilter extends OncePerRequestFilter {
+
+    // UserImportController: POST /api/v1/users/import/csv
+    private static final String CSV_IMPORT_PATH = "/api/v1/users/import/csv";
+
+    private final long defaultMaxRequestBytes;
+    private final ObjectMapper objectMapper;
+
+    public UploadSizeLimitFilter(@Value("${upload.default-max-request-size:10MB}") String defaultMaxRequestSize,
+                                 ObjectMapper objectMapper) {
+        this.defaultMaxRequestBytes = DataSize.parse(defaultMaxRequestSize).toBytes();
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        boolean multipart = contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("multipart/");
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !multipart || CSV_IMPORT_PATH.equals(path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long contentLength = request.getContentLengthLong();
+        if (contentLength < 0) {
+            reject(request, response, HttpStatus.LENGTH_REQUIRED,
+                    "Multipart requests to this endpoint need a Content-Length");
+            return;
+        }
+        if (contentLength > defaultMaxRequestBytes) {
+            reject(request, response, HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Request of " + contentLength + " bytes exceeds the limit of " + defaultMaxRequestBytes + " bytes");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    // Same body as the GlobalExceptionHandler errors (filters run before any @ExceptionHandler)
+    private void reject(HttpServletRequest request, HttpServletResponse response,
+                        HttpStatus status, String message) throws IOException {
+        Map<String, Object> errorResponse = new LinkedHashMap<>();
+        errorResponse.put("timestamp", LocalDateTime.now());
+        errorResponse.put("status", status.value());
+        errorResponse.put("error", status.getReasonPhrase());
+        errorResponse.put("message", message);
+        errorResponse.put("path", request.getRequestURI());
+
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
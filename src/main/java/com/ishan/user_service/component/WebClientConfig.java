@@ -1,10 +1,18 @@
 package com.ishan.user_service.component;
 
+import com.ishan.user_service.component.randomUserReplay.RandomUserReplayFilter;
+import io.netty.channel.ChannelOption;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
 
 /**
  * This class is a Spring CONFIGURATION class.
@@ -28,6 +36,25 @@ import org.springframework.web.reactive.function.client.WebClient;
 @Configuration
 public class WebClientConfig {
     private static final Logger log = LoggerFactory.getLogger(WebClientConfig.class);
+
+    @Value("${random-user.base-url:https://randomuser.me}")
+    private String baseUrl;
+
+    @Value("${random-user.http.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${random-user.http.pending-acquire-timeout-ms:10000}")
+    private long pendingAcquireTimeoutMs;
+
+    @Value("${random-user.http.max-idle-time-ms:30000}")
+    private long maxIdleTimeMs;
+
+    @Value("${random-user.http.connect-timeout-ms:5000}")
+    private int connectTimeoutMs;
+
+    @Value("${random-user.http.response-timeout-ms:30000}")
+    private long responseTimeoutMs;
+
     /**
      * @Bean tells Spring:
      * "The object returned by this method should be registered
@@ -42,7 +69,7 @@ public class WebClientConfig {
      * - Can be injected anywhere using constructor injection
      */
     @Bean
-    public WebClient webClient() {
+    public WebClient webClient(RandomUserReplayFilter randomUserReplayFilter) {
         log.info("Inside WebClientConfig Class");
         log.info("Bean WebClient Invoked");
         /*
@@ -59,6 +86,30 @@ public class WebClientConfig {
          */
         return WebClient.builder()
 
+                /*
+                 * clientConnector(...)
+                 * --------------------
+                 * Our own Reactor Netty HttpClient instead of the defaults:
+                 * - Dedicated, BOUNDED connection pool: at most maxConnections sockets to RandomUser,
+                 *   extra requests wait (pendingAcquireTimeout) instead of opening more
+                 * - Idle connections are closed (and evicted in the background) before RandomUser's
+                 *   load balancer drops them -> no "connection reset" on a stale pooled socket
+                 * - connect + response timeouts: a stuck upstream fails the request
+                 *   (-> 502, see GlobalExceptionHandler) instead of holding it forever
+                 * - compress(true): sends Accept-Encoding: gzip and inflates the response,
+                 *   a 5000-user page is several MB of JSON but compresses ~10x
+                 */
+                .clientConnector(new ReactorClientHttpConnector(randomUserHttpClient()))
+
+                /*
+                 * filter(randomUserReplayFilter)
+                 * ------------------------------
+                 * random-user.replay.mode: OFF (default, pass-through), RECORD (also saves every response
+                 * as a fixture) or REPLAY (serves the fixtures, no network) -> offline, reproducible
+                 * load tests of the external import path. See RandomUserReplayFilter.
+                 */
+                .filter(randomUserReplayFilter)
+
                 /*
                  * baseUrl("https://randomuser.me")
                  * --------------------------------
@@ -70,37 +121,20 @@ public class WebClientConfig {
                  *
                  * Later we can just use:
                  * .uri("/api/")
+                 *
+                 * Configurable (random-user.base-url) so tests / staging can point to a stub.
                  */
-                .baseUrl("https://randomuser.me")
+                .baseUrl(baseUrl)
 
                 /*
-                 * codecs(...)
-                 * ------------
-                 * Configures how request and response bodies are encoded/decoded.
-                 *
-                 * By default, WebClient buffers ONLY 256 KB in memory.
-                 * Large responses (like 1000 users) exceed this limit.
-                 *
-                 * This customization increases the buffer size.
+                 * NO maxInMemorySize override any more
+                 * -------------------------------------
+                 * We used to raise the codec buffer to 10 MB because batch responses
+                 * (thousands of users) were aggregated into ONE String.
+                 * Batch responses are now decoded incrementally from the raw DataBuffers
+                 * (RandomUserResultsDecoder), which never aggregates the body,
+                 * and single-user responses are far below the 256 KB default.
                  */
-                .codecs(configurer ->
-                        configurer.defaultCodecs()
-
-                                /*
-                                 * maxInMemorySize(10 * 1024 * 1024)
-                                 * --------------------------------
-                                 * Increases the maximum in-memory buffer size to 10 MB.
-                                 *
-                                 * Why needed:
-                                 * - RandomUser API returns large JSON payloads
-                                 * - Prevents DataBufferLimitException
-                                 *
-                                 * Important:
-                                 * - This does NOT remove limits
-                                 * - It just raises them in a controlled way
-                                 */
-                                .maxInMemorySize(10 * 1024 * 1024)
-                )
 
                 /*
                  * build()
@@ -110,4 +144,17 @@ public class WebClientConfig {
                  */
                 .build();
     }
+
+    private HttpClient randomUserHttpClient() {
+        ConnectionProvider pool = ConnectionProvider.builder("random-user")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofMillis(maxIdleTimeMs))
+                .evictInBackground(Duration.ofMillis(maxIdleTimeMs))
+                .build();
+        return HttpClient.create(pool)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs))
+                .compress(true);
+    }
 }
@@ -0,0 +1,47 @@
+package com.ishan.user_service.component.exportExecutor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Dedicated executor for async export jobs (@Async(EXPORT_EXECUTOR) on UserExportAsyncService).
+ *
+ * WHY NOT THE IMPORT EXECUTOR?
+ * - A queue of big imports would hold back a small export (and the other way round)
+ * - Exports are read-only: they never compete for the fair import scheduler's batch slots
+ *
+ * THIS EXECUTOR:
+ * - export.jobs.concurrency exports write their file at the same time; all of them share the
+ *   export.parallel.fetch-threads DB readers of ParallelCsvExporter
+ * - export.jobs.queue-capacity exports may wait; beyond that the submit throws TaskRejectedException
+ *   -> the controller answers 429 and marks the job REJECTED (same as the import executor)
+ */
+@Configuration
+public class ExportExecutorConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportExecutorConfig.class);
+
+    // Bean name used in @Async(...)
+    public static final String EXPORT_EXECUTOR = "exportTaskExecutor";
+
+    @Bean(name = EXPORT_EXECUTOR)
+    public ThreadPoolTaskExecutor exportTaskExecutor(@Value("${export.jobs.concurrency:2}") int concurrency,
+                                                     @Value("${export.jobs.queue-capacity:10}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        // core = max: a ThreadPoolExecutor only grows past core when the queue is FULL, which is too late here
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("export-job-");
+        // Shutdown: an interrupted export only leaves a .part file behind, no need to wait long
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+
+        log.info("[EXPORT_EXECUTOR] Created | concurrency={} queueCapacity={}", concurrency, queueCapacity);
+        return executor;
+    }
+}
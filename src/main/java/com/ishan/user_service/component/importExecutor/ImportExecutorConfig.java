@@ -0,0 +1,60 @@
+package com.ishan.user_service.component.importExecutor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Dedicated executor for async import jobs (@Async(IMPORT_EXECUTOR) on UserImportAsyncService).
+ *
+ * WHY NOT SPRING'S DEFAULT @Async EXECUTOR?
+ * - Shared with every other @Async method -> imports compete with unrelated background work
+ * - Its queue is UNBOUNDED -> a burst of SMALL jobs piles up without limit and starves the machine
+ *
+ * THIS EXECUTOR:
+ * - import.executor.concurrency jobs run at the same time (each job runs its own pipeline threads)
+ * - import.executor.queue-capacity jobs may wait; beyond that a job is REJECTED
+ *   -> the controller answers 429 (same path as the rate limiter) instead of queueing forever
+ * - import.executor.virtual-threads=true -> job threads are virtual: a job mostly WAITS for its
+ *   pipeline, so it should not pin an OS thread; concurrency / queue limits stay the same
+ *
+ * spring.task.execution.mode=force keeps Spring Boot's default executor for any other @Async work.
+ */
+@Configuration
+public class ImportExecutorConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportExecutorConfig.class);
+
+    // Bean name used in @Async(...)
+    public static final String IMPORT_EXECUTOR = "importTaskExecutor";
+
+    @Bean
+    public ImportRejectionPolicy importRejectionPolicy() {
+        return new ImportRejectionPolicy();
+    }
+
+    @Bean(name = IMPORT_EXECUTOR)
+    public ThreadPoolTaskExecutor importTaskExecutor(ImportRejectionPolicy importRejectionPolicy,
+                                                     @Value("${import.executor.concurrency:4}") int concurrency,
+                                                     @Value("${import.executor.queue-capacity:20}") int queueCapacity,
+                                                     @Value("${import.executor.virtual-threads:false}") boolean virtualThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        // core = max: a ThreadPoolExecutor only grows past core when the queue is FULL, which is too late here
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(importRejectionPolicy);
+        executor.setThreadNamePrefix("import-job-");
+        executor.setVirtualThreads(virtualThreads);
+        // Shutdown: let running jobs reach a batch boundary; whatever is cut off is resumed from its checkpoint
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+
+        log.info("[IMPORT_EXECUTOR] Created | concurrency={} queueCapacity={} virtualThreads={}",
+                concurrency, queueCapacity, virtualThreads);
+        return executor;
+    }
+}
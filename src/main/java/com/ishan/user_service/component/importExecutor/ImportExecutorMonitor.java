@@ -0,0 +1,50 @@
+package com.ishan.user_service.component.importExecutor;
+
+import com.ishan.user_service.dto.ImportExecutorStatsDto;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Read-only view of the import executor: how many jobs run, how many wait, how many were turned away.
+ * Exposed on GET /api/v1/jobs/executor and used by the resume scan (do not claim jobs we cannot queue).
+ */
+@Component
+public class ImportExecutorMonitor {
+
+    private final ThreadPoolTaskExecutor importTaskExecutor;
+    private final ImportRejectionPolicy importRejectionPolicy;
+    private final boolean virtualThreads;
+
+    public ImportExecutorMonitor(@Qualifier(ImportExecutorConfig.IMPORT_EXECUTOR) ThreadPoolTaskExecutor importTaskExecutor,
+                                 ImportRejectionPolicy importRejectionPolicy,
+                                 @Value("${import.executor.virtual-threads:false}") boolean virtualThreads) {
+        this.importTaskExecutor = importTaskExecutor;
+        this.importRejectionPolicy = importRejectionPolicy;
+        this.virtualThreads = virtualThreads;
+    }
+
+    public ImportExecutorStatsDto stats() {
+        ThreadPoolExecutor executor = importTaskExecutor.getThreadPoolExecutor();
+        return ImportExecutorStatsDto.builder()
+                .threadMode(virtualThreads ? "VIRTUAL" : "PLATFORM")
+                .concurrency(executor.getMaximumPoolSize())
+                .activeJobs(executor.getActiveCount())
+                .queuedJobs(executor.getQueue().size())
+                .queueCapacity(importTaskExecutor.getQueueCapacity())
+                .remainingQueueCapacity(executor.getQueue().remainingCapacity())
+                .completedJobs(executor.getCompletedTaskCount())
+                .rejectedJobs(importRejectionPolicy.getRejectedCount())
+                .build();
+    }
+
+    // true if one more job would be accepted right now (a free worker or a free queue slot)
+    public boolean hasCapacity() {
+        ThreadPoolExecutor executor = importTaskExecutor.getThreadPoolExecutor();
+        return executor.getActiveCount() < executor.getMaximumPoolSize()
+                || executor.getQueue().remainingCapacity() > 0;
+    }
+}
@@ -0,0 +1,37 @@
+package com.ishan.user_service.component.importExecutor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rejects an import job when all workers are busy AND the queue is full (like AbortPolicy),
+ * but counts it first so rejections show up in the executor stats.
+ *
+ * Why not CallerRunsPolicy?
+ * - The caller is the HTTP request thread: it would run a multi-minute import inline
+ *   and the "async" endpoint would hang -> fail fast with 429 instead
+ */
+public class ImportRejectionPolicy implements RejectedExecutionHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportRejectionPolicy.class);
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    @Override
+    public void rejectedExecution(Runnable job, ThreadPoolExecutor executor) {
+        long rejected = rejectedCount.incrementAndGet();
+        log.warn("[IMPORT_EXECUTOR] Job rejected, executor saturated | active={} queued={} totalRejected={}",
+                executor.getActiveCount(), executor.getQueue().size(), rejected);
+        throw new RejectedExecutionException("Import executor saturated: " + executor.getActiveCount()
+                + " jobs running, " + executor.getQueue().size() + " queued");
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+}
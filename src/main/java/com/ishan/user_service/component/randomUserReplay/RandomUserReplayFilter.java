@@ -0,0 +1,243 @@
+package com.ishan.user_service.component.randomUserReplay;
+
+import com.ishan.user_service.customExceptions.ExternalUserSourceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Record / replay of RandomUser traffic, plugged into the RandomUser WebClient (see WebClientConfig).
+ *
+ * WHY?
+ * - The external import path could only be measured against the live randomuser.me:
+ *   results depended on network noise and RandomUser's own load, and nothing ran offline
+ * - RECORD once, then REPLAY as often as needed: RandomUserClientService, the streaming decoder,
+ *   the mapping and the batch writers run exactly as in production, only the network is gone
+ *
+ * FIXTURE STORE (random-user.replay.dir):
+ * - One gzip file per request, named after a hash of its path + query
+ *   (same seed / page / results -> same fixture)
+ * - Written to a temp file and moved in place only once the WHOLE response arrived,
+ *   so a cancelled or failed call never leaves a truncated fixture
+ *
+ * REPLAY SPEED:
+ * - latency-ms: delay before the response "arrives" (0 = none)
+ * - bytes-per-second: throughput of the (uncompressed) body, 0 = as fast as possible
+ * - reuse-fixtures=true: requests without their own fixture get the recorded ones in turn,
+ *   so a few recorded pages can drive an import of any size
+ */
+@Component
+public class RandomUserReplayFilter implements ExchangeFilterFunction {
+
+    private static final Logger log = LoggerFactory.getLogger(RandomUserReplayFilter.class);
+
+    private static final String FIXTURE_SUFFIX = ".json.gz";
+
+    // Size of the body chunks a replayed response is emitted in (like network reads)
+    private static final int CHUNK_BYTES = 8192;
+
+    private final RandomUserReplayMode mode;
+    private final Path fixtureDir;
+    private final Duration latency;
+    private final long bytesPerSecond;
+    private final boolean reuseFixtures;
+
+    private final ExchangeStrategies strategies = ExchangeStrategies.withDefaults();
+
+    // Round robin over the recorded fixtures (reuse-fixtures=true)
+    private final AtomicLong reuseCounter = new AtomicLong();
+    private volatile List<Path> recordedFixtures;
+
+    public RandomUserReplayFilter(@Value("${random-user.replay.mode:OFF}") RandomUserReplayMode mode,
+                                  @Value("${random-user.replay.dir:${java.io.tmpdir}/random-user-fixtures}") Path fixtureDir,
+                                  @Value("${random-user.replay.latency-ms:0}") long latencyMs,
+                                  @Value("${random-user.replay.bytes-per-second:0}") long bytesPerSecond,
+                                  @Value("${random-user.replay.reuse-fixtures:false}") boolean reuseFixtures) {
+        this.mode = mode;
+        this.fixtureDir = fixtureDir;
+        this.latency = Duration.ofMillis(Math.max(0, latencyMs));
+        this.bytesPerSecond = Math.max(0, bytesPerSecond);
+        this.reuseFixtures = reuseFixtures;
+        if (mode != RandomUserReplayMode.OFF) {
+            log.info("[RANDOM_USER_REPLAY] mode={} dir={} latencyMs={} bytesPerSecond={} reuseFixtures={}",
+                    mode, fixtureDir, latencyMs, bytesPerSecond, reuseFixtures);
+        }
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return switch (mode) {
+            case OFF -> next.exchange(request);
+            case RECORD -> next.exchange(request).map(response -> record(request.url(), response));
+            case REPLAY -> replay(request.url());
+        };
+    }
+
+    // Same request -> same fixture file, whatever the host (live or stub)
+    Path fixtureFor(URI url) {
+        String key = url.getRawPath() + "?" + (url.getRawQuery() != null ? url.getRawQuery() : "");
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return fixtureDir.resolve(HexFormat.of().formatHex(hash, 0, 16) + FIXTURE_SUFFIX);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private ClientResponse record(URI url, ClientResponse response) {
+        // Errors are not fixtures: replaying them would only replay the outage
+        if (!response.statusCode().is2xxSuccessful()) {
+            return response;
+        }
+        Path fixture = fixtureFor(url);
+        return response.mutate()
+                .body(body -> Flux.using(() -> new FixtureRecorder(fixture),
+                        recorder -> body.doOnNext(recorder::write)
+                                .doOnComplete(recorder::complete),
+                        FixtureRecorder::close))
+                .build();
+    }
+
+    private Mono<ClientResponse> replay(URI url) {
+        return Mono.fromCallable(() -> resolveFixture(url))
+                .subscribeOn(Schedulers.boundedElastic())
+                .delayUntil(fixture -> latency.isZero() ? Mono.empty() : Mono.delay(latency))
+                .map(fixture -> ClientResponse.create(HttpStatus.OK, strategies)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body(readFixture(fixture))
+                        .build());
+    }
+
+    private Path resolveFixture(URI url) throws IOException {
+        Path fixture = fixtureFor(url);
+        if (Files.exists(fixture)) {
+            return fixture;
+        }
+        if (reuseFixtures) {
+            List<Path> fixtures = recordedFixtures();
+            if (!fixtures.isEmpty()) {
+                return fixtures.get((int) (reuseCounter.getAndIncrement() % fixtures.size()));
+            }
+        }
+        throw new ExternalUserSourceException("Replay mode: no recorded RandomUser response for " + url
+                + " (record it first with random-user.replay.mode=RECORD)");
+    }
+
+    private Flux<DataBuffer> readFixture(Path fixture) {
+        Flux<DataBuffer> body = DataBufferUtils.readInputStream(
+                        () -> new GZIPInputStream(Files.newInputStream(fixture), CHUNK_BYTES),
+                        DefaultDataBufferFactory.sharedInstance, CHUNK_BYTES)
+                .subscribeOn(Schedulers.boundedElastic());
+        if (bytesPerSecond == 0) {
+            return body;
+        }
+        // One chunk every CHUNK_BYTES / bytesPerSecond seconds
+        Duration perChunk = Duration.ofNanos(CHUNK_BYTES * 1_000_000_000L / bytesPerSecond);
+        return body.delayElements(perChunk)
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+
+    private List<Path> recordedFixtures() throws IOException {
+        List<Path> fixtures = recordedFixtures;
+        if (fixtures == null) {
+            if (!Files.isDirectory(fixtureDir)) {
+                return List.of();
+            }
+            try (Stream<Path> files = Files.list(fixtureDir)) {
+                fixtures = files.filter(file -> file.getFileName().toString().endsWith(FIXTURE_SUFFIX))
+                        .sorted()
+                        .toList();
+            }
+            recordedFixtures = fixtures;
+        }
+        return fixtures;
+    }
+
+    /**
+     * Copies a live response into a temp file while it streams to the decoder.
+     * Blocking file writes on the Netty thread: acceptable for a one-off RECORD run, never used otherwise.
+     */
+    private static final class FixtureRecorder {
+        private final Path fixture;
+        private final Path tempFile;
+        private final OutputStream out;
+        private final WritableByteChannel channel;
+        private boolean completed;
+
+        private FixtureRecorder(Path fixture) throws IOException {
+            this.fixture = fixture;
+            Files.createDirectories(fixture.getParent());
+            this.tempFile = Files.createTempFile(fixture.getParent(), "recording-", ".tmp");
+            this.out = new GZIPOutputStream(Files.newOutputStream(tempFile), CHUNK_BYTES);
+            this.channel = Channels.newChannel(out);
+        }
+
+        // Reads the buffer without moving its read position: the decoder still gets all of it
+        private void write(DataBuffer buffer) {
+            try (DataBuffer.ByteBufferIterator chunks = buffer.readableByteBuffers()) {
+                while (chunks.hasNext()) {
+                    ByteBuffer chunk = chunks.next();
+                    while (chunk.hasRemaining()) {
+                        channel.write(chunk);
+                    }
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        private void complete() {
+            completed = true;
+        }
+
+        private void close() {
+            try {
+                out.close();
+                if (completed) {
+                    Files.move(tempFile, fixture, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    log.info("[RANDOM_USER_REPLAY] Recorded {}", fixture);
+                } else {
+                    Files.deleteIfExists(tempFile);
+                }
+            } catch (IOException ex) {
+                log.warn("[RANDOM_USER_REPLAY] Could not save fixture {}", fixture, ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.ishan.user_service.component.randomUserReplay;
+
+/**
+ * What the RandomUser WebClient does with its traffic (random-user.replay.mode).
+ */
+public enum RandomUserReplayMode {
+
+    // Live randomuser.me, nothing recorded (default)
+    OFF,
+
+    // Live randomuser.me, every successful response is also saved as a gzip fixture
+    RECORD,
+
+    // No network at all: responses are served from the recorded fixtures
+    REPLAY
+}
@@ -14,25 +14,30 @@ import lombok.Getter;
 public enum ImportJobCostTier {
 
     // Very small jobs → Allow high concurrency
-    SMALL(100,5,10),
+    SMALL(100,5,10, 8),
 
     // Moderate jobs → Limited concurrency
-    MEDIUM(10000, 10, 5),
+    MEDIUM(10000, 10, 5, 4),
 
     // Heavy jobs → Strict concurrency
-    LARGE(100000, 20, 3),
+    LARGE(100000, 20, 3, 2),
 
     // Extremely heavy jobs → Usually only 1 at a time + cooldown
-    XL(Long.MAX_VALUE,30,1);
+    XL(Long.MAX_VALUE,30,1, 1);
 
     private final long maxCount;
     private final int cooldownSeconds;
     private final int maxConcurrentJobs;
 
-    ImportJobCostTier(long maxCount, int cooldownSeconds, int maxConcurrentJobs){
+    // Share of DB batch commits once admitted (FairImportScheduler): SMALL gets 8x the rows per round of XL
+    // -> small jobs finish promptly, big ones still progress every round
+    private final int schedulingWeight;
+
+    ImportJobCostTier(long maxCount, int cooldownSeconds, int maxConcurrentJobs, int schedulingWeight){
         this.maxCount = maxCount;
         this.cooldownSeconds = cooldownSeconds;
         this.maxConcurrentJobs = maxConcurrentJobs;
+        this.schedulingWeight = schedulingWeight;
     }
 
     /**
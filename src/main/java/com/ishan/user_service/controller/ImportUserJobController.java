@@ -1,12 +1,20 @@
 package com.ishan.user_service.controller;
 
+import com.ishan.user_service.component.importExecutor.ImportExecutorMonitor;
+import com.ishan.user_service.dto.IdAllocationStatsDto;
+import com.ishan.user_service.dto.ImportExecutorStatsDto;
 import com.ishan.user_service.dto.ImportUserJobInfoDto;
+import com.ishan.user_service.service.importPipeline.UserIdAllocator;
 import com.ishan.user_service.service.job.ImportUserJobTrackerService;
+import com.ishan.user_service.service.user.UserImportControlService;
+import com.ishan.user_service.service.user.UserImportResumeService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -18,6 +26,35 @@ public class ImportUserJobController {
     @Autowired
     private ImportUserJobTrackerService importUserJobTrackerService;
 
+    @Autowired
+    private UserImportResumeService userImportResumeService;
+
+    @Autowired
+    private UserImportControlService userImportControlService;
+
+    @Autowired
+    private ImportExecutorMonitor importExecutorMonitor;
+
+    @Autowired
+    private UserIdAllocator userIdAllocator;
+
+    /**
+     * Import executor metrics: running / queued / rejected jobs.
+     * (A literal path wins over /{jobId}, so this never shadows a job.)
+     */
+    @GetMapping("/executor")
+    public ResponseEntity<ImportExecutorStatsDto> getExecutorStats() {
+        return ResponseEntity.ok(importExecutorMonitor.stats());
+    }
+
+    /**
+     * User ID allocator metrics: allocation latency, refill contention, id_generator round trips.
+     */
+    @GetMapping("/id-allocator")
+    public ResponseEntity<IdAllocationStatsDto> getIdAllocatorStats() {
+        return ResponseEntity.ok(userIdAllocator.stats());
+    }
+
     @GetMapping("/{jobId}")
     public ResponseEntity<?> getJobStatus(@PathVariable String jobId) {
 
@@ -32,4 +69,40 @@ public class ImportUserJobController {
 
         return ResponseEntity.ok(jobInfo);
     }
+
+    /**
+     * Resumes a PAUSED, FAILED or orphaned import job from its last checkpoint.
+     * Rows already committed are skipped, so nothing is imported twice.
+     */
+    @PostMapping("/{jobId}/resume")
+    public ResponseEntity<?> resumeJob(@PathVariable String jobId) throws InterruptedException {
+        return accepted(userImportResumeService.resume(jobId));
+    }
+
+    /**
+     * Pauses a running import job at its next batch boundary (202: the job reports PAUSED shortly after).
+     */
+    @PostMapping("/{jobId}/pause")
+    public ResponseEntity<?> pauseJob(@PathVariable String jobId) {
+        return accepted(userImportControlService.pause(jobId));
+    }
+
+    /**
+     * Cancels an import job: a running job stops at its next batch boundary and releases its slot,
+     * a paused / failed job is cancelled right away. Rows committed so far are kept.
+     */
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<?> cancelJob(@PathVariable String jobId) {
+        return accepted(userImportControlService.cancel(jobId));
+    }
+
+    // 404 for unknown jobs, otherwise 202: the action takes effect asynchronously
+    private ResponseEntity<?> accepted(ImportUserJobInfoDto jobInfo) {
+        if (jobInfo == null) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("message", "Job not found"));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(jobInfo);
+    }
 }
@@ -4,6 +4,7 @@ package com.ishan.user_service.controller;
 import com.ishan.user_service.dto.UserDto;
 import com.ishan.user_service.model.User;
 import com.ishan.user_service.service.user.UserService;
+import com.ishan.user_service.specification.UserSearchCriteria;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -75,12 +76,17 @@ public class UserController {
     @GetMapping("/search")
     public ResponseEntity<?> searchUsers(@RequestParam (required = false) String name,
                                          @RequestParam (required = false) Integer age,
+                                         @RequestParam (required = false) Integer minAge,
+                                         @RequestParam (required = false) Integer maxAge,
                                          @RequestParam (required = false) String city,
                                          @RequestParam (required = false) String state,
+                                         // not passed -> active and soft-deleted users
+                                         @RequestParam (required = false) Boolean deleted,
                                          @RequestParam (defaultValue = "0") int page,
                                          @RequestParam (defaultValue = "10") int size){
         Pageable pageable = PageRequest.of(page, size);
-        Page<User> searchedUsers = userService.searchUsers(name, age, city, state, pageable);
+        UserSearchCriteria criteria = new UserSearchCriteria(name, age, minAge, maxAge, city, state, deleted);
+        Page<User> searchedUsers = userService.searchUsers(criteria, pageable);
 
         return ResponseEntity.ok(searchedUsers);
     }
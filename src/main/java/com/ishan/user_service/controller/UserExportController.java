@@ -1,20 +1,39 @@
 package com.ishan.user_service.controller;
 
+import com.ishan.user_service.customExceptions.TooManyRequestsException;
+import com.ishan.user_service.dto.ExportJobInfoDto;
+import com.ishan.user_service.service.exportPipeline.ExportCompressor;
+import com.ishan.user_service.service.exportPipeline.ExportEncoding;
+import com.ishan.user_service.service.job.ExportJobTrackerService;
+import com.ishan.user_service.service.user.UserExportAsyncService;
 import com.ishan.user_service.service.user.UserExportService;
+import com.ishan.user_service.specification.UserSearchCriteria;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/v1/users")
 public class UserExportController {
@@ -24,6 +43,19 @@ public class UserExportController {
     @Autowired
     private UserExportService userExportService;
 
+    @Autowired
+    private ExportCompressor exportCompressor;
+
+    @Autowired
+    private UserExportAsyncService userExportAsyncService;
+
+    @Autowired
+    private ExportJobTrackerService exportJobTrackerService;
+
+    // Where /exportCSV writes when no path is given (same folder as the export job files)
+    @Value("${export.jobs.output-dir:${java.io.tmpdir}/user-exports}")
+    private String exportOutputDir;
+
     /**
      * ✅ File-based CSV Export (Old Approach)
      *
@@ -37,13 +69,18 @@ public class UserExportController {
      * - Useful when you want the CSV stored locally on server machine
      *
      * ⚠️ Risk:
-     * - If implemented using findAll(), it can spike RAM heavily for millions of rows.
-     * - Streaming export is the production-friendly approach.
+     * - The client waits until the whole file is written (minutes for millions of rows).
+     * - For big tables use POST /exportCSV/jobs (background job + download) or the streaming export.
+     *
+     * path: folder ON THE SERVER, defaults to export.jobs.output-dir
      */
     @GetMapping("/exportCSV")
     public ResponseEntity<?> exportAllUsersToCSV(
-            @RequestParam(defaultValue = "C:\\Users\\Ishan Raghav\\Downloads") String path
+            @RequestParam(required = false) String path
     ) {
+        if (path == null || path.isBlank()) {
+            path = exportOutputDir;
+        }
 
         log.info("CSV file export requested. Path={}", path);
 
@@ -83,26 +120,185 @@ public class UserExportController {
      * - No SSD usage (no big temp file needed)
      * - Works smoothly for millions of records
      *
+     * parallel=true:
+     * - Same file, but several DB queries run at once (ParallelCsvExporter) -> much faster on big tables
+     * - Costs up to export.parallel.fetch-threads DB connections while it runs
+     *
+     * Filters (name, age, minAge/maxAge, city, state, deleted):
+     * - Same conditions as GET /search, applied in the DB with keyset pagination over the
+     *   matching users -> "state=Goa&minAge=30&maxAge=40" sends only those rows
+     *
+     * Compression (CSV of repeated city/state/domain strings shrinks ~5-8x):
+     * - Accept-Encoding: gzip / deflate -> compressed on the fly (Content-Encoding), the client
+     *   still saves a plain AllUsersCSV.csv (browsers and curl --compressed decode it)
+     * - gzip=true -> an AllUsersCSV.csv.gz file is downloaded instead, whatever Accept-Encoding says
+     * - Compression runs on its own thread, chunk by chunk (ExportCompressor), not on the thread
+     *   that runs the DB queries
+     *
      * Note:
      * - Postman normal "Send" may fail for huge responses due to size limits.
      * - Use Postman "Send and Download" OR test in browser.
      */
     @GetMapping("/exportCSV/stream")
-    public ResponseEntity<StreamingResponseBody> exportAllUsersToCSVStream() {
+    public ResponseEntity<StreamingResponseBody> exportAllUsersToCSVStream(
+            @RequestParam(defaultValue = "false") boolean parallel,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            // Same filters as GET /search, all optional (none -> every user, like before)
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) Integer age,
+            @RequestParam(required = false) Integer minAge,
+            @RequestParam(required = false) Integer maxAge,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String state,
+            // not passed -> active and soft-deleted users, false -> active only
+            @RequestParam(required = false) Boolean deleted,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
 
-        log.info("CSV streaming export requested.");
+        ExportEncoding encoding = gzip ? ExportEncoding.GZIP : ExportEncoding.negotiate(acceptEncoding);
+        UserSearchCriteria criteria = new UserSearchCriteria(name, age, minAge, maxAge, city, state, deleted);
+        log.info("CSV streaming export requested. parallel={} gzipFile={} encoding={} filters={}",
+                parallel, gzip, encoding, criteria);
 
         // StreamingResponseBody means Spring will keep writing to response as data is generated
         // instead of building the entire output in memory first.
         StreamingResponseBody body = outputStream -> {
             log.info("CSV streaming started...");
-            userExportService.streamUsersAsCsv(outputStream);
+            OutputStream out = exportCompressor.wrap(outputStream, encoding);
+            // nonClosing: the sequential export closes its writer (and with it the stream) even when it fails,
+            // which would write the trailer -> only this method decides between close() and abort()
+            OutputStream exportOut = StreamUtils.nonClosing(out);
+            try {
+                if (parallel) {
+                    userExportService.streamUsersAsCsvParallel(exportOut, criteria);
+                } else {
+                    userExportService.streamUsersAsCsv(exportOut, criteria);
+                }
+            } catch (RuntimeException | Error ex) {
+                // NO gzip/deflate trailer: the client must see a broken download, not a valid but truncated file
+                exportCompressor.abort(out);
+                throw ex;
+            }
+            // Only a complete export gets the trailer (written by close())
+            out.close();
             log.info("CSV streaming finished.");
         };
 
-        return ResponseEntity.ok()
+        if (gzip) {
+            // A .csv.gz FILE: no Content-Encoding, so the client keeps the bytes compressed
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"AllUsersCSV.csv.gz\"")
+                    .contentType(MediaType.parseMediaType("application/gzip"))
+                    .body(body);
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"AllUsersCSV.csv\"")
-                .contentType(MediaType.parseMediaType("text/csv"))
-                .body(body);
+                // Caches must not hand a gzip response to a client that did not ask for it
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.parseMediaType("text/csv"));
+        if (encoding != ExportEncoding.IDENTITY) {
+            response.header(HttpHeaders.CONTENT_ENCODING, encoding.headerValue());
+        }
+        return response.body(body);
+    }
+
+    /**
+     * ✅ Export as a JOB (best for huge exports when the client should not wait on an open connection)
+     *
+     * What it does:
+     * - Returns 202 + jobId immediately
+     * - The export runs on the export executor and writes a FILE on the server
+     *   (same CSV as /exportCSV/stream, same filters, gzip=true -> .csv.gz)
+     * - GET /exportCSV/jobs/{jobId} shows the progress, GET /exportCSV/jobs/{jobId}/file downloads it
+     *
+     * Why:
+     * - No HTTP connection held for minutes, no heap spike (keyset segments, bounded memory)
+     * - A dropped download can simply be retried: the file stays until export.jobs.retention-minutes
+     *
+     * Export executor full -> 429, the job is marked REJECTED.
+     */
+    @PostMapping("/exportCSV/jobs")
+    public ResponseEntity<?> startExportJob(
+            @RequestParam(defaultValue = "false") boolean gzip,
+            // Same filters as GET /search, all optional (none -> every user)
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) Integer age,
+            @RequestParam(required = false) Integer minAge,
+            @RequestParam(required = false) Integer maxAge,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String state,
+            @RequestParam(required = false) Boolean deleted
+    ) {
+        UserSearchCriteria criteria = new UserSearchCriteria(name, age, minAge, maxAge, city, state, deleted);
+        String jobId = exportJobTrackerService.createJob(criteria, gzip);
+
+        log.info("[EXPORT_JOB] Export job requested | jobId={} gzip={} filters={}", jobId, gzip, criteria.describe());
+
+        try {
+            userExportAsyncService.runExportAsync(jobId, criteria, gzip);
+        } catch (TaskRejectedException ex) {
+            exportJobTrackerService.markRejected(jobId, "Rejected: export executor saturated");
+            log.warn("[EXPORT_JOB] Export rejected, executor saturated | jobId={}", jobId);
+            throw new TooManyRequestsException("Too many export jobs are running or queued, retry later");
+        }
+
+        return ResponseEntity
+                .status(HttpStatus.ACCEPTED)
+                .body(Map.of(
+                        "jobId", jobId,
+                        "status", "PENDING",
+                        "statusUrl", "/api/v1/users/exportCSV/jobs/" + jobId,
+                        "message", "Export started. Use jobId to check status and download the file."
+                ));
+    }
+
+    @GetMapping("/exportCSV/jobs/{jobId}")
+    public ResponseEntity<?> getExportJobStatus(@PathVariable String jobId) {
+        ExportJobInfoDto jobInfo = exportJobTrackerService.getJobStatus(jobId);
+        if (jobInfo == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "Job not found"));
+        }
+        return ResponseEntity.ok(jobInfo);
+    }
+
+    /**
+     * Downloads the file of a COMPLETED export job.
+     * - 404: unknown job
+     * - 409: not finished yet (or failed) -> check the status
+     * - 410: expired, or the file is gone (e.g. it was written by another instance)
+     */
+    @GetMapping("/exportCSV/jobs/{jobId}/file")
+    public ResponseEntity<?> downloadExportJobFile(@PathVariable String jobId) {
+        ExportJobInfoDto jobInfo = exportJobTrackerService.getJobStatus(jobId);
+        if (jobInfo == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "Job not found"));
+        }
+        if (jobInfo.getStatus() != ExportJobInfoDto.ExportStatus.COMPLETED
+                && jobInfo.getStatus() != ExportJobInfoDto.ExportStatus.EXPIRED) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(notDownloadable(jobInfo));
+        }
+        Path file = exportJobTrackerService.findArtifact(jobId);
+        if (file == null) {
+            return ResponseEntity.status(HttpStatus.GONE).body(notDownloadable(jobInfo));
+        }
+
+        log.info("[EXPORT_JOB] Export file download | jobId={} file={}", jobId, file);
+
+        // FileSystemResource -> Spring copies the file to the response in chunks (and handles Range requests)
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + jobInfo.getFileName() + "\"")
+                .contentType(MediaType.parseMediaType(jobInfo.isGzip() ? "application/gzip" : "text/csv"))
+                .body(new FileSystemResource(file));
+    }
+
+    private static Map<String, Object> notDownloadable(ExportJobInfoDto jobInfo) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("jobId", jobInfo.getJobId());
+        body.put("status", jobInfo.getStatus());
+        body.put("message", jobInfo.getStatus() == ExportJobInfoDto.ExportStatus.COMPLETED
+                ? "Export file is no longer available"
+                : "Export file is not available: " + jobInfo.getMessage());
+        return body;
     }
 }
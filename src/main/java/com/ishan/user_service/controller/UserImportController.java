@@ -1,27 +1,40 @@
 package com.ishan.user_service.controller;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ishan.user_service.component.rateLimit.ImportJobCostTier;
 import com.ishan.user_service.component.rateLimit.ImportUsersRateLimitGuardService;
 import com.ishan.user_service.customExceptions.BatchLimitExceededException;
+import com.ishan.user_service.customExceptions.InvalidImportFileException;
+import com.ishan.user_service.customExceptions.TooManyRequestsException;
 import com.ishan.user_service.dto.UserDto;
-import com.ishan.user_service.mapper.UserMapperFromRandomToDto;
 import com.ishan.user_service.model.User;
 import com.ishan.user_service.service.MockUserGeneratorService;
 import com.ishan.user_service.service.RandomUserClientService;
+import com.ishan.user_service.service.UserGeneratorMode;
+import com.ishan.user_service.service.importPipeline.CsvUploadStagingService;
+import com.ishan.user_service.service.importPipeline.ImportJobOptions;
+import com.ishan.user_service.service.importPipeline.ImportPersistenceEngine;
+import com.ishan.user_service.service.importPipeline.LocalCsvFileService;
+import com.ishan.user_service.service.importPipeline.dedup.DuplicateEmailPolicy;
+import com.ishan.user_service.service.importPipeline.dedup.EmailDeduplicator;
 import com.ishan.user_service.service.job.ImportUserJobTrackerService;
 import com.ishan.user_service.service.user.UserImportAsyncService;
 import com.ishan.user_service.service.user.UserImportService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 
@@ -54,13 +67,11 @@ public class UserImportController {
 
     private final ImportUsersRateLimitGuardService rateLimitGuardService;
 
-    /**
-     * ObjectMapper is used to convert raw JSON text into
-     * a navigable JSON tree (JsonNode).
-     * We are using manual parsing instead of direct binding
-     * to understand how JSON traversal actually works.
-     */
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CsvUploadStagingService csvUploadStagingService;
+
+    private final LocalCsvFileService localCsvFileService;
+
+    private final EmailDeduplicator emailDeduplicator;
 
     /**
      * Constructor injection ensures:
@@ -69,10 +80,13 @@ public class UserImportController {
      * - Avoids field injection pitfalls
      */
     public UserImportController(UserImportService userImportService,
-                                RandomUserClientService randomUserClientService, MockUserGeneratorService mockUserGeneratorService, ImportUserJobTrackerService importUserJobTrackerService, UserImportAsyncService userImportAsyncService, ImportUsersRateLimitGuardService rateLimitGuardService) {
+                                RandomUserClientService randomUserClientService, MockUserGeneratorService mockUserGeneratorService, ImportUserJobTrackerService importUserJobTrackerService, UserImportAsyncService userImportAsyncService, ImportUsersRateLimitGuardService rateLimitGuardService, CsvUploadStagingService csvUploadStagingService, LocalCsvFileService localCsvFileService, EmailDeduplicator emailDeduplicator) {
         this.importUserJobTrackerService = importUserJobTrackerService;
         this.userImportAsyncService = userImportAsyncService;
         this.rateLimitGuardService = rateLimitGuardService;
+        this.csvUploadStagingService = csvUploadStagingService;
+        this.localCsvFileService = localCsvFileService;
+        this.emailDeduplicator = emailDeduplicator;
 
         log.info("UserImportController Constructor Called");
         this.userImportService = userImportService;
@@ -86,54 +100,51 @@ public class UserImportController {
      * - This operation creates a new resource in our database
      * - It has side effects
      * - Each call results in a new user being created
+     *
+     * Why Mono?
+     * - Spring MVC treats a Mono return value like a DeferredResult: the Tomcat thread is
+     *   released while RandomUser answers, and the response is written once the Mono completes
+     * - A slow upstream no longer holds one Tomcat thread per waiting request
+     * - The JPA save is blocking -> it runs on boundedElastic, never on a Netty event-loop thread
      */
     @PostMapping("/import")
-    public ResponseEntity<?> importUserFromExternalSource() throws JsonProcessingException {
+    public Mono<ResponseEntity<?>> importUserFromExternalSource() {
 
         log.info("importUserFromExternalSource invoked");
 
-        // STEP 1: Call the third-party API and get raw JSON response
-        String fetchRandomUserRaw = randomUserClientService.fetchRandomUsersRaw();
-
-        // STEP 2: Parse the JSON string into a navigable JSON tree
-        JsonNode navigableTree = objectMapper.readTree(fetchRandomUserRaw);
-
-        // STEP 3: Navigate to the first user inside the "results" array
-        JsonNode userRawData = navigableTree.get("results").get(0);
-
-        // STEP 4: Convert raw JSON data into a UserDto
-        UserDto userDto = UserMapperFromRandomToDto.convertRandomUserToUserDto(userRawData);
-
-        // STEP 5: Persist the user and get the saved entity
-        User user = userImportService.importSingleUserFromExternalSource(userDto);
-
         /**
-         * STEP 6: Build the Location URI for the newly created resource
+         * Build the Location URI template NOW, on the request thread:
          * ServletUriComponentsBuilder.fromCurrentRequest()
          * - Takes the current request URL:
          *   /api/v1/users/import
+         * - Reads it from a ThreadLocal, which is gone on the thread that completes the Mono
          * .path("/{id}")
          * - Appends a path variable placeholder
-         * .buildAndExpand(user.getId())
-         * - Replaces {id} with the actual generated user ID
+         * Later .buildAndExpand(user.getId()) replaces {id} with the actual generated user ID
          * Resulting URI example:
          * http://localhost:8080/api/v1/users/import/15
          * This URI is returned in the Location header
          * as per REST standards for resource creation.
          */
-        URI uriLocation = ServletUriComponentsBuilder
-                        .fromCurrentRequest()
-                        .path("/{id}")
-                        .buildAndExpand(user.getId())
-                        .toUri();
-
-        /**
-         * Return:
-         * - HTTP 201 Created
-         * - Location header pointing to the newly created resource
-         * - Response body (for learning/visibility)
-         */
-        return ResponseEntity.created(uriLocation).body("User Created Successfully! " + user);
+        UriComponentsBuilder location = ServletUriComponentsBuilder
+                .fromCurrentRequest()
+                .path("/{id}");
+
+        // STEP 1-4: Call the third-party API, the first user of "results" is decoded straight into a UserDto
+        return randomUserClientService.fetchRandomUser()
+                // STEP 5: Persist the user and get the saved entity (blocking JPA -> worker thread)
+                .publishOn(Schedulers.boundedElastic())
+                .<ResponseEntity<?>>map(userDto -> {
+                    User user = userImportService.importSingleUserFromExternalSource(userDto);
+                    URI uriLocation = location.buildAndExpand(user.getId()).toUri();
+                    /**
+                     * Return:
+                     * - HTTP 201 Created
+                     * - Location header pointing to the newly created resource
+                     * - Response body (for learning/visibility)
+                     */
+                    return ResponseEntity.created(uriLocation).body("User Created Successfully! " + user);
+                });
     }
 
 
@@ -157,49 +168,40 @@ public class UserImportController {
      * - Prevents accidental large imports
      */
     @PostMapping("/import/batch")
-    public ResponseEntity<?> importMultipleUsersFromExternalSource(@RequestParam(defaultValue = "10") int count) throws JsonProcessingException {
+    public Mono<ResponseEntity<?>> importMultipleUsersFromExternalSource(@RequestParam(defaultValue = "10") int count) {
         long startTime = System.currentTimeMillis();
         log.info("importMultipleUsersFromExternalSource invoked");
         //fall_back mechanism
-        try {
-            if(count > 5000){
-                log.warn("Batch Limit Exceeded {}, count more than 5000", count);
-                throw new BatchLimitExceededException("Count size cannot be more than 5000");
-            }
-
-            // STEP 1: Call external API to fetch 'count' users in ONE request
-            // Example URL generated internally:
-            // https://randomuser.me/api/?results=10&nat=us,ca,au,gb,in
-            String multipleRandomUsersRaw =
-                    randomUserClientService.fetchMultipleRandomUsersRaw(count);
-
-            // STEP 2: Convert raw JSON String into a navigable JSON tree
-            JsonNode navigableTree =
-                    objectMapper.readTree(multipleRandomUsersRaw);
-
-            // STEP 3: Extract the "results" array from the response
-            // This array contains multiple user objects
-            JsonNode rawUsersDataArray =
-                    navigableTree.get("results");
-            log.info("RESULTS SIZE FROM API {}",rawUsersDataArray.size());
-            // STEP 4: Convert JSON array → List<UserDto> using mapper
-            // Mapper is responsible ONLY for data transformation
-            List<UserDto> userDtoList =
-                    UserMapperFromRandomToDto.convertRandomUsersToUserDtoList(rawUsersDataArray);
-            log.info("DTO List SIZE After Conversion {}",userDtoList.size());
-            // STEP 5: Persist all users in a single transaction using saveAll()
-            // If any insert fails, the entire batch is rolled back
-            userImportService.importMultipleUsersFromExternalSource(userDtoList);
-
-            return ResponseEntity
-                    .status(HttpStatus.CREATED)
-                    .body("Multiple Users " + userDtoList.size() + " total Users added");
-        } finally {
-            long endTime = System.currentTimeMillis();
-            double executionTimeInSeconds = (endTime - startTime) / 1000.0;
-            log.info("importMultipleUsersFromExternalSource completed in {} seconds", executionTimeInSeconds);
+        if(count > 5000){
+            log.warn("Batch Limit Exceeded {}, count more than 5000", count);
+            throw new BatchLimitExceededException("Count size cannot be more than 5000, use POST /api/v1/users/import/external/async for bigger imports");
         }
 
+        // STEP 1-4: Call external API to fetch 'count' users in ONE request
+        // Example URL generated internally:
+        // https://randomuser.me/api/?results=10&nat=us,ca,au,gb,in
+        // The response is decoded incrementally (streaming JsonParser) straight into UserDtos:
+        // no raw String and no JsonNode tree of the whole payload any more.
+        // Returned as a Mono (no .block()): the Tomcat thread is free while RandomUser answers
+        return randomUserClientService.fetchMultipleRandomUsers(count)
+                .collectList()
+                // STEP 5: Persist all users in a single transaction using saveAll()
+                // If any insert fails, the entire batch is rolled back
+                // Blocking JPA -> worker thread, never the Netty event loop
+                .publishOn(Schedulers.boundedElastic())
+                .<ResponseEntity<?>>map(userDtoList -> {
+                    log.info("DTO List SIZE After Conversion {}",userDtoList.size());
+                    userImportService.importMultipleUsersFromExternalSource(userDtoList);
+                    return ResponseEntity
+                            .status(HttpStatus.CREATED)
+                            .body("Multiple Users " + userDtoList.size() + " total Users added");
+                })
+                .doFinally(signal -> {
+                    long endTime = System.currentTimeMillis();
+                    double executionTimeInSeconds = (endTime - startTime) / 1000.0;
+                    log.info("importMultipleUsersFromExternalSource completed in {} seconds", executionTimeInSeconds);
+                });
+
     }
 
     @PostMapping("/import/fake")
@@ -238,23 +240,46 @@ public class UserImportController {
     }
 
     @PostMapping("/import/async")
-    public ResponseEntity<?> importMultipleUsersFromFakerLibraryWithAsyncJob(@RequestHeader("X-USER-ID") String userId, @RequestParam(defaultValue = "10") int count) throws InterruptedException {
+    public ResponseEntity<?> importMultipleUsersFromFakerLibraryWithAsyncJob(@RequestHeader("X-USER-ID") String userId,
+                                                                             @RequestParam(defaultValue = "10") int count,
+                                                                             // JPA (Hibernate saveAll), JDBC (plain batch INSERT), BULK_LOAD (native loader) or UPSERT (merge by email)
+                                                                             // Not passed -> JPA, or JDBC for XL jobs; BULK_LOAD only when asked for
+                                                                             @RequestParam(required = false) ImportPersistenceEngine engine,
+                                                                             // Same seed + same count = same users (reproducible load tests)
+                                                                             @RequestParam(required = false) Long seed,
+                                                                             // FAKER (richer data) or DICTIONARY (many times faster generation)
+                                                                             @RequestParam(defaultValue = "FAKER") UserGeneratorMode generator,
+                                                                             // Duplicate emails: ALLOW (no check), SKIP, SUFFIX or FAIL; not passed -> import.dedup.default-policy
+                                                                             @RequestParam(required = false) DuplicateEmailPolicy duplicates) throws InterruptedException {
+
+        // BULK_LOAD on a DB that cannot do it -> 400 now, not a FAILED job later
+        checkEngineAvailable(engine);
 
         //Rate Limit Check
         rateLimitGuardService.checkIfAllowed(userId, count);
 
         //Determine the Job Tier (S,M,L OR XL)
         ImportJobCostTier tier = ImportJobCostTier.fromCount(count);
+        if (engine == null) {
+            engine = ImportPersistenceEngine.defaultFor(tier);
+        }
+
+        // No seed requested -> pick one now: it is stored with the job, so the same data set
+        // can be generated again (load-test reproduction, and resuming after a restart)
+        ImportJobOptions options = new ImportJobOptions(engine, generator,
+                seed != null ? seed : mockUserGeneratorService.randomSeed())
+                .withDuplicates(emailDeduplicator.resolve(duplicates));
 
         //Create Job ID
-        String jobId = importUserJobTrackerService.createJob(userId, count);
+        String jobId = importUserJobTrackerService.createJob(userId, count, options);
 
         //Mark Job started
         rateLimitGuardService.markJobStarted(userId, jobId, tier);
 
-        log.info("[CREATE_USER_ASYNC] Faker import requested | jobId={} requestedCount={}", jobId, count);
+        log.info("[CREATE_USER_ASYNC] Faker import requested | jobId={} requestedCount={} engine={} generator={} seed={} duplicates={}",
+                jobId, count, engine, generator, options.seed(), options.duplicates());
 
-        userImportAsyncService.runFakerImportAsync(userId,jobId,count, tier);
+        runImportOrReject("CREATE_USER_ASYNC", userId, jobId, count, tier, options, null);
 
         return ResponseEntity
                 .status(HttpStatus.ACCEPTED)
@@ -266,4 +291,191 @@ public class UserImportController {
 
     }
 
+    /**
+     * Imports count RandomUser users as an async job, beyond the API's 5000 users per request.
+     * The job is split into seeded pages fetched CONCURRENTLY (import.random-user.concurrency),
+     * each page retried with jittered backoff, and streamed in page order into the same batched
+     * pipeline as the Faker import: progress, pause/cancel and resume work the same way.
+     * Status: GET /api/v1/jobs/{jobId}
+     */
+    @PostMapping("/import/external/async")
+    public ResponseEntity<?> importUsersFromExternalSourceWithAsyncJob(@RequestHeader("X-USER-ID") String userId,
+                                                                       @RequestParam(defaultValue = "10") int count,
+                                                                       // Not passed -> JPA, or JDBC for XL jobs; BULK_LOAD only when asked for
+                                                                       @RequestParam(required = false) ImportPersistenceEngine engine,
+                                                                       // Same seed + same count = same users (RandomUser seeds its data too)
+                                                                       @RequestParam(required = false) Long seed,
+                                                                       @RequestParam(required = false) DuplicateEmailPolicy duplicates) throws InterruptedException {
+
+        checkEngineAvailable(engine);
+
+        //Rate Limit Check
+        rateLimitGuardService.checkIfAllowed(userId, count);
+
+        ImportJobCostTier tier = ImportJobCostTier.fromCount(count);
+        if (engine == null) {
+            engine = ImportPersistenceEngine.defaultFor(tier);
+        }
+        // Stored with the job: a resume fetches the missing pages of the SAME data set
+        ImportJobOptions options = ImportJobOptions.randomUser(engine,
+                seed != null ? seed : mockUserGeneratorService.randomSeed())
+                .withDuplicates(emailDeduplicator.resolve(duplicates));
+
+        String jobId = importUserJobTrackerService.createJob(userId, count, options);
+        rateLimitGuardService.markJobStarted(userId, jobId, tier);
+
+        log.info("[CREATE_USER_EXTERNAL] RandomUser import requested | jobId={} requestedCount={} engine={} seed={}",
+                jobId, count, engine, options.seed());
+
+        runImportOrReject("CREATE_USER_EXTERNAL", userId, jobId, count, tier, options, null);
+
+        return ResponseEntity
+                .status(HttpStatus.ACCEPTED)
+                .body(Map.of(
+                        "jobId", jobId,
+                        "status", "PENDING",
+                        "message", "RandomUser import started. Use jobId to check status."
+                ));
+    }
+
+    /**
+     * Imports a CSV in our export layout (id,name,age,gender,city,state,email,mobile) as an async job
+     * -> moving users between environments without going through Faker / RandomUser.
+     * The upload is staged on disk (never held in the heap) and then STREAMED through the same
+     * batched pipeline as the Faker import: progress, pause/cancel and resume work the same way.
+     * Status: GET /api/v1/jobs/{jobId}
+     */
+    @PostMapping(value = "/import/csv", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> importUsersFromCsvUpload(@RequestHeader("X-USER-ID") String userId,
+                                                      @RequestParam("file") MultipartFile file,
+                                                      // Not passed -> JPA, or JDBC for XL files; BULK_LOAD only when asked for
+                                                      @RequestParam(required = false) ImportPersistenceEngine engine,
+                                                      @RequestParam(required = false) DuplicateEmailPolicy duplicates) throws IOException, InterruptedException {
+
+        // Checked before staging: nothing to clean up when the engine is unavailable
+        checkEngineAvailable(engine);
+
+        // Bad header -> 400, nothing staged
+        CsvUploadStagingService.StagedCsvFile stagedFile = csvUploadStagingService.stage(file);
+        String stagedPath = stagedFile.path().toString();
+
+        //Row count check + Rate Limit Check (tier from the estimated row count)
+        int count;
+        try {
+            count = importRowCount(stagedFile.estimatedRows());
+            rateLimitGuardService.checkIfAllowed(userId, count);
+        } catch (RuntimeException ex) {
+            csvUploadStagingService.discard(stagedPath);
+            throw ex;
+        }
+
+        ImportJobCostTier tier = ImportJobCostTier.fromCount(count);
+        if (engine == null) {
+            engine = ImportPersistenceEngine.defaultFor(tier);
+        }
+        ImportJobOptions options = ImportJobOptions.csvUpload(engine, stagedPath)
+                .withDuplicates(emailDeduplicator.resolve(duplicates));
+
+        String jobId = importUserJobTrackerService.createJob(userId, count, options);
+        rateLimitGuardService.markJobStarted(userId, jobId, tier);
+
+        log.info("[CREATE_USER_CSV] CSV import requested | jobId={} file={} estimatedRows={} engine={}",
+                jobId, file.getOriginalFilename(), count, engine);
+
+        // Rejected -> the staged upload is deleted too, no job will ever read it
+        runImportOrReject("CREATE_USER_CSV", userId, jobId, count, tier, options,
+                () -> csvUploadStagingService.discard(stagedPath));
+
+        return ResponseEntity
+                .status(HttpStatus.ACCEPTED)
+                .body(Map.of(
+                        "jobId", jobId,
+                        "status", "PENDING",
+                        "estimatedRows", count,
+                        "message", "CSV import started. Use jobId to check status."
+                ));
+    }
+
+    /**
+     * Imports a CSV that is already on the server (nightly drop) as an async job.
+     * file is relative to import.local-file.base-dir; the file is memory-mapped and parsed
+     * in parallel chunks (MappedCsvUserImportSource), nothing is uploaded and the file is not deleted.
+     * Status: GET /api/v1/jobs/{jobId}
+     */
+    @PostMapping("/import/local")
+    public ResponseEntity<?> importUsersFromLocalCsvFile(@RequestHeader("X-USER-ID") String userId,
+                                                         @RequestParam String file,
+                                                         // Not passed -> JPA, or JDBC for XL files; BULK_LOAD only when asked for
+                                                         @RequestParam(required = false) ImportPersistenceEngine engine,
+                                                         @RequestParam(required = false) DuplicateEmailPolicy duplicates) throws IOException, InterruptedException {
+
+        checkEngineAvailable(engine);
+
+        // Outside the import directory / missing -> 400
+        Path localFile = localCsvFileService.resolve(file);
+        int count = importRowCount(localCsvFileService.estimateRows(localFile));
+
+        //Rate Limit Check (tier from the estimated row count)
+        rateLimitGuardService.checkIfAllowed(userId, count);
+
+        ImportJobCostTier tier = ImportJobCostTier.fromCount(count);
+        if (engine == null) {
+            engine = ImportPersistenceEngine.defaultFor(tier);
+        }
+        ImportJobOptions options = ImportJobOptions.localFile(engine, localFile.toString())
+                .withDuplicates(emailDeduplicator.resolve(duplicates));
+
+        String jobId = importUserJobTrackerService.createJob(userId, count, options);
+        rateLimitGuardService.markJobStarted(userId, jobId, tier);
+
+        log.info("[CREATE_USER_LOCAL] Local CSV import requested | jobId={} file={} estimatedRows={} engine={}",
+                jobId, localFile, count, engine);
+
+        runImportOrReject("CREATE_USER_LOCAL", userId, jobId, count, tier, options, null);
+
+        return ResponseEntity
+                .status(HttpStatus.ACCEPTED)
+                .body(Map.of(
+                        "jobId", jobId,
+                        "status", "PENDING",
+                        "estimatedRows", count,
+                        "message", "Local CSV import started. Use jobId to check status."
+                ));
+    }
+
+    /**
+     * Submits the job to the import executor.
+     * Executor saturated (all workers busy + queue full) -> undo the rate-limit slot and the job
+     * (REJECTED), run onRejected (may be null) and answer 429 like the rate limiter.
+     */
+    private void runImportOrReject(String logTag, String userId, String jobId, int count,
+                                   ImportJobCostTier tier, ImportJobOptions options, Runnable onRejected) throws InterruptedException {
+        try {
+            userImportAsyncService.runImportAsync(userId, jobId, count, tier, options);
+        } catch (TaskRejectedException ex) {
+            rateLimitGuardService.markJobFinished(userId, jobId, tier);
+            importUserJobTrackerService.markRejected(jobId, "Rejected: import executor saturated");
+            if (onRejected != null) {
+                onRejected.run();
+            }
+            log.warn("[{}] Import rejected, executor saturated | jobId={} count={}", logTag, jobId, count);
+            throw new TooManyRequestsException("Too many import jobs are running or queued, retry later");
+        }
+    }
+
+    // Jobs count rows in an int: a file estimated beyond that -> 400 (Math.toIntExact would have been a 500)
+    private static int importRowCount(long estimatedRows) {
+        if (estimatedRows > Integer.MAX_VALUE) {
+            throw new InvalidImportFileException("File too large: about " + estimatedRows
+                    + " rows, at most " + Integer.MAX_VALUE + " rows per import job");
+        }
+        return (int) estimatedRows;
+    }
+
+    // Only an engine the client asked for needs checking: the defaults (JPA / JDBC) run everywhere
+    private void checkEngineAvailable(ImportPersistenceEngine engine) {
+        if (engine != null) {
+            userImportAsyncService.checkEngineAvailable(engine);
+        }
+    }
 }
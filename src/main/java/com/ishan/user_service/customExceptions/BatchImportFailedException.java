@@ -0,0 +1,21 @@
+package com.ishan.user_service.customExceptions;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a batched import stops half-way.
+ * Carries exactly which batches were committed before the failure,
+ * because with REQUIRES_NEW per batch those rows stay in the DB.
+ */
+@Getter
+public class BatchImportFailedException extends RuntimeException{
+
+    private final long committedBatchCount;
+    private final String committedBatches;
+
+    public BatchImportFailedException(String message, long committedBatchCount, String committedBatches, Throwable cause) {
+        super(message + " | committedBatchCount=" + committedBatchCount + " committedBatches=" + committedBatches, cause);
+        this.committedBatchCount = committedBatchCount;
+        this.committedBatches = committedBatches;
+    }
+}
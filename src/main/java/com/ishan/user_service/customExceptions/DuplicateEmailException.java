@@ -0,0 +1,12 @@
+package com.ishan.user_service.customExceptions;
+
+/**
+ * An import job with DuplicateEmailPolicy.FAIL met an email that already exists
+ * (or SUFFIX could not find a free variant). Fails the job, committed batches stay.
+ */
+public class DuplicateEmailException extends RuntimeException {
+
+    public DuplicateEmailException(String message) {
+        super(message);
+    }
+}
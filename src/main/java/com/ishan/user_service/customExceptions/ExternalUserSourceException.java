@@ -0,0 +1,16 @@
+package com.ishan.user_service.customExceptions;
+
+/**
+ * The external user source (RandomUser) failed or answered something we cannot use.
+ * Not the client's fault -> 502 Bad Gateway.
+ */
+public class ExternalUserSourceException extends RuntimeException{
+
+    public ExternalUserSourceException(String message){
+        super(message);
+    }
+
+    public ExternalUserSourceException(String message, Throwable cause){
+        super(message, cause);
+    }
+}
@@ -0,0 +1,9 @@
+package com.ishan.user_service.customExceptions;
+
+// The requested persistence engine cannot run on this database / server configuration (e.g. BULK_LOAD without local_infile)
+public class ImportEngineUnavailableException extends RuntimeException{
+
+    public ImportEngineUnavailableException(String message){
+        super(message);
+    }
+}
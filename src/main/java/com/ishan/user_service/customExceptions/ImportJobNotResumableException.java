@@ -0,0 +1,8 @@
+package com.ishan.user_service.customExceptions;
+
+public class ImportJobNotResumableException extends RuntimeException{
+
+    public ImportJobNotResumableException(String jobId, String reason){
+        super("Import job " + jobId + " cannot be resumed: " + reason);
+    }
+}
@@ -0,0 +1,8 @@
+package com.ishan.user_service.customExceptions;
+
+public class ImportJobStateConflictException extends RuntimeException{
+
+    public ImportJobStateConflictException(String jobId, String action, String reason){
+        super("Import job " + jobId + " cannot be " + action + ": " + reason);
+    }
+}
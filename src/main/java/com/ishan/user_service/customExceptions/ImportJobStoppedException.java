@@ -0,0 +1,24 @@
+package com.ishan.user_service.customExceptions;
+
+import com.ishan.user_service.service.job.ImportControlRequest;
+import lombok.Getter;
+
+/**
+ * Thrown by the import pipeline when an operator paused / cancelled the job.
+ * Not a failure: the batches committed so far stay in the DB (and in the checkpoint table).
+ */
+@Getter
+public class ImportJobStoppedException extends RuntimeException{
+
+    private final ImportControlRequest request;
+    private final long committedRows;
+    private final long committedBatchCount;
+
+    public ImportJobStoppedException(ImportControlRequest request, long committedRows, long committedBatchCount, String committedBatches) {
+        super("Import stopped on " + request + " request | committedRows=" + committedRows
+                + " committedBatchCount=" + committedBatchCount + " committedBatches=" + committedBatches);
+        this.request = request;
+        this.committedRows = committedRows;
+        this.committedBatchCount = committedBatchCount;
+    }
+}
@@ -0,0 +1,8 @@
+package com.ishan.user_service.customExceptions;
+
+public class InvalidImportFileException extends RuntimeException{
+
+    public InvalidImportFileException(String message){
+        super(message);
+    }
+}
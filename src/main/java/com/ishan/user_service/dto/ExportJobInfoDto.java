@@ -0,0 +1,67 @@
+package com.ishan.user_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Status of an async CSV export job (POST /api/v1/users/exportCSV/jobs).
+ * Why this DTO exists:
+ * - The export runs in the background and writes a FILE on the server, not the HTTP response
+ * - Client gets a jobId, polls this status and downloads the file once it is COMPLETED
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExportJobInfoDto {
+
+    String jobId;
+    ExportStatus status;
+    // Filters the export was started with (same as GET /search), e.g. "state=Goa, minAge=30"
+    String filters;
+    boolean gzip;
+    // Matching users when the export started (0 until the job runs) + users written so far
+    long totalCount;
+    long exportedCount;
+    // Set once COMPLETED: name the download gets + size of the file on disk
+    String fileName;
+    Long fileSizeBytes;
+    // GET here once COMPLETED (null before)
+    String downloadUrl;
+    String message;
+    @JsonFormat(
+            shape = JsonFormat.Shape.STRING,
+            pattern = "dd-MM-yyyy HH:mm:ss",
+            timezone = "Asia/Kolkata"
+    )
+    LocalDateTime startedAt;
+    @JsonFormat(
+            shape = JsonFormat.Shape.STRING,
+            pattern = "dd-MM-yyyy HH:mm:ss",
+            timezone = "Asia/Kolkata"
+    )
+    LocalDateTime finishedAt;
+
+    /**
+     * Possible states of an export job.
+     * - PENDING: waiting for an export executor worker
+     * - IN_PROGRESS: writing the file
+     * - COMPLETED: file ready for download
+     * - FAILED: stopped due to an error, no file
+     * - REJECTED: never started, the export executor was saturated (client got 429)
+     * - EXPIRED: older than export.jobs.retention-minutes, its file is deleted
+     */
+    public enum ExportStatus {
+        PENDING, IN_PROGRESS, COMPLETED, FAILED, REJECTED, EXPIRED;
+
+        // No worker will touch the job any more
+        public boolean isFinal() {
+            return this != PENDING && this != IN_PROGRESS;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.ishan.user_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Snapshot of the in-memory user ID allocator (JDBC / BULK_LOAD engines).
+ * refillWaits growing fast -> blocks are too small (raise import.id-allocation.block-size);
+ * avgDbReservationMillis high -> the id_generator row is contended (other nodes / JPA imports).
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class IdAllocationStatsDto {
+
+    // Batches served from memory and the IDs they took
+    long allocations;
+    long allocatedIds;
+    double avgAllocationMicros;
+    double maxAllocationMicros;
+
+    // Writers that found their block exhausted and had to wait for a refill (contention)
+    long refillWaits;
+
+    // Round trips to id_generator and the IDs they reserved
+    long dbReservations;
+    long reservedIds;
+    double avgDbReservationMillis;
+
+    // Reserved, not handed out yet
+    long availableIds;
+}
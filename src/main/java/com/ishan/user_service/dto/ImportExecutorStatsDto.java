@@ -0,0 +1,28 @@
+package com.ishan.user_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Snapshot of the dedicated import executor.
+ * queuedJobs close to queueCapacity -> new imports will soon get 429;
+ * rejectedJobs growing -> concurrency / queue-capacity are too small for the traffic.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportExecutorStatsDto {
+
+    // PLATFORM or VIRTUAL job threads
+    String threadMode;
+    int concurrency;
+    int activeJobs;
+    int queuedJobs;
+    int queueCapacity;
+    int remainingQueueCapacity;
+    long completedJobs;
+    long rejectedJobs;
+}
@@ -1,12 +1,14 @@
 package com.ishan.user_service.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.ishan.user_service.service.importPipeline.dedup.EmailDedupStats;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Represents the status of a long-running user import job.
@@ -25,6 +27,27 @@ public class ImportUserJobInfoDto {
     ImportStatus status;
     long requestedCount;
     long processedCount;
+    // Batches committed so far, e.g. "0-41,43-57" -> exact picture even if the job fails half-way
+    long committedBatchCount;
+    String committedBatches;
+    // Persistence engine (JPA / JDBC / BULK_LOAD) and insert speed -> compare engines job by job
+    String engine;
+    long rowsPerSecond;
+    // Batch size chosen by the adaptive controller + its latest decisions (why it grew / shrank)
+    int currentBatchSize;
+    List<String> batchSizeHistory;
+    // Where the users come from (GENERATED / CSV_UPLOAD / LOCAL_FILE / RANDOM_USER)
+    String source;
+    // Generator (FAKER / DICTIONARY) + seed -> same generator, seed and count regenerate the same users
+    String generatorMode;
+    Long seed;
+    // What happens to duplicate emails (ALLOW / SKIP / SUFFIX / FAIL) + this run's counters (null until checked)
+    String duplicatePolicy;
+    EmailDedupStats dedup;
+    // Fair scheduling (FairImportScheduler): place in line right now (0 = not waiting) + total time spent waiting
+    // PENDING -> place among jobs waiting for an executor worker; IN_PROGRESS -> among jobs waiting to commit a batch
+    Integer queuePosition;
+    Long waitTimeMs;
     String message;
     @JsonFormat(
             shape = JsonFormat.Shape.STRING,
@@ -44,9 +67,12 @@ public class ImportUserJobInfoDto {
      * - IN_PROGRESS: job is running
      * - COMPLETED: job finished successfully
      * - FAILED: job stopped due to error
+     * - PAUSED: stopped by an operator, can be resumed from its checkpoint
+     * - CANCELLED: stopped by an operator for good
+     * - REJECTED: never started, the import executor was saturated (client got 429)
      */
     public enum ImportStatus{
-        IN_PROGRESS, COMPLETED, FAILED, PENDING
+        IN_PROGRESS, COMPLETED, FAILED, PENDING, PAUSED, CANCELLED, REJECTED
     }
 }
 
@@ -10,6 +10,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.reactive.function.client.WebClientException;
 
 import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
@@ -134,6 +136,83 @@ public class GlobalExceptionHandler {
 
     }
 
+    @ExceptionHandler(ImportJobNotResumableException.class)
+    public ResponseEntity<?> handleImportJobNotResumableException(Exception exception, HttpServletRequest request){
+        Map<String, Object> errorResponse = new LinkedHashMap<>();
+        errorResponse.put("timestamp", LocalDateTime.now());
+        errorResponse.put("status", HttpStatus.CONFLICT.value());
+        errorResponse.put("error", "Import Job Cannot Be Resumed");
+        errorResponse.put("message", exception.getMessage());
+        errorResponse.put("path", request.getRequestURI());
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+
+    @ExceptionHandler(ImportJobStateConflictException.class)
+    public ResponseEntity<?> handleImportJobStateConflictException(Exception exception, HttpServletRequest request){
+        Map<String, Object> errorResponse = new LinkedHashMap<>();
+        errorResponse.put("timestamp", LocalDateTime.now());
+        errorResponse.put("status", HttpStatus.CONFLICT.value());
+        errorResponse.put("error", "Import Job State Conflict");
+        errorResponse.put("message", exception.getMessage());
+        errorResponse.put("path", request.getRequestURI());
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+
+    @ExceptionHandler(InvalidImportFileException.class)
+    public ResponseEntity<?> handleInvalidImportFileException(Exception exception, HttpServletRequest request){
+        Map<String, Object> errorResponse = new LinkedHashMap<>();
+        errorResponse.put("timestamp", LocalDateTime.now());
+        errorResponse.put("status", HttpStatus.BAD_REQUEST.value());
+        errorResponse.put("error", "Invalid Import File");
+        errorResponse.put("message", exception.getMessage());
+        errorResponse.put("path", request.getRequestURI());
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    // CSV upload bigger than import.csv-upload.max-file-size (other endpoints are cut off earlier by UploadSizeLimitFilter)
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<?> handleMaxUploadSizeExceededException(Exception exception, HttpServletRequest request){
+        Map<String, Object> errorResponse = new LinkedHashMap<>();
+        errorResponse.put("timestamp", LocalDateTime.now());
+        errorResponse.put("status", HttpStatus.PAYLOAD_TOO_LARGE.value());
+        errorResponse.put("error", "Upload Too Large");
+        errorResponse.put("message", exception.getMessage());
+        errorResponse.put("path", request.getRequestURI());
+
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(errorResponse);
+    }
+
+    // e.g. engine=BULK_LOAD while the MySQL server has local_infile OFF -> pick another engine
+    @ExceptionHandler(ImportEngineUnavailableException.class)
+    public ResponseEntity<?> handleImportEngineUnavailableException(Exception exception, HttpServletRequest request){
+        Map<String, Object> errorResponse = new LinkedHashMap<>();
+        errorResponse.put("timestamp", LocalDateTime.now());
+        errorResponse.put("status", HttpStatus.BAD_REQUEST.value());
+        errorResponse.put("error", "Import Engine Unavailable");
+        errorResponse.put("message", exception.getMessage());
+        errorResponse.put("path", request.getRequestURI());
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    // WebClientException: RandomUser unreachable, timed out or answered 4xx/5xx to a reactive import call
+    @ExceptionHandler({ExternalUserSourceException.class, WebClientException.class})
+    public ResponseEntity<?> handleExternalUserSourceException(Exception exception, HttpServletRequest request){
+        log.warn("[EXTERNAL_SOURCE_FAILED] {}", exception.getMessage());
+
+        Map<String, Object> errorResponse = new LinkedHashMap<>();
+        errorResponse.put("timestamp", LocalDateTime.now());
+        errorResponse.put("status", HttpStatus.BAD_GATEWAY.value());
+        errorResponse.put("error", "External User Source Failed");
+        errorResponse.put("message", exception.getMessage());
+        errorResponse.put("path", request.getRequestURI());
+
+        return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(errorResponse);
+    }
+
     @ExceptionHandler(UserIsActiveException.class)
     public ResponseEntity<?> handleUserIsActiveException(Exception exception, HttpServletRequest request){
         Map<String, Object> errorResponse = new LinkedHashMap<>();
@@ -3,8 +3,6 @@ package com.ishan.user_service.mapper;
 import com.ishan.user_service.dto.UserDto;
 import com.ishan.user_service.model.User;
 
-import java.util.Objects;
-
 public class UserDtoToUserMapper {
 
     public static User convertUserDtoToUser(UserDto userDto){
@@ -12,10 +10,8 @@ public class UserDtoToUserMapper {
         user.setAge(userDto.getAge());
         user.setCity(userDto.getCity());
         user.setGender(userDto.getGender());
-        if(!Objects.isNull(userDto.getPhNum())){
-            String normalizedPhone = userDto.getPhNum().replaceAll("\\D", "");
-            user.setMobileNumber(normalizedPhone);
-        }
+        // Digits only, null stays null (PhoneNumberNormalizer: no regex per row)
+        user.setMobileNumber(PhoneNumberNormalizer.digitsOnly(userDto.getPhNum()));
         user.setState(userDto.getState());
         user.setEmail(userDto.getEmail());
         user.setFirstName(userDto.getFirstName());
@@ -1,9 +1,12 @@
 package com.ishan.user_service.mapper;
 
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.ishan.user_service.dto.UserDto;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -11,11 +14,14 @@ public class UserMapperFromRandomToDto {
 
     public static UserDto convertRandomUserToUserDto(JsonNode randomUser){
         UserDto userDto = new UserDto();
-        String fName = randomUser.get("name").get("first").asText();
-        String lName = randomUser.get("name").get("last").asText();
+        // Each parent node is looked up ONCE (every get() is a hash lookup in the node's field map)
+        JsonNode name = randomUser.get("name");
+        JsonNode location = randomUser.get("location");
+        String fName = name.get("first").asText();
+        String lName = name.get("last").asText();
         String email = randomUser.get("email").asText();
-        String city = randomUser.get("location").get("city").asText();
-        String state = randomUser.get("location").get("state").asText();
+        String city = location.get("city").asText();
+        String state = location.get("state").asText();
         int age = randomUser.get("dob").get("age").asInt();
         String phNum = randomUser.get("cell").asText();
         String gender = randomUser.get("gender").asText();
@@ -23,8 +29,9 @@ public class UserMapperFromRandomToDto {
         /*
         What this means: \\D → “anything that is NOT a digit” Replace with empty string
         Phone numbers from third-party APIs often come in different formats. I handle this at the service layer by normalizing the value—for example, removing non-digit characters—before validation or persistence
+        Done by PhoneNumberNormalizer (same result, without compiling the regex for every user)
         */
-        String normalizedPhone = phNum.replaceAll("\\D", "");
+        String normalizedPhone = PhoneNumberNormalizer.digitsOnly(phNum);
 
         userDto.setFirstName(fName);
         userDto.setLastName(lName);
@@ -56,4 +63,68 @@ public class UserMapperFromRandomToDto {
         return userDtosList;
     }
 
+    /**
+     * Streaming version of convertRandomUserToUserDto(JsonNode): reads ONE user object
+     * token by token, without building a JsonNode tree for it.
+     * Only the fields we map are read, everything else (login, picture, street...) is skipped.
+     *
+     * @param randomUser parser positioned on the START_OBJECT of one results[] element;
+     *                   left on its matching END_OBJECT
+     */
+    public static UserDto convertRandomUserToUserDto(JsonParser randomUser) throws IOException {
+        UserDto userDto = new UserDto();
+        while (randomUser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = randomUser.currentName();
+            randomUser.nextToken();
+            switch (field) {
+                case "name" -> readObject(randomUser, (subField, parser) -> {
+                    if (subField.equals("first")) {
+                        userDto.setFirstName(parser.getValueAsString());
+                    } else if (subField.equals("last")) {
+                        userDto.setLastName(parser.getValueAsString());
+                    }
+                });
+                case "location" -> readObject(randomUser, (subField, parser) -> {
+                    if (subField.equals("city")) {
+                        userDto.setCity(parser.getValueAsString());
+                    } else if (subField.equals("state")) {
+                        userDto.setState(parser.getValueAsString());
+                    }
+                });
+                case "dob" -> readObject(randomUser, (subField, parser) -> {
+                    if (subField.equals("age")) {
+                        userDto.setAge(parser.getValueAsInt());
+                    }
+                });
+                case "email" -> userDto.setEmail(randomUser.getValueAsString());
+                case "gender" -> userDto.setGender(randomUser.getValueAsString());
+                // Same normalization as above: digits only
+                case "cell" -> userDto.setPhNum(PhoneNumberNormalizer.digitsOnly(randomUser.getValueAsString()));
+                default -> randomUser.skipChildren();
+            }
+        }
+        return userDto;
+    }
+
+    private interface FieldReader {
+        void read(String field, JsonParser parser) throws IOException;
+    }
+
+    // Calls reader for every scalar field of the object the parser is on, skips nested objects/arrays
+    private static void readObject(JsonParser parser, FieldReader reader) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value.isStructStart()) {
+                parser.skipChildren();
+            } else {
+                reader.read(field, parser);
+            }
+        }
+    }
+
 }
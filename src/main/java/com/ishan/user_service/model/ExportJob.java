@@ -0,0 +1,56 @@
+package com.ishan.user_service.model;
+
+import com.ishan.user_service.dto.ExportJobInfoDto;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * Durable record of an async export job.
+ * The in-memory tracker map is lost on restart, this row is not:
+ * a finished export can still be downloaded (and is still cleaned up) after a restart.
+ * Progress counters are NOT stored here, only what the status / download endpoints need once the job is over.
+ */
+@Entity
+@Data
+@Builder
+@Table(name = "export_jobs")
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExportJob {
+
+    @Id
+    private String jobId;
+
+    @Column(length = 1000)
+    private String filters;
+
+    private boolean gzip;
+
+    // VARCHAR instead of a native ENUM column: new statuses must not need an ALTER TABLE
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(length = 20)
+    private ExportJobInfoDto.ExportStatus status;
+
+    private long exportedCount;
+
+    // Absolute path of the finished file (null until COMPLETED)
+    @Column(length = 1000)
+    private String filePath;
+
+    private Long fileSizeBytes;
+
+    @Column(length = 1000)
+    private String message;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,83 @@
+package com.ishan.user_service.model;
+
+import com.ishan.user_service.dto.ImportUserJobInfoDto;
+import com.ishan.user_service.service.UserGeneratorMode;
+import com.ishan.user_service.service.importPipeline.ImportPersistenceEngine;
+import com.ishan.user_service.service.importPipeline.ImportSourceType;
+import com.ishan.user_service.service.importPipeline.dedup.DuplicateEmailPolicy;
+import com.ishan.user_service.service.job.ImportControlRequest;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * Durable record of an async import job.
+ * The in-memory tracker map is lost on restart, this row is not:
+ * it keeps everything needed to RE-RUN the job (count, engine, generator, seed or source file),
+ * the committed batches live in import_job_checkpoints.
+ */
+@Entity
+@Data
+@Builder
+@Table(name = "import_jobs")
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportJob {
+
+    @Id
+    private String jobId;
+    private String userId;
+    private long requestedCount;
+
+    @Enumerated(EnumType.STRING)
+    private ImportPersistenceEngine engine;
+
+    @Enumerated(EnumType.STRING)
+    private UserGeneratorMode generatorMode;
+
+    private Long seed;
+
+    // null on jobs created before file imports existed = GENERATED
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(length = 20)
+    private ImportSourceType sourceType;
+
+    // Staged file of a file import (re-read on resume)
+    @Column(length = 1000)
+    private String sourceFile;
+
+    // null on jobs created before de-duplication existed = ALLOW
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(length = 20)
+    private DuplicateEmailPolicy duplicatePolicy;
+
+    // VARCHAR instead of a native ENUM column: new statuses must not need an ALTER TABLE
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(length = 20)
+    private ImportUserJobInfoDto.ImportStatus status;
+
+    // Pause / cancel asked by an operator, picked up by the instance running the job (null = none)
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(length = 20)
+    private ImportControlRequest controlRequest;
+
+    @Column(length = 1000)
+    private String message;
+
+    private LocalDateTime createdAt;
+
+    // Refreshed while the job runs; a PENDING/IN_PROGRESS job with an old heartbeat is orphaned (its JVM died)
+    private LocalDateTime heartbeatAt;
+
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,48 @@
+package com.ishan.user_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * ONE committed batch of an import job.
+ *
+ * WHY A ROW PER BATCH (and not "lastCommittedBatch" on the job)?
+ * - Parallel writers commit out of order: batch 43 can land before batch 42
+ * - The row is inserted in the SAME transaction as the batch's users:
+ *   checkpoint exists <=> users exist, there is no window where only one of them is saved
+ * - Inserts only (no UPDATE of a shared row) -> writers never wait on each other's row lock
+ *
+ * The unique (job_id, start_position) key is the last line of defence against duplicates:
+ * if the same rows were ever committed twice, the second transaction fails and rolls back its users too.
+ */
+@Entity
+@Data
+@Builder
+@Table(name = "import_job_checkpoints",
+        uniqueConstraints = @UniqueConstraint(name = "uk_checkpoint_job_start", columnNames = {"job_id", "start_position"}))
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportJobCheckpoint {
+
+    // Plain IDENTITY is fine here: one insert per batch, never batched
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false)
+    private String jobId;
+
+    private int batchNumber;
+
+    // Source rows [startPosition, endPosition) committed by this batch
+    @Column(name = "start_position")
+    private long startPosition;
+    private long endPosition;
+
+    private LocalDateTime committedAt;
+}
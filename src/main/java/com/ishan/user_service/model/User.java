@@ -1,6 +1,7 @@
 package com.ishan.user_service.model;
 
 
+import com.ishan.user_service.service.importPipeline.dedup.UserEmailListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -10,9 +11,12 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(UserEmailListener.class)
 @Data
 @Builder
-@Table(name = "users")
+// Non-unique email index: the import de-dup stage looks suspected duplicates up by email
+// (a UNIQUE index would make whole batches fail on the first duplicate, see EmailDeduplicator)
+@Table(name = "users", indexes = @Index(name = "idx_users_email", columnList = "email"))
 @AllArgsConstructor
 @NoArgsConstructor
 public class User {
@@ -0,0 +1,18 @@
+package com.ishan.user_service.repository;
+
+import com.ishan.user_service.dto.ExportJobInfoDto;
+import com.ishan.user_service.model.ExportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ExportJobRepository extends JpaRepository<ExportJob, String> {
+
+    // Jobs created before olderThan that are not expired yet -> candidates for the retention cleanup
+    List<ExportJob> findByStatusInAndCreatedAtBefore(Collection<ExportJobInfoDto.ExportStatus> statuses,
+                                                     LocalDateTime olderThan);
+}
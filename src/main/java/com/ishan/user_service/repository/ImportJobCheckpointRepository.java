@@ -0,0 +1,13 @@
+package com.ishan.user_service.repository;
+
+import com.ishan.user_service.model.ImportJobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ImportJobCheckpointRepository extends JpaRepository<ImportJobCheckpoint, Long> {
+
+    List<ImportJobCheckpoint> findByJobId(String jobId);
+}
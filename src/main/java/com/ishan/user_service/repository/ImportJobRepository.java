@@ -0,0 +1,48 @@
+package com.ishan.user_service.repository;
+
+import com.ishan.user_service.dto.ImportUserJobInfoDto;
+import com.ishan.user_service.model.ImportJob;
+import com.ishan.user_service.service.job.ImportControlRequest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, String> {
+
+    // Jobs that should be running but nobody has touched since olderThan -> their JVM is gone
+    List<ImportJob> findByStatusInAndHeartbeatAtBefore(Collection<ImportUserJobInfoDto.ImportStatus> statuses,
+                                                       LocalDateTime olderThan);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImportJob j SET j.heartbeatAt = :now WHERE j.jobId = :jobId")
+    int touchHeartbeat(@Param("jobId") String jobId, @Param("now") LocalDateTime now);
+
+    // Is a staged upload still needed by a job that is queued or running?
+    boolean existsBySourceFileAndStatusIn(String sourceFile, Collection<ImportUserJobInfoDto.ImportStatus> statuses);
+
+    // Pending pause / cancel requests of the jobs running on this instance
+    List<ImportJob> findByJobIdInAndControlRequestIsNotNull(Collection<String> jobIds);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImportJob j SET j.controlRequest = :request WHERE j.jobId = :jobId")
+    int updateControlRequest(@Param("jobId") String jobId, @Param("request") ImportControlRequest request);
+
+    // Optimistic claim: only ONE instance can move the heartbeat away from the value it saw,
+    // so two pods never resume the same orphaned job
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImportJob j SET j.heartbeatAt = :now WHERE j.jobId = :jobId AND j.heartbeatAt = :seenHeartbeat")
+    int claim(@Param("jobId") String jobId,
+              @Param("seenHeartbeat") LocalDateTime seenHeartbeat,
+              @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,145 @@
+package com.ishan.user_service.repository;
+
+import com.ishan.user_service.customExceptions.ImportEngineUnavailableException;
+import com.ishan.user_service.model.User;
+import com.ishan.user_service.utility.CSVReadWriteUtility;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.sql.DatabaseMetaData;
+import java.util.Locale;
+
+/**
+ * Loads a staged users CSV with the database's NATIVE bulk loader instead of INSERT statements.
+ *
+ * WHY?
+ * - Even batched INSERTs are parsed/executed row by row on the server
+ * - LOAD DATA (MySQL) reads the whole file in one statement: no per-row SQL parsing,
+ *   no per-row network round trip -> typically several times faster than batched INSERTs
+ *
+ * Supported databases:
+ * - MySQL: LOAD DATA LOCAL INFILE (needs allowLoadLocalInfile=true on the JDBC URL
+ *   and local_infile=ON on the server, see checkAvailable())
+ * - H2:    INSERT ... SELECT FROM CSVREAD(...) (so the mode can be tested locally)
+ *
+ * STAGING LAYOUT (STAGING_HEADER): first and last name are SEPARATE columns.
+ * The export layout has one "name" column; splitting it again on the first space would turn
+ * first name "Mary Ann" + last name "Lee" into "Mary" + "Ann Lee".
+ */
+@Repository
+public class UserBulkLoadRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(UserBulkLoadRepository.class);
+
+    public static final String STAGING_HEADER = "id,first_name,last_name,age,gender,city,state,email,mobile";
+
+    private static final String MYSQL_LOAD_SQL =
+            "LOAD DATA LOCAL INFILE '%s' INTO TABLE users "
+                    + "CHARACTER SET utf8mb4 "
+                    + "FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"' ESCAPED BY '' "
+                    + "LINES TERMINATED BY '\\n' "
+                    + "IGNORE 1 LINES "
+                    + "(id, @first_name, @last_name, age, @gender, @city, @state, @email, @mobile) "
+                    + "SET first_name = NULLIF(@first_name, ''), last_name = NULLIF(@last_name, ''), "
+                    + "gender = NULLIF(@gender, ''), city = NULLIF(@city, ''), state = NULLIF(@state, ''), "
+                    + "email = NULLIF(@email, ''), mobile_number = NULLIF(@mobile, ''), "
+                    + "deleted = 0";
+
+    private static final String H2_LOAD_SQL =
+            "INSERT INTO users (id, first_name, last_name, age, gender, city, state, email, mobile_number, deleted) "
+                    + "SELECT CAST(id AS INT), NULLIF(first_name, ''), NULLIF(last_name, ''), "
+                    + "CAST(age AS INT), NULLIF(gender, ''), NULLIF(city, ''), NULLIF(state, ''), "
+                    + "NULLIF(email, ''), NULLIF(mobile, ''), FALSE "
+                    + "FROM CSVREAD('%s', NULL, 'charset=UTF-8')";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Resolved once at startup from the connection metadata ("MySQL", "H2", ...)
+    private final String databaseProductName;
+
+    // MySQL only: the driver refuses LOAD DATA LOCAL unless the JDBC URL allows it (cannot change at runtime)
+    private final boolean driverAllowsLocalInfile;
+
+    public UserBulkLoadRepository(JdbcTemplate jdbcTemplate, DataSource dataSource) throws MetaDataAccessException {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databaseProductName = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        String url = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getURL);
+        this.driverAllowsLocalInfile = url != null && url.toLowerCase(Locale.ROOT).contains("allowloadlocalinfile=true");
+        log.info("[BULK_LOAD] Native bulk loader resolved | database={} driverAllowsLocalInfile={}",
+                databaseProductName, driverAllowsLocalInfile);
+    }
+
+    /**
+     * Throws ImportEngineUnavailableException when a bulk load would fail on this database RIGHT NOW.
+     * local_infile is a server setting that can be switched at runtime -> asked on every call
+     * (one tiny query per accepted BULK_LOAD job).
+     */
+    public void checkAvailable() {
+        if (isH2()) {
+            return;
+        }
+        if (!isMySql()) {
+            throw new ImportEngineUnavailableException("BULK_LOAD is not supported for database "
+                    + databaseProductName + ", use engine=JDBC");
+        }
+        if (!driverAllowsLocalInfile) {
+            throw new ImportEngineUnavailableException(
+                    "BULK_LOAD needs allowLoadLocalInfile=true on the JDBC URL, use engine=JDBC");
+        }
+        Integer localInfile = jdbcTemplate.queryForObject("SELECT @@GLOBAL.local_infile", Integer.class);
+        if (localInfile == null || localInfile == 0) {
+            throw new ImportEngineUnavailableException(
+                    "BULK_LOAD needs local_infile=ON on the MySQL server (SET GLOBAL local_infile = 1), use engine=JDBC");
+        }
+    }
+
+    // One STAGING_HEADER row, values quoted like the export (a comma in a city must not shift columns)
+    public static String toStagingRow(User user) {
+        return String.join(",",
+                String.valueOf(user.getId()),
+                escapeNullable(user.getFirstName()),
+                escapeNullable(user.getLastName()),
+                String.valueOf(user.getAge()),
+                escapeNullable(user.getGender()),
+                escapeNullable(user.getCity()),
+                escapeNullable(user.getState()),
+                escapeNullable(user.getEmail()),
+                escapeNullable(user.getMobileNumber()));
+    }
+
+    /**
+     * Loads every row of the staged CSV (STAGING_HEADER layout) into users, returns the number of rows loaded.
+     * Runs in the caller's transaction.
+     */
+    public int loadCsv(Path csvFile) {
+        // File names cannot be bound as parameters in LOAD DATA / CSVREAD -> inline a safely quoted literal
+        String fileLiteral = csvFile.toAbsolutePath().toString().replace('\\', '/').replace("'", "''");
+
+        if (isMySql()) {
+            return jdbcTemplate.update(String.format(MYSQL_LOAD_SQL, fileLiteral));
+        }
+        if (isH2()) {
+            return jdbcTemplate.update(String.format(H2_LOAD_SQL, fileLiteral));
+        }
+        throw new ImportEngineUnavailableException("BULK_LOAD is not supported for database " + databaseProductName);
+    }
+
+    private boolean isMySql() {
+        return "MySQL".equalsIgnoreCase(databaseProductName);
+    }
+
+    private boolean isH2() {
+        return "H2".equalsIgnoreCase(databaseProductName);
+    }
+
+    // null -> empty field, loaded back as NULL (NULLIF(..., ''))
+    private static String escapeNullable(String value) {
+        return value == null ? "" : CSVReadWriteUtility.escape(value);
+    }
+}
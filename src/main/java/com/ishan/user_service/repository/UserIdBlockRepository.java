@@ -0,0 +1,77 @@
+package com.ishan.user_service.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Reserves LARGE ranges of user IDs straight from the id_generator row (one round trip per range),
+ * compatible with Hibernate's pooled table generator on User.id.
+ *
+ * HOW HIBERNATE USES THE ROW (pooled optimizer, allocationSize = 1000):
+ * - It reads value R, writes R + 1000, and hands out the block just BELOW R from memory
+ * - Its very first block is wider and does not follow that arithmetic (on a fresh database the row
+ *   says 2000 while Hibernate hands out 1..1001) -> the only safe statement is: every ID Hibernate
+ *   has handed out, or will hand out from a block it already read, is <= the value stored in the row
+ *
+ * OUR RESERVATION OF count IDS (taken from the row value, never from Hibernate's block arithmetic):
+ * - before = the value stored in the row -> our range is [before + 1, before + count]
+ * - after  = before + count + 1000 is written back -> Hibernate's next block (just below after)
+ *   starts right AFTER our range
+ * -> no ID is ever handed out twice; the IDs between Hibernate's current block and before + 1
+ *    are skipped (a gap, like the unused tail of any Hibernate block)
+ *
+ * SELECT ... FOR UPDATE + UPDATE in a new transaction: the row lock is held for milliseconds,
+ * never for the duration of the caller's batch.
+ */
+@Repository
+public class UserIdBlockRepository {
+
+    // MUST match allocationSize of the user_id_gen @TableGenerator on User.id
+    // (only used to push Hibernate's NEXT block past our range, never to compute the range itself)
+    static final int HIBERNATE_ALLOCATION_SIZE = 1000;
+
+    private static final String GENERATOR_NAME = "user_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate reservationTransaction;
+    private final UserIdGeneratorRepository userIdGeneratorRepository;
+
+    public UserIdBlockRepository(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 UserIdGeneratorRepository userIdGeneratorRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userIdGeneratorRepository = userIdGeneratorRepository;
+        this.reservationTransaction = new TransactionTemplate(transactionManager);
+        this.reservationTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Reserves count consecutive IDs and returns the first one.
+     */
+    public long reserveRange(long count) {
+        Long first = reservationTransaction.execute(status -> tryReserve(count));
+        if (first != null) {
+            return first;
+        }
+        // Fresh database: the row does not exist yet -> let Hibernate's generator create it (costs one ID)
+        userIdGeneratorRepository.reserveIds(1);
+        return reservationTransaction.execute(status -> tryReserve(count));
+    }
+
+    private Long tryReserve(long count) {
+        List<Long> values = jdbcTemplate.queryForList(
+                "SELECT gen_value FROM id_generator WHERE gen_name = ? FOR UPDATE", Long.class, GENERATOR_NAME);
+        if (values.isEmpty()) {
+            return null;
+        }
+        long before = values.getFirst();
+        long after = before + count + HIBERNATE_ALLOCATION_SIZE;
+        jdbcTemplate.update("UPDATE id_generator SET gen_value = ? WHERE gen_name = ?", after, GENERATOR_NAME);
+        return before + 1;
+    }
+}
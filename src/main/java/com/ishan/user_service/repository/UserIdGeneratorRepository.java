@@ -0,0 +1,56 @@
+package com.ishan.user_service.repository;
+
+import com.ishan.user_service.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Hands out user IDs for inserts that do NOT go through Hibernate (JDBC import engine).
+ *
+ * WHY ASK HIBERNATE'S GENERATOR INSTEAD OF UPDATING id_generator OURSELVES?
+ * - The @TableGenerator on User.id uses the "pooled" optimizer: it reserves 1000 IDs per
+ *   round trip to id_generator and keeps the current block IN MEMORY
+ * - A raw UPDATE on the id_generator row cannot see that in-memory block
+ *   (and Hibernate's very first block is even wider than the row suggests),
+ *   so JDBC-inserted and JPA-inserted users could get the SAME id
+ * - Going through the same generator instance = same optimizer state = no collisions,
+ *   and IDs are still reserved in blocks of 1000 from the id_generator row
+ *
+ * Thread-safe: the pooled optimizer synchronizes internally.
+ */
+@Repository
+public class UserIdGeneratorRepository {
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final BeforeExecutionGenerator userIdGenerator;
+
+    public UserIdGeneratorRepository(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.userIdGenerator = (BeforeExecutionGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(User.class)
+                .getGenerator();
+    }
+
+    /**
+     * Reserves count user IDs. They are unique but not always consecutive
+     * (a new block may start half-way through the request).
+     */
+    public int[] reserveIds(int count) {
+        int[] ids = new int[count];
+        // The table generator runs its SELECT/UPDATE in its own isolated transaction,
+        // a lightweight stateless session is enough to drive it.
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            SharedSessionContractImplementor sessionImplementor = (SharedSessionContractImplementor) session;
+            for (int i = 0; i < count; i++) {
+                Object id = userIdGenerator.generate(sessionImplementor, null, null, EventType.INSERT);
+                ids[i] = ((Number) id).intValue();
+            }
+        }
+        return ids;
+    }
+}
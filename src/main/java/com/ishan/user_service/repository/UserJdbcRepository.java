@@ -0,0 +1,208 @@
+package com.ishan.user_service.repository;
+
+import com.ishan.user_service.dto.UserDto;
+import com.ishan.user_service.mapper.PhoneNumberNormalizer;
+import com.ishan.user_service.model.User;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC access to the users table for bulk imports.
+ * Why bypass Hibernate here?
+ * - saveAll() registers every entity in the persistence context, keeps dirty-check snapshots
+ *   and needs flush()/clear() per batch -> pure overhead for insert-only imports
+ * - JdbcTemplate.batchUpdate() sends the rows as ONE JDBC batch; with MySQL's
+ *   rewriteBatchedStatements=true the driver even rewrites it into multi-row INSERTs
+ * IDs must already be set on the users (see UserIdGeneratorRepository).
+ */
+@Repository
+public class UserJdbcRepository {
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (id, first_name, last_name, email, city, state, age, mobile_number, gender, deleted, deleted_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Merge semantics: a value the import does not have (null / age 0) keeps what the user already has
+    private static final String UPDATE_USER_SQL =
+            "UPDATE users SET first_name = COALESCE(?, first_name), last_name = COALESCE(?, last_name), "
+                    + "city = COALESCE(?, city), state = COALESCE(?, state), age = COALESCE(NULLIF(?, 0), age), "
+                    + "mobile_number = COALESCE(?, mobile_number), gender = COALESCE(?, gender) WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void batchInsert(List<User> users) {
+        jdbcTemplate.batchUpdate(INSERT_USER_SQL, users, users.size(), (ps, user) -> {
+            ps.setInt(1, user.getId());
+            ps.setString(2, user.getFirstName());
+            ps.setString(3, user.getLastName());
+            ps.setString(4, user.getEmail());
+            ps.setString(5, user.getCity());
+            ps.setString(6, user.getState());
+            ps.setInt(7, user.getAge());
+            ps.setString(8, user.getMobileNumber());
+            ps.setString(9, user.getGender());
+            ps.setBoolean(10, user.isDeleted());
+            if (user.getDeletedAt() != null) {
+                ps.setTimestamp(11, Timestamp.valueOf(user.getDeletedAt()));
+            } else {
+                ps.setNull(11, Types.TIMESTAMP);
+            }
+        });
+    }
+
+    /**
+     * Same INSERT straight from the import DTOs: no User entity per row.
+     * Row i gets id firstId + i (a block from UserIdAllocator); the phone is normalized while binding.
+     */
+    public void batchInsertDtos(int firstId, List<UserDto> users) {
+        jdbcTemplate.batchUpdate(INSERT_USER_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                UserDto userDto = users.get(i);
+                ps.setInt(1, firstId + i);
+                ps.setString(2, userDto.getFirstName());
+                ps.setString(3, userDto.getLastName());
+                ps.setString(4, userDto.getEmail());
+                ps.setString(5, userDto.getCity());
+                ps.setString(6, userDto.getState());
+                ps.setInt(7, userDto.getAge());
+                ps.setString(8, PhoneNumberNormalizer.digitsOnly(userDto.getPhNum()));
+                ps.setString(9, userDto.getGender());
+                ps.setBoolean(10, false);
+                ps.setNull(11, Types.TIMESTAMP);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return users.size();
+            }
+        });
+    }
+
+    // ONE JDBC batch of UPDATEs by id (upsert import), email and soft-delete state are left alone.
+    // Row i updates the user with id ids.get(i)
+    public void batchUpdateDtos(List<UserDto> users, List<Integer> ids) {
+        jdbcTemplate.batchUpdate(UPDATE_USER_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                UserDto userDto = users.get(i);
+                ps.setString(1, userDto.getFirstName());
+                ps.setString(2, userDto.getLastName());
+                ps.setString(3, userDto.getCity());
+                ps.setString(4, userDto.getState());
+                ps.setInt(5, userDto.getAge());
+                ps.setString(6, PhoneNumberNormalizer.digitsOnly(userDto.getPhNum()));
+                ps.setString(7, userDto.getGender());
+                ps.setInt(8, ids.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return users.size();
+            }
+        });
+    }
+
+    /**
+     * Smallest id, largest id and row count in ONE query (the parallel export splits [minId, maxId]).
+     * Empty table -> rows = 0, minId/maxId = 0.
+     */
+    public IdBounds findIdBounds() {
+        return jdbcTemplate.queryForObject("SELECT MIN(id), MAX(id), COUNT(*) FROM users",
+                (rs, rowNum) -> new IdBounds(rs.getLong(1), rs.getLong(2), rs.getLong(3)));
+    }
+
+    /**
+     * Keyset scan of ONE id range: the first limit users with fromId <= id < toId, in id order.
+     * Plain JDBC + a fresh User per row, no persistence context to clear.
+     * @return the last id seen, or -1 if the range had no users
+     */
+    public long scanUsers(long fromId, long toId, int limit, Consumer<User> userConsumer) {
+        long[] lastId = {-1};
+        jdbcTemplate.query("SELECT id, first_name, last_name, email, city, state, age, mobile_number, gender "
+                + "FROM users WHERE id >= ? AND id < ? ORDER BY id LIMIT ?", rs -> {
+            User user = new User();
+            user.setId(rs.getInt(1));
+            user.setFirstName(rs.getString(2));
+            user.setLastName(rs.getString(3));
+            user.setEmail(rs.getString(4));
+            user.setCity(rs.getString(5));
+            user.setState(rs.getString(6));
+            user.setAge(rs.getInt(7));
+            user.setMobileNumber(rs.getString(8));
+            user.setGender(rs.getString(9));
+            lastId[0] = user.getId();
+            userConsumer.accept(user);
+        }, fromId, toId, limit);
+        return lastId[0];
+    }
+
+    /**
+     * Keyset scan: emails of the next limit users with id > afterId, in id order.
+     * WHERE id > ? ORDER BY id LIMIT ? uses the primary key -> every page costs the same,
+     * unlike OFFSET which re-reads all skipped rows (page 10 000 of 1 000 would read 10M rows).
+     * @return the last id seen, or -1 once there are no more users
+     */
+    public long scanEmails(long afterId, int limit, Consumer<String> emailConsumer) {
+        long[] lastId = {-1};
+        jdbcTemplate.query("SELECT id, email FROM users WHERE id > ? ORDER BY id LIMIT ?", rs -> {
+            lastId[0] = rs.getLong(1);
+            String email = rs.getString(2);
+            if (email != null) {
+                emailConsumer.accept(email);
+            }
+        }, afterId, limit);
+        return lastId[0];
+    }
+
+    // Which of these emails exist; IN lists of at most 1000 values (idx_users_email).
+    // Case-insensitive only where the column collation is (MySQL's default *_ci is)
+    public List<String> findExistingEmails(List<String> emails) {
+        if (emails.isEmpty()) {
+            return List.of();
+        }
+        List<String> existing = new ArrayList<>();
+        for (int from = 0; from < emails.size(); from += 1000) {
+            List<String> chunk = emails.subList(from, Math.min(emails.size(), from + 1000));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            existing.addAll(jdbcTemplate.queryForList("SELECT email FROM users WHERE email IN (" + placeholders + ")",
+                    String.class, chunk.toArray()));
+        }
+        return existing;
+    }
+
+    /**
+     * email (as stored) -> id, for the emails among these that exist; same chunked IN lookup.
+     * Emails stored more than once (older imports had no de-dup) -> the lowest id.
+     */
+    public Map<String, Integer> findIdsByEmail(List<String> emails) {
+        Map<String, Integer> ids = new HashMap<>();
+        for (int from = 0; from < emails.size(); from += 1000) {
+            List<String> chunk = emails.subList(from, Math.min(emails.size(), from + 1000));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            jdbcTemplate.query("SELECT id, email FROM users WHERE email IN (" + placeholders + ")", rs -> {
+                ids.merge(rs.getString(2), rs.getInt(1), Math::min);
+            }, chunk.toArray());
+        }
+        return ids;
+    }
+
+    public record IdBounds(long minId, long maxId, long rows) {
+    }
+}
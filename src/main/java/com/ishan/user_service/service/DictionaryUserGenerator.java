@@ -0,0 +1,121 @@
+package com.ishan.user_service.service;
+
+import com.github.javafaker.Faker;
+import com.ishan.user_service.dto.UserDto;
+
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * High-speed fake user generator (UserGeneratorMode.DICTIONARY).
+ *
+ * WHY NOT JUST FAKER?
+ * - Every faker.name().firstName() / address().city() / phoneNumber().cellPhone() call
+ *   resolves YAML expressions, reflection and regexes -> most of the generation time
+ *
+ * HOW THIS ONE WORKS:
+ * - Dictionaries (first/last names, cities, states) are filled ONCE at startup
+ *   by sampling Faker with a fixed seed -> realistic values, same every run
+ * - Per user: a few array lookups + digit arithmetic, no regex, no reflection
+ * - Random numbers come from a stateless hash of (rowSeed, fieldIndex):
+ *   no Random object per row, nothing shared between threads -> thread-safe by design
+ *
+ * Same contract as the Faker mode: row N of a given seed is always the same user.
+ */
+class DictionaryUserGenerator {
+
+    // How many Faker draws are used to fill each dictionary (duplicates are dropped)
+    private static final int DICTIONARY_SAMPLES = 3000;
+
+    // Fixed seed -> identical dictionaries on every node and every restart
+    private static final long DICTIONARY_SEED = 20240101L;
+
+    private static final String[] EMAIL_DOMAINS = {"gmail.com", "yahoo.com", "hotmail.com", "outlook.com"};
+    private static final String[] GENDERS = {"Male", "Female"};
+
+    private final String[] firstNames;
+    private final String[] lastNames;
+    private final String[] cities;
+    private final String[] states;
+
+    DictionaryUserGenerator() {
+        Faker faker = new Faker(new Random(DICTIONARY_SEED));
+        this.firstNames = sample(() -> faker.name().firstName());
+        this.lastNames = sample(() -> faker.name().lastName());
+        this.cities = sample(() -> faker.address().city());
+        this.states = sample(() -> faker.address().state());
+    }
+
+    UserDto generateUser(long rowSeed) {
+        String firstName = pick(firstNames, rowSeed, 0);
+        String lastName = pick(lastNames, rowSeed, 1);
+
+        UserDto userDto = new UserDto();
+        userDto.setFirstName(firstName);
+        userDto.setLastName(lastName);
+        userDto.setAge(16 + (int) bounded(rowSeed, 2, 83));
+        userDto.setGender(pick(GENDERS, rowSeed, 3));
+        userDto.setCity(pick(cities, rowSeed, 4));
+        userDto.setState(pick(states, rowSeed, 5));
+        userDto.setEmail(email(firstName, lastName, rowSeed));
+        userDto.setPhNum(phone(rowSeed));
+        return userDto;
+    }
+
+    // e.g. "ishan.negi4821@gmail.com"
+    private String email(String firstName, String lastName, long rowSeed) {
+        StringBuilder email = new StringBuilder(firstName.length() + lastName.length() + 20);
+        appendLowerLetters(email, firstName);
+        email.append('.');
+        appendLowerLetters(email, lastName);
+        email.append(bounded(rowSeed, 6, 10000));
+        email.append('@').append(pick(EMAIL_DOMAINS, rowSeed, 7));
+        return email.toString();
+    }
+
+    // e.g. "555-123-4567" (first digit 2-9, like a real area code)
+    private String phone(long rowSeed) {
+        long digits = bounded(rowSeed, 8, 8_000_000_000L) + 2_000_000_000L;
+        char[] phone = new char[12];
+        for (int i = 11; i >= 0; i--) {
+            if (i == 3 || i == 7) {
+                phone[i] = '-';
+            } else {
+                phone[i] = (char) ('0' + digits % 10);
+                digits /= 10;
+            }
+        }
+        return new String(phone);
+    }
+
+    // "O'Keefe" -> "okeefe": emails only get a-z
+    private static void appendLowerLetters(StringBuilder target, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                target.append((char) (c + ('a' - 'A')));
+            } else if (c >= 'a' && c <= 'z') {
+                target.append(c);
+            }
+        }
+    }
+
+    private static String pick(String[] dictionary, long rowSeed, int field) {
+        return dictionary[(int) bounded(rowSeed, field, dictionary.length)];
+    }
+
+    // Independent pseudo-random number in [0, bound) for one field of one row
+    private static long bounded(long rowSeed, int field, long bound) {
+        return Math.floorMod(MockUserGeneratorService.rowSeed(rowSeed, field), bound);
+    }
+
+    private static String[] sample(Supplier<String> faker) {
+        Set<String> values = new LinkedHashSet<>();
+        for (int i = 0; i < DICTIONARY_SAMPLES; i++) {
+            values.add(faker.get());
+        }
+        return values.toArray(new String[0]);
+    }
+}
@@ -2,36 +2,66 @@ package com.ishan.user_service.service;
 
 import com.github.javafaker.Faker;
 import com.ishan.user_service.dto.UserDto;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
 
+/**
+ * Generates fake users with Java Faker.
+ *
+ * WHY PARALLEL?
+ * - Faker is CPU-bound (regex/YAML lookups per field); for 1M users generation took
+ *   about as long as the inserts, on ONE core
+ * - Rows are now generated on a dedicated ForkJoinPool (one worker per core by default)
+ *
+ * WHY ONE FAKER PER THREAD?
+ * - Faker (and the Random inside it) is NOT thread-safe
+ * - Creating a Faker is expensive (loads its YAML dictionaries), so each worker thread
+ *   creates ONE and keeps it in a ThreadLocal
+ *
+ * WHY SEEDED PER ROW?
+ * - Before every row the worker's Random is re-seeded with hash(seed, rowIndex)
+ * - So row N of a (seed, count) job is ALWAYS the same user, no matter which thread
+ *   generated it, how many threads there are, or how the rows were split into batches
+ * - Same seed + same count = same data set -> load tests can be reproduced
+ *
+ * Two generator modes (UserGeneratorMode): FAKER, and DICTIONARY (see DictionaryUserGenerator)
+ * for when generation speed matters more than data variety.
+ */
 @Service
 public class MockUserGeneratorService {
     private static final Logger log = LoggerFactory.getLogger(MockUserGeneratorService.class);
-    private final Faker faker = new Faker();
+
+    // Dedicated pool so big imports do not starve the JVM-wide common pool (parallel streams elsewhere)
+    private final ForkJoinPool generatorPool;
+
+    // One Faker per worker thread, all sharing nothing
+    private final ThreadLocal<SeededFaker> seededFaker = ThreadLocal.withInitial(SeededFaker::new);
+
+    // Stateless after construction -> one instance shared by all workers
+    private final DictionaryUserGenerator dictionaryUserGenerator = new DictionaryUserGenerator();
+
+    public MockUserGeneratorService(@Value("${import.generator.parallelism:0}") int parallelism) {
+        // 0 -> one worker per core
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.generatorPool = new ForkJoinPool(workers);
+    }
 
     //private final Faker faker = new Faker(java.util.Locale.of("en", "IN"));
     public List<UserDto> generateUsers(int count) {
         long startTime = System.currentTimeMillis();
-        log.info("Generating users. TotalUsers={}", count);
-        List<UserDto> userDtoList = new ArrayList<>(count);
-        for(int i=0; i<count; i++){
-            UserDto userDto = new UserDto();
-            userDto.setFirstName(faker.name().firstName());
-            userDto.setLastName(faker.name().lastName());
-            userDto.setAge(faker.number().numberBetween(16,99));
-            userDto.setGender(faker.demographic().sex());
-            userDto.setCity(faker.address().city());
-            userDto.setState(faker.address().state());
-            userDto.setEmail(faker.internet().emailAddress());
-            userDto.setPhNum(faker.phoneNumber().cellPhone());
-            userDtoList.add(userDto);
-            //System.out.println( "FAKE USER GENERATED :: " + userDto);
-        }
+        long seed = randomSeed();
+        log.info("Generating users. TotalUsers={} seed={} workers={}", count, seed, generatorPool.getParallelism());
+        List<UserDto> userDtoList = generateBatch(UserGeneratorMode.FAKER, seed, 0, count);
         long endTime = System.currentTimeMillis();
         double executionTimeInSeconds = (endTime - startTime) / 1000.0;
 
@@ -40,4 +70,67 @@ public class MockUserGeneratorService {
 
         return userDtoList;
     }
+
+    /**
+     * Generates rows [startRow, startRow + count) of the data set identified by (mode, seed),
+     * in parallel, without the start/end logging.
+     * Used by the streaming import pipeline which calls this thousands of times per job
+     * (logging every call would flood the logs).
+     */
+    public List<UserDto> generateBatch(UserGeneratorMode mode, long seed, long startRow, int count) {
+        UserDto[] users = new UserDto[count];
+        // Each index is written by exactly one worker, join() publishes the array to the caller
+        generatorPool.submit(() -> IntStream.range(0, count)
+                        .parallel()
+                        .forEach(i -> users[i] = mode == UserGeneratorMode.DICTIONARY
+                                ? dictionaryUserGenerator.generateUser(rowSeed(seed, startRow + i))
+                                : generateUser(seed, startRow + i)))
+                .join();
+        return Arrays.asList(users);
+    }
+
+    /**
+     * Seed for jobs that did not ask for one.
+     * Still reported in the job status, so even a "random" run can be reproduced.
+     */
+    public long randomSeed() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    private UserDto generateUser(long seed, long row) {
+        SeededFaker worker = seededFaker.get();
+        worker.random.setSeed(rowSeed(seed, row));
+        Faker faker = worker.faker;
+
+        UserDto userDto = new UserDto();
+        userDto.setFirstName(faker.name().firstName());
+        userDto.setLastName(faker.name().lastName());
+        userDto.setAge(faker.number().numberBetween(16,99));
+        userDto.setGender(faker.demographic().sex());
+        userDto.setCity(faker.address().city());
+        userDto.setState(faker.address().state());
+        userDto.setEmail(faker.internet().emailAddress());
+        userDto.setPhNum(faker.phoneNumber().cellPhone());
+        //System.out.println( "FAKE USER GENERATED :: " + userDto);
+        return userDto;
+    }
+
+    // SplitMix64 finalizer: neighbouring rows get unrelated seeds (plain seed + row would give correlated Randoms)
+    static long rowSeed(long seed, long row) {
+        long z = seed + (row + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        generatorPool.shutdownNow();
+    }
+
+    // A worker's private Faker + the Random it draws from (re-seeded per row)
+    private static final class SeededFaker {
+        private final Random random = new Random();
+        private final Faker faker = new Faker(random);
+    }
 }
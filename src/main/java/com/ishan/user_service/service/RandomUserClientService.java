@@ -1,10 +1,20 @@
 package com.ishan.user_service.service;
 
+import com.ishan.user_service.customExceptions.ExternalUserSourceException;
+import com.ishan.user_service.dto.UserDto;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.function.Function;
 
 @Service
 public class RandomUserClientService {
@@ -25,7 +35,11 @@ public class RandomUserClientService {
         log.info("RandomUserClientService Constructor called WebClient Injection Done");
     }
 
-    public String fetchRandomUsersRaw(){
+    /**
+     * Raw JSON of ONE random user, kept for learning / debugging (the import uses fetchRandomUser()).
+     * Non-blocking: nothing is sent until the caller subscribes.
+     */
+    public Mono<String> fetchRandomUsersRaw(){
         log.info("fetchRandomUsersRaw invoked, getting data for Single User");
         //String url = "https://randomuser.me/api/";
         //String restTemplateResponse = restTemplate.getForObject(url, String.class);
@@ -34,8 +48,8 @@ public class RandomUserClientService {
          * 1. Build an HTTP GET request
          * 2. Call the third-party API
          * 3. Read the response body as raw JSON (String)
-         * 4. Block the thread to get the response synchronously
-         *    (blocking is used ONLY for learning and simplicity)
+         * 4. Return the Mono: the CALLER decides when to subscribe
+         *    (we used to .block() here, which held a Tomcat thread for the whole round trip)
          */
         return webClient
                 .get() // Specify HTTP method (GET)
@@ -44,24 +58,74 @@ public class RandomUserClientService {
                 .queryParam("nat", "us,ca,au,gb,in")
                 .build())
                 .retrieve()// Trigger the HTTP call and prepare to read response
-                .bodyToMono(String.class)// Convert response body into Mono<String> Mono means "eventually one value"
-                .block(); // BLOCKING call: Waits for the response and converts Mono<String> → String (THIS STEP IS ONLY FOR LEARNING) TO MAKE IT SYNCHRONOUS
+                .bodyToMono(String.class);// Convert response body into Mono<String> Mono means "eventually one value"
         /*“WebClient returns a Mono<T> because the call is asynchronous.
-        When we call .block(), it waits for the value and returns the actual object, which is why the method can return String.”*/
+        Calling .block() would wait for the value on the current thread; returning the Mono lets the caller
+        (e.g. a controller returning Mono<ResponseEntity>) free its thread while the call is in flight.”*/
     }
 
-    public String fetchMultipleRandomUsersRaw(int count){
-        log.info("fetchMultipleRandomUsersRaw invoked, getting data for {} Users", count);
-        return webClient
-                .get()
-                .uri(uriBuilder -> uriBuilder.path("/api/")
-                        .queryParam("results", count) // 'results' query param tells the API how many users to return in one response
-                        .queryParam("nat", "us,ca,au,gb,in")
-                        .build())
-                .retrieve()
-                .bodyToMono(String.class)
-                .block();
+    /**
+     * ONE random user, decoded straight into a UserDto (same streaming decoder as the batch call).
+     * Empty response -> ExternalUserSourceException.
+     */
+    public Mono<UserDto> fetchRandomUser(){
+        log.info("fetchRandomUser invoked, getting data for Single User");
+        return fetchUsers(uriBuilder -> uriBuilder.path("/api/")
+                .queryParam("nat", "us,ca,au,gb,in")
+                .build())
+                .next()
+                .switchIfEmpty(Mono.error(() -> new ExternalUserSourceException("RandomUser returned no user")));
+    }
+
+    /**
+     * Fetches count users in ONE request and decodes them WHILE the response arrives.
+     * No String body, no JsonNode tree: every network chunk (DataBuffer) is fed to a
+     * RandomUserResultsDecoder and released right away, users are emitted as soon as
+     * their JSON object is complete -> memory stays flat whatever the payload size
+     * (and WebClient's in-memory buffer limit does not apply to raw DataBuffers).
+     */
+    public Flux<UserDto> fetchMultipleRandomUsers(int count){
+        log.info("fetchMultipleRandomUsers invoked, getting data for {} Users", count);
+        return fetchUsers(uriBuilder -> uriBuilder.path("/api/")
+                .queryParam("results", count) // 'results' query param tells the API how many users to return in one response
+                .queryParam("nat", "us,ca,au,gb,in")
+                .build());
+    }
+
+    /**
+     * One page of a SEEDED data set: same seed + page + results = same users on every call
+     * (RandomUser generates them from the seed), so a failed page can be retried and a resumed
+     * job can fetch only its missing pages. results is capped at 5000 by RandomUser.
+     */
+    public Flux<UserDto> fetchRandomUsersPage(String seed, int page, int results){
+        return fetchUsers(uriBuilder -> uriBuilder.path("/api/")
+                .queryParam("seed", seed)
+                .queryParam("page", page)
+                .queryParam("results", results)
+                .queryParam("nat", "us,ca,au,gb,in")
+                .build());
+    }
 
+    private Flux<UserDto> fetchUsers(Function<UriBuilder, URI> uri){
+        // defer: one decoder per subscription (a retry / second subscriber gets a fresh one)
+        return Flux.defer(() -> {
+            RandomUserResultsDecoder decoder = new RandomUserResultsDecoder();
+            return webClient
+                    .get()
+                    .uri(uri)
+                    .retrieve()
+                    .bodyToFlux(DataBuffer.class)
+                    .concatMapIterable(buffer -> {
+                        try {
+                            return decoder.decode(buffer);
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                        }
+                    })
+                    // Buffers still queued when the subscriber cancels must be released too
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(decoder.finish())));
+        });
     }
 
 }
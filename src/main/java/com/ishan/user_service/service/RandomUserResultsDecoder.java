@@ -0,0 +1,170 @@
+package com.ishan.user_service.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.ishan.user_service.customExceptions.ExternalUserSourceException;
+import com.ishan.user_service.dto.UserDto;
+import com.ishan.user_service.mapper.UserMapperFromRandomToDto;
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes a RandomUser response ({"results":[{...},{...}], "info":{...}}) INCREMENTALLY,
+ * chunk by chunk as the bytes arrive, straight into UserDtos.
+ *
+ * OLD FLOW (3 copies of a multi-MB payload):
+ * - whole body aggregated into a String (needed maxInMemorySize = 10 MB on the WebClient)
+ * - objectMapper.readTree() -> a JsonNode tree of ALL users
+ * - tree -> List<UserDto>
+ *
+ * NEW FLOW:
+ * - Jackson's NON-BLOCKING parser is fed each network DataBuffer as it arrives
+ * - Tokens of ONE results[] element are collected in a small TokenBuffer; when the element
+ *   is complete it is mapped to a UserDto and dropped
+ * - In memory at any time: the current network chunk + at most one user's tokens
+ *
+ * One decoder per response, NOT thread-safe (Reactor delivers the buffers of one response in order).
+ */
+public class RandomUserResultsDecoder {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final JsonParser parser;
+    private final ByteBufferFeeder feeder;
+
+    // Containers open around the current token, NOT counting the user being buffered
+    private int depth = 0;
+
+    // Last field name seen directly inside the root object ("results", "info", "error")
+    private String rootField;
+    private boolean inResults = false;
+    private boolean sawResults = false;
+    private String upstreamError;
+
+    // Tokens of the results[] element being received (null between elements)
+    private TokenBuffer user;
+    private int userDepth;
+
+    public RandomUserResultsDecoder() {
+        try {
+            this.parser = JSON_FACTORY.createNonBlockingByteBufferParser();
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not create non-blocking JSON parser", ex);
+        }
+        this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /**
+     * Feeds one network chunk and returns the users it completed (often none, sometimes several).
+     * The buffer is NOT released here, the caller owns it.
+     */
+    public List<UserDto> decode(DataBuffer buffer) {
+        List<UserDto> users = new ArrayList<>();
+        try (DataBuffer.ByteBufferIterator chunks = buffer.readableByteBuffers()) {
+            while (chunks.hasNext()) {
+                ByteBuffer chunk = chunks.next();
+                feeder.feedInput(chunk);
+                drain(users);
+            }
+        } catch (IOException ex) {
+            throw new ExternalUserSourceException("Invalid JSON from RandomUser: " + ex.getMessage(), ex);
+        }
+        return users;
+    }
+
+    /**
+     * Called once the body is complete: fails if the response was cut off, was an error
+     * response ({"error": "..."}) or had no results[] at all.
+     */
+    public List<UserDto> finish() {
+        List<UserDto> users = new ArrayList<>();
+        try {
+            feeder.endOfInput();
+            drain(users);
+            parser.close();
+        } catch (IOException ex) {
+            throw new ExternalUserSourceException("Invalid JSON from RandomUser: " + ex.getMessage(), ex);
+        }
+        if (upstreamError != null) {
+            throw new ExternalUserSourceException("RandomUser returned an error: " + upstreamError);
+        }
+        if (user != null || depth != 0) {
+            throw new ExternalUserSourceException("RandomUser response ended in the middle of the JSON document");
+        }
+        if (!sawResults) {
+            throw new ExternalUserSourceException("RandomUser response has no results[]");
+        }
+        return users;
+    }
+
+    // Processes every token available so far (the parser answers NOT_AVAILABLE when it needs more bytes)
+    private void drain(List<UserDto> users) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            if (user != null) {
+                bufferUserToken(token, users);
+                continue;
+            }
+            switch (token) {
+                case START_OBJECT -> {
+                    if (inResults && depth == 2) {
+                        user = new TokenBuffer(parser, null);
+                        user.copyCurrentEvent(parser);
+                        userDepth = 1;
+                    } else {
+                        depth++;
+                    }
+                }
+                case START_ARRAY -> {
+                    if (depth == 1 && "results".equals(rootField)) {
+                        inResults = true;
+                        sawResults = true;
+                    }
+                    depth++;
+                }
+                case END_ARRAY, END_OBJECT -> {
+                    depth--;
+                    if (depth == 1) {
+                        inResults = false;
+                    }
+                }
+                case FIELD_NAME -> {
+                    if (depth == 1) {
+                        rootField = parser.currentName();
+                    }
+                }
+                case VALUE_STRING -> {
+                    if (depth == 1 && "error".equals(rootField)) {
+                        upstreamError = parser.getText();
+                    }
+                }
+                default -> {
+                    // scalar outside results[] (seed, version...) -> ignored
+                }
+            }
+        }
+    }
+
+    private void bufferUserToken(JsonToken token, List<UserDto> users) throws IOException {
+        user.copyCurrentEvent(parser);
+        if (token.isStructStart()) {
+            userDepth++;
+        } else if (token.isStructEnd()) {
+            userDepth--;
+        }
+        if (userDepth == 0) {
+            try (JsonParser userParser = user.asParser()) {
+                userParser.nextToken();
+                users.add(UserMapperFromRandomToDto.convertRandomUserToUserDto(userParser));
+            }
+            user = null;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.ishan.user_service.service;
+
+/**
+ * HOW fake users are generated, chosen per import request.
+ */
+public enum UserGeneratorMode {
+
+    // javafaker: richest data, slowest (YAML/regex resolution per field)
+    FAKER,
+
+    // Preloaded dictionaries + hash-based PRNG: same UserDto shape, many times faster
+    DICTIONARY
+}
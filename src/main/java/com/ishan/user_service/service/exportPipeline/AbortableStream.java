@@ -0,0 +1,11 @@
+package com.ishan.user_service.service.exportPipeline;
+
+/**
+ * A compressed export stream that can be dropped WITHOUT writing its trailer:
+ * a failed export must not end in a valid (but incomplete) .csv.gz. See ExportCompressor.abort().
+ */
+interface AbortableStream {
+
+    // Stops compressing, writes no trailer and leaves the target stream open (its owner handles it)
+    void abort();
+}
@@ -0,0 +1,259 @@
+package com.ishan.user_service.service.exportPipeline;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * OutputStream that gzips / deflates what the export writes, on ANOTHER thread.
+ *
+ * WHY NOT new GZIPOutputStream(response)?
+ * - Compressing costs CPU on the thread that writes, i.e. the thread that also runs the
+ *   keyset queries -> every batch would wait for its predecessor to be compressed
+ *
+ * HOW:
+ * - write() only copies into a chunk buffer (chunkBytes)
+ * - A full chunk, or flush() (the exports flush once per batch), hands the chunk to ONE
+ *   compressor thread through a small bounded queue and the writer carries on
+ * - The compressor deflates chunk after chunk into the response and SYNC_FLUSHes on every
+ *   flush -> the client gets compressed data batch by batch, not at the end
+ * - Buffers go back to a free list -> at most queueCapacity + 2 chunks exist per export
+ *
+ * A failure of the compressor (client gone) is thrown from the next write/flush/close.
+ *
+ * close() vs abort():
+ * - close() = the export is COMPLETE: the gzip/deflate trailer is written, the target closed
+ * - abort() = the export FAILED: no trailer, the target is left to the caller. A truncated .csv.gz with
+ *   a valid trailer would look like a complete (smaller) file; without it every decoder reports an error
+ */
+public class CompressingExportStream extends OutputStream implements AbortableStream {
+
+    private static final Chunk END = new Chunk(new byte[0], 0, true);
+    private static final Chunk ABORT = new Chunk(new byte[0], 0, false);
+
+    // How long abort() waits for the compressor to drop its stream before interrupting it
+    private static final long ABORT_WAIT_MS = 5000;
+
+    private final int chunkBytes;
+    private final BlockingQueue<Chunk> pending;
+    private final BlockingQueue<byte[]> freeBuffers;
+    private final Future<?> compressor;
+
+    private byte[] buffer;
+    private int count;
+    private volatile Throwable failure;
+    private boolean closed;
+
+    public CompressingExportStream(OutputStream target, ExportEncoding encoding, int level,
+                                   int chunkBytes, int queueCapacity, ExecutorService compressorPool) {
+        if (encoding == ExportEncoding.IDENTITY) {
+            throw new IllegalArgumentException("IDENTITY needs no compressing stream");
+        }
+        this.chunkBytes = chunkBytes;
+        this.pending = new ArrayBlockingQueue<>(queueCapacity + 1);
+        this.freeBuffers = new ArrayBlockingQueue<>(queueCapacity + 2);
+        this.buffer = new byte[chunkBytes];
+        this.compressor = compressorPool.submit(() -> compress(target, encoding, level));
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (count == buffer.length) {
+            handOff(false);
+        }
+        buffer[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (count == buffer.length) {
+                handOff(false);
+            }
+            int copied = Math.min(length, buffer.length - count);
+            System.arraycopy(bytes, offset, buffer, count, copied);
+            count += copied;
+            offset += copied;
+            length -= copied;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        handOff(true);
+    }
+
+    // Finishes the gzip/deflate trailer and closes the target
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        if (count > 0) {
+            handOff(false);
+        }
+        closed = true;
+        enqueue(END);
+        try {
+            compressor.get();
+        } catch (InterruptedException ex) {
+            compressor.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Export compression interrupted");
+        } catch (ExecutionException ex) {
+            // already recorded in failure
+        }
+        throwIfFailed();
+    }
+
+    // Drops what is still queued and stops the compressor without writing the trailer
+    @Override
+    public void abort() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        // Only this (writer) thread adds chunks -> after clear() there is room for ABORT
+        pending.clear();
+        pending.offer(ABORT);
+        try {
+            compressor.get(ABORT_WAIT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            compressor.cancel(true);
+            Thread.currentThread().interrupt();
+        } catch (TimeoutException ex) {
+            // e.g. stuck writing to a client that stopped reading
+            compressor.cancel(true);
+        } catch (ExecutionException ex) {
+            // already recorded in failure
+        }
+    }
+
+    private void handOff(boolean flush) throws IOException {
+        throwIfFailed();
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (count == 0 && !flush) {
+            return;
+        }
+        enqueue(new Chunk(buffer, count, flush));
+        byte[] recycled = freeBuffers.poll();
+        buffer = recycled != null ? recycled : new byte[chunkBytes];
+        count = 0;
+    }
+
+    // Bounded wait so a dead compressor (nobody taking) cannot block the writer forever
+    private void enqueue(Chunk chunk) throws IOException {
+        try {
+            while (!pending.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+                throwIfFailed();
+            }
+        } catch (InterruptedException ex) {
+            compressor.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Export compression interrupted");
+        }
+    }
+
+    private void compress(OutputStream target, ExportEncoding encoding, int level) {
+        DeflaterOutputStream out = null;
+        try {
+            out = open(target, encoding, level);
+            while (true) {
+                Chunk chunk = pending.take();
+                if (chunk == END) {
+                    // trailer + close the target
+                    out.close();
+                    return;
+                }
+                if (chunk == ABORT) {
+                    ((AbortableStream) out).abort();
+                    return;
+                }
+                out.write(chunk.data(), 0, chunk.length());
+                if (chunk.flush()) {
+                    // syncFlush = true -> everything written so far is decodable by the client now
+                    out.flush();
+                }
+                freeBuffers.offer(chunk.data());
+            }
+        } catch (Throwable ex) {
+            failure = ex;
+            if (out != null) {
+                ((AbortableStream) out).abort();
+            }
+        }
+    }
+
+    /**
+     * gzip / deflate stream that compresses on the CALLING thread
+     * (also used directly by ExportCompressor when all compressor threads are busy).
+     * close() writes the trailer, abort() only frees the native Deflater.
+     */
+    static DeflaterOutputStream open(OutputStream target, ExportEncoding encoding, int level) throws IOException {
+        if (encoding == ExportEncoding.GZIP) {
+            return new AbortableGzipStream(target, level);
+        }
+        return new AbortableDeflaterStream(target, level);
+    }
+
+    private static final class AbortableGzipStream extends GZIPOutputStream implements AbortableStream {
+
+        private AbortableGzipStream(OutputStream target, int level) throws IOException {
+            super(target, 64 * 1024, true);
+            def.setLevel(level);
+        }
+
+        @Override
+        public void abort() {
+            def.end();
+        }
+    }
+
+    private static final class AbortableDeflaterStream extends DeflaterOutputStream implements AbortableStream {
+
+        private AbortableDeflaterStream(OutputStream target, int level) {
+            super(target, new Deflater(level), 64 * 1024, true);
+        }
+
+        // the Deflater is ours (not the default one) -> end it ourselves to free its native memory
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                def.end();
+            }
+        }
+
+        @Override
+        public void abort() {
+            def.end();
+        }
+    }
+
+    private void throwIfFailed() throws IOException {
+        Throwable error = failure;
+        if (error == null) {
+            return;
+        }
+        if (error instanceof IOException ioException) {
+            throw new IOException("Export compression failed: " + ioException.getMessage(), ioException);
+        }
+        throw new IOException("Export compression failed", error);
+    }
+
+    private record Chunk(byte[] data, int length, boolean flush) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.ishan.user_service.service.exportPipeline;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+/**
+ * Wraps export response streams in a CompressingExportStream (one compressor thread per
+ * compressed export while it runs).
+ *
+ * OLD WAY: Executors.newCachedThreadPool() -> one more thread for EVERY concurrent compressed export, unbounded.
+ *
+ * HOW:
+ * - At most export.compression.max-threads compressor threads ("csv-export-compress-N"),
+ *   idle ones are reused and stop after a minute
+ * - All of them busy -> the export is compressed on its own writing thread instead
+ *   (slower for that export, but never an extra thread and never a failed export)
+ */
+@Component
+public class ExportCompressor {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportCompressor.class);
+
+    private final int level;
+    private final int chunkBytes;
+    private final int queueCapacity;
+    private final ThreadPoolExecutor compressorPool;
+
+    public ExportCompressor(@Value("${export.compression.level:1}") int level,
+                            @Value("${export.compression.chunk-bytes:262144}") int chunkBytes,
+                            @Value("${export.compression.queue-capacity:4}") int queueCapacity,
+                            @Value("${export.compression.max-threads:0}") int maxThreads) {
+        if (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("export.compression.level must be 1..9, was " + level);
+        }
+        this.level = level;
+        this.chunkBytes = Math.max(8 * 1024, chunkBytes);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        // 0 -> one per core (compression is CPU bound, more threads would only compete for the cores)
+        int threads = maxThreads > 0 ? maxThreads : Runtime.getRuntime().availableProcessors();
+        // No queue: a compressor must start right away (its export is waiting for it), or not at all
+        this.compressorPool = new ThreadPoolExecutor(0, threads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                Thread.ofPlatform().name("csv-export-compress-", 0).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // IDENTITY -> the stream itself, nothing wrapped
+    public OutputStream wrap(OutputStream target, ExportEncoding encoding) throws IOException {
+        if (encoding == ExportEncoding.IDENTITY) {
+            return target;
+        }
+        try {
+            return new CompressingExportStream(target, encoding, level, chunkBytes, queueCapacity, compressorPool);
+        } catch (RejectedExecutionException ex) {
+            log.warn("[EXPORT_COMPRESSION] All {} compressor threads busy, compressing on the export thread",
+                    compressorPool.getMaximumPoolSize());
+            return CompressingExportStream.open(target, encoding, level);
+        }
+    }
+
+    /**
+     * The export FAILED: drops a compressed stream WITHOUT its gzip/deflate trailer, so the client
+     * (or the file) ends in an error instead of a valid but incomplete .csv.gz.
+     * The target is not closed. Plain (IDENTITY) streams: nothing to do.
+     */
+    public void abort(OutputStream wrapped) {
+        if (wrapped instanceof AbortableStream abortable) {
+            abortable.abort();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        compressorPool.shutdownNow();
+    }
+}
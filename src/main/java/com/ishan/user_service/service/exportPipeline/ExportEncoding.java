@@ -0,0 +1,85 @@
+package com.ishan.user_service.service.exportPipeline;
+
+import java.util.Locale;
+
+/**
+ * Content-Encodings the streaming export can send, picked from the client's Accept-Encoding.
+ *
+ * - GZIP: understood by every browser / curl / HTTP client -> preferred when the client
+ *   likes gzip and deflate equally
+ * - DEFLATE: zlib format, a bit less framing than gzip
+ * - IDENTITY: no header, nothing acceptable, the client refused both (q=0) or ranks identity higher
+ *
+ * Exports are mostly repeated city/state/domain strings, so even the fastest deflate level
+ * shrinks them several times (see export.compression.level).
+ */
+public enum ExportEncoding {
+    GZIP("gzip"),
+    DEFLATE("deflate"),
+    IDENTITY(null);
+
+    private final String headerValue;
+
+    ExportEncoding(String headerValue) {
+        this.headerValue = headerValue;
+    }
+
+    // Content-Encoding value, null for IDENTITY (no header)
+    public String headerValue() {
+        return headerValue;
+    }
+
+    /**
+     * Accept-Encoding -> encoding with the highest q value ("gzip;q=0.5, deflate" -> DEFLATE).
+     * "*" counts for encodings that are not listed, q=0 means "never".
+     */
+    public static ExportEncoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return IDENTITY;
+        }
+        double gzip = -1;
+        double deflate = -1;
+        double identity = -1;
+        double wildcard = -1;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.split(";");
+            String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+            double quality = quality(tokens);
+            switch (coding) {
+                case "gzip", "x-gzip" -> gzip = Math.max(gzip, quality);
+                case "deflate" -> deflate = Math.max(deflate, quality);
+                case "identity" -> identity = Math.max(identity, quality);
+                case "*" -> wildcard = Math.max(wildcard, quality);
+                default -> {
+                    // br, zstd... not supported here
+                }
+            }
+        }
+        if (gzip < 0) {
+            gzip = wildcard;
+        }
+        if (deflate < 0) {
+            deflate = wildcard;
+        }
+        // "identity" only wins when the client explicitly prefers it over both
+        if ((gzip <= 0 && deflate <= 0) || identity > Math.max(gzip, deflate)) {
+            return IDENTITY;
+        }
+        return gzip >= deflate ? GZIP : DEFLATE;
+    }
+
+    // ";q=0.8" -> 0.8, no q -> 1, unparsable -> 0 (ignored)
+    private static double quality(String[] tokens) {
+        for (int i = 1; i < tokens.length; i++) {
+            String parameter = tokens[i].trim();
+            if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException ex) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,15 @@
+package com.ishan.user_service.service.exportPipeline;
+
+/**
+ * Progress callback of ParallelCsvExporter (an export job shows it in its status).
+ * Called on the writing thread after every segment -> keep it cheap (no DB write per call).
+ */
+@FunctionalInterface
+public interface ExportProgressListener {
+
+    ExportProgressListener NONE = (exportedRows, totalRows) -> {
+    };
+
+    // totalRows = matching users counted when the export started (rows added later are not in it)
+    void onProgress(long exportedRows, long totalRows);
+}
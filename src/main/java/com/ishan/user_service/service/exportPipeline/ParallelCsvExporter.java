@@ -0,0 +1,235 @@
+package com.ishan.user_service.service.exportPipeline;
+
+import com.ishan.user_service.model.User;
+import com.ishan.user_service.repository.UserJdbcRepository;
+import com.ishan.user_service.repository.UserRepository;
+import com.ishan.user_service.specification.UserSearchCriteria;
+import com.ishan.user_service.specification.UserSpecification;
+import com.ishan.user_service.utility.CSVReadWriteUtility;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Parallel version of the keyset streaming export.
+ *
+ * OLD WAY (UserExportServiceImpl.streamUsersAsCsv): fetch batch -> format -> write -> next batch,
+ * ONE query at a time -> a 3M-row export takes 3000 x (query latency + formatting).
+ *
+ * HOW:
+ * - [minId, maxId] is cut into SEGMENTS sized to hold ~batchSize users each (from the row count)
+ * - fetchThreads workers fetch + format segments at the same time, each query on its own pooled
+ *   connection, each segment becomes ONE ready-to-write byte[] chunk
+ * - The response thread writes the chunks strictly in segment order -> the file is in id order,
+ *   exactly like the sequential export
+ *
+ * WHY SEGMENTS AND NOT K BIG RANGES?
+ * - Output must be in id order: range 2 cannot be written before range 1 is finished,
+ *   so with K big ranges the later ones would either stall or have to buffer (memory grows)
+ * - With small segments, the K queries in flight are always the ones right after the write position
+ *
+ * MEMORY: at most segmentsInFlight chunks exist, each at most batchSize rows
+ * (a segment that hits the LIMIT is finished by a follow-up query for the rest of its id range).
+ *
+ * FILTERED EXPORTS (same filters as GET /search):
+ * - minId / maxId / count are those of the MATCHING users -> segments are sized for the filtered
+ *   density, the number of queries follows the result size, not the table size
+ * - Segments are read with the search Specification + "fromId <= id < toId" instead of plain JDBC
+ */
+@Component
+public class ParallelCsvExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelCsvExporter.class);
+
+    // Rough bytes per CSV row, only used to pre-size the chunk builders
+    private static final int ROW_BYTES_ESTIMATE = 96;
+
+    private final UserJdbcRepository userJdbcRepository;
+    private final UserRepository userRepository;
+    private final int batchSize;
+    private final int segmentsInFlight;
+    private final ExecutorService fetchPool;
+
+    public ParallelCsvExporter(UserJdbcRepository userJdbcRepository,
+                               UserRepository userRepository,
+                               @Value("${export.parallel.fetch-threads:4}") int fetchThreads,
+                               @Value("${export.parallel.batch-size:1000}") int batchSize,
+                               @Value("${export.parallel.segments-in-flight:0}") int segmentsInFlight) {
+        this.userJdbcRepository = userJdbcRepository;
+        this.userRepository = userRepository;
+        this.batchSize = Math.max(1, batchSize);
+        // 0 -> 2 per worker: one being fetched, one ready for the writer
+        this.segmentsInFlight = segmentsInFlight > 0 ? segmentsInFlight : 2 * fetchThreads;
+        // Shared by all exports: N concurrent exports still use at most fetchThreads connections
+        this.fetchPool = Executors.newFixedThreadPool(fetchThreads,
+                Thread.ofPlatform().name("csv-export-fetch-", 0).daemon().factory());
+    }
+
+    /**
+     * Writes the header + every user matching criteria, in id order, to outputStream (which is NOT closed).
+     * @return number of users written
+     * @throws IOException when the client goes away; the queries still in flight are cancelled
+     */
+    public long export(OutputStream outputStream, UserSearchCriteria criteria) throws IOException {
+        return export(outputStream, criteria, ExportProgressListener.NONE);
+    }
+
+    /**
+     * Same, and tells progressListener how far the export is: once with 0 written when the
+     * matching row count is known, then after every segment written (runs on the calling thread).
+     */
+    public long export(OutputStream outputStream, UserSearchCriteria criteria,
+                       ExportProgressListener progressListener) throws IOException {
+        long startTime = System.currentTimeMillis();
+        SegmentScanner scanner;
+        UserJdbcRepository.IdBounds bounds;
+        if (criteria.isEmpty()) {
+            scanner = userJdbcRepository::scanUsers;
+            bounds = userJdbcRepository.findIdBounds();
+        } else {
+            Specification<User> filter = criteria.toSpecification();
+            scanner = (fromId, toId, limit, userConsumer) -> scanFiltered(filter, fromId, toId, limit, userConsumer);
+            bounds = filteredIdBounds(filter);
+        }
+
+        outputStream.write(CSVReadWriteUtility.getCSVHeader().getBytes(StandardCharsets.UTF_8));
+        outputStream.flush();
+        progressListener.onProgress(0, bounds.rows());
+        if (bounds.rows() == 0) {
+            return 0;
+        }
+
+        long segmentWidth = segmentWidth(bounds);
+        log.info("[EXPORT_PARALLEL] Started | filters={} totalUsers={} idRange=[{}, {}] segmentWidth={} segmentsInFlight={}",
+                criteria, bounds.rows(), bounds.minId(), bounds.maxId(), segmentWidth, segmentsInFlight);
+
+        Deque<Future<Segment>> inFlight = new ArrayDeque<>();
+        long nextFromId = bounds.minId();
+        long endId = bounds.maxId() + 1;
+        long exportedCount = 0;
+        long segments = 0;
+        try {
+            while (true) {
+                // Keep the window full: the segments right after the write position are being fetched
+                while (inFlight.size() < segmentsInFlight && nextFromId < endId) {
+                    long toId = Math.min(endId, nextFromId + segmentWidth);
+                    inFlight.addLast(submit(scanner, nextFromId, toId));
+                    nextFromId = toId;
+                }
+                if (inFlight.isEmpty()) {
+                    break;
+                }
+
+                Segment segment = await(inFlight.pollFirst());
+                if (segment.remainderFromId() >= 0) {
+                    // Denser than average -> the rest of this id range goes BEFORE everything else in flight
+                    inFlight.addFirst(submit(scanner, segment.remainderFromId(), segment.toId()));
+                }
+                outputStream.write(segment.csv());
+                outputStream.flush();
+                exportedCount += segment.rows();
+                progressListener.onProgress(exportedCount, bounds.rows());
+
+                segments++;
+                if (segments % 100 == 0) {
+                    log.info("[EXPORT_PARALLEL] Progress | exported={}/{} elapsed={}s", exportedCount, bounds.rows(),
+                            (System.currentTimeMillis() - startTime) / 1000.0);
+                }
+            }
+        } finally {
+            // Client gone / query failed -> do not keep fetching segments nobody will write
+            inFlight.forEach(future -> future.cancel(true));
+        }
+
+        log.info("[EXPORT_PARALLEL] Completed | exported={} segments={} totalTime={}s",
+                exportedCount, segments, (System.currentTimeMillis() - startTime) / 1000.0);
+        return exportedCount;
+    }
+
+    // Wide enough for ~batchSize users at the table's average id density (ids have gaps: deletes, unused ID blocks)
+    private long segmentWidth(UserJdbcRepository.IdBounds bounds) {
+        double idSpan = bounds.maxId() - bounds.minId() + 1.0;
+        double usersPerId = bounds.rows() / idSpan;
+        return Math.max(batchSize, (long) Math.ceil(batchSize / usersPerId));
+    }
+
+    // MIN / MAX / COUNT of the matching users (3 small queries, once per export)
+    private UserJdbcRepository.IdBounds filteredIdBounds(Specification<User> filter) {
+        long rows = userRepository.count(filter);
+        if (rows == 0) {
+            return new UserJdbcRepository.IdBounds(0, 0, 0);
+        }
+        long minId = userRepository.findBy(filter, query -> query.sortBy(Sort.by("id").ascending()).firstValue()).getId();
+        long maxId = userRepository.findBy(filter, query -> query.sortBy(Sort.by("id").descending()).firstValue()).getId();
+        return new UserJdbcRepository.IdBounds(minId, maxId, rows);
+    }
+
+    // Same contract as UserJdbcRepository.scanUsers, through the search Specification
+    private long scanFiltered(Specification<User> filter, long fromId, long toId, int limit, Consumer<User> userConsumer) {
+        List<User> users = userRepository.findBy(filter.and(UserSpecification.hasIdInRange(fromId, toId)),
+                query -> query.sortBy(Sort.by("id")).limit(limit).all());
+        users.forEach(userConsumer);
+        return users.isEmpty() ? -1 : users.getLast().getId();
+    }
+
+    private Future<Segment> submit(SegmentScanner scanner, long fromId, long toId) {
+        return fetchPool.submit(() -> fetch(scanner, fromId, toId));
+    }
+
+    private Segment fetch(SegmentScanner scanner, long fromId, long toId) {
+        StringBuilder csv = new StringBuilder(batchSize * ROW_BYTES_ESTIMATE);
+        int[] rows = {0};
+        long lastId = scanner.scan(fromId, toId, batchSize, user -> {
+            csv.append(CSVReadWriteUtility.toCsvRow(user)).append('\n');
+            rows[0]++;
+        });
+        // LIMIT reached before the end of the range -> the caller fetches [lastId + 1, toId) next
+        long remainderFromId = rows[0] == batchSize && lastId + 1 < toId ? lastId + 1 : -1;
+        return new Segment(toId, csv.toString().getBytes(StandardCharsets.UTF_8), rows[0], remainderFromId);
+    }
+
+    private static Segment await(Future<Segment> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("CSV export interrupted");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("CSV export segment failed", ex.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fetchPool.shutdownNow();
+    }
+
+    // Reads the first limit users with fromId <= id < toId in id order, returns the last id or -1
+    private interface SegmentScanner {
+        long scan(long fromId, long toId, int limit, Consumer<User> userConsumer);
+    }
+
+    // One fetched + formatted id range [.., toId), remainderFromId = -1 when the whole range was read
+    private record Segment(long toId, byte[] csv, int rows, long remainderFromId) {
+    }
+}
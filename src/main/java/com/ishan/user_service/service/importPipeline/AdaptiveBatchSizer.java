@@ -0,0 +1,156 @@
+package com.ishan.user_service.service.importPipeline;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Picks the batch size of ONE import job from measured commit latency and rows/sec.
+ *
+ * WHY NOT A FIXED 1000?
+ * - On an idle box bigger batches = fewer commits = more rows/sec
+ * - On our busy MySQL primary a big batch holds locks/redo longer -> commit latency spikes
+ *   and OLTP requests wait behind the import
+ * - The best size is different on every box and changes during the day
+ *
+ * HOW IT DECIDES (hill climbing with a latency guard), once per window of commits:
+ * 1. Slowest commit of the window > target latency -> HALVE the batch size (protect OLTP traffic)
+ * 2. Rows/sec clearly better (> 5%) than the best seen so far -> remember it, GROW by 50%
+ * 3. No gain at the new size -> go BACK to the best size and hold it for a while
+ * 4. After holding for probeIntervalWindows windows -> probe a bigger size again (load may have changed)
+ * Always within [minBatchSize, maxBatchSize].
+ *
+ * Rows/sec is measured per writer (rows / time spent committing), so it does not
+ * depend on how many writers run in parallel.
+ *
+ * Thread-safety: the producer reads the size, all writers report commits -> synchronized.
+ */
+public class AdaptiveBatchSizer {
+
+    // Keep only the latest decisions in the job status
+    private static final int MAX_HISTORY = 20;
+
+    // Below this gain a bigger batch is "not worth it" (measurement noise)
+    private static final double MIN_GAIN = 1.05;
+
+    private final boolean enabled;
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final long targetCommitLatencyNanos;
+    private final int windowCommits;
+    private final int probeIntervalWindows;
+
+    private int currentBatchSize;
+
+    // Best rows/sec (per writer) seen so far, and the batch size that achieved it
+    private double bestRowsPerSecond = 0;
+    private int bestBatchSize;
+
+    // Current measurement window (only commits of exactly currentBatchSize rows count)
+    private int windowCount = 0;
+    private long windowRows = 0;
+    private long windowLatencyNanos = 0;
+    private long windowMaxLatencyNanos = 0;
+
+    private int holdWindowsLeft = 0;
+    private long decisions = 0;
+    private final Deque<String> history = new ArrayDeque<>();
+
+    public AdaptiveBatchSizer(boolean enabled,
+                              int initialBatchSize,
+                              int minBatchSize,
+                              int maxBatchSize,
+                              long targetCommitLatencyMillis,
+                              int windowCommits,
+                              int probeIntervalWindows) {
+        this.enabled = enabled;
+        this.minBatchSize = Math.max(1, Math.min(minBatchSize, initialBatchSize));
+        this.maxBatchSize = Math.max(maxBatchSize, initialBatchSize);
+        this.targetCommitLatencyNanos = targetCommitLatencyMillis * 1_000_000;
+        this.windowCommits = Math.max(1, windowCommits);
+        this.probeIntervalWindows = Math.max(1, probeIntervalWindows);
+        this.currentBatchSize = initialBatchSize;
+        this.bestBatchSize = initialBatchSize;
+        history.addLast("start: " + initialBatchSize + (enabled ? "" : " (adaptive sizing disabled)"));
+    }
+
+    // Size of the NEXT batch the producer should build
+    public synchronized int currentBatchSize() {
+        return currentBatchSize;
+    }
+
+    /**
+     * Reports one committed batch.
+     * @return true if the batch size changed (so the caller can publish it)
+     */
+    public synchronized boolean recordCommit(int rows, long commitLatencyNanos) {
+        // Batches built before the last change (or the smaller last batch) would skew the window
+        if (!enabled || rows != currentBatchSize) {
+            return false;
+        }
+        windowCount++;
+        windowRows += rows;
+        windowLatencyNanos += commitLatencyNanos;
+        windowMaxLatencyNanos = Math.max(windowMaxLatencyNanos, commitLatencyNanos);
+        if (windowCount < windowCommits) {
+            return false;
+        }
+
+        double rowsPerSecond = windowLatencyNanos == 0 ? windowRows : windowRows / (windowLatencyNanos / 1e9);
+        long maxLatencyMillis = windowMaxLatencyNanos / 1_000_000;
+        boolean latencyTooHigh = windowMaxLatencyNanos > targetCommitLatencyNanos;
+        resetWindow();
+
+        if (latencyTooHigh) {
+            // Throughput numbers measured under spikes are not comparable -> start climbing again from scratch
+            bestRowsPerSecond = 0;
+            holdWindowsLeft = 0;
+            return changeTo(Math.max(minBatchSize, currentBatchSize / 2),
+                    "max commit " + maxLatencyMillis + "ms > target " + targetCommitLatencyNanos / 1_000_000 + "ms", rowsPerSecond);
+        }
+        if (rowsPerSecond > bestRowsPerSecond * MIN_GAIN) {
+            bestRowsPerSecond = rowsPerSecond;
+            bestBatchSize = currentBatchSize;
+            return changeTo(Math.min(maxBatchSize, currentBatchSize + currentBatchSize / 2),
+                    "rows/sec improved, max commit " + maxLatencyMillis + "ms", rowsPerSecond);
+        }
+        if (currentBatchSize != bestBatchSize) {
+            holdWindowsLeft = probeIntervalWindows;
+            return changeTo(bestBatchSize, "no gain over best size", rowsPerSecond);
+        }
+        if (--holdWindowsLeft <= 0) {
+            // The probe has to beat what the best size delivers NOW
+            bestRowsPerSecond = rowsPerSecond;
+            return changeTo(Math.min(maxBatchSize, currentBatchSize + currentBatchSize / 2),
+                    "probing a bigger size", rowsPerSecond);
+        }
+        return false;
+    }
+
+    // Latest decisions, oldest first, e.g. "#3 1500 -> 2250 (rows/sec improved, max commit 95ms) @ 10400 rows/sec"
+    public synchronized List<String> history() {
+        return new ArrayList<>(history);
+    }
+
+    private boolean changeTo(int newBatchSize, String reason, double rowsPerSecond) {
+        if (newBatchSize == currentBatchSize) {
+            return false;
+        }
+        decisions++;
+        history.addLast("#" + decisions + " " + currentBatchSize + " -> " + newBatchSize
+                + " (" + reason + ") @ " + String.format("%.0f", rowsPerSecond) + " rows/sec");
+        if (history.size() > MAX_HISTORY) {
+            history.removeFirst();
+        }
+        currentBatchSize = newBatchSize;
+        return true;
+    }
+
+    private void resetWindow() {
+        windowCount = 0;
+        windowRows = 0;
+        windowLatencyNanos = 0;
+        windowMaxLatencyNanos = 0;
+    }
+}
@@ -0,0 +1,45 @@
+package com.ishan.user_service.service.importPipeline;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates one AdaptiveBatchSizer per import job from the import.batch-sizing.* properties.
+ * (The sizer itself holds per-job state, so it cannot be a Spring singleton.)
+ */
+@Component
+public class AdaptiveBatchSizerFactory {
+
+    private final boolean enabled;
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final long targetCommitLatencyMillis;
+    private final int windowCommits;
+    private final int probeIntervalWindows;
+
+    public AdaptiveBatchSizerFactory(@Value("${import.batch-sizing.adaptive:true}") boolean enabled,
+                                     @Value("${import.batch-sizing.min:200}") int minBatchSize,
+                                     @Value("${import.batch-sizing.max:10000}") int maxBatchSize,
+                                     @Value("${import.batch-sizing.target-commit-latency-ms:500}") long targetCommitLatencyMillis,
+                                     @Value("${import.batch-sizing.window-commits:5}") int windowCommits,
+                                     @Value("${import.batch-sizing.probe-interval-windows:10}") int probeIntervalWindows) {
+        this.enabled = enabled;
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.targetCommitLatencyMillis = targetCommitLatencyMillis;
+        this.windowCommits = windowCommits;
+        this.probeIntervalWindows = probeIntervalWindows;
+    }
+
+    // Adaptive sizer starting at initialBatchSize
+    public AdaptiveBatchSizer create(int initialBatchSize) {
+        return new AdaptiveBatchSizer(enabled, initialBatchSize, minBatchSize, maxBatchSize,
+                targetCommitLatencyMillis, windowCommits, probeIntervalWindows);
+    }
+
+    // Sizer that never changes the size (engines that pick their own batch size, e.g. BULK_LOAD)
+    public AdaptiveBatchSizer fixed(int batchSize) {
+        return new AdaptiveBatchSizer(false, batchSize, batchSize, batchSize,
+                targetCommitLatencyMillis, windowCommits, probeIntervalWindows);
+    }
+}
@@ -0,0 +1,47 @@
+package com.ishan.user_service.service.importPipeline;
+
+/**
+ * Keeps track of which batches of ONE job have been committed.
+ * With parallel writers, batch 43 may commit before batch 42,
+ * so "last committed batch" is not enough -> we keep the exact set (as ranges).
+ * All methods are synchronized: several writer threads record into the same ledger.
+ *
+ * committedRows counts SOURCE POSITIONS (endPosition - startPosition), not saved users: rows dropped
+ * as duplicate emails are processed too. ImportCheckpointService.load counts the same way, so the
+ * job's processedCount is identical before and after a resume.
+ */
+public class CommittedBatchLedger {
+
+    private final RangeSet committedBatchNumbers = new RangeSet();
+    private long committedBatchCount = 0;
+    private long committedRows = 0;
+
+    public CommittedBatchLedger() {
+    }
+
+    // Resumed job: continue from what earlier runs already committed
+    public CommittedBatchLedger(ImportCheckpoint resumeFrom) {
+        committedBatchNumbers.addAll(resumeFrom.committedBatchNumbers());
+        committedBatchCount = resumeFrom.committedBatchNumbers().coveredLength();
+        committedRows = resumeFrom.committedRows();
+    }
+
+    public synchronized void recordCommitted(ImportBatch batch) {
+        committedBatchNumbers.add(batch.batchNumber(), batch.batchNumber() + 1L);
+        committedBatchCount++;
+        committedRows += batch.endPosition() - batch.startPosition();
+    }
+
+    public synchronized long getCommittedBatchCount() {
+        return committedBatchCount;
+    }
+
+    public synchronized long getCommittedRows() {
+        return committedRows;
+    }
+
+    // e.g. "0-41,43-57" (batch numbers start at 0)
+    public synchronized String describeCommittedBatches() {
+        return committedBatchNumbers.isEmpty() ? "none" : committedBatchNumbers.toString();
+    }
+}
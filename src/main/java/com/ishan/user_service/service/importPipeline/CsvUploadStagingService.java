@@ -0,0 +1,177 @@
+package com.ishan.user_service.service.importPipeline;
+
+import com.ishan.user_service.customExceptions.InvalidImportFileException;
+import com.ishan.user_service.dto.ImportUserJobInfoDto;
+import com.ishan.user_service.repository.ImportJobRepository;
+import com.ishan.user_service.utility.CSVReadWriteUtility;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Keeps uploaded CSV files on local disk for as long as their import job needs them.
+ *
+ * WHY STAGE AT ALL?
+ * - The import runs async, AFTER the request is answered, and the servlet container deletes
+ *   its multipart temp file at the end of the request
+ * - transferTo() moves that temp file (a rename when it is on the same disk), nothing is read into the heap
+ * - A FAILED / PAUSED job keeps its file -> it can be resumed; COMPLETED / CANCELLED jobs delete it
+ *
+ * RETENTION:
+ * - A FAILED / PAUSED job nobody resumes (or a JVM that died between staging and creating the job)
+ *   would keep a multi-GB file forever -> uploads older than import.csv-upload.retention-minutes are
+ *   deleted (checked every import.csv-upload.cleanup-interval-ms), except for PENDING / IN_PROGRESS jobs
+ *
+ * The row count is only an ESTIMATE (newlines - header; quoted values with line breaks count twice),
+ * used for the rate-limit tier and progress %. The source itself reads until the end of the file.
+ */
+@Service
+public class CsvUploadStagingService {
+
+    private static final Logger log = LoggerFactory.getLogger(CsvUploadStagingService.class);
+
+    // Every staged upload is named like this -> the sweep never touches other files of a shared temp dir
+    private static final String STAGED_FILE_PREFIX = "users-upload-";
+
+    private static final Set<ImportUserJobInfoDto.ImportStatus> ACTIVE_STATUSES =
+            EnumSet.of(ImportUserJobInfoDto.ImportStatus.PENDING, ImportUserJobInfoDto.ImportStatus.IN_PROGRESS);
+
+    private final Path stagingDir;
+    private final ImportJobRepository importJobRepository;
+    private final long retentionMinutes;
+
+    public CsvUploadStagingService(@Value("${import.csv-upload.staging-dir:${java.io.tmpdir}}") String stagingDir,
+                                   ImportJobRepository importJobRepository,
+                                   @Value("${import.csv-upload.retention-minutes:4320}") long retentionMinutes) {
+        this.stagingDir = Paths.get(stagingDir);
+        this.importJobRepository = importJobRepository;
+        this.retentionMinutes = retentionMinutes;
+    }
+
+    public record StagedCsvFile(Path path, long estimatedRows) {
+    }
+
+    /**
+     * Moves the upload into the staging dir, checks its header and estimates its rows.
+     * Throws InvalidImportFileException (nothing staged) when it is not a users CSV.
+     */
+    public StagedCsvFile stage(MultipartFile upload) throws IOException {
+        if (upload.isEmpty()) {
+            throw new InvalidImportFileException("Uploaded CSV file is empty");
+        }
+        Files.createDirectories(stagingDir);
+        Path stagedFile = stagingDir.resolve(STAGED_FILE_PREFIX + UUID.randomUUID() + ".csv");
+        upload.transferTo(stagedFile.toFile());
+        try {
+            checkHeader(stagedFile);
+            long estimatedRows = Math.max(0, countLines(stagedFile) - 1);
+            log.info("[CSV_UPLOAD] Staged | file={} originalName={} bytes={} estimatedRows={}",
+                    stagedFile, upload.getOriginalFilename(), Files.size(stagedFile), estimatedRows);
+            return new StagedCsvFile(stagedFile, estimatedRows);
+        } catch (IOException | RuntimeException ex) {
+            discard(stagedFile.toString());
+            throw ex;
+        }
+    }
+
+    // Staged file of a job that is over (or never started); missing file = nothing to do
+    public void discard(String stagedFile) {
+        if (stagedFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(Paths.get(stagedFile));
+        } catch (IOException ex) {
+            log.warn("[CSV_UPLOAD] Could not delete staged file {}", stagedFile, ex);
+        }
+    }
+
+    /**
+     * Deletes staged uploads older than the retention whose job is not queued / running any more.
+     * Age = last modification (the upload finished), so a slow multi-GB upload is not cut short.
+     */
+    @Scheduled(initialDelayString = "${import.csv-upload.cleanup-interval-ms:3600000}",
+            fixedDelayString = "${import.csv-upload.cleanup-interval-ms:3600000}")
+    public void expireOldUploads() {
+        if (!Files.isDirectory(stagingDir)) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(retentionMinutes));
+        List<Path> candidates;
+        try (Stream<Path> files = Files.list(stagingDir)) {
+            candidates = files.filter(file -> file.getFileName().toString().startsWith(STAGED_FILE_PREFIX))
+                    .filter(file -> isOlderThan(file, cutoff))
+                    .toList();
+        } catch (IOException ex) {
+            log.warn("[CSV_UPLOAD] Could not list staging dir {}", stagingDir, ex);
+            return;
+        }
+        int expired = 0;
+        for (Path file : candidates) {
+            if (importJobRepository.existsBySourceFileAndStatusIn(file.toString(), ACTIVE_STATUSES)) {
+                continue;
+            }
+            discard(file.toString());
+            expired++;
+        }
+        if (expired > 0) {
+            log.info("[CSV_UPLOAD] Expired old staged uploads | count={} retentionMinutes={}", expired, retentionMinutes);
+        }
+    }
+
+    private static boolean isOlderThan(Path file, Instant cutoff) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant().isBefore(cutoff);
+        } catch (IOException ex) {
+            // Deleted in the meantime
+            return false;
+        }
+    }
+
+    private void checkHeader(Path stagedFile) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(stagedFile, StandardCharsets.UTF_8)) {
+            if (!CSVReadWriteUtility.isHeader(reader.readLine())) {
+                throw new InvalidImportFileException("Not a users CSV, expected header: "
+                        + CSVReadWriteUtility.getCSVHeader().strip());
+            }
+        }
+    }
+
+    // Byte scan, no decoding and no Strings: a few seconds even for multi-GB files
+    private long countLines(Path stagedFile) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long lines = 0;
+        int lastByte = '\n';
+        try (InputStream in = Files.newInputStream(stagedFile)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') {
+                        lines++;
+                    }
+                }
+                lastByte = buffer[read - 1];
+            }
+        }
+        // Last line without a trailing newline
+        return lastByte == '\n' ? lines : lines + 1;
+    }
+}
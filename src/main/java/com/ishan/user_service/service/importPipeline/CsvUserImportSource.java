@@ -0,0 +1,200 @@
+package com.ishan.user_service.service.importPipeline;
+
+import com.ishan.user_service.dto.UserDto;
+import com.ishan.user_service.utility.CSVReadWriteUtility;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams users out of a CSV file in the CSVReadWriteUtility layout (id,name,age,gender,city,state,email,mobile),
+ * i.e. exactly what our export writes -> an export can be imported into another environment.
+ *
+ * CONSTANT MEMORY:
+ * - The file is read through a 64 KB char buffer, one record at a time
+ * - Only the batch being built is in memory, never the file (a 5 GB file costs the same heap as a 5 MB one)
+ *
+ * PARSING (RFC 4180, like CSVReadWriteUtility.escape() writes it):
+ * - Quoted values may contain commas, doubled quotes and line breaks
+ * - Blank lines are skipped, \r\n and \n both end a record
+ * - A row with the wrong column count or a non-numeric age fails the job with its line number
+ *
+ * Positions are data row indexes (header excluded), so a resumed job re-reads the same file
+ * and only SKIPS (parses but does not map) the rows that are already committed.
+ */
+public class CsvUserImportSource implements UserImportSource {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private final long estimatedRows;
+
+    // Positions committed by earlier runs of the job (empty for a new job)
+    private final RangeSet alreadyCommitted;
+
+    // Data row index of the next record
+    private long nextPosition = 0;
+
+    // Own buffer instead of BufferedReader.read(): no lock per character
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int bufferPosition = 0;
+    private int bufferLimit = 0;
+
+    // Reused for every record: values of the current row + the value being parsed
+    private final String[] fields = new String[CSVReadWriteUtility.COLUMN_COUNT];
+    private final StringBuilder field = new StringBuilder();
+
+    // File line of the current character / of the record being parsed (header = line 1)
+    private long lineNumber = 1;
+    private long recordLine;
+
+    public CsvUserImportSource(Path csvFile, long estimatedRows, RangeSet alreadyCommitted) throws IOException {
+        this.reader = new InputStreamReader(Files.newInputStream(csvFile), StandardCharsets.UTF_8);
+        this.estimatedRows = estimatedRows;
+        this.alreadyCommitted = alreadyCommitted;
+        skipHeader();
+    }
+
+    @Override
+    public ImportBatch nextBatch(int maxRows) throws IOException {
+        // Rows committed by an earlier run: parsed to stay aligned, not mapped
+        long resumeAt = alreadyCommitted.nextUncovered(nextPosition);
+        while (nextPosition < resumeAt) {
+            if (!readRecord()) {
+                return null;
+            }
+            nextPosition++;
+        }
+
+        // A batch never runs into rows that are already committed
+        long end = Math.min(nextPosition + maxRows, alreadyCommitted.nextCoveredStart(nextPosition));
+        long start = nextPosition;
+        List<UserDto> users = new ArrayList<>((int) (end - start));
+        while (nextPosition < end && readRecord()) {
+            users.add(toUserDto());
+            nextPosition++;
+        }
+        return users.isEmpty() ? null : new ImportBatch(start, nextPosition, users);
+    }
+
+    @Override
+    public long estimatedTotalRows() {
+        return estimatedRows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void skipHeader() throws IOException {
+        StringBuilder header = new StringBuilder();
+        int c;
+        while ((c = nextChar()) != -1 && c != '\n') {
+            header.append((char) c);
+        }
+        lineNumber++;
+        if (!CSVReadWriteUtility.isHeader(header.toString())) {
+            throw new IllegalArgumentException("Not a users CSV, expected header: " + CSVReadWriteUtility.getCSVHeader().strip());
+        }
+    }
+
+    /**
+     * Parses the next record into fields.
+     * @return false at the end of the file
+     */
+    private boolean readRecord() throws IOException {
+        int c = nextChar();
+        while (c == '\r' || c == '\n') {
+            if (c == '\n') {
+                lineNumber++;
+            }
+            c = nextChar();
+        }
+        if (c == -1) {
+            return false;
+        }
+
+        recordLine = lineNumber;
+        int column = 0;
+        boolean quoted = false;
+        field.setLength(0);
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw invalidRow("unterminated quoted value");
+                }
+                if (c == '"') {
+                    c = nextChar();
+                    if (c == '"') {
+                        field.append('"'); // "" inside quotes = one quote
+                        c = nextChar();
+                    } else {
+                        quoted = false;
+                    }
+                    continue;
+                }
+                if (c == '\n') {
+                    lineNumber++;
+                }
+                field.append((char) c);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                endField(column++);
+            } else if (c == '\n' || c == -1) {
+                endField(column++);
+                if (c == '\n') {
+                    lineNumber++;
+                }
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = nextChar();
+        }
+
+        if (column != CSVReadWriteUtility.COLUMN_COUNT) {
+            throw invalidRow("expected " + CSVReadWriteUtility.COLUMN_COUNT + " columns, found " + column);
+        }
+        return true;
+    }
+
+    // The id column is never used (imported users get new IDs) -> no String for it
+    private void endField(int column) {
+        if (column != CSVReadWriteUtility.ID && column < fields.length) {
+            fields[column] = field.toString();
+        }
+        field.setLength(0);
+    }
+
+    private UserDto toUserDto() {
+        try {
+            return CSVReadWriteUtility.toUserDto(fields);
+        } catch (NumberFormatException ex) {
+            throw invalidRow("age is not a number: " + fields[CSVReadWriteUtility.AGE]);
+        }
+    }
+
+    private int nextChar() throws IOException {
+        if (bufferPosition == bufferLimit) {
+            bufferLimit = reader.read(buffer, 0, buffer.length);
+            bufferPosition = 0;
+            if (bufferLimit <= 0) {
+                bufferLimit = 0;
+                return -1;
+            }
+        }
+        return buffer[bufferPosition++];
+    }
+
+    private IllegalArgumentException invalidRow(String reason) {
+        return new IllegalArgumentException("Invalid CSV row at line " + recordLine + ": " + reason);
+    }
+}
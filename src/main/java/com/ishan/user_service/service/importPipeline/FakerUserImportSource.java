@@ -0,0 +1,58 @@
+package com.ishan.user_service.service.importPipeline;
+
+import com.ishan.user_service.dto.UserDto;
+import com.ishan.user_service.service.MockUserGeneratorService;
+import com.ishan.user_service.service.UserGeneratorMode;
+
+import java.util.List;
+
+/**
+ * Generates fake users batch-by-batch instead of building one huge List up front.
+ * Old flow : generate 2M users -> keep all in heap -> then start inserting
+ * New flow : generate 1000 -> hand over -> generate next 1000 while the previous batch is being saved
+ * Row N is derived from (mode, seed, N) only, so the same seed + count always yields the same users.
+ * That also makes it resumable: rows already committed by an earlier run are simply skipped
+ * and only the missing positions are generated again.
+ */
+public class FakerUserImportSource implements UserImportSource {
+
+    private final MockUserGeneratorService mockUserGeneratorService;
+    private final long totalCount;
+    private final UserGeneratorMode mode;
+    private final long seed;
+
+    // Positions committed by earlier runs of the job (empty for a new job)
+    private final RangeSet alreadyCommitted;
+
+    // Row index of the next user to generate
+    private long nextPosition = 0;
+
+    public FakerUserImportSource(MockUserGeneratorService mockUserGeneratorService, long totalCount,
+                                 UserGeneratorMode mode, long seed, RangeSet alreadyCommitted) {
+        this.mockUserGeneratorService = mockUserGeneratorService;
+        this.totalCount = totalCount;
+        this.mode = mode;
+        this.seed = seed;
+        this.alreadyCommitted = alreadyCommitted;
+    }
+
+    @Override
+    public ImportBatch nextBatch(int maxRows) {
+        nextPosition = alreadyCommitted.nextUncovered(nextPosition);
+        if (nextPosition >= totalCount) {
+            return null;
+        }
+        // A batch never runs into rows that are already committed
+        long end = Math.min(Math.min(nextPosition + maxRows, totalCount), alreadyCommitted.nextCoveredStart(nextPosition));
+        int size = (int) (end - nextPosition);
+        List<UserDto> users = mockUserGeneratorService.generateBatch(mode, seed, nextPosition, size);
+        ImportBatch batch = new ImportBatch(nextPosition, nextPosition + size, users);
+        nextPosition += size;
+        return batch;
+    }
+
+    @Override
+    public long estimatedTotalRows() {
+        return totalCount;
+    }
+}
@@ -0,0 +1,30 @@
+package com.ishan.user_service.service.importPipeline;
+
+import com.ishan.user_service.dto.UserDto;
+
+import java.util.List;
+
+/**
+ * One unit of work flowing through the import pipeline.
+ * startPosition / endPosition describe WHERE in the source these users came from
+ * (row index for generated users). endPosition is exclusive.
+ * batchNumber is assigned by the pipeline (sources do not know it), starting at 0.
+ * Why keep positions + batch number?
+ * - Progress can be reported against the source size
+ * - With several writers committing in parallel we can tell exactly which batches landed
+ */
+public record ImportBatch(int batchNumber, long startPosition, long endPosition, List<UserDto> users) {
+
+    // Used by sources: batch number is not known yet
+    public ImportBatch(long startPosition, long endPosition, List<UserDto> users) {
+        this(-1, startPosition, endPosition, users);
+    }
+
+    public ImportBatch withBatchNumber(int batchNumber) {
+        return new ImportBatch(batchNumber, startPosition, endPosition, users);
+    }
+
+    public int size() {
+        return users.size();
+    }
+}
@@ -0,0 +1,25 @@
+package com.ishan.user_service.service.importPipeline;
+
+/**
+ * What a job has already committed, rebuilt from its checkpoint rows.
+ * Empty for a fresh job; for a resumed job the source skips committedPositions
+ * and the pipeline continues counting rows and batch numbers where the last run stopped.
+ *
+ * @param committedPositions    source rows already saved, e.g. [0, 1_400_000)
+ * @param committedBatchNumbers batch numbers already committed (for the job status)
+ * @param committedRows         source rows already processed (positions, duplicates dropped by de-dup included)
+ * @param nextBatchNumber       first batch number to use for new batches (never reuses an old one)
+ */
+public record ImportCheckpoint(RangeSet committedPositions,
+                               RangeSet committedBatchNumbers,
+                               long committedRows,
+                               int nextBatchNumber) {
+
+    public static ImportCheckpoint empty() {
+        return new ImportCheckpoint(new RangeSet(), new RangeSet(), 0, 0);
+    }
+
+    public boolean isEmpty() {
+        return committedRows == 0;
+    }
+}
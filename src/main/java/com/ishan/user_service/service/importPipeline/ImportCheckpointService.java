@@ -0,0 +1,70 @@
+package com.ishan.user_service.service.importPipeline;
+
+import com.ishan.user_service.model.ImportJobCheckpoint;
+import com.ishan.user_service.repository.ImportJobCheckpointRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+/**
+ * Durable checkpoints for import jobs.
+ *
+ * HOW A BATCH IS COMMITTED NOW:
+ * - ONE new transaction (REQUIRES_NEW) per batch
+ * - Inside it: the writer saves the users (writers JOIN this transaction)
+ *   + we insert the batch's checkpoint row
+ * - Commit -> users and checkpoint land together; rollback -> neither does
+ *
+ * So after a crash the checkpoint table tells EXACTLY which source rows are in the DB,
+ * and a resumed job regenerates only the missing ones (no gaps, no duplicate rows).
+ */
+@Service
+public class ImportCheckpointService {
+
+    private final ImportJobCheckpointRepository importJobCheckpointRepository;
+    private final TransactionTemplate batchTransaction;
+
+    public ImportCheckpointService(ImportJobCheckpointRepository importJobCheckpointRepository,
+                                   PlatformTransactionManager transactionManager) {
+        this.importJobCheckpointRepository = importJobCheckpointRepository;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Runs writeBatch and records the batch's checkpoint in the same new transaction.
+     */
+    public void commitBatch(String jobId, ImportBatch batch, Runnable writeBatch) {
+        batchTransaction.executeWithoutResult(status -> {
+            writeBatch.run();
+            importJobCheckpointRepository.save(ImportJobCheckpoint.builder()
+                    .jobId(jobId)
+                    .batchNumber(batch.batchNumber())
+                    .startPosition(batch.startPosition())
+                    .endPosition(batch.endPosition())
+                    .committedAt(LocalDateTime.now())
+                    .build());
+        });
+    }
+
+    /**
+     * Rebuilds what the job already committed (empty for a job that never committed a batch).
+     * Rows are counted by position, like CommittedBatchLedger does while the job runs.
+     */
+    public ImportCheckpoint load(String jobId) {
+        ImportCheckpoint checkpoint = ImportCheckpoint.empty();
+        long committedRows = 0;
+        for (ImportJobCheckpoint row : importJobCheckpointRepository.findByJobId(jobId)) {
+            checkpoint.committedPositions().add(row.getStartPosition(), row.getEndPosition());
+            checkpoint.committedBatchNumbers().add(row.getBatchNumber(), row.getBatchNumber() + 1L);
+            committedRows += row.getEndPosition() - row.getStartPosition();
+        }
+        return new ImportCheckpoint(checkpoint.committedPositions(),
+                checkpoint.committedBatchNumbers(),
+                committedRows,
+                (int) checkpoint.committedBatchNumbers().last() + 1);
+    }
+}
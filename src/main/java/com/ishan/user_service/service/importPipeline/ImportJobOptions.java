@@ -0,0 +1,52 @@
+package com.ishan.user_service.service.importPipeline;
+
+import com.ishan.user_service.service.UserGeneratorMode;
+import com.ishan.user_service.service.importPipeline.dedup.DuplicateEmailPolicy;
+
+/**
+ * Per-job knobs chosen by the client of an async import.
+ * One object instead of one more method parameter for every new option.
+ *
+ * @param engine     how batches are written (already resolved, never null)
+ * @param generator  how fake users are generated (FAKER / DICTIONARY), null for file imports
+ * @param seed       generator / RandomUser seed (resolved before the job is created, stored for resume), null for file imports
+ * @param source     where the users come from (never null)
+ * @param sourceFile file the users are read from (file imports only)
+ * @param duplicates what happens to users whose email already exists (never null, ALLOW = no check;
+ *                   always ALLOW for UPSERT jobs: existing emails are exactly what they update)
+ */
+public record ImportJobOptions(ImportPersistenceEngine engine, UserGeneratorMode generator, Long seed,
+                               ImportSourceType source, String sourceFile, DuplicateEmailPolicy duplicates) {
+
+    public ImportJobOptions {
+        if (duplicates == null || engine == ImportPersistenceEngine.UPSERT) {
+            duplicates = DuplicateEmailPolicy.ALLOW;
+        }
+    }
+
+    public ImportJobOptions(ImportPersistenceEngine engine, UserGeneratorMode generator, Long seed,
+                            ImportSourceType source, String sourceFile) {
+        this(engine, generator, seed, source, sourceFile, DuplicateEmailPolicy.ALLOW);
+    }
+
+    // Generated users
+    public ImportJobOptions(ImportPersistenceEngine engine, UserGeneratorMode generator, Long seed) {
+        this(engine, generator, seed, ImportSourceType.GENERATED, null);
+    }
+
+    public static ImportJobOptions csvUpload(ImportPersistenceEngine engine, String stagedFile) {
+        return new ImportJobOptions(engine, null, null, ImportSourceType.CSV_UPLOAD, stagedFile);
+    }
+
+    public static ImportJobOptions localFile(ImportPersistenceEngine engine, String file) {
+        return new ImportJobOptions(engine, null, null, ImportSourceType.LOCAL_FILE, file);
+    }
+
+    public static ImportJobOptions randomUser(ImportPersistenceEngine engine, long seed) {
+        return new ImportJobOptions(engine, null, seed, ImportSourceType.RANDOM_USER, null);
+    }
+
+    public ImportJobOptions withDuplicates(DuplicateEmailPolicy policy) {
+        return new ImportJobOptions(engine, generator, seed, source, sourceFile, policy);
+    }
+}
@@ -0,0 +1,32 @@
+package com.ishan.user_service.service.importPipeline;
+
+import com.ishan.user_service.component.rateLimit.ImportJobCostTier;
+
+/**
+ * HOW an import job writes its batches to the database.
+ * Chosen per job so both engines can be compared on the same data in production.
+ */
+public enum ImportPersistenceEngine {
+
+    // Hibernate saveAll() + flush/clear per batch (TABLE id generator)
+    JPA,
+
+    // Plain JdbcTemplate batch INSERT, IDs from the same id_generator-backed table generator
+    JDBC,
+
+    // Batch staged to a temp CSV, then loaded with the DB's native loader (LOAD DATA / CSVREAD)
+    // Opt-in only: needs MySQL with local_infile (or H2), checked when the job is accepted
+    BULK_LOAD,
+
+    // Merge by email: existing users (one IN lookup per batch) are UPDATEd, the others INSERTed, two JDBC batches
+    UPSERT;
+
+    /**
+     * Engine used when the client does not choose one.
+     * XL jobs (millions of rows) -> JDBC: no Hibernate overhead per row, and unlike BULK_LOAD
+     * it works on every database without server settings. BULK_LOAD is never picked implicitly.
+     */
+    public static ImportPersistenceEngine defaultFor(ImportJobCostTier tier) {
+        return tier == ImportJobCostTier.XL ? JDBC : JPA;
+    }
+}
@@ -0,0 +1,21 @@
+package com.ishan.user_service.service.importPipeline;
+
+/**
+ * WHERE the users of an import job come from.
+ * Stored with the job, so a resumed job reads the same source again
+ * (instead of generating fake users for a job that was an upload).
+ */
+public enum ImportSourceType {
+
+    // Fake users generated on the fly (generator + seed, see FakerUserImportSource)
+    GENERATED,
+
+    // Uploaded CSV staged on local disk (CSVReadWriteUtility layout), deleted once the job is over
+    CSV_UPLOAD,
+
+    // CSV already on the server (import.local-file.base-dir), parsed in parallel chunks, never deleted
+    LOCAL_FILE,
+
+    // RandomUser API, fetched in seeded pages (seed stored with the job -> same users on resume)
+    RANDOM_USER
+}
@@ -0,0 +1,59 @@
+package com.ishan.user_service.service.importPipeline;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * ONE writer thread pool shared by every running import job.
+ *
+ * OLD WAY: every job started its own Executors.newFixedThreadPool(writerThreads)
+ * -> 4 concurrent jobs x 4 writers = 16 threads wanting a connection from a 10-connection Hikari pool,
+ *    the writers (and the HTTP requests) block on each other.
+ *
+ * HOW:
+ * - The pool has import.pipeline.max-total-writers threads; 0 = Hikari maximum-pool-size - 2
+ *   (the 2 spare connections keep normal requests, job status updates and heartbeats going)
+ * - A job's writers are "slots" that commit ONE batch per turn and then queue up again behind the other
+ *   jobs' slots -> all running jobs make progress, a job never owns threads for its whole run
+ *   (who may commit next is still decided by FairImportScheduler)
+ */
+@Component
+public class ImportWriterPool {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportWriterPool.class);
+
+    // Connections left for everything that is not an import batch
+    private static final int RESERVED_CONNECTIONS = 2;
+
+    private final int size;
+    private final ExecutorService executor;
+
+    public ImportWriterPool(@Value("${import.pipeline.max-total-writers:0}") int maxTotalWriters,
+                            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+        this.size = maxTotalWriters > 0 ? maxTotalWriters : Math.max(1, connectionPoolSize - RESERVED_CONNECTIONS);
+        this.executor = Executors.newFixedThreadPool(size,
+                Thread.ofPlatform().name("import-writer-", 0).daemon().factory());
+        log.info("[IMPORT_WRITERS] Created | threads={} hikariMaxPoolSize={}", size, connectionPoolSize);
+    }
+
+    // Threads shared by all jobs -> more writer slots than this per job would only wait
+    public int size() {
+        return size;
+    }
+
+    // Runs one writer turn; throws RejectedExecutionException once the application is shutting down
+    public void submit(Runnable turn) {
+        executor.execute(turn);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
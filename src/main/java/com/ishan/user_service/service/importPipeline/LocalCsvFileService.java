@@ -0,0 +1,124 @@
+package com.ishan.user_service.service.importPipeline;
+
+import com.ishan.user_service.customExceptions.InvalidImportFileException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Imports of CSV files that are ALREADY on the server (e.g. nightly drops), read with
+ * MappedCsvUserImportSource instead of being uploaded and streamed on one thread.
+ *
+ * - Only files inside import.local-file.base-dir can be imported (no "../../etc/passwd", and no
+ *   symlink inside it pointing somewhere else: the check runs on the REAL paths)
+ * - The files are never deleted: they belong to whoever dropped them
+ * - ONE parser pool for all local-file jobs (like the generator pool), so two big jobs
+ *   do not start 2x cores parser threads
+ * - Parsed chunks are ~8x their size on the heap (a UserDto + Strings per ~64-byte row) ->
+ *   small chunks, and at most import.local-file.max-bytes-in-flight of them per job
+ */
+@Service
+public class LocalCsvFileService {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalCsvFileService.class);
+
+    // Bytes sampled to estimate the average row length
+    private static final int SAMPLE_BYTES = 1024 * 1024;
+
+    private final Path baseDir;
+    private final int chunkBytes;
+    private final int parserThreads;
+    private final int maxChunksInFlight;
+    private final ExecutorService parserPool;
+
+    public LocalCsvFileService(@Value("${import.local-file.base-dir:${java.io.tmpdir}/user-imports}") String baseDir,
+                               @Value("${import.local-file.chunk-bytes:262144}") int chunkBytes,
+                               @Value("${import.local-file.parser-threads:0}") int parserThreads,
+                               @Value("${import.local-file.max-bytes-in-flight:4194304}") long maxBytesInFlight) {
+        this.baseDir = Paths.get(baseDir).toAbsolutePath().normalize();
+        this.chunkBytes = Math.max(64 * 1024, chunkBytes);
+        // 0 -> one parser per core
+        this.parserThreads = parserThreads > 0 ? parserThreads : Runtime.getRuntime().availableProcessors();
+        // 2 chunks per parser (one being parsed, one ready for the producer), capped by the byte budget
+        this.maxChunksInFlight = (int) Math.max(1, Math.min(this.parserThreads * 2L, maxBytesInFlight / this.chunkBytes));
+        this.parserPool = Executors.newFixedThreadPool(this.parserThreads,
+                Thread.ofPlatform().name("csv-parser-", 0).daemon().factory());
+    }
+
+    /**
+     * Resolves a path relative to the base dir, returns its REAL path (symlinks followed).
+     * Throws InvalidImportFileException if it points outside of it or is not a readable file.
+     */
+    public Path resolve(String relativePath) {
+        // Cheap lexical check first ("../"), then the same check on the real paths:
+        // a symlink inside the base dir must not lead out of it
+        if (!baseDir.resolve(relativePath).normalize().startsWith(baseDir)) {
+            throw outsideBaseDir(relativePath);
+        }
+        Path file;
+        try {
+            file = baseDir.resolve(relativePath).toRealPath();
+            if (!file.startsWith(baseDir.toRealPath())) {
+                throw outsideBaseDir(relativePath);
+            }
+        } catch (IOException ex) {
+            // Missing file (or base dir), broken link, no permission
+            throw new InvalidImportFileException("No readable file " + relativePath + " in the import directory");
+        }
+        if (!Files.isRegularFile(file) || !Files.isReadable(file)) {
+            throw new InvalidImportFileException("No readable file " + relativePath + " in the import directory");
+        }
+        return file;
+    }
+
+    /**
+     * Row ESTIMATE from the file size and the average row length of the first MB
+     * (rate-limit tier + progress %), instead of scanning a 10 GB file on the request thread.
+     */
+    public long estimateRows(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer sample = ByteBuffer.allocate((int) Math.min(size, SAMPLE_BYTES));
+            channel.read(sample, 0);
+            int lines = 0;
+            for (int i = 0; i < sample.position(); i++) {
+                if (sample.get(i) == '\n') {
+                    lines++;
+                }
+            }
+            if (sample.position() == size) {
+                // Whole file sampled: exact (last line without '\n' included, header excluded)
+                boolean trailingLine = size > 0 && sample.get(sample.position() - 1) != '\n';
+                return Math.max(0, lines + (trailingLine ? 1 : 0) - 1);
+            }
+            long estimated = lines == 0 ? 0 : Math.round((double) size * lines / sample.position()) - 1;
+            log.info("[LOCAL_CSV] Row estimate | file={} bytes={} estimatedRows={}", file, size, estimated);
+            return Math.max(0, estimated);
+        }
+    }
+
+    public UserImportSource openSource(Path file, long estimatedRows, RangeSet alreadyCommitted) throws IOException {
+        return new MappedCsvUserImportSource(file, estimatedRows, alreadyCommitted, chunkBytes, parserPool, maxChunksInFlight);
+    }
+
+    private static InvalidImportFileException outsideBaseDir(String relativePath) {
+        return new InvalidImportFileException("File must be inside the import directory: " + relativePath);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        parserPool.shutdownNow();
+    }
+}
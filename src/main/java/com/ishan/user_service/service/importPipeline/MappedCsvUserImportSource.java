@@ -0,0 +1,374 @@
+package com.ishan.user_service.service.importPipeline;
+
+import com.ishan.user_service.dto.UserDto;
+import com.ishan.user_service.utility.CSVReadWriteUtility;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Reads a server-local users CSV (CSVReadWriteUtility layout) with ALL cores instead of one.
+ *
+ * WHY?
+ * - CsvUserImportSource decodes the file char by char on the producer thread:
+ *   for 10M+ row nightly files the parsing, not the DB, became the bottleneck
+ *
+ * HOW:
+ * - The file is cut into chunks of ~chunkBytes that always end right after a '\n'
+ * - Each chunk is memory-mapped (FileChannel.map, no read() copies into the heap) and parsed
+ *   on the shared parser pool -> several chunks are parsed at the same time
+ * - Parsing works on the raw bytes: the id column is never decoded, age is parsed from the
+ *   digits, "name" is split on the byte level -> only the Strings a UserDto keeps are created
+ * - Parsed chunks are consumed IN FILE ORDER, so row N is always position N
+ *   (checkpoints / resume work exactly like for the other sources)
+ *
+ * MEMORY: at most maxChunksInFlight parsed chunks + the current batch, whatever the file size.
+ * A parsed chunk takes ~8x its bytes on the heap, so LocalCsvFileService keeps chunks small
+ * and caps maxChunksInFlight * chunkBytes (import.local-file.max-bytes-in-flight).
+ *
+ * LIMITATION: chunks are cut at line breaks, so quoted values containing line breaks are
+ * not supported here (the row fails with its byte offset); such files go through POST /import/csv.
+ */
+public class MappedCsvUserImportSource implements UserImportSource {
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final long estimatedRows;
+    private final RangeSet alreadyCommitted;
+    private final int chunkBytes;
+    private final ExecutorService parserPool;
+    private final int maxChunksInFlight;
+
+    // Chunks submitted to the parser pool, in file order
+    private final Deque<Future<List<UserDto>>> parsedChunks = new ArrayDeque<>();
+
+    // File offset where the next (not yet submitted) chunk starts
+    private long nextChunkStart;
+
+    // Chunk being consumed by nextBatch()
+    private List<UserDto> currentChunk = List.of();
+    private int currentIndex = 0;
+
+    // Data row index of currentChunk.get(currentIndex)
+    private long nextPosition = 0;
+
+    public MappedCsvUserImportSource(Path csvFile, long estimatedRows, RangeSet alreadyCommitted,
+                                     int chunkBytes, ExecutorService parserPool, int maxChunksInFlight) throws IOException {
+        this.channel = FileChannel.open(csvFile, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.estimatedRows = estimatedRows;
+        this.alreadyCommitted = alreadyCommitted;
+        this.chunkBytes = chunkBytes;
+        this.parserPool = parserPool;
+        this.maxChunksInFlight = Math.max(1, maxChunksInFlight);
+        try {
+            this.nextChunkStart = skipHeader();
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    @Override
+    public ImportBatch nextBatch(int maxRows) throws Exception {
+        List<UserDto> users = new ArrayList<>(maxRows);
+        long start = nextPosition;
+        while (users.size() < maxRows) {
+            if (currentIndex == currentChunk.size() && !nextChunk()) {
+                break;
+            }
+            // Rows committed by an earlier run: skipped, and a batch never runs into them
+            long resumeAt = alreadyCommitted.nextUncovered(nextPosition);
+            if (resumeAt > nextPosition) {
+                if (!users.isEmpty()) {
+                    break;
+                }
+                int skipped = (int) Math.min(resumeAt - nextPosition, currentChunk.size() - currentIndex);
+                currentIndex += skipped;
+                nextPosition += skipped;
+                start = nextPosition;
+                continue;
+            }
+            long untilCommitted = alreadyCommitted.nextCoveredStart(nextPosition) - nextPosition;
+            int taken = (int) Math.min(Math.min(maxRows - users.size(), currentChunk.size() - currentIndex), untilCommitted);
+            users.addAll(currentChunk.subList(currentIndex, currentIndex + taken));
+            currentIndex += taken;
+            nextPosition += taken;
+        }
+        return users.isEmpty() ? null : new ImportBatch(start, nextPosition, users);
+    }
+
+    @Override
+    public long estimatedTotalRows() {
+        return estimatedRows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Future<List<UserDto>> chunk : parsedChunks) {
+            chunk.cancel(true);
+        }
+        parsedChunks.clear();
+        channel.close();
+    }
+
+    // Keeps the parser pool busy, then waits for the OLDEST chunk (file order)
+    private boolean nextChunk() throws Exception {
+        while (parsedChunks.size() < maxChunksInFlight && nextChunkStart < fileSize) {
+            submitNextChunk();
+        }
+        Future<List<UserDto>> next = parsedChunks.pollFirst();
+        if (next == null) {
+            return false;
+        }
+        try {
+            currentChunk = next.get();
+        } catch (ExecutionException ex) {
+            throw ex.getCause() instanceof Exception cause ? cause : ex;
+        }
+        currentIndex = 0;
+        return true;
+    }
+
+    private void submitNextChunk() throws IOException {
+        long start = nextChunkStart;
+        long end = Math.min(start + chunkBytes, fileSize);
+        if (end < fileSize) {
+            end = lineEndFrom(end - 1);
+        }
+        nextChunkStart = end;
+        ByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        parsedChunks.addLast(parserPool.submit(() -> new ChunkParser(chunk, start).parse()));
+    }
+
+    // Checks the header line, returns the offset of the first data row
+    private long skipHeader() throws IOException {
+        long headerEnd = lineEndFrom(0);
+        ByteBuffer header = ByteBuffer.allocate((int) Math.min(headerEnd, 4096));
+        channel.read(header, 0);
+        if (!CSVReadWriteUtility.isHeader(new String(header.array(), 0, header.position(), StandardCharsets.UTF_8))) {
+            throw new IllegalArgumentException("Not a users CSV, expected header: " + CSVReadWriteUtility.getCSVHeader().strip());
+        }
+        return headerEnd;
+    }
+
+    // Offset right after the first '\n' at or after position (fileSize if there is none)
+    private long lineEndFrom(long position) throws IOException {
+        ByteBuffer probe = ByteBuffer.allocate(8192);
+        while (position < fileSize) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return fileSize;
+    }
+
+    /**
+     * Parses ONE mapped chunk (whole lines only) into UserDtos.
+     * Runs on a parser pool thread; one instance per chunk, nothing shared.
+     */
+    static final class ChunkParser {
+
+        private final ByteBuffer chunk;
+        private final long fileOffset;
+        private final int limit;
+
+        // [start, end) of each column of the current row, and whether it was quoted
+        private final int[] fieldStart = new int[CSVReadWriteUtility.COLUMN_COUNT];
+        private final int[] fieldEnd = new int[CSVReadWriteUtility.COLUMN_COUNT];
+        private final boolean[] fieldQuoted = new boolean[CSVReadWriteUtility.COLUMN_COUNT];
+
+        // Bytes of one value are copied here before decoding (grows if a value is longer)
+        private byte[] scratch = new byte[256];
+
+        ChunkParser(ByteBuffer chunk, long fileOffset) {
+            this.chunk = chunk;
+            this.fileOffset = fileOffset;
+            this.limit = chunk.limit();
+        }
+
+        List<UserDto> parse() {
+            // ~64 bytes per exported row
+            List<UserDto> users = new ArrayList<>(limit / 64 + 1);
+            int position = 0;
+            while (position < limit) {
+                byte b = chunk.get(position);
+                if (b == '\n' || b == '\r') {
+                    position++; // blank line
+                    continue;
+                }
+                int rowStart = position;
+                position = splitRow(position);
+                users.add(toUserDto(rowStart));
+            }
+            return users;
+        }
+
+        // Finds the columns of the row starting at position, returns the offset of the next row
+        private int splitRow(int position) {
+            int rowStart = position;
+            int column = 0;
+            while (true) {
+                if (column == CSVReadWriteUtility.COLUMN_COUNT) {
+                    throw invalidRow(rowStart, "more than " + CSVReadWriteUtility.COLUMN_COUNT + " columns");
+                }
+                boolean quoted = position < limit && chunk.get(position) == '"';
+                int start;
+                int end;
+                if (quoted) {
+                    start = ++position;
+                    while (true) {
+                        if (position >= limit || chunk.get(position) == '\n') {
+                            throw invalidRow(rowStart, "unterminated quoted value (line breaks inside values are not supported here)");
+                        }
+                        if (chunk.get(position) == '"') {
+                            if (position + 1 < limit && chunk.get(position + 1) == '"') {
+                                position += 2; // "" = one quote
+                                continue;
+                            }
+                            break;
+                        }
+                        position++;
+                    }
+                    end = position++;
+                } else {
+                    start = position;
+                    while (position < limit && chunk.get(position) != ',' && chunk.get(position) != '\n') {
+                        position++;
+                    }
+                    end = position;
+                }
+                // \r\n line end: the \r belongs to neither the value nor the next row
+                if (quoted && position < limit && chunk.get(position) == '\r') {
+                    position++;
+                } else if (!quoted && end > start && chunk.get(end - 1) == '\r' && (position >= limit || chunk.get(position) == '\n')) {
+                    end--;
+                }
+                fieldStart[column] = start;
+                fieldEnd[column] = end;
+                fieldQuoted[column] = quoted;
+                column++;
+
+                if (position >= limit || chunk.get(position) == '\n') {
+                    position++;
+                    break;
+                }
+                if (chunk.get(position) != ',') {
+                    throw invalidRow(rowStart, "unexpected character after a quoted value");
+                }
+                position++;
+            }
+            if (column != CSVReadWriteUtility.COLUMN_COUNT) {
+                throw invalidRow(rowStart, "expected " + CSVReadWriteUtility.COLUMN_COUNT + " columns, found " + column);
+            }
+            return position;
+        }
+
+        // Same rules as CSVReadWriteUtility.toUserDto(), without decoding the columns first
+        private UserDto toUserDto(int rowStart) {
+            UserDto userDto = new UserDto();
+            int name = CSVReadWriteUtility.NAME;
+            int space = fieldQuoted[name] ? -1 : indexOf((byte) ' ', fieldStart[name], fieldEnd[name]);
+            if (fieldQuoted[name]) {
+                String fullName = string(name);
+                int split = fullName == null ? -1 : fullName.indexOf(' ');
+                userDto.setFirstName(split < 0 ? fullName : emptyToNull(fullName.substring(0, split)));
+                userDto.setLastName(split < 0 ? null : emptyToNull(fullName.substring(split + 1)));
+            } else if (space < 0) {
+                userDto.setFirstName(decode(fieldStart[name], fieldEnd[name]));
+            } else {
+                userDto.setFirstName(decode(fieldStart[name], space));
+                userDto.setLastName(decode(space + 1, fieldEnd[name]));
+            }
+            userDto.setAge(parseAge(rowStart));
+            userDto.setGender(string(CSVReadWriteUtility.GENDER));
+            userDto.setCity(string(CSVReadWriteUtility.CITY));
+            userDto.setState(string(CSVReadWriteUtility.STATE));
+            userDto.setEmail(string(CSVReadWriteUtility.EMAIL));
+            userDto.setPhNum(string(CSVReadWriteUtility.MOBILE));
+            return userDto;
+        }
+
+        // Digits straight from the bytes, no String; empty = 0 like CSVReadWriteUtility.toUserDto()
+        private int parseAge(int rowStart) {
+            int age = 0;
+            for (int i = fieldStart[CSVReadWriteUtility.AGE]; i < fieldEnd[CSVReadWriteUtility.AGE]; i++) {
+                int digit = chunk.get(i) - '0';
+                if (digit < 0 || digit > 9 || age > 100_000) {
+                    throw invalidRow(rowStart, "age is not a number");
+                }
+                age = age * 10 + digit;
+            }
+            return age;
+        }
+
+        // Column value, quotes removed and "" unescaped; empty -> null
+        private String string(int column) {
+            if (!fieldQuoted[column]) {
+                return decode(fieldStart[column], fieldEnd[column]);
+            }
+            int length = 0;
+            ensureScratch(fieldEnd[column] - fieldStart[column]);
+            for (int i = fieldStart[column]; i < fieldEnd[column]; i++) {
+                byte b = chunk.get(i);
+                scratch[length++] = b;
+                if (b == '"') {
+                    i++; // skip the second quote of ""
+                }
+            }
+            return length == 0 ? null : new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        private String decode(int start, int end) {
+            int length = end - start;
+            if (length <= 0) {
+                return null;
+            }
+            ensureScratch(length);
+            chunk.get(start, scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        private int indexOf(byte value, int start, int end) {
+            for (int i = start; i < end; i++) {
+                if (chunk.get(i) == value) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void ensureScratch(int length) {
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+        }
+
+        private static String emptyToNull(String value) {
+            return value.isEmpty() ? null : value;
+        }
+
+        private IllegalArgumentException invalidRow(int rowStart, String reason) {
+            return new IllegalArgumentException("Invalid CSV row at byte offset " + (fileOffset + rowStart) + ": " + reason);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.ishan.user_service.service.importPipeline;
+
+import com.ishan.user_service.dto.UserDto;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Pulls users from RandomUser for an async import, any count (not just the API's 5000 per request).
+ *
+ * HOW:
+ * - The job is split into pages of pageSize users of ONE seeded data set (page p = rows [p * pageSize, ...))
+ * - Pages are fetched CONCURRENTLY (flatMapSequential, at most concurrency requests in flight)
+ *   but handed out IN PAGE ORDER -> row N is always position N (checkpoints / resume)
+ * - Each page is fetched as a whole and retried as a whole (see RandomUserImportSourceFactory),
+ *   so a retry never duplicates the users of a half-received page
+ * - The reactive stream is consumed through a blocking iterator on the producer thread:
+ *   flatMapSequential only runs ahead by concurrency pages -> memory stays at a few pages
+ *
+ * Resume: pages whose rows are all committed are never requested again, committed rows
+ * inside a fetched page are dropped (same seed -> same page content).
+ */
+public class RandomUserImportSource implements UserImportSource {
+
+    public record Page(int number, List<UserDto> users) {
+    }
+
+    private final long totalCount;
+    private final int pageSize;
+    private final RangeSet alreadyCommitted;
+
+    // Closing the stream cancels the in-flight requests
+    private final Stream<Page> pageStream;
+    private final Iterator<Page> pages;
+
+    // Page taken from the iterator but not started yet (it did not fit the current batch)
+    private Page pendingPage;
+
+    private List<UserDto> currentPage = List.of();
+    private int currentIndex = 0;
+
+    // Position of currentPage.get(currentIndex)
+    private long nextPosition = 0;
+
+    /**
+     * @param fetchPages turns page numbers (in order) into fetched pages (in the same order)
+     */
+    public RandomUserImportSource(long totalCount, int pageSize, RangeSet alreadyCommitted,
+                                  Function<Flux<Integer>, Flux<Page>> fetchPages) {
+        this.totalCount = totalCount;
+        this.pageSize = pageSize;
+        this.alreadyCommitted = alreadyCommitted;
+        this.pageStream = fetchPages.apply(Flux.fromIterable(missingPages())).toStream(1);
+        this.pages = pageStream.iterator();
+    }
+
+    // Size of page number (the last page may be shorter)
+    public static int pageLength(long totalCount, int pageSize, int page) {
+        return (int) Math.min(pageSize, totalCount - (long) page * pageSize);
+    }
+
+    @Override
+    public ImportBatch nextBatch(int maxRows) {
+        List<UserDto> users = new ArrayList<>(maxRows);
+        long start = nextPosition;
+        while (users.size() < maxRows) {
+            if (currentIndex == currentPage.size()) {
+                if (pendingPage == null) {
+                    if (!pages.hasNext()) {
+                        break;
+                    }
+                    pendingPage = pages.next();
+                }
+                long pageStart = (long) pendingPage.number() * pageSize;
+                // A batch covers consecutive positions only: a skipped page starts a new batch
+                if (pageStart != nextPosition && !users.isEmpty()) {
+                    break;
+                }
+                currentPage = pendingPage.users();
+                currentIndex = 0;
+                nextPosition = pageStart;
+                // Only an EMPTY batch starts at the new page; a batch already holding rows of the
+                // previous page continues across the boundary (pageStart == nextPosition, see above)
+                if (users.isEmpty()) {
+                    start = nextPosition;
+                }
+                pendingPage = null;
+                continue;
+            }
+            long resumeAt = alreadyCommitted.nextUncovered(nextPosition);
+            if (resumeAt > nextPosition) {
+                if (!users.isEmpty()) {
+                    break;
+                }
+                int skipped = (int) Math.min(resumeAt - nextPosition, currentPage.size() - currentIndex);
+                currentIndex += skipped;
+                nextPosition += skipped;
+                start = nextPosition;
+                continue;
+            }
+            long untilCommitted = alreadyCommitted.nextCoveredStart(nextPosition) - nextPosition;
+            int taken = (int) Math.min(Math.min(maxRows - users.size(), currentPage.size() - currentIndex), untilCommitted);
+            users.addAll(currentPage.subList(currentIndex, currentIndex + taken));
+            currentIndex += taken;
+            nextPosition += taken;
+        }
+        return users.isEmpty() ? null : new ImportBatch(start, nextPosition, users);
+    }
+
+    @Override
+    public long estimatedTotalRows() {
+        return totalCount;
+    }
+
+    @Override
+    public void close() {
+        pageStream.close();
+    }
+
+    // Pages with at least one row not committed yet
+    private List<Integer> missingPages() {
+        List<Integer> missing = new ArrayList<>();
+        int pageCount = (int) ((totalCount + pageSize - 1) / pageSize);
+        for (int page = 0; page < pageCount; page++) {
+            long pageStart = (long) page * pageSize;
+            if (alreadyCommitted.nextUncovered(pageStart) < pageStart + pageLength(totalCount, pageSize, page)) {
+                missing.add(page);
+            }
+        }
+        return missing;
+    }
+}
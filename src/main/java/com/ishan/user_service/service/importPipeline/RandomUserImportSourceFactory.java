@@ -0,0 +1,85 @@
+package com.ishan.user_service.service.importPipeline;
+
+import com.ishan.user_service.customExceptions.ExternalUserSourceException;
+import com.ishan.user_service.service.RandomUserClientService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.util.retry.Retry;
+import reactor.util.retry.RetryBackoffSpec;
+
+import java.time.Duration;
+
+/**
+ * Creates RandomUserImportSources with the fan-out settings (import.random-user.*).
+ *
+ * RETRY:
+ * - A page that fails (timeout, connection reset, 5xx, 429, truncated/invalid JSON) is fetched again
+ *   after an exponential backoff with JITTER: pages failing together do not retry in lockstep
+ *   and hammer RandomUser at the same instant
+ * - 4xx other than 429 is our fault, retrying would not help -> fails the job right away
+ * - After maxRetries the job fails (ExternalUserSourceException); committed pages are checkpointed,
+ *   a resume fetches only the missing ones
+ */
+@Component
+public class RandomUserImportSourceFactory {
+
+    private static final Logger log = LoggerFactory.getLogger(RandomUserImportSourceFactory.class);
+
+    // RandomUser's hard limit for results per request
+    private static final int MAX_PAGE_SIZE = 5000;
+
+    private final RandomUserClientService randomUserClientService;
+    private final int pageSize;
+    private final int concurrency;
+    private final RetryBackoffSpec retry;
+
+    public RandomUserImportSourceFactory(RandomUserClientService randomUserClientService,
+                                         @Value("${import.random-user.page-size:5000}") int pageSize,
+                                         @Value("${import.random-user.concurrency:4}") int concurrency,
+                                         @Value("${import.random-user.max-retries:3}") int maxRetries,
+                                         @Value("${import.random-user.retry-min-backoff-ms:500}") long minBackoffMs,
+                                         @Value("${import.random-user.retry-max-backoff-ms:10000}") long maxBackoffMs) {
+        this.randomUserClientService = randomUserClientService;
+        this.pageSize = Math.max(1, Math.min(MAX_PAGE_SIZE, pageSize));
+        this.concurrency = Math.max(1, concurrency);
+        this.retry = Retry.backoff(maxRetries, Duration.ofMillis(minBackoffMs))
+                .maxBackoff(Duration.ofMillis(maxBackoffMs))
+                .jitter(0.5)
+                .filter(RandomUserImportSourceFactory::isRetryable)
+                .doBeforeRetry(signal -> log.warn("[RANDOM_USER] Page fetch failed, retrying | attempt={} error={}",
+                        signal.totalRetries() + 1, signal.failure().getMessage()))
+                .onRetryExhaustedThrow((spec, signal) -> new ExternalUserSourceException(
+                        "RandomUser page still failing after " + signal.totalRetries() + " retries: "
+                                + signal.failure().getMessage(), signal.failure()));
+    }
+
+    /**
+     * @param seed job seed: the pages of one job are one reproducible RandomUser data set
+     */
+    public RandomUserImportSource create(long totalCount, long seed, RangeSet alreadyCommitted) {
+        String randomUserSeed = Long.toHexString(seed);
+        return new RandomUserImportSource(totalCount, pageSize, alreadyCommitted, pageNumbers -> pageNumbers
+                .flatMapSequential(page -> fetchPage(randomUserSeed, page, totalCount), concurrency, 1));
+    }
+
+    private Flux<RandomUserImportSource.Page> fetchPage(String seed, int page, long totalCount) {
+        int results = RandomUserImportSource.pageLength(totalCount, pageSize, page);
+        // RandomUser pages are 1-based
+        return randomUserClientService.fetchRandomUsersPage(seed, page + 1, results)
+                .collectList()
+                .retryWhen(retry)
+                .map(users -> new RandomUserImportSource.Page(page, users))
+                .flux();
+    }
+
+    private static boolean isRetryable(Throwable failure) {
+        if (failure instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError() || response.getStatusCode().value() == 429;
+        }
+        return true;
+    }
+}
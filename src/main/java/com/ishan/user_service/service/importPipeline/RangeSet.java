@@ -0,0 +1,97 @@
+package com.ishan.user_service.service.importPipeline;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A set of long values stored as merged, non-overlapping [start, end) ranges.
+ * Why not a Set<Long>?
+ * - Batches commit mostly in order, so 2000 committed batches usually collapse into 1-5 ranges
+ * - Memory and toString() cost depend on the number of GAPS, not the number of batches
+ * Not thread-safe: callers synchronize.
+ */
+public class RangeSet {
+
+    // start -> end (exclusive)
+    private final TreeMap<Long, Long> ranges = new TreeMap<>();
+
+    public void add(long start, long end) {
+        if (end <= start) {
+            return;
+        }
+        // Merge with a range that starts before (or at) us and touches/overlaps us
+        Map.Entry<Long, Long> floor = ranges.floorEntry(start);
+        if (floor != null && floor.getValue() >= start) {
+            start = floor.getKey();
+            end = Math.max(end, floor.getValue());
+        }
+        // Swallow every range that starts inside [start, end]
+        Map.Entry<Long, Long> next = ranges.ceilingEntry(start);
+        while (next != null && next.getKey() <= end) {
+            end = Math.max(end, next.getValue());
+            ranges.remove(next.getKey());
+            next = ranges.ceilingEntry(start);
+        }
+        ranges.put(start, end);
+    }
+
+    public void addAll(RangeSet other) {
+        for (Map.Entry<Long, Long> range : other.ranges.entrySet()) {
+            add(range.getKey(), range.getValue());
+        }
+    }
+
+    // First value >= position that is NOT in the set
+    public long nextUncovered(long position) {
+        Map.Entry<Long, Long> floor = ranges.floorEntry(position);
+        return floor != null && floor.getValue() > position ? floor.getValue() : position;
+    }
+
+    // Start of the first range beginning after position, Long.MAX_VALUE if there is none
+    public long nextCoveredStart(long position) {
+        Long next = ranges.higherKey(position);
+        return next != null ? next : Long.MAX_VALUE;
+    }
+
+    // How many values the set contains
+    public long coveredLength() {
+        long length = 0;
+        for (Map.Entry<Long, Long> range : ranges.entrySet()) {
+            length += range.getValue() - range.getKey();
+        }
+        return length;
+    }
+
+    // Largest value in the set, -1 if empty
+    public long last() {
+        return ranges.isEmpty() ? -1 : ranges.lastEntry().getValue() - 1;
+    }
+
+    public boolean isEmpty() {
+        return ranges.isEmpty();
+    }
+
+    public int rangeCount() {
+        return ranges.size();
+    }
+
+    /**
+     * Human-readable, INCLUSIVE form, e.g. "0-41,43-57,60".
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<Long, Long> range : ranges.entrySet()) {
+            if (!sb.isEmpty()) {
+                sb.append(',');
+            }
+            long first = range.getKey();
+            long last = range.getValue() - 1;
+            sb.append(first);
+            if (last != first) {
+                sb.append('-').append(last);
+            }
+        }
+        return sb.toString();
+    }
+}
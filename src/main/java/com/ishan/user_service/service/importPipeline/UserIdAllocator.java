@@ -0,0 +1,174 @@
+package com.ishan.user_service.service.importPipeline;
+
+import com.ishan.user_service.dto.IdAllocationStatsDto;
+import com.ishan.user_service.repository.UserIdBlockRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory user ID allocator for the JDBC / BULK_LOAD import engines.
+ *
+ * WHY?
+ * - Through Hibernate's generator every 1000 IDs cost a row-locked round trip to id_generator,
+ *   and all writers (and all nodes) queue on that single row
+ * - Here a job reserves its WHOLE remaining count up front (one round trip, capped by
+ *   import.id-allocation.max-reservation), then writers take IDs from memory
+ *
+ * HOW:
+ * - The current block is [cursor, end); a writer takes a range with ONE atomic getAndAdd -> lock-free
+ * - Only when a block runs out does ONE writer take the refill lock and switch to the next
+ *   reserved block (or reserve a new one from the DB); the others wait for it (counted as contention)
+ * - The tail of a block too small for a batch is skipped: IDs may have gaps, never duplicates
+ *
+ * Ranges come from UserIdBlockRepository, which keeps id_generator compatible with the
+ * JPA engine's @TableGenerator -> JPA and JDBC inserts never collide, on any node.
+ */
+@Service
+public class UserIdAllocator {
+
+    private static final Logger log = LoggerFactory.getLogger(UserIdAllocator.class);
+
+    private final UserIdBlockRepository userIdBlockRepository;
+
+    // Reserved when nobody asked for more in advance
+    private final int blockSize;
+
+    // Upper bound for one reserve-ahead (a 50M job must not burn 50M IDs if it is cancelled early)
+    private final long maxReservation;
+
+    private volatile IdBlock current = new IdBlock(0, 0);
+
+    // Reserved but not started blocks (guarded by refillLock)
+    private final Deque<IdBlock> reserved = new ArrayDeque<>();
+    private final Object refillLock = new Object();
+
+    // Metrics
+    private final LongAdder allocations = new LongAdder();
+    private final LongAdder allocatedIds = new LongAdder();
+    private final LongAdder allocationNanos = new LongAdder();
+    private final AtomicLong maxAllocationNanos = new AtomicLong();
+    private final LongAdder refillWaits = new LongAdder();
+    private final LongAdder dbReservations = new LongAdder();
+    private final LongAdder reservedIds = new LongAdder();
+    private final LongAdder dbReservationNanos = new LongAdder();
+
+    public UserIdAllocator(UserIdBlockRepository userIdBlockRepository,
+                           @Value("${import.id-allocation.block-size:10000}") int blockSize,
+                           @Value("${import.id-allocation.max-reservation:1000000}") long maxReservation) {
+        this.userIdBlockRepository = userIdBlockRepository;
+        this.blockSize = Math.max(1, blockSize);
+        this.maxReservation = Math.max(this.blockSize, maxReservation);
+    }
+
+    /**
+     * Returns the first of count consecutive, never used IDs.
+     */
+    public int allocate(int count) {
+        long start = System.nanoTime();
+        while (true) {
+            IdBlock block = current;
+            long first = block.cursor.getAndAdd(count);
+            if (first + count <= block.end) {
+                recordAllocation(count, System.nanoTime() - start);
+                return Math.toIntExact(first);
+            }
+            refill(block, count);
+        }
+    }
+
+    /**
+     * Makes sure at least count IDs are available in memory (one DB round trip if they are not).
+     * Called once at job start with the job's remaining row count.
+     */
+    public void reserveAhead(long count) {
+        long wanted = Math.min(count, maxReservation);
+        synchronized (refillLock) {
+            long available = current.remaining();
+            for (IdBlock block : reserved) {
+                available += block.remaining();
+            }
+            if (available >= wanted) {
+                return;
+            }
+            reserved.addLast(reserveFromDb(wanted - available));
+        }
+    }
+
+    public IdAllocationStatsDto stats() {
+        long allocationCount = allocations.sum();
+        long reservationCount = dbReservations.sum();
+        long available;
+        synchronized (refillLock) {
+            available = current.remaining();
+            for (IdBlock block : reserved) {
+                available += block.remaining();
+            }
+        }
+        return IdAllocationStatsDto.builder()
+                .allocations(allocationCount)
+                .allocatedIds(allocatedIds.sum())
+                .avgAllocationMicros(allocationCount == 0 ? 0 : allocationNanos.sum() / allocationCount / 1000.0)
+                .maxAllocationMicros(maxAllocationNanos.get() / 1000.0)
+                .refillWaits(refillWaits.sum())
+                .dbReservations(reservationCount)
+                .reservedIds(reservedIds.sum())
+                .avgDbReservationMillis(reservationCount == 0 ? 0 : dbReservationNanos.sum() / reservationCount / 1_000_000.0)
+                .availableIds(available)
+                .build();
+    }
+
+    // The block we saw is exhausted: switch to the next one (only one thread does it)
+    private void refill(IdBlock exhausted, int count) {
+        refillWaits.increment();
+        synchronized (refillLock) {
+            if (current != exhausted) {
+                return; // another writer already switched
+            }
+            IdBlock next = reserved.pollFirst();
+            while (next != null && next.remaining() < count) {
+                next = reserved.pollFirst(); // too small for this batch -> skipped (gap)
+            }
+            current = next != null ? next : reserveFromDb(Math.max(blockSize, count));
+        }
+    }
+
+    private IdBlock reserveFromDb(long count) {
+        long start = System.nanoTime();
+        long first = userIdBlockRepository.reserveRange(count);
+        long nanos = System.nanoTime() - start;
+        dbReservations.increment();
+        reservedIds.add(count);
+        dbReservationNanos.add(nanos);
+        log.info("[ID_ALLOCATOR] Reserved IDs | first={} count={} time={}ms", first, count, nanos / 1_000_000);
+        return new IdBlock(first, first + count);
+    }
+
+    private void recordAllocation(int count, long nanos) {
+        allocations.increment();
+        allocatedIds.add(count);
+        allocationNanos.add(nanos);
+        maxAllocationNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    // [cursor, end): cursor only moves forward (getAndAdd), past end = exhausted
+    private static final class IdBlock {
+        private final AtomicLong cursor;
+        private final long end;
+
+        private IdBlock(long first, long end) {
+            this.cursor = new AtomicLong(first);
+            this.end = end;
+        }
+
+        private long remaining() {
+            return Math.max(0, end - cursor.get());
+        }
+    }
+}
@@ -0,0 +1,484 @@
+package com.ishan.user_service.service.importPipeline;
+
+import com.ishan.user_service.customExceptions.BatchImportFailedException;
+import com.ishan.user_service.customExceptions.ImportJobStoppedException;
+import com.ishan.user_service.service.importPipeline.dedup.DuplicateEmailPolicy;
+import com.ishan.user_service.service.importPipeline.dedup.EmailDedupSession;
+import com.ishan.user_service.service.importPipeline.writer.UserBatchWriter;
+import com.ishan.user_service.service.job.FairImportScheduler;
+import com.ishan.user_service.service.job.ImportControlRequest;
+import com.ishan.user_service.service.job.ImportJobControlRegistry;
+import com.ishan.user_service.service.job.ImportUserJobTrackerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Streaming import pipeline (producer / multi-writer consumer).
+ *
+ * OLD FLOW (materialize everything):
+ * - Generate ALL users into one List (2M users = GBs of heap)
+ * - Only then start inserting -> DB sits idle during generation
+ *
+ * NEW FLOW (pipelined):
+ * - Producer thread pulls batches from a UserImportSource and puts them on a BOUNDED queue
+ * - N writer threads take batches from the SAME queue; each batch is saved by the job's UserBatchWriter
+ *   in its own REQUIRES_NEW transaction, so every writer uses its own connection
+ * - Generation of the next batches overlaps with the inserts of the current ones
+ *
+ * WHY A BOUNDED QUEUE?
+ * - This is the backpressure: if the DB is slower than the producer,
+ *   the queue fills up and the producer simply waits
+ * - Peak memory = queueCapacity + writerThreads batches, regardless of how many users are imported
+ *
+ * WHY SEVERAL WRITERS?
+ * - One writer = one busy Hikari connection, the other 9 sit idle
+ * - Each writer commits independently, so insert throughput scales with writers
+ *   until the DB itself becomes the limit
+ * - Writers of ALL jobs run on one shared ImportWriterPool sized against the Hikari pool
+ *   (a slot commits one batch per turn, then queues up again) -> concurrent jobs cannot
+ *   start more writers than there are connections
+ *
+ * DURABILITY:
+ * - Every batch commits together with its checkpoint row (ImportCheckpointService),
+ *   so an interrupted job can be resumed from exactly what is already in the DB
+ *
+ * FAIRNESS BETWEEN JOBS:
+ * - Writers take a permit from FairImportScheduler before each commit, so concurrent jobs share
+ *   the DB by tier weight and per user (Deficit Round Robin) instead of first come, first served
+ *
+ * PAUSE / CANCEL:
+ * - Producer and writers check ImportJobControlRegistry before every batch
+ * - On a request they stop at the batch boundary (queued, uncommitted batches are dropped,
+ *   a resume regenerates them) and run() throws ImportJobStoppedException
+ *
+ * DUPLICATE EMAILS:
+ * - The producer passes every batch through the job's EmailDedupSession before queueing it
+ *   (drop / rename / fail per DuplicateEmailPolicy); writers tell the session once a batch committed
+ *
+ * BATCH SIZE:
+ * - Starts at import.pipeline.batch-size and is then tuned per job by an AdaptiveBatchSizer
+ *   from the measured commit latency / rows/sec (engines with their own size, e.g. BULK_LOAD, stay fixed)
+ *
+ * Real-world analogy (restaurant kitchen):
+ * - The chef (producer) puts plates on the pass, several waiters (writers) carry them out
+ * - The pass only has space for a few plates, so the chef never cooks 500 plates ahead
+ */
+@Service
+public class UserImportPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportPipeline.class);
+
+    // Sentinel ("poison pill") put on the queue by the producer once the source is exhausted.
+    // One pill per writer, so every writer sees the end.
+    private static final ImportBatch END_OF_STREAM = new ImportBatch(-1, -1, List.of());
+
+    // One writer per persistence engine (JPA, JDBC, ...), picked per job
+    private final Map<ImportPersistenceEngine, UserBatchWriter> batchWriters = new EnumMap<>(ImportPersistenceEngine.class);
+    private final ImportUserJobTrackerService importUserJobTrackerService;
+    private final AdaptiveBatchSizerFactory adaptiveBatchSizerFactory;
+    private final ImportCheckpointService importCheckpointService;
+    private final ImportJobControlRegistry importJobControlRegistry;
+    private final FairImportScheduler fairImportScheduler;
+    private final ImportWriterPool writerPool;
+
+    // How many batches may wait between producer and writers
+    private final int queueCapacity;
+
+    // Initial rows per batch (one batch = one transaction), unless the engine prefers another size
+    private final int batchSize;
+
+    // Writer slots per job: how many of its batches may be committed in parallel (each on its own DB connection)
+    private final int writerThreads;
+
+    public UserImportPipeline(List<UserBatchWriter> batchWriters,
+                              ImportUserJobTrackerService importUserJobTrackerService,
+                              AdaptiveBatchSizerFactory adaptiveBatchSizerFactory,
+                              ImportCheckpointService importCheckpointService,
+                              ImportJobControlRegistry importJobControlRegistry,
+                              FairImportScheduler fairImportScheduler,
+                              ImportWriterPool writerPool,
+                              @Value("${import.pipeline.queue-capacity:4}") int queueCapacity,
+                              @Value("${import.pipeline.batch-size:1000}") int batchSize,
+                              @Value("${import.pipeline.writer-threads:4}") int writerThreads) {
+        for (UserBatchWriter batchWriter : batchWriters) {
+            this.batchWriters.put(batchWriter.engine(), batchWriter);
+        }
+        this.importUserJobTrackerService = importUserJobTrackerService;
+        this.adaptiveBatchSizerFactory = adaptiveBatchSizerFactory;
+        this.importCheckpointService = importCheckpointService;
+        this.importJobControlRegistry = importJobControlRegistry;
+        this.fairImportScheduler = fairImportScheduler;
+        this.writerPool = writerPool;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.writerThreads = Math.max(1, writerThreads);
+    }
+
+    // Throws ImportEngineUnavailableException if engine cannot run on this database (checked before a job is created)
+    public void checkEngineAvailable(ImportPersistenceEngine engine) {
+        UserBatchWriter batchWriter = batchWriters.get(engine);
+        if (batchWriter == null) {
+            throw new IllegalArgumentException("No batch writer registered for engine " + engine);
+        }
+        batchWriter.checkAvailable();
+    }
+
+    /**
+     * Runs the whole import for one job and returns the number of users saved (including earlier runs).
+     * Blocks the calling thread until the source is exhausted or the import fails.
+     * On failure a BatchImportFailedException reports exactly which batches were committed,
+     * on a pause / cancel request an ImportJobStoppedException does the same.
+     * resumeFrom: what earlier runs of this job committed (ImportCheckpoint.empty() for a new job);
+     * the source must already skip those rows.
+     */
+    public long run(String jobId, UserImportSource source, ImportPersistenceEngine engine, ImportCheckpoint resumeFrom) throws Exception {
+        return run(jobId, source, engine, resumeFrom, null);
+    }
+
+    /**
+     * Same as above with a de-dup stage between source and writers (null = none).
+     * The caller owns the session (opens and closes it).
+     */
+    public long run(String jobId, UserImportSource source, ImportPersistenceEngine engine, ImportCheckpoint resumeFrom,
+                    EmailDedupSession dedup) throws Exception {
+        long startTime = System.currentTimeMillis();
+        long expectedRows = source.estimatedTotalRows();
+
+        UserBatchWriter batchWriter = batchWriters.get(engine);
+        if (batchWriter == null) {
+            throw new IllegalArgumentException("No batch writer registered for engine " + engine);
+        }
+        AdaptiveBatchSizer batchSizer = batchWriter.preferredBatchSize() > 0
+                ? adaptiveBatchSizerFactory.fixed(batchWriter.preferredBatchSize())
+                : adaptiveBatchSizerFactory.create(batchSize);
+        importUserJobTrackerService.updateBatchSizing(jobId, batchSizer.currentBatchSize(), batchSizer.history());
+
+        BlockingQueue<ImportBatch> queue = new ArrayBlockingQueue<>(queueCapacity);
+        CommittedBatchLedger ledger = new CommittedBatchLedger(resumeFrom);
+        batchWriter.prepare(Math.max(0, expectedRows - resumeFrom.committedRows()));
+
+        // More slots than shared writer threads would only queue behind each other
+        int writers = Math.min(writerThreads, writerPool.size());
+        JobWriters job = new JobWriters(jobId, batchWriter, batchSizer, dedup, queue, ledger,
+                resumeFrom.committedRows(), expectedRows, startTime, writers);
+        AtomicBoolean stopRequested = job.stopRequested;
+        AtomicReference<Throwable> producerFailure = new AtomicReference<>();
+        AtomicReference<Throwable> writerFailure = job.writerFailure;
+        AtomicReference<ImportControlRequest> controlStop = job.controlStop;
+        importJobControlRegistry.register(jobId);
+
+        log.info("[PIPELINE] Started | jobId={} engine={} expectedRows={} alreadyCommittedRows={} batchSize={} queueCapacity={} writers={}",
+                jobId, engine, expectedRows, resumeFrom.committedRows(), batchSizer.currentBatchSize(), queueCapacity, writers);
+
+        Thread producer = Thread.ofPlatform()
+                .name("import-producer-" + jobId)
+                .start(() -> produce(jobId, source, batchSizer, resumeFrom.nextBatchNumber(), dedup, queue, writers, stopRequested, controlStop, producerFailure));
+
+        try {
+            for (int i = 0; i < writers; i++) {
+                scheduleTurn(job);
+            }
+            // Slots end on END_OF_STREAM, on a pause / cancel request or on the first failure
+            job.slotsDone.await();
+        } finally {
+            // If we are leaving because of an error, make sure the producer does not block forever
+            stopRequested.set(true);
+            queue.clear();
+            // Every slot notices stopRequested at its next turn -> no writer outlives run()
+            awaitUninterruptibly(job.slotsDone);
+            producer.join();
+            source.close();
+            importJobControlRegistry.unregister(jobId);
+        }
+
+        Throwable failure = writerFailure.get() != null ? writerFailure.get() : producerFailure.get();
+        if (failure != null) {
+            String reason = writerFailure.get() != null ? "Batch write failed: " : "Import source failed: ";
+            throw new BatchImportFailedException(reason + failure.getMessage(),
+                    ledger.getCommittedBatchCount(), ledger.describeCommittedBatches(), failure);
+        }
+        if (controlStop.get() != null) {
+            log.info("[PIPELINE] Stopped on request | jobId={} request={} committedRows={} batches={}",
+                    jobId, controlStop.get(), ledger.getCommittedRows(), ledger.describeCommittedBatches());
+            throw new ImportJobStoppedException(controlStop.get(), ledger.getCommittedRows(),
+                    ledger.getCommittedBatchCount(), ledger.describeCommittedBatches());
+        }
+
+        // Source rows processed (duplicates dropped by de-dup included, see CommittedBatchLedger)
+        long insertedCount = ledger.getCommittedRows();
+        double totalSeconds = (System.currentTimeMillis() - startTime) / 1000.0;
+        // Speed of THIS run only (rows committed by earlier runs did not take this time)
+        long insertedThisRun = insertedCount - resumeFrom.committedRows();
+        double rowsPerSecond = totalSeconds == 0 ? insertedThisRun : insertedThisRun / totalSeconds;
+        importUserJobTrackerService.updateThroughput(jobId, engine.name(), rowsPerSecond);
+
+        // engine + AvgSpeed in one line -> easy to compare JPA vs JDBC from production logs
+        log.info("[PIPELINE] Completed | jobId={} engine={} inserted={} batches={} finalBatchSize={} writers={} time={}s (AvgSpeed={} users/sec)",
+                jobId,
+                engine,
+                insertedCount,
+                ledger.getCommittedBatchCount(),
+                batchSizer.currentBatchSize(),
+                writers,
+                String.format("%.2f", totalSeconds),
+                String.format("%.0f", rowsPerSecond));
+        return insertedCount;
+    }
+
+    /**
+     * Producer loop: runs on its own thread.
+     * Keeps pulling batches from the source until it is exhausted or the import is stopped.
+     */
+    private void produce(String jobId,
+                         UserImportSource source,
+                         AdaptiveBatchSizer batchSizer,
+                         int firstBatchNumber,
+                         EmailDedupSession dedup,
+                         BlockingQueue<ImportBatch> queue,
+                         int writers,
+                         AtomicBoolean stopRequested,
+                         AtomicReference<ImportControlRequest> controlStop,
+                         AtomicReference<Throwable> producerFailure) {
+        try {
+            int batchNumber = firstBatchNumber;
+            ImportBatch batch;
+            while (!stopRequested.get()
+                    && !stopOnControlRequest(jobId, stopRequested, controlStop)
+                    && (batch = source.nextBatch(batchSizer.currentBatchSize())) != null) {
+                batch = batch.withBatchNumber(batchNumber++);
+                if (dedup != null && dedup.policy() != DuplicateEmailPolicy.ALLOW) {
+                    batch = dedup.apply(batch);
+                    importUserJobTrackerService.updateDedupStats(jobId, dedup.stats());
+                }
+                if (!offerUntilStopped(queue, batch, stopRequested)) {
+                    return;
+                }
+            }
+        } catch (Throwable ex) {
+            // No stopRequested here: batches already queued are still committed (and checkpointed),
+            // the END_OF_STREAM markers below queue up behind them -> a resume redoes less work
+            producerFailure.set(ex);
+            log.error("[PIPELINE] Producer failed", ex);
+        } finally {
+            for (int i = 0; i < writers; i++) {
+                if (!offerUntilStopped(queue, END_OF_STREAM, stopRequested)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    // Queues one turn of a writer slot on the shared pool; pool shut down (application stopping) = slot failed
+    private void scheduleTurn(JobWriters job) {
+        try {
+            writerPool.submit(() -> writeTurn(job));
+        } catch (RejectedExecutionException ex) {
+            job.fail(new IllegalStateException("Import writer pool is shut down", ex));
+            job.slotsDone.countDown();
+        }
+    }
+
+    /**
+     * One turn of a writer slot: commits at most ONE batch, then queues the slot again behind
+     * the other jobs' slots. Several slots run in parallel for the same job.
+     * Each batch -> its own REQUIRES_NEW transaction -> its own connection.
+     */
+    private void writeTurn(JobWriters job) {
+        boolean again;
+        try {
+            again = writeNextBatch(job);
+        } catch (InterruptedException ex) {
+            // Only the pool shutting down interrupts a writer
+            Thread.currentThread().interrupt();
+            job.fail(ex);
+            again = false;
+        } catch (Throwable ex) {
+            job.fail(ex);
+            again = false;
+        }
+        if (again) {
+            scheduleTurn(job);
+        } else {
+            job.slotsDone.countDown();
+        }
+    }
+
+    // false -> this slot is done (end of stream, stop request or failure)
+    private boolean writeNextBatch(JobWriters job) throws InterruptedException {
+        String jobId = job.jobId;
+        if (job.stopRequested.get()) {
+            return false;
+        }
+        // Short wait: an idle slot gives its thread back to the other jobs quickly
+        ImportBatch batch = job.queue.poll(50, TimeUnit.MILLISECONDS);
+        if (batch == null) {
+            return true;
+        }
+        if (batch == END_OF_STREAM || stopOnControlRequest(jobId, job.stopRequested, job.controlStop)) {
+            return false;
+        }
+
+        // All rows dropped as duplicates -> no fair-share permit and no sizing sample (a 0-row "commit"
+        // would tell the batch sizer that commits are instant), but the positions ARE checkpointed:
+        // the ledger counts them as processed, so a resume must see them as done too
+        if (batch.size() > 0) {
+            commit(job, batch);
+        } else {
+            importCheckpointService.commitBatch(jobId, batch, () -> { });
+        }
+
+        // Aggregate progress: one ledger per job, shared by all writer slots
+        CommittedBatchLedger ledger = job.ledger;
+        synchronized (ledger) {
+            ledger.recordCommitted(batch);
+            importUserJobTrackerService.updateProgress(jobId, ledger.getCommittedRows());
+            importUserJobTrackerService.updateCommittedBatches(jobId,
+                    ledger.getCommittedBatchCount(), ledger.describeCommittedBatches());
+            if (ledger.getCommittedBatchCount() % 10 == 0) {
+                logProgress(jobId, job.batchWriter.engine(), ledger, job.rowsFromEarlierRuns, job.expectedRows, job.startTime);
+            }
+        }
+        return true;
+    }
+
+    // Writes one batch together with its checkpoint, then feeds the commit latency to the batch sizer
+    private void commit(JobWriters job, ImportBatch batch) throws InterruptedException {
+        String jobId = job.jobId;
+        // Wait for this job's fair turn (time waiting here is NOT commit latency)
+        fairImportScheduler.acquire(jobId, batch.size());
+        long commitStart = System.nanoTime();
+        try {
+            importCheckpointService.commitBatch(jobId, batch, () -> job.batchWriter.writeBatch(batch));
+        } finally {
+            fairImportScheduler.release(jobId);
+        }
+        if (job.dedup != null) {
+            job.dedup.committed(batch);
+        }
+        if (job.batchSizer.recordCommit(batch.size(), System.nanoTime() - commitStart)) {
+            List<String> history = job.batchSizer.history();
+            importUserJobTrackerService.updateBatchSizing(jobId, job.batchSizer.currentBatchSize(), history);
+            log.info("[PIPELINE] Batch size changed | jobId={} {}", jobId, history.get(history.size() - 1));
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Paused / cancelled by an operator -> every thread stops at its next batch boundary
+    private boolean stopOnControlRequest(String jobId, AtomicBoolean stopRequested, AtomicReference<ImportControlRequest> controlStop) {
+        ImportControlRequest request = importJobControlRegistry.requested(jobId);
+        if (request == null) {
+            return false;
+        }
+        controlStop.compareAndSet(null, request);
+        stopRequested.set(true);
+        return true;
+    }
+
+    // offer() with timeout instead of put() so we can notice stopRequested even while the queue is full
+    private boolean offerUntilStopped(BlockingQueue<ImportBatch> queue, ImportBatch batch, AtomicBoolean stopRequested) {
+        try {
+            while (!queue.offer(batch, 200, TimeUnit.MILLISECONDS)) {
+                if (stopRequested.get()) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void logProgress(String jobId, ImportPersistenceEngine engine, CommittedBatchLedger ledger,
+                             long rowsFromEarlierRuns, long expectedRows, long startTime) {
+        long insertedCount = ledger.getCommittedRows();
+        long insertedThisRun = insertedCount - rowsFromEarlierRuns;
+        double elapsedSeconds = (System.currentTimeMillis() - startTime) / 1000.0;
+        double percent = expectedRows <= 0 ? 0.0 : (insertedCount * 100.0) / expectedRows;
+        double usersPerSecond = elapsedSeconds == 0 ? insertedThisRun : insertedThisRun / elapsedSeconds;
+
+        importUserJobTrackerService.updateThroughput(jobId, engine.name(), usersPerSecond);
+
+        log.info("[PIPELINE] jobId={} engine={} committedBatches={} (Inserted={}/{} | {}% | Speed={} users/sec | Elapsed={}s)",
+                jobId,
+                engine,
+                ledger.getCommittedBatchCount(),
+                insertedCount,
+                expectedRows,
+                String.format("%.2f", percent),
+                String.format("%.0f", usersPerSecond),
+                String.format("%.2f", elapsedSeconds));
+    }
+
+    // Everything the writer slots of one job share
+    private static final class JobWriters {
+        private final String jobId;
+        private final UserBatchWriter batchWriter;
+        private final AdaptiveBatchSizer batchSizer;
+        private final EmailDedupSession dedup;
+        private final BlockingQueue<ImportBatch> queue;
+        private final CommittedBatchLedger ledger;
+        private final long rowsFromEarlierRuns;
+        private final long expectedRows;
+        private final long startTime;
+        // Counted down once per slot when it stops
+        private final CountDownLatch slotsDone;
+
+        // Any thread -> everyone: "stop, the import is failing"
+        private final AtomicBoolean stopRequested = new AtomicBoolean(false);
+        // The error that stopped the first writer (if any)
+        private final AtomicReference<Throwable> writerFailure = new AtomicReference<>();
+        // The pause / cancel request that stopped the job (if any)
+        private final AtomicReference<ImportControlRequest> controlStop = new AtomicReference<>();
+
+        private JobWriters(String jobId, UserBatchWriter batchWriter, AdaptiveBatchSizer batchSizer,
+                           EmailDedupSession dedup, BlockingQueue<ImportBatch> queue, CommittedBatchLedger ledger,
+                           long rowsFromEarlierRuns, long expectedRows, long startTime, int slots) {
+            this.jobId = jobId;
+            this.batchWriter = batchWriter;
+            this.batchSizer = batchSizer;
+            this.dedup = dedup;
+            this.queue = queue;
+            this.ledger = ledger;
+            this.rowsFromEarlierRuns = rowsFromEarlierRuns;
+            this.expectedRows = expectedRows;
+            this.startTime = startTime;
+            this.slotsDone = new CountDownLatch(slots);
+        }
+
+        // Only the FIRST failure is reported, the other slots just stop
+        private void fail(Throwable ex) {
+            if (writerFailure.compareAndSet(null, ex)) {
+                log.error("[PIPELINE] Writer failed | jobId={}", jobId, ex);
+            }
+            stopRequested.set(true);
+        }
+    }
+}
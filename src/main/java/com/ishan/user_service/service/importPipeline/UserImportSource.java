@@ -0,0 +1,32 @@
+package com.ishan.user_service.service.importPipeline;
+
+/**
+ * A pull-based supplier of users for the import pipeline.
+ * Why pull-based?
+ * - The pipeline decides WHEN the next batch is needed (backpressure)
+ * - The source only ever holds the batch it is currently building
+ * - Memory stays at "a few batches" no matter how many users are imported
+ * Implementations are called from ONE producer thread only, so they do not need to be thread-safe.
+ *
+ * Batch positions (startPosition/endPosition) are what import checkpoints store:
+ * a resumable source must produce the SAME rows for the same positions on every run
+ * and be able to skip positions that are already committed.
+ */
+public interface UserImportSource extends AutoCloseable {
+
+    /**
+     * Builds the next batch of at most maxRows users.
+     * @return the next batch, or null once the source is exhausted
+     */
+    ImportBatch nextBatch(int maxRows) throws Exception;
+
+    /**
+     * Total rows of the job (used for progress %), including rows a resumed job skips.
+     * Returns -1 when the size is not known up front.
+     */
+    long estimatedTotalRows();
+
+    @Override
+    default void close() throws Exception {
+    }
+}
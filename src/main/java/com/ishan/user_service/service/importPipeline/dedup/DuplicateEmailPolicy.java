@@ -0,0 +1,20 @@
+package com.ishan.user_service.service.importPipeline.dedup;
+
+/**
+ * What an import job does with a user whose email already exists (in the DB or earlier in the job).
+ * Chosen per job, stored with it (a resume applies the same policy).
+ */
+public enum DuplicateEmailPolicy {
+
+    // No check at all (previous behaviour), emails are still recorded for later jobs
+    ALLOW,
+
+    // Drop the duplicate row, the rest of the batch is imported
+    SKIP,
+
+    // Import it as local+N@domain with the first N that is free
+    SUFFIX,
+
+    // Fail the job on the first duplicate (batches committed before it stay, resumable)
+    FAIL
+}
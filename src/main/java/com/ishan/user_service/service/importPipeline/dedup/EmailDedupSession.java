@@ -0,0 +1,159 @@
+package com.ishan.user_service.service.importPipeline.dedup;
+
+import com.ishan.user_service.customExceptions.DuplicateEmailException;
+import com.ishan.user_service.dto.UserDto;
+import com.ishan.user_service.service.importPipeline.ImportBatch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * De-dup stage of ONE job run (see EmailDeduplicator).
+ * apply() runs on the pipeline's producer thread (one batch at a time),
+ * committed() on the writer threads once a batch is in the DB.
+ */
+public class EmailDedupSession implements AutoCloseable {
+
+    // SUFFIX: local+1@..., local+2@... tried in turn before giving up
+    private static final int MAX_SUFFIX_ATTEMPTS = 100;
+
+    private final EmailDeduplicator deduplicator;
+    private final String jobId;
+    private final DuplicateEmailPolicy policy;
+
+    // Emails this session claimed and that are not committed yet (released on commit / close)
+    private final Set<String> claimed = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong checked = new AtomicLong();
+    private final AtomicLong suspected = new AtomicLong();
+    private final AtomicLong falsePositives = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong suffixed = new AtomicLong();
+
+    EmailDedupSession(EmailDeduplicator deduplicator, String jobId, DuplicateEmailPolicy policy) {
+        this.deduplicator = deduplicator;
+        this.jobId = jobId;
+        this.policy = policy;
+    }
+
+    public DuplicateEmailPolicy policy() {
+        return policy;
+    }
+
+    /**
+     * Returns the batch with duplicates dropped / renamed (same batch number and positions:
+     * a dropped row is still "done" for checkpoints and resume).
+     * FAIL -> DuplicateEmailException on the first duplicate.
+     */
+    public ImportBatch apply(ImportBatch batch) {
+        if (policy == DuplicateEmailPolicy.ALLOW) {
+            return batch;
+        }
+        EmailBloomFilter filter = deduplicator.filter();
+
+        // 1. Filter pass: only "maybe seen" emails go to the DB, all in ONE query
+        List<String> suspects = new ArrayList<>();
+        for (UserDto user : batch.users()) {
+            if (user.getEmail() != null && filter.mightContain(EmailDeduplicator.normalize(user.getEmail()))) {
+                suspects.add(user.getEmail());
+            }
+        }
+        Set<String> existing = suspects.isEmpty() ? Set.of() : deduplicator.findExisting(suspects);
+        suspected.addAndGet(suspects.size());
+
+        // 2. Exact decision per row: in the DB, or claimed by a batch not committed yet (this job or another)
+        List<UserDto> kept = new ArrayList<>(batch.size());
+        long confirmed = 0;
+        for (UserDto user : batch.users()) {
+            if (user.getEmail() == null) {
+                kept.add(user);
+                continue;
+            }
+            checked.incrementAndGet();
+            String key = EmailDeduplicator.normalize(user.getEmail());
+            boolean inDb = existing.contains(key);
+            if (inDb) {
+                confirmed++;
+            }
+            if (!inDb && deduplicator.claim(key, jobId)) {
+                claimed.add(key);
+                kept.add(user);
+                continue;
+            }
+            duplicates.incrementAndGet();
+            switch (policy) {
+                case SKIP -> skipped.incrementAndGet();
+                case FAIL -> throw new DuplicateEmailException("Duplicate email " + user.getEmail()
+                        + " at source position " + (batch.startPosition() + batch.users().indexOf(user)));
+                case SUFFIX -> {
+                    user.setEmail(uniqueVariant(user.getEmail()));
+                    suffixed.incrementAndGet();
+                    kept.add(user);
+                }
+                default -> throw new IllegalStateException("Unexpected policy " + policy);
+            }
+        }
+        // Suspects the DB did not know: filter false positives (or rows claimed in flight)
+        falsePositives.addAndGet(suspects.size() - confirmed);
+        return new ImportBatch(batch.batchNumber(), batch.startPosition(), batch.endPosition(), kept);
+    }
+
+    /**
+     * The batch is in the DB: its emails are now found by the exact check -> release the claims.
+     * ALLOW sessions only teach the filter (later checking jobs must see these rows too).
+     */
+    public void committed(ImportBatch batch) {
+        for (UserDto user : batch.users()) {
+            if (user.getEmail() == null) {
+                continue;
+            }
+            if (policy == DuplicateEmailPolicy.ALLOW) {
+                deduplicator.record(user.getEmail());
+                continue;
+            }
+            String key = EmailDeduplicator.normalize(user.getEmail());
+            if (claimed.remove(key)) {
+                deduplicator.release(key);
+            }
+        }
+    }
+
+    public EmailDedupStats stats() {
+        return new EmailDedupStats(policy.name(), checked.get(), suspected.get(), falsePositives.get(),
+                duplicates.get(), skipped.get(), suffixed.get());
+    }
+
+    // Batches that never committed (failure, pause, cancel): their emails are free again
+    @Override
+    public void close() {
+        for (String key : claimed) {
+            deduplicator.release(key);
+        }
+        claimed.clear();
+    }
+
+    // local+N@domain with the first N nobody has (checked like any other email, then claimed)
+    private String uniqueVariant(String email) {
+        int at = email.lastIndexOf('@');
+        String local = at >= 0 ? email.substring(0, at) : email;
+        String domain = at >= 0 ? email.substring(at) : "";
+        EmailBloomFilter filter = deduplicator.filter();
+        for (int n = 1; n <= MAX_SUFFIX_ATTEMPTS; n++) {
+            String candidate = local + "+" + n + domain;
+            String key = EmailDeduplicator.normalize(candidate);
+            if (filter.mightContain(key) && !deduplicator.findExisting(List.of(candidate)).isEmpty()) {
+                continue;
+            }
+            if (deduplicator.claim(key, jobId)) {
+                claimed.add(key);
+                return candidate;
+            }
+        }
+        throw new DuplicateEmailException("No free variant of duplicate email " + email
+                + " after " + MAX_SUFFIX_ATTEMPTS + " suffixes");
+    }
+}
@@ -0,0 +1,15 @@
+package com.ishan.user_service.service.importPipeline.dedup;
+
+/**
+ * De-duplication counters of one job run (shown in the job status).
+ *
+ * @param checked        rows with an email that went through the check
+ * @param suspected      rows the Bloom filter flagged as "maybe seen" (needed an exact check)
+ * @param falsePositives suspected rows the exact check cleared
+ * @param duplicates     rows whose email really exists already (DB or earlier in the import)
+ * @param skipped        duplicates dropped (SKIP)
+ * @param suffixed       duplicates imported with a suffixed email (SUFFIX)
+ */
+public record EmailDedupStats(String policy, long checked, long suspected, long falsePositives,
+                              long duplicates, long skipped, long suffixed) {
+}
@@ -0,0 +1,165 @@
+package com.ishan.user_service.service.importPipeline.dedup;
+
+import com.ishan.user_service.repository.UserJdbcRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Email de-duplication for imports, shared by all jobs of this JVM.
+ *
+ * WHY NOT A UNIQUE INDEX?
+ * - One duplicate would roll back its whole batch (1000+ rows), and Faker / RandomUser DO repeat emails
+ *
+ * HOW:
+ * 1. EmailBloomFilter of every email in the users table (fixed memory: import.dedup.expected-emails
+ *    at import.dedup.false-positive-rate), built on first use by a keyset scan of the table
+ * 2. Kept up to date: every committed import batch (any policy) and every JPA save (UserEmailListener)
+ *    records its emails
+ * 3. A job row whose email the filter has never seen is unique -> no DB access (the common case)
+ * 4. "Maybe seen" -> exact check: the emails of this batch still waiting to commit (pending)
+ *    + one IN query per batch on idx_users_email
+ *
+ * pending: emails accepted by a de-dup job but not committed yet (queued / being written).
+ * Without it two batches in flight (same job or two jobs) could both take the same email.
+ * Bounded by the pipeline queues (a few batches per job).
+ *
+ * Memory stays fixed past the expected size, only the false positive rate (DB lookups) grows.
+ */
+@Service
+public class EmailDeduplicator {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailDeduplicator.class);
+
+    private final UserJdbcRepository userJdbcRepository;
+    private final long expectedEmails;
+    private final double falsePositiveRate;
+    private final int warmupPageSize;
+    private final DuplicateEmailPolicy defaultPolicy;
+
+    // null until the first job that checks duplicates (ALLOW-only deployments never pay for it)
+    private volatile EmailBloomFilter filter;
+    private volatile boolean capacityWarningLogged;
+
+    // normalized email -> job that claimed it (accepted, not committed yet)
+    private final ConcurrentHashMap<String, String> pending = new ConcurrentHashMap<>();
+
+    public EmailDeduplicator(UserJdbcRepository userJdbcRepository,
+                             @Value("${import.dedup.expected-emails:20000000}") long expectedEmails,
+                             @Value("${import.dedup.false-positive-rate:0.01}") double falsePositiveRate,
+                             @Value("${import.dedup.warmup-page-size:10000}") int warmupPageSize,
+                             @Value("${import.dedup.default-policy:ALLOW}") DuplicateEmailPolicy defaultPolicy) {
+        this.userJdbcRepository = userJdbcRepository;
+        this.expectedEmails = expectedEmails;
+        this.falsePositiveRate = falsePositiveRate;
+        this.warmupPageSize = warmupPageSize;
+        this.defaultPolicy = defaultPolicy;
+    }
+
+    // Policy of a job that did not choose one
+    public DuplicateEmailPolicy resolve(DuplicateEmailPolicy requested) {
+        return requested != null ? requested : defaultPolicy;
+    }
+
+    /**
+     * One session per job run. Checking policies build the filter first if needed
+     * (blocks the job's thread for the scan, not the request that created the job).
+     */
+    public EmailDedupSession openSession(String jobId, DuplicateEmailPolicy policy) {
+        DuplicateEmailPolicy resolved = resolve(policy);
+        if (resolved != DuplicateEmailPolicy.ALLOW) {
+            warmUp();
+        }
+        return new EmailDedupSession(this, jobId, resolved);
+    }
+
+    // An email written outside a de-dup session (JPA saves, ALLOW batches): only the filter learns it
+    public void record(String email) {
+        EmailBloomFilter current = filter;
+        if (current != null && email != null) {
+            current.put(normalize(email));
+            warnIfOverCapacity(current);
+        }
+    }
+
+    // Key used for email comparisons (filter, pending claims, upsert matching)
+    public static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    EmailBloomFilter filter() {
+        return filter;
+    }
+
+    boolean isPending(String key) {
+        return pending.containsKey(key);
+    }
+
+    // false -> someone else claimed it meanwhile
+    boolean claim(String key, String jobId) {
+        if (pending.putIfAbsent(key, jobId) != null) {
+            return false;
+        }
+        filter.put(key);
+        warnIfOverCapacity(filter);
+        return true;
+    }
+
+    void release(String key) {
+        pending.remove(key);
+    }
+
+    // Normalized emails among these (raw) ones that exist in the users table
+    Set<String> findExisting(List<String> emails) {
+        Set<String> existing = new HashSet<>();
+        for (String email : userJdbcRepository.findExistingEmails(emails)) {
+            existing.add(normalize(email));
+        }
+        return existing;
+    }
+
+    /**
+     * Builds the filter ONCE. The filter is published BEFORE the scan: rows inserted while the scan
+     * runs are recorded by record()/claim(), rows inserted before it are found by the scan.
+     */
+    private synchronized void warmUp() {
+        if (filter != null) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        EmailBloomFilter warming = new EmailBloomFilter(expectedEmails, falsePositiveRate);
+        filter = warming;
+        long scanned = 0;
+        long lastId = 0;
+        while (true) {
+            long[] pageRows = {0};
+            long pageLastId = userJdbcRepository.scanEmails(lastId, warmupPageSize, email -> {
+                warming.put(normalize(email));
+                pageRows[0]++;
+            });
+            if (pageLastId < 0) {
+                break;
+            }
+            scanned += pageRows[0];
+            lastId = pageLastId;
+        }
+        log.info("[DEDUP] Email filter ready | emails={} filterBytes={} falsePositiveRate={} time={}s",
+                scanned, warming.sizeInBytes(), falsePositiveRate,
+                String.format("%.2f", (System.currentTimeMillis() - startTime) / 1000.0));
+    }
+
+    private void warnIfOverCapacity(EmailBloomFilter current) {
+        if (!capacityWarningLogged && current.isOverCapacity()) {
+            capacityWarningLogged = true;
+            log.warn("[DEDUP] Email filter holds more than import.dedup.expected-emails={} emails, "
+                    + "false positives (DB lookups) will grow; raise the setting and restart", expectedEmails);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.ishan.user_service.service.importPipeline.dedup;
+
+import com.ishan.user_service.model.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Teaches the import email filter about users saved through JPA outside the import pipeline
+ * (POST /users, PATCH, the single / batch RandomUser endpoints...), so a later de-dup job sees them.
+ * Created by Hibernate through Spring's bean container; ObjectProvider because slices
+ * without the import services (e.g. @DataJpaTest) still create this listener.
+ */
+public class UserEmailListener {
+
+    private final ObjectProvider<EmailDeduplicator> emailDeduplicator;
+
+    public UserEmailListener(ObjectProvider<EmailDeduplicator> emailDeduplicator) {
+        this.emailDeduplicator = emailDeduplicator;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void recordEmail(User user) {
+        emailDeduplicator.ifAvailable(deduplicator -> deduplicator.record(user.getEmail()));
+    }
+}
@@ -0,0 +1,131 @@
+package com.ishan.user_service.service.importPipeline.writer;
+
+import com.ishan.user_service.mapper.UserDtoToUserMapper;
+import com.ishan.user_service.model.User;
+import com.ishan.user_service.repository.UserBulkLoadRepository;
+import com.ishan.user_service.service.importPipeline.ImportBatch;
+import com.ishan.user_service.service.importPipeline.ImportPersistenceEngine;
+import com.ishan.user_service.service.importPipeline.UserIdAllocator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Native bulk-load engine for big imports, OPT-IN (engine=BULK_LOAD, never a default):
+ * it needs MySQL with local_infile (or H2), checked when the job is accepted (checkAvailable()).
+ * Per batch:
+ * 1. Take batch.size() consecutive IDs from UserIdAllocator (same id_generator row as JPA -> no collisions)
+ * 2. STREAM the users into a temp CSV (UserBulkLoadRepository.STAGING_HEADER: first / last name as separate columns)
+ * 3. Load the whole file with ONE native statement (LOAD DATA LOCAL INFILE / CSVREAD)
+ * 4. Delete the staged file (also on failure)
+ *
+ * Batches are bigger here (import.bulk-load.batch-size, default 5000) because the loader gets faster the
+ * more rows it reads per statement. Not much bigger: every queued batch is a List of DTOs on the heap
+ * (queue-capacity + writer slots batches per job). Each batch is still its own transaction
+ * (with its checkpoint), so progress and "which batches were committed" keep working.
+ */
+@Component
+public class BulkLoadUserBatchWriter implements UserBatchWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkLoadUserBatchWriter.class);
+
+    private final UserIdAllocator userIdAllocator;
+    private final UserBulkLoadRepository userBulkLoadRepository;
+
+    // Where staged CSV files are written (must be readable by the JDBC driver)
+    private final Path stagingDir;
+
+    // Rows per staged file / LOAD statement
+    private final int batchSize;
+
+    public BulkLoadUserBatchWriter(UserIdAllocator userIdAllocator,
+                                   UserBulkLoadRepository userBulkLoadRepository,
+                                   @Value("${import.bulk-load.staging-dir:${java.io.tmpdir}}") String stagingDir,
+                                   @Value("${import.bulk-load.batch-size:5000}") int batchSize) {
+        this.userIdAllocator = userIdAllocator;
+        this.userBulkLoadRepository = userBulkLoadRepository;
+        this.stagingDir = Paths.get(stagingDir);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Override
+    public ImportPersistenceEngine engine() {
+        return ImportPersistenceEngine.BULK_LOAD;
+    }
+
+    @Override
+    public int preferredBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public void checkAvailable() {
+        userBulkLoadRepository.checkAvailable();
+    }
+
+    // One DB round trip for the whole job's IDs, batches then take them from memory
+    @Override
+    public void prepare(long expectedRows) {
+        userIdAllocator.reserveAhead(expectedRows);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRED)
+    public void writeBatch(ImportBatch batch) {
+        Path csvFile = null;
+        try {
+            Files.createDirectories(stagingDir);
+            csvFile = Files.createTempFile(stagingDir, "users-bulk-batch-" + batch.batchNumber() + "-", ".csv");
+            stage(batch, csvFile);
+
+            int loadedRows = userBulkLoadRepository.loadCsv(csvFile);
+            if (loadedRows != batch.size()) {
+                // e.g. a row rejected by the loader -> do not report the batch as committed
+                throw new IllegalStateException("Bulk load of batch " + batch.batchNumber()
+                        + " loaded " + loadedRows + " rows, expected " + batch.size());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not stage batch " + batch.batchNumber() + " for bulk load", ex);
+        } finally {
+            deleteQuietly(csvFile);
+        }
+    }
+
+    private void stage(ImportBatch batch, Path csvFile) throws IOException {
+        int firstId = userIdAllocator.allocate(batch.size());
+
+        // Row by row: only ONE User object alive at a time, the file is the buffer
+        try (BufferedWriter writer = Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8)) {
+            writer.write(UserBulkLoadRepository.STAGING_HEADER);
+            writer.write('\n');
+            for (int i = 0; i < batch.size(); i++) {
+                User user = UserDtoToUserMapper.convertUserDtoToUser(batch.users().get(i));
+                user.setId(firstId + i);
+                writer.write(UserBulkLoadRepository.toStagingRow(user));
+                writer.write('\n');
+            }
+        }
+    }
+
+    private void deleteQuietly(Path csvFile) {
+        if (csvFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(csvFile);
+        } catch (IOException ex) {
+            log.warn("[BULK_LOAD] Could not delete staged file | file={}", csvFile, ex);
+        }
+    }
+}
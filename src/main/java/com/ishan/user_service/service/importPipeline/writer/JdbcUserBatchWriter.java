@@ -0,0 +1,48 @@
+package com.ishan.user_service.service.importPipeline.writer;
+
+import com.ishan.user_service.repository.UserJdbcRepository;
+import com.ishan.user_service.service.importPipeline.ImportBatch;
+import com.ishan.user_service.service.importPipeline.ImportPersistenceEngine;
+import com.ishan.user_service.service.importPipeline.UserIdAllocator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Hibernate-free engine.
+ * Per batch:
+ * 1. Take batch.size() consecutive IDs from UserIdAllocator (reserved up front for the whole job)
+ * 2. ONE JdbcTemplate batch INSERT, in the pipeline's batch transaction
+ * No persistence context, no dirty-check snapshots, no flush/clear.
+ * The DTOs are bound to the INSERT directly (batchInsertDtos), no User entity is built per row.
+ */
+@Component
+public class JdbcUserBatchWriter implements UserBatchWriter {
+
+    private final UserIdAllocator userIdAllocator;
+    private final UserJdbcRepository userJdbcRepository;
+
+    public JdbcUserBatchWriter(UserIdAllocator userIdAllocator,
+                               UserJdbcRepository userJdbcRepository) {
+        this.userIdAllocator = userIdAllocator;
+        this.userJdbcRepository = userJdbcRepository;
+    }
+
+    @Override
+    public ImportPersistenceEngine engine() {
+        return ImportPersistenceEngine.JDBC;
+    }
+
+    // One DB round trip for the whole job's IDs, batches then take them from memory
+    @Override
+    public void prepare(long expectedRows) {
+        userIdAllocator.reserveAhead(expectedRows);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRED)
+    public void writeBatch(ImportBatch batch) {
+        int firstId = userIdAllocator.allocate(batch.size());
+        userJdbcRepository.batchInsertDtos(firstId, batch.users());
+    }
+}
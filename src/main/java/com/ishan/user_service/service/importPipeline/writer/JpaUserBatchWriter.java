@@ -0,0 +1,40 @@
+package com.ishan.user_service.service.importPipeline.writer;
+
+import com.ishan.user_service.dto.UserDto;
+import com.ishan.user_service.mapper.UserDtoToUserMapper;
+import com.ishan.user_service.model.User;
+import com.ishan.user_service.service.importPipeline.ImportBatch;
+import com.ishan.user_service.service.importPipeline.ImportPersistenceEngine;
+import com.ishan.user_service.service.user.UserBatchSaverService;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Original engine: Hibernate saveAll() + flush/clear (see UserBatchSaverService),
+ * inside the pipeline's per-batch transaction.
+ */
+@Component
+public class JpaUserBatchWriter implements UserBatchWriter {
+
+    private final UserBatchSaverService userBatchSaverService;
+
+    public JpaUserBatchWriter(UserBatchSaverService userBatchSaverService) {
+        this.userBatchSaverService = userBatchSaverService;
+    }
+
+    @Override
+    public ImportPersistenceEngine engine() {
+        return ImportPersistenceEngine.JPA;
+    }
+
+    @Override
+    public void writeBatch(ImportBatch batch) {
+        List<User> userBatch = new ArrayList<>(batch.size());
+        for (UserDto userDto : batch.users()) {
+            userBatch.add(UserDtoToUserMapper.convertUserDtoToUser(userDto));
+        }
+        userBatchSaverService.saveBatchInCurrentTransaction(userBatch);
+    }
+}
@@ -0,0 +1,102 @@
+package com.ishan.user_service.service.importPipeline.writer;
+
+import com.ishan.user_service.dto.UserDto;
+import com.ishan.user_service.repository.UserJdbcRepository;
+import com.ishan.user_service.service.importPipeline.ImportBatch;
+import com.ishan.user_service.service.importPipeline.ImportPersistenceEngine;
+import com.ishan.user_service.service.importPipeline.UserIdAllocator;
+import com.ishan.user_service.service.importPipeline.dedup.EmailDeduplicator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merge-by-email engine: re-importing a refreshed CSV / RandomUser snapshot updates the users
+ * it already has instead of appending them again.
+ *
+ * OLD WAY: one UserServiceImpl.updateUser per row -> findById + save = 2+ round trips per user.
+ *
+ * Per batch (all in the pipeline's batch transaction, like the other engines):
+ * 1. Rows with the same email inside the batch collapse to the LAST one (latest wins)
+ * 2. ONE "WHERE email IN (...)" lookup resolves which emails exist (idx_users_email)
+ * 3. ONE JDBC batch UPDATE for those (values the import lacks keep the stored ones),
+ *    ONE JDBC batch INSERT for the rest (IDs from UserIdAllocator)
+ *
+ * Email matching is case-insensitive inside the batch; against the DB it follows the column
+ * collation (MySQL's default is case-insensitive).
+ * Two batches of the same job that both bring a NEW email may both insert it: reconcile files
+ * are expected to hold an email once (the duplicate policy does not apply to UPSERT jobs).
+ */
+@Component
+public class UpsertUserBatchWriter implements UserBatchWriter {
+
+    private final UserIdAllocator userIdAllocator;
+    private final UserJdbcRepository userJdbcRepository;
+
+    public UpsertUserBatchWriter(UserIdAllocator userIdAllocator,
+                                 UserJdbcRepository userJdbcRepository) {
+        this.userIdAllocator = userIdAllocator;
+        this.userJdbcRepository = userJdbcRepository;
+    }
+
+    @Override
+    public ImportPersistenceEngine engine() {
+        return ImportPersistenceEngine.UPSERT;
+    }
+
+    // Worst case every row is new -> reserve IDs for all of them (unused ones are a gap, like any block)
+    @Override
+    public void prepare(long expectedRows) {
+        userIdAllocator.reserveAhead(expectedRows);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRED)
+    public void writeBatch(ImportBatch batch) {
+        // 1. Latest row per email, rows without email are always new
+        Map<String, UserDto> byEmail = new LinkedHashMap<>();
+        List<UserDto> inserts = new ArrayList<>();
+        for (UserDto userDto : batch.users()) {
+            if (userDto.getEmail() == null) {
+                inserts.add(userDto);
+            } else {
+                byEmail.put(EmailDeduplicator.normalize(userDto.getEmail()), userDto);
+            }
+        }
+
+        // 2. Which of them exist, one query
+        Map<String, Integer> existingIds = new LinkedHashMap<>();
+        if (!byEmail.isEmpty()) {
+            List<String> emails = new ArrayList<>(byEmail.size());
+            for (UserDto userDto : byEmail.values()) {
+                emails.add(userDto.getEmail());
+            }
+            userJdbcRepository.findIdsByEmail(emails).forEach((email, id) ->
+                    existingIds.merge(EmailDeduplicator.normalize(email), id, Math::min));
+        }
+
+        // 3. Split, then one batch per kind (DTOs bound directly, no User entities)
+        List<UserDto> updates = new ArrayList<>();
+        List<Integer> updateIds = new ArrayList<>();
+        for (Map.Entry<String, UserDto> entry : byEmail.entrySet()) {
+            Integer id = existingIds.get(entry.getKey());
+            if (id == null) {
+                inserts.add(entry.getValue());
+            } else {
+                updates.add(entry.getValue());
+                updateIds.add(id);
+            }
+        }
+        if (!updates.isEmpty()) {
+            userJdbcRepository.batchUpdateDtos(updates, updateIds);
+        }
+        if (!inserts.isEmpty()) {
+            userJdbcRepository.batchInsertDtos(userIdAllocator.allocate(inserts.size()), inserts);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.ishan.user_service.service.importPipeline.writer;
+
+import com.ishan.user_service.service.importPipeline.ImportBatch;
+import com.ishan.user_service.service.importPipeline.ImportPersistenceEngine;
+
+/**
+ * Persists ONE import batch.
+ * Implementations JOIN the caller's transaction (REQUIRED): the pipeline opens one transaction
+ * per batch and commits the batch's checkpoint in it. Called alone, they open their own.
+ * Implementations are Spring singletons called by several pipeline writer threads at once,
+ * so they must be thread-safe (keep per-batch state on the stack, not in fields).
+ */
+public interface UserBatchWriter {
+
+    ImportPersistenceEngine engine();
+
+    void writeBatch(ImportBatch batch);
+
+    // Rows per batch this engine works best with, 0 = use import.pipeline.batch-size
+    default int preferredBatchSize() {
+        return 0;
+    }
+
+    // Called when a job asking for this engine is ACCEPTED: throws ImportEngineUnavailableException
+    // if the engine cannot run here, so the client gets a 400 instead of a job that fails later
+    default void checkAvailable() {
+    }
+
+    // Called once before the first batch with the rows this run will write (e.g. to reserve IDs up front)
+    default void prepare(long expectedRows) {
+    }
+}
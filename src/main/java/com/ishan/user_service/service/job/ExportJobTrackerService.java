@@ -0,0 +1,33 @@
+package com.ishan.user_service.service.job;
+
+import com.ishan.user_service.dto.ExportJobInfoDto;
+import com.ishan.user_service.specification.UserSearchCriteria;
+
+import java.nio.file.Path;
+
+public interface ExportJobTrackerService {
+
+    // Creates a new export job entry (in memory + durable row) and returns its unique jobId
+    String createJob(UserSearchCriteria criteria, boolean gzip);
+
+    // Fetch current job status (so client can poll), null when the jobId is unknown
+    ExportJobInfoDto getJobStatus(String jobId);
+
+    // File of a COMPLETED job that still exists on disk, null otherwise
+    Path findArtifact(String jobId);
+
+    // Mark job as RUNNING; file = where the finished export will be (removed again on expiry)
+    void markRunning(String jobId, Path file);
+
+    // Update exported / total counts during execution (in memory only)
+    void updateProgress(String jobId, long exportedCount, long totalCount);
+
+    // Mark job as COMPLETED: file is complete and can be downloaded
+    void markCompleted(String jobId, Path file, long exportedCount, String message);
+
+    // Mark job as FAILED (and store error message)
+    void markFailed(String jobId, String errorMessage);
+
+    // Mark job as REJECTED: the export executor had no room for it (final)
+    void markRejected(String jobId, String message);
+}
@@ -0,0 +1,269 @@
+package com.ishan.user_service.service.job;
+
+import com.ishan.user_service.dto.ExportJobInfoDto;
+import com.ishan.user_service.model.ExportJob;
+import com.ishan.user_service.repository.ExportJobRepository;
+import com.ishan.user_service.specification.UserSearchCriteria;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Export job status, kept like the import job status:
+ * - In memory (ConcurrentHashMap): live progress, updated after every segment, cheap
+ * - In the DB (export_jobs): status, file path and size -> a finished file can still be
+ *   downloaded after a restart (the in-memory entry is rebuilt on first access)
+ *
+ * RETENTION:
+ * - Export files can be several GB -> jobs older than export.jobs.retention-minutes are EXPIRED
+ *   and their file deleted (checked every export.jobs.cleanup-interval-ms)
+ * - A job left PENDING / IN_PROGRESS by a JVM that died is expired the same way, with its .part file
+ */
+@Service
+public class ExportJobTrackerServiceImpl implements ExportJobTrackerService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportJobTrackerServiceImpl.class);
+
+    // Download endpoint of UserExportController, shown in the status once the file is ready
+    private static final String DOWNLOAD_URL = "/api/v1/users/exportCSV/jobs/%s/file";
+
+    private static final Set<ExportJobInfoDto.ExportStatus> EXPIRABLE =
+            EnumSet.complementOf(EnumSet.of(ExportJobInfoDto.ExportStatus.EXPIRED));
+
+    private final Map<String, ExportJobInfoDto> jobInfoDtoMap = new ConcurrentHashMap<>();
+
+    // Jobs queued or running in THIS JVM -> never expired under their feet
+    private final Set<String> liveJobIds = ConcurrentHashMap.newKeySet();
+
+    private final ExportJobRepository exportJobRepository;
+    private final long retentionMinutes;
+
+    public ExportJobTrackerServiceImpl(ExportJobRepository exportJobRepository,
+                                       @Value("${export.jobs.retention-minutes:1440}") long retentionMinutes) {
+        this.exportJobRepository = exportJobRepository;
+        this.retentionMinutes = retentionMinutes;
+    }
+
+    @Override
+    public String createJob(UserSearchCriteria criteria, boolean gzip) {
+        String jobId = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        String message = "User Export Job Created";
+        exportJobRepository.save(ExportJob.builder()
+                .jobId(jobId)
+                .filters(criteria.describe())
+                .gzip(gzip)
+                .status(ExportJobInfoDto.ExportStatus.PENDING)
+                .message(message)
+                .createdAt(now)
+                .build());
+
+        jobInfoDtoMap.put(jobId, ExportJobInfoDto.builder()
+                .jobId(jobId)
+                .status(ExportJobInfoDto.ExportStatus.PENDING)
+                .filters(criteria.describe())
+                .gzip(gzip)
+                .message(message)
+                .startedAt(now)
+                .build());
+        liveJobIds.add(jobId);
+        return jobId;
+    }
+
+    @Override
+    public ExportJobInfoDto getJobStatus(String jobId) {
+        return jobInfo(jobId);
+    }
+
+    @Override
+    public Path findArtifact(String jobId) {
+        ExportJobInfoDto jobInfoDto = jobInfo(jobId);
+        if (jobInfoDto == null || jobInfoDto.getStatus() != ExportJobInfoDto.ExportStatus.COMPLETED) {
+            return null;
+        }
+        return exportJobRepository.findById(jobId)
+                .map(ExportJob::getFilePath)
+                .map(Path::of)
+                .filter(Files::isRegularFile)
+                .orElse(null);
+    }
+
+    @Override
+    public void markRunning(String jobId, Path file) {
+        ExportJobInfoDto jobInfoDto = jobInfo(jobId);
+        if (Objects.nonNull(jobInfoDto)) {
+            jobInfoDto.setStatus(ExportJobInfoDto.ExportStatus.IN_PROGRESS);
+            jobInfoDto.setMessage("Writing export file");
+        }
+        exportJobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(ExportJobInfoDto.ExportStatus.IN_PROGRESS);
+            job.setFilePath(file.toAbsolutePath().toString());
+            exportJobRepository.save(job);
+        });
+    }
+
+    @Override
+    public void updateProgress(String jobId, long exportedCount, long totalCount) {
+        ExportJobInfoDto jobInfoDto = jobInfo(jobId);
+        if (Objects.nonNull(jobInfoDto)) {
+            jobInfoDto.setExportedCount(exportedCount);
+            jobInfoDto.setTotalCount(totalCount);
+        }
+    }
+
+    @Override
+    public void markCompleted(String jobId, Path file, long exportedCount, String message) {
+        long fileSize = sizeOf(file);
+        LocalDateTime now = LocalDateTime.now();
+        ExportJobInfoDto jobInfoDto = jobInfo(jobId);
+        if (Objects.nonNull(jobInfoDto)) {
+            jobInfoDto.setStatus(ExportJobInfoDto.ExportStatus.COMPLETED);
+            jobInfoDto.setExportedCount(exportedCount);
+            jobInfoDto.setFileName(downloadFileName(jobId, jobInfoDto.isGzip()));
+            jobInfoDto.setFileSizeBytes(fileSize);
+            jobInfoDto.setDownloadUrl(DOWNLOAD_URL.formatted(jobId));
+            jobInfoDto.setMessage(message);
+            jobInfoDto.setFinishedAt(now);
+        }
+        exportJobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(ExportJobInfoDto.ExportStatus.COMPLETED);
+            job.setExportedCount(exportedCount);
+            job.setFilePath(file.toAbsolutePath().toString());
+            job.setFileSizeBytes(fileSize);
+            job.setMessage(truncate(message));
+            job.setFinishedAt(now);
+            exportJobRepository.save(job);
+        });
+        liveJobIds.remove(jobId);
+    }
+
+    @Override
+    public void markFailed(String jobId, String errorMessage) {
+        markFinished(jobId, ExportJobInfoDto.ExportStatus.FAILED, errorMessage);
+    }
+
+    @Override
+    public void markRejected(String jobId, String message) {
+        markFinished(jobId, ExportJobInfoDto.ExportStatus.REJECTED, message);
+    }
+
+    private void markFinished(String jobId, ExportJobInfoDto.ExportStatus status, String message) {
+        LocalDateTime now = LocalDateTime.now();
+        ExportJobInfoDto jobInfoDto = jobInfo(jobId);
+        if (Objects.nonNull(jobInfoDto)) {
+            jobInfoDto.setStatus(status);
+            jobInfoDto.setMessage(message);
+            jobInfoDto.setFinishedAt(now);
+        }
+        exportJobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(status);
+            job.setMessage(truncate(message));
+            job.setFinishedAt(now);
+            exportJobRepository.save(job);
+        });
+        liveJobIds.remove(jobId);
+    }
+
+    /**
+     * Deletes the files of jobs older than the retention and marks them EXPIRED.
+     * Finished jobs count from when they finished, jobs nobody runs any more from when they were created.
+     */
+    @Scheduled(initialDelayString = "${export.jobs.cleanup-interval-ms:600000}",
+            fixedDelayString = "${export.jobs.cleanup-interval-ms:600000}")
+    public void expireOldJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retentionMinutes);
+        int expired = 0;
+        for (ExportJob job : exportJobRepository.findByStatusInAndCreatedAtBefore(EXPIRABLE, cutoff)) {
+            if (liveJobIds.contains(job.getJobId())
+                    || (job.getFinishedAt() != null && job.getFinishedAt().isAfter(cutoff))) {
+                continue;
+            }
+            if (job.getFilePath() != null) {
+                deleteQuietly(Path.of(job.getFilePath()));
+                deleteQuietly(Path.of(job.getFilePath() + ".part"));
+            }
+            String message = "Expired: export file deleted after " + retentionMinutes + " minutes";
+            job.setStatus(ExportJobInfoDto.ExportStatus.EXPIRED);
+            job.setMessage(message);
+            exportJobRepository.save(job);
+
+            ExportJobInfoDto jobInfoDto = jobInfoDtoMap.get(job.getJobId());
+            if (jobInfoDto != null) {
+                jobInfoDto.setStatus(ExportJobInfoDto.ExportStatus.EXPIRED);
+                jobInfoDto.setDownloadUrl(null);
+                jobInfoDto.setMessage(message);
+            }
+            expired++;
+        }
+        if (expired > 0) {
+            log.info("[EXPORT_JOBS] Expired old export jobs | count={} retentionMinutes={}", expired, retentionMinutes);
+        }
+    }
+
+    // In-memory entry, rebuilt from the DB if this JVM has never seen the job (e.g. after a restart)
+    private ExportJobInfoDto jobInfo(String jobId) {
+        ExportJobInfoDto jobInfoDto = jobInfoDtoMap.get(jobId);
+        if (jobInfoDto != null || jobId == null) {
+            return jobInfoDto;
+        }
+        return exportJobRepository.findById(jobId)
+                .map(job -> jobInfoDtoMap.computeIfAbsent(jobId, id -> fromDurableJob(job)))
+                .orElse(null);
+    }
+
+    private ExportJobInfoDto fromDurableJob(ExportJob job) {
+        boolean completed = job.getStatus() == ExportJobInfoDto.ExportStatus.COMPLETED;
+        return ExportJobInfoDto.builder()
+                .jobId(job.getJobId())
+                .status(job.getStatus())
+                .filters(job.getFilters())
+                .gzip(job.isGzip())
+                .totalCount(completed ? job.getExportedCount() : 0)
+                .exportedCount(job.getExportedCount())
+                .fileName(completed ? downloadFileName(job.getJobId(), job.isGzip()) : null)
+                .fileSizeBytes(job.getFileSizeBytes())
+                .downloadUrl(completed ? DOWNLOAD_URL.formatted(job.getJobId()) : null)
+                .message(job.getMessage())
+                .startedAt(job.getCreatedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+
+    // e.g. users-export-1f0c2a9e.csv.gz (first block of the jobId keeps parallel downloads apart)
+    private static String downloadFileName(String jobId, boolean gzip) {
+        return "users-export-" + jobId.substring(0, 8) + (gzip ? ".csv.gz" : ".csv");
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException ex) {
+            return 0;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("[EXPORT_JOBS] Could not delete export file | file={} reason={}", file, ex.getMessage());
+        }
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
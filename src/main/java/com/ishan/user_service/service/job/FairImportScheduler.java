@@ -0,0 +1,293 @@
+package com.ishan.user_service.service.job;
+
+import com.ishan.user_service.component.rateLimit.ImportJobCostTier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fair share of the DB between running import jobs (Deficit Round Robin at the BATCH level).
+ *
+ * WHY?
+ * - The rate limiter decides WHETHER a job may start, but once running every job's writers
+ *   grab DB connections FIFO -> one tenant's XL job (4 writers, big batches) delays
+ *   hundreds of SMALL jobs of other users
+ *
+ * HOW:
+ * - Only import.scheduler.max-concurrent-batches batches may commit at the same time (permits)
+ * - Every writer asks for a permit before committing a batch (acquire / release)
+ * - When more batches wait than permits are free, DRR picks who goes next:
+ *   - Each running job has a deficit counter (in ROWS)
+ *   - On its turn a job earns quantum = quantum-rows * tier weight / jobs of the same user
+ *   - It may commit batches while its deficit covers the batch size, then the next job gets its turn
+ *   - A job with nothing waiting loses its deficit (no saving up credit while idle)
+ * - Result: per round SMALL gets 8x the rows of XL, a user with 3 jobs shares ONE user's share,
+ *   and a big batch still goes through after enough rounds (no starvation)
+ *
+ * Also tracks jobs QUEUED for the import executor (FIFO there), so the job status can show
+ * queue position and how long the job has waited in total.
+ */
+@Component
+public class FairImportScheduler {
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final int maxConcurrentBatches;
+    private final long quantumRows;
+
+    // Accepted but not started yet (waiting for an executor worker), in submission order
+    private final LinkedHashMap<String, Flow> queuedJobs = new LinkedHashMap<>();
+
+    // Running jobs in round-robin order; the first one has the turn
+    private final Deque<Flow> ring = new ArrayDeque<>();
+
+    // Every known job (queued + running)
+    private final Map<String, Flow> flows = new HashMap<>();
+
+    private int batchesInFlight = 0;
+    private int waitingBatches = 0;
+
+    public FairImportScheduler(@Value("${import.scheduler.max-concurrent-batches:8}") int maxConcurrentBatches,
+                               @Value("${import.scheduler.quantum-rows:1000}") long quantumRows) {
+        this.maxConcurrentBatches = Math.max(1, maxConcurrentBatches);
+        this.quantumRows = Math.max(1, quantumRows);
+    }
+
+    // Job accepted, waiting for an executor worker
+    public void jobQueued(String jobId, String userId, ImportJobCostTier tier) {
+        lock.lock();
+        try {
+            Flow flow = new Flow(userId, tier);
+            Flow previous = flows.put(jobId, flow);
+            if (previous != null) {
+                ring.remove(previous);
+            }
+            queuedJobs.put(jobId, flow);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Job got a worker: from now on it competes for batch permits.
+    // Only jobs registered with jobQueued (owner + tier) can start -> a job is never scheduled as someone else
+    public void jobStarted(String jobId) {
+        lock.lock();
+        try {
+            Flow flow = queuedJobs.remove(jobId);
+            if (flow == null) {
+                flow = registeredFlow(jobId);
+            }
+            flow.waitNanos += System.nanoTime() - flow.waitingSince;
+            if (!ring.contains(flow)) {
+                ring.addLast(flow);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Job ended (any reason): forget it, its turn goes to the next job
+    public void jobFinished(String jobId) {
+        lock.lock();
+        try {
+            Flow flow = flows.remove(jobId);
+            if (flow != null) {
+                queuedJobs.remove(jobId);
+                ring.remove(flow);
+                // Should be empty (writers are done), but never leave a writer blocked forever
+                for (BatchRequest request : flow.waiting) {
+                    waitingBatches--;
+                    batchesInFlight++;
+                    request.granted = true;
+                    request.grantedSignal.signal();
+                }
+                flow.waiting.clear();
+                dispatch();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until this job may commit a batch of the given size.
+     * The job must have been registered (jobQueued) and started (jobStarted): an unknown job has no owner
+     * and no tier to be scheduled with -> IllegalStateException instead of guessing.
+     */
+    public void acquire(String jobId, int rows) throws InterruptedException {
+        lock.lock();
+        try {
+            Flow flow = registeredFlow(jobId);
+            if (!ring.contains(flow)) {
+                throw new IllegalStateException("Import job " + jobId + " has not been started in the fair scheduler");
+            }
+            BatchRequest request = new BatchRequest(Math.max(1, rows), lock.newCondition());
+            flow.waiting.addLast(request);
+            waitingBatches++;
+            dispatch();
+            try {
+                while (!request.granted) {
+                    request.grantedSignal.await();
+                }
+            } catch (InterruptedException ex) {
+                if (request.granted) {
+                    // Granted while being interrupted -> give the permit back
+                    releaseLocked();
+                } else {
+                    flow.waiting.remove(request);
+                    waitingBatches--;
+                }
+                throw ex;
+            }
+            flow.waitNanos += System.nanoTime() - request.requestedAt;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Batch committed (or failed): the permit goes to whoever DRR picks next
+    public void release(String jobId) {
+        lock.lock();
+        try {
+            releaseLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Where the job stands right now:
+     * - queuePosition: 1-based place among jobs waiting for an executor worker, or (running job)
+     *   among jobs with a batch waiting for a permit, in the order DRR visits them; 0 = not waiting
+     * - waitMillis: time spent waiting so far (executor queue + batch permits)
+     * null if the scheduler does not know the job (finished, or never ran in this JVM).
+     */
+    public SchedulingStatus status(String jobId) {
+        lock.lock();
+        try {
+            Flow flow = flows.get(jobId);
+            if (flow == null) {
+                return null;
+            }
+            long now = System.nanoTime();
+            if (queuedJobs.containsKey(jobId)) {
+                return new SchedulingStatus(positionOf(queuedJobs.values().iterator(), flow, false),
+                        (flow.waitNanos + now - flow.waitingSince) / 1_000_000);
+            }
+            long currentWait = flow.waiting.isEmpty() ? 0 : now - flow.waiting.peekFirst().requestedAt;
+            int position = flow.waiting.isEmpty() ? 0 : positionOf(ring.iterator(), flow, true);
+            return new SchedulingStatus(position, (flow.waitNanos + currentWait) / 1_000_000);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds the lock
+    private Flow registeredFlow(String jobId) {
+        Flow flow = flows.get(jobId);
+        if (flow == null) {
+            throw new IllegalStateException("Import job " + jobId + " is not registered in the fair scheduler");
+        }
+        return flow;
+    }
+
+    private void releaseLocked() {
+        batchesInFlight = Math.max(0, batchesInFlight - 1);
+        dispatch();
+    }
+
+    // Hands out free permits in DRR order. Caller holds the lock.
+    private void dispatch() {
+        while (batchesInFlight < maxConcurrentBatches && waitingBatches > 0) {
+            Flow flow = ring.peekFirst();
+            if (flow.waiting.isEmpty()) {
+                // Nothing to send: no credit is kept, next job's turn
+                flow.deficit = 0;
+                endTurn(flow);
+                continue;
+            }
+            if (!flow.hasTurn) {
+                flow.deficit += quantumFor(flow);
+                flow.hasTurn = true;
+            }
+            BatchRequest head = flow.waiting.peekFirst();
+            if (flow.deficit < head.rows) {
+                // Not enough credit this round (e.g. a big bulk-load batch): keep the credit, next job's turn
+                endTurn(flow);
+                continue;
+            }
+            flow.deficit -= head.rows;
+            flow.waiting.removeFirst();
+            waitingBatches--;
+            batchesInFlight++;
+            head.granted = true;
+            head.grantedSignal.signal();
+        }
+    }
+
+    private void endTurn(Flow flow) {
+        flow.hasTurn = false;
+        ring.addLast(ring.removeFirst());
+    }
+
+    // Tier weight, split between all running jobs of the same user -> fairness per USER, not per job
+    private long quantumFor(Flow flow) {
+        long userJobs = ring.stream().filter(other -> other.userId.equals(flow.userId)).count();
+        return Math.max(1, quantumRows * flow.tier.getSchedulingWeight() / Math.max(1, userJobs));
+    }
+
+    private int positionOf(Iterator<Flow> order, Flow flow, boolean onlyWaiting) {
+        int position = 0;
+        while (order.hasNext()) {
+            Flow candidate = order.next();
+            if (onlyWaiting && candidate.waiting.isEmpty()) {
+                continue;
+            }
+            position++;
+            if (candidate == flow) {
+                return position;
+            }
+        }
+        return 0;
+    }
+
+    public record SchedulingStatus(int queuePosition, long waitMillis) {
+    }
+
+    // One job as seen by the scheduler
+    private static final class Flow {
+        private final String userId;
+        private final ImportJobCostTier tier;
+        private final Deque<BatchRequest> waiting = new ArrayDeque<>();
+        private final long waitingSince = System.nanoTime();
+        private long deficit = 0;
+        private boolean hasTurn = false;
+        private long waitNanos = 0;
+
+        private Flow(String userId, ImportJobCostTier tier) {
+            this.userId = userId;
+            this.tier = tier;
+        }
+    }
+
+    // One writer waiting to commit one batch
+    private static final class BatchRequest {
+        private final int rows;
+        private final Condition grantedSignal;
+        private final long requestedAt = System.nanoTime();
+        private boolean granted = false;
+
+        private BatchRequest(int rows, Condition grantedSignal) {
+            this.rows = rows;
+            this.grantedSignal = grantedSignal;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.ishan.user_service.service.job;
+
+/**
+ * What an operator asked a running import job to do.
+ * Both stop the job at the next batch boundary (committed batches stay, the slot is released):
+ * - PAUSE  -> job becomes PAUSED, can continue later from its checkpoint (POST /api/v1/jobs/{jobId}/resume)
+ * - CANCEL -> job becomes CANCELLED, final
+ */
+public enum ImportControlRequest {
+    PAUSE, CANCEL
+}
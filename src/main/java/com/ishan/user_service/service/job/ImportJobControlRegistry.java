@@ -0,0 +1,87 @@
+package com.ishan.user_service.service.job;
+
+import com.ishan.user_service.model.ImportJob;
+import com.ishan.user_service.repository.ImportJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pause / cancel requests for running import jobs (cooperative: the pipeline checks between batches).
+ *
+ * WHY NOT JUST INTERRUPT THE THREADS?
+ * - A batch interrupted mid-transaction is rolled back anyway -> no gain
+ * - Stopping BETWEEN batches keeps "users + checkpoint commit together" intact,
+ *   so a paused job can continue exactly where it stopped
+ *
+ * HOW A REQUEST REACHES THE JOB:
+ * - Same instance: in-memory map -> seen at the next batch boundary (milliseconds)
+ * - Other instance: the request is also stored on import_jobs.control_request,
+ *   the instance running the job polls it every import.control.poll-interval-ms (seconds)
+ * The check itself (requested()) is a map lookup -> cheap enough for every batch.
+ */
+@Component
+public class ImportJobControlRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportJobControlRegistry.class);
+
+    // jobId -> pending request (only for jobs that have one)
+    private final Map<String, ImportControlRequest> requests = new ConcurrentHashMap<>();
+
+    // Jobs whose pipeline runs in THIS JVM -> the only ones worth polling the DB for
+    private final Set<String> runningJobIds = ConcurrentHashMap.newKeySet();
+
+    private final ImportJobRepository importJobRepository;
+
+    public ImportJobControlRegistry(ImportJobRepository importJobRepository) {
+        this.importJobRepository = importJobRepository;
+    }
+
+    // Operator side: durable first (another instance may run the job), then the local fast path
+    public void request(String jobId, ImportControlRequest request) {
+        importJobRepository.updateControlRequest(jobId, request);
+        requests.merge(jobId, request, ImportJobControlRegistry::stronger);
+        log.info("[CONTROL] Requested | jobId={} request={}", jobId, request);
+    }
+
+    // Pipeline side: called before every batch, null = keep going
+    public ImportControlRequest requested(String jobId) {
+        return requests.get(jobId);
+    }
+
+    // Pipeline started for this job: pick up a request made while it was queued / on another instance
+    public void register(String jobId) {
+        runningJobIds.add(jobId);
+        importJobRepository.findById(jobId)
+                .map(ImportJob::getControlRequest)
+                .ifPresent(request -> requests.merge(jobId, request, ImportJobControlRegistry::stronger));
+    }
+
+    // Pipeline ended (completed / failed / stopped): the request is consumed
+    public void unregister(String jobId) {
+        runningJobIds.remove(jobId);
+        requests.remove(jobId);
+        importJobRepository.updateControlRequest(jobId, null);
+    }
+
+    @Scheduled(fixedDelayString = "${import.control.poll-interval-ms:2000}")
+    public void pollRequests() {
+        if (runningJobIds.isEmpty()) {
+            return;
+        }
+        for (ImportJob job : importJobRepository.findByJobIdInAndControlRequestIsNotNull(List.copyOf(runningJobIds))) {
+            requests.merge(job.getJobId(), job.getControlRequest(), ImportJobControlRegistry::stronger);
+        }
+    }
+
+    // A cancel must never be downgraded to a pause
+    private static ImportControlRequest stronger(ImportControlRequest current, ImportControlRequest requested) {
+        return current == ImportControlRequest.CANCEL ? current : requested;
+    }
+}
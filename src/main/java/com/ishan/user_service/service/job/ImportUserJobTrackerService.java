@@ -1,11 +1,16 @@
 package com.ishan.user_service.service.job;
 
 import com.ishan.user_service.dto.ImportUserJobInfoDto;
+import com.ishan.user_service.service.importPipeline.ImportJobOptions;
+import com.ishan.user_service.service.importPipeline.dedup.EmailDedupStats;
+
+import java.util.List;
 
 public interface ImportUserJobTrackerService {
 
-    // Creates a new job entry and returns a unique jobId (like an orderId)
-    String createJob(String userId, int requestedCount);
+    // Creates a new job entry (in memory + durable row) and returns a unique jobId (like an orderId)
+    // options must already have a seed: it is stored so the job can be resumed with the same data
+    String createJob(String userId, int requestedCount, ImportJobOptions options);
 
     // Fetch current job status (so client can poll)
     ImportUserJobInfoDto getJobStatus(String jobId);
@@ -13,12 +18,36 @@ public interface ImportUserJobTrackerService {
     // Mark job as RUNNING
     void markRunning(String jobId);
 
+    // Mark an interrupted/failed job as queued again (resume from its checkpoint)
+    void markResuming(String jobId);
+
     // Update processed count during execution
     void updateProgress(String jobId, long processedCount);
 
+    // Record which batches are committed so far (parallel writers commit out of order)
+    void updateCommittedBatches(String jobId, long committedBatchCount, String committedBatches);
+
+    // Record which persistence engine the job uses and its current insert speed
+    void updateThroughput(String jobId, String engine, double rowsPerSecond);
+
+    // Record the batch size the job currently uses and how it got there (adaptive batch sizing)
+    void updateBatchSizing(String jobId, int currentBatchSize, List<String> batchSizeHistory);
+
+    // Record the duplicate-email counters of the job (checked / skipped / suffixed ...)
+    void updateDedupStats(String jobId, EmailDedupStats stats);
+
     // Mark job as SUCCESS
     void markCompleted(String jobId, String message);
 
     // Mark job as FAILED (and store error message)
     void markFailed(String jobId, String errorMessage);
+
+    // Mark job as PAUSED by an operator (committed batches stay, can be resumed)
+    void markPaused(String jobId, String message);
+
+    // Mark job as CANCELLED by an operator (final)
+    void markCancelled(String jobId, String message);
+
+    // Mark job as REJECTED: the import executor had no room for it (final)
+    void markRejected(String jobId, String message);
 }
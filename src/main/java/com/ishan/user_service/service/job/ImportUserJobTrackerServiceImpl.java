@@ -1,73 +1,287 @@
 package com.ishan.user_service.service.job;
 
+import com.ishan.user_service.component.rateLimit.ImportJobCostTier;
 import com.ishan.user_service.dto.ImportUserJobInfoDto;
+import com.ishan.user_service.model.ImportJob;
+import com.ishan.user_service.repository.ImportJobRepository;
+import com.ishan.user_service.service.importPipeline.ImportCheckpoint;
+import com.ishan.user_service.service.importPipeline.ImportCheckpointService;
+import com.ishan.user_service.service.importPipeline.ImportJobOptions;
+import com.ishan.user_service.service.importPipeline.ImportSourceType;
+import com.ishan.user_service.service.importPipeline.dedup.DuplicateEmailPolicy;
+import com.ishan.user_service.service.importPipeline.dedup.EmailDedupStats;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Job status lives in TWO places:
+ * - In memory (ConcurrentHashMap): live progress, speed, batch sizing... updated after every batch, cheap
+ * - In the DB (import_jobs): only what must survive a restart -> job definition, status, heartbeat
+ * After a restart the in-memory entry is rebuilt from import_jobs + the checkpoint rows on first access.
+ *
+ * HEARTBEAT:
+ * - Every job that is queued or running IN THIS JVM gets its heartbeat refreshed periodically
+ * - Jobs whose heartbeat stops (their JVM died) are picked up by UserImportResumeService
+ */
 @Service
 public class ImportUserJobTrackerServiceImpl implements ImportUserJobTrackerService{
 
     //We need to store Job info inside memory for this we will use Map
     private final Map<String, ImportUserJobInfoDto> jobInfoDtoMap = new ConcurrentHashMap<>();
 
+    // Jobs queued or running in THIS JVM (jobs only loaded from the DB for status are NOT here)
+    private final Set<String> liveJobIds = ConcurrentHashMap.newKeySet();
+
+    private final ImportJobRepository importJobRepository;
+    private final ImportCheckpointService importCheckpointService;
+    private final FairImportScheduler fairImportScheduler;
+
+    public ImportUserJobTrackerServiceImpl(ImportJobRepository importJobRepository,
+                                           ImportCheckpointService importCheckpointService,
+                                           FairImportScheduler fairImportScheduler) {
+        this.importJobRepository = importJobRepository;
+        this.importCheckpointService = importCheckpointService;
+        this.fairImportScheduler = fairImportScheduler;
+    }
+
     @Override
-    public String createJob(String userId, int requestedCount) {
+    public String createJob(String userId, int requestedCount, ImportJobOptions options) {
         String jobId = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        importJobRepository.save(ImportJob.builder()
+                .jobId(jobId)
+                .userId(userId)
+                .requestedCount(requestedCount)
+                .engine(options.engine())
+                .generatorMode(options.generator())
+                .seed(options.seed())
+                .sourceType(options.source())
+                .sourceFile(options.sourceFile())
+                .duplicatePolicy(options.duplicates())
+                .status(ImportUserJobInfoDto.ImportStatus.PENDING)
+                .message("User Import Job Created")
+                .createdAt(now)
+                .heartbeatAt(now)
+                .build());
+
         ImportUserJobInfoDto jobInfo = ImportUserJobInfoDto.builder()
                                         .jobId(jobId)
                                         .status(ImportUserJobInfoDto.ImportStatus.PENDING)
                                         .requestedCount(requestedCount)
                                         .processedCount(0)
+                                        .engine(options.engine().name())
+                                        .source(options.source().name())
+                                        .generatorMode(options.generator() != null ? options.generator().name() : null)
+                                        .seed(options.seed())
+                                        .duplicatePolicy(options.duplicates().name())
                                         .message("User Import Job Created")
-                                        .startedAt(LocalDateTime.now())
+                                        .startedAt(now)
                                         .build();
         jobInfoDtoMap.put(jobId, jobInfo);
+        liveJobIds.add(jobId);
+        fairImportScheduler.jobQueued(jobId, userId, ImportJobCostTier.fromCount(requestedCount));
         return jobId;
     }
 
     @Override
     public ImportUserJobInfoDto getJobStatus(String jobId) {
-        return jobInfoDtoMap.get(jobId);
+        ImportUserJobInfoDto jobInfoDto = jobInfo(jobId);
+        if (jobInfoDto != null) {
+            // Computed on read: position / wait time change all the time, no point storing them per batch
+            FairImportScheduler.SchedulingStatus scheduling = fairImportScheduler.status(jobId);
+            jobInfoDto.setQueuePosition(scheduling != null ? scheduling.queuePosition() : null);
+            if (scheduling != null) {
+                jobInfoDto.setWaitTimeMs(scheduling.waitMillis());
+            }
+        }
+        return jobInfoDto;
     }
 
     @Override
     public void markRunning(String jobId) {
-        ImportUserJobInfoDto jobInfoDto = jobInfoDtoMap.get(jobId);
+        ImportUserJobInfoDto jobInfoDto = jobInfo(jobId);
         if(Objects.nonNull(jobInfoDto)){
             jobInfoDto.setStatus(ImportUserJobInfoDto.ImportStatus.IN_PROGRESS);
+            jobInfoDto.setFinishedAt(null);
+        }
+        updateDurableJob(jobId, ImportUserJobInfoDto.ImportStatus.IN_PROGRESS, null, null);
+        liveJobIds.add(jobId);
+        fairImportScheduler.jobStarted(jobId);
+    }
+
+    @Override
+    public void markResuming(String jobId) {
+        String message = "Resuming from last checkpoint";
+        ImportUserJobInfoDto jobInfoDto = jobInfo(jobId);
+        if(Objects.nonNull(jobInfoDto)){
+            jobInfoDto.setStatus(ImportUserJobInfoDto.ImportStatus.PENDING);
+            jobInfoDto.setMessage(message);
+            jobInfoDto.setFinishedAt(null);
         }
+        updateDurableJob(jobId, ImportUserJobInfoDto.ImportStatus.PENDING, message, null);
+        liveJobIds.add(jobId);
+        importJobRepository.findById(jobId).ifPresent(job ->
+                fairImportScheduler.jobQueued(jobId, job.getUserId(), ImportJobCostTier.fromCount(job.getRequestedCount())));
     }
 
     @Override
     public void updateProgress(String jobId, long processedCount) {
-        ImportUserJobInfoDto jobInfoDto = jobInfoDtoMap.get(jobId);
+        ImportUserJobInfoDto jobInfoDto = jobInfo(jobId);
         if(Objects.nonNull(jobInfoDto)){
             jobInfoDto.setProcessedCount(processedCount);
         }
     }
 
+    @Override
+    public void updateCommittedBatches(String jobId, long committedBatchCount, String committedBatches) {
+        ImportUserJobInfoDto jobInfoDto = jobInfo(jobId);
+        if(Objects.nonNull(jobInfoDto)){
+            jobInfoDto.setCommittedBatchCount(committedBatchCount);
+            jobInfoDto.setCommittedBatches(committedBatches);
+        }
+    }
+
+    @Override
+    public void updateThroughput(String jobId, String engine, double rowsPerSecond) {
+        ImportUserJobInfoDto jobInfoDto = jobInfo(jobId);
+        if(Objects.nonNull(jobInfoDto)){
+            jobInfoDto.setEngine(engine);
+            jobInfoDto.setRowsPerSecond(Math.round(rowsPerSecond));
+        }
+    }
+
+    @Override
+    public void updateBatchSizing(String jobId, int currentBatchSize, List<String> batchSizeHistory) {
+        ImportUserJobInfoDto jobInfoDto = jobInfo(jobId);
+        if(Objects.nonNull(jobInfoDto)){
+            jobInfoDto.setCurrentBatchSize(currentBatchSize);
+            jobInfoDto.setBatchSizeHistory(batchSizeHistory);
+        }
+    }
+
+    @Override
+    public void updateDedupStats(String jobId, EmailDedupStats stats) {
+        ImportUserJobInfoDto jobInfoDto = jobInfo(jobId);
+        if(Objects.nonNull(jobInfoDto)){
+            jobInfoDto.setDedup(stats);
+        }
+    }
+
     @Override
     public void markCompleted(String jobId, String message) {
-        ImportUserJobInfoDto jobInfoDto = jobInfoDtoMap.get(jobId);
+        ImportUserJobInfoDto jobInfoDto = jobInfo(jobId);
         if(Objects.nonNull(jobInfoDto)){
             jobInfoDto.setStatus(ImportUserJobInfoDto.ImportStatus.COMPLETED);
             jobInfoDto.setMessage(message);
             jobInfoDto.setFinishedAt(LocalDateTime.now());
         }
+        updateDurableJob(jobId, ImportUserJobInfoDto.ImportStatus.COMPLETED, message, LocalDateTime.now());
+        liveJobIds.remove(jobId);
+        fairImportScheduler.jobFinished(jobId);
     }
 
     @Override
     public void markFailed(String jobId, String errorMessage) {
-        ImportUserJobInfoDto jobInfoDto = jobInfoDtoMap.get(jobId);
+        ImportUserJobInfoDto jobInfoDto = jobInfo(jobId);
         if(Objects.nonNull(jobInfoDto)){
             jobInfoDto.setStatus(ImportUserJobInfoDto.ImportStatus.FAILED);
             jobInfoDto.setMessage(errorMessage);
             jobInfoDto.setFinishedAt(LocalDateTime.now());
         }
+        updateDurableJob(jobId, ImportUserJobInfoDto.ImportStatus.FAILED, errorMessage, LocalDateTime.now());
+        liveJobIds.remove(jobId);
+        fairImportScheduler.jobFinished(jobId);
+    }
+
+    @Override
+    public void markPaused(String jobId, String message) {
+        markStopped(jobId, ImportUserJobInfoDto.ImportStatus.PAUSED, message);
+    }
+
+    @Override
+    public void markCancelled(String jobId, String message) {
+        markStopped(jobId, ImportUserJobInfoDto.ImportStatus.CANCELLED, message);
+    }
+
+    @Override
+    public void markRejected(String jobId, String message) {
+        markStopped(jobId, ImportUserJobInfoDto.ImportStatus.REJECTED, message);
+    }
+
+    // Stopped by an operator / never started: no heartbeat any more -> never picked up as "orphaned"
+    private void markStopped(String jobId, ImportUserJobInfoDto.ImportStatus status, String message) {
+        ImportUserJobInfoDto jobInfoDto = jobInfo(jobId);
+        if(Objects.nonNull(jobInfoDto)){
+            jobInfoDto.setStatus(status);
+            jobInfoDto.setMessage(message);
+            jobInfoDto.setFinishedAt(LocalDateTime.now());
+        }
+        updateDurableJob(jobId, status, message, LocalDateTime.now());
+        liveJobIds.remove(jobId);
+        fairImportScheduler.jobFinished(jobId);
+    }
+
+    // In-memory entry, rebuilt from the DB if this JVM has never seen the job (e.g. after a restart)
+    private ImportUserJobInfoDto jobInfo(String jobId) {
+        ImportUserJobInfoDto jobInfoDto = jobInfoDtoMap.get(jobId);
+        if (jobInfoDto != null || jobId == null) {
+            return jobInfoDto;
+        }
+        return importJobRepository.findById(jobId)
+                .map(job -> jobInfoDtoMap.computeIfAbsent(jobId, id -> fromDurableJob(job)))
+                .orElse(null);
+    }
+
+    private ImportUserJobInfoDto fromDurableJob(ImportJob job) {
+        ImportCheckpoint checkpoint = importCheckpointService.load(job.getJobId());
+        return ImportUserJobInfoDto.builder()
+                .jobId(job.getJobId())
+                .status(job.getStatus())
+                .requestedCount(job.getRequestedCount())
+                .processedCount(checkpoint.committedRows())
+                .committedBatchCount(checkpoint.committedBatchNumbers().coveredLength())
+                .committedBatches(checkpoint.committedBatchNumbers().isEmpty() ? "none" : checkpoint.committedBatchNumbers().toString())
+                .engine(job.getEngine() != null ? job.getEngine().name() : null)
+                .source(job.getSourceType() != null ? job.getSourceType().name() : ImportSourceType.GENERATED.name())
+                .generatorMode(job.getGeneratorMode() != null ? job.getGeneratorMode().name() : null)
+                .seed(job.getSeed())
+                .duplicatePolicy((job.getDuplicatePolicy() != null ? job.getDuplicatePolicy() : DuplicateEmailPolicy.ALLOW).name())
+                .message(job.getMessage())
+                .startedAt(job.getCreatedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+
+    private void updateDurableJob(String jobId, ImportUserJobInfoDto.ImportStatus status, String message, LocalDateTime finishedAt) {
+        if (jobId == null) {
+            return;
+        }
+        importJobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(status);
+            if (message != null) {
+                job.setMessage(message.length() > 1000 ? message.substring(0, 1000) : message);
+            }
+            job.setFinishedAt(finishedAt);
+            job.setHeartbeatAt(LocalDateTime.now());
+            importJobRepository.save(job);
+        });
+    }
+
+    // Tells other instances "these jobs are alive" -> they are not resumed twice.
+    // One UPDATE per live job per interval, never on the batch commit path.
+    @Scheduled(fixedDelayString = "${import.resume.heartbeat-interval-ms:10000}")
+    public void heartbeatLiveJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        for (String jobId : liveJobIds) {
+            importJobRepository.touchHeartbeat(jobId, now);
+        }
     }
 }
@@ -3,6 +3,7 @@ package com.ishan.user_service.service.user;
 import com.ishan.user_service.model.User;
 import com.ishan.user_service.repository.UserRepository;
 import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
@@ -52,6 +53,23 @@ public class UserBatchSaverService {
      */
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void saveOneBatch(List<User> userBatch) {
+        persistBatch(userBatch);
+    }
+
+    /**
+     * Same as saveOneBatch, but JOINS the caller's transaction (REQUIRED).
+     * Used by the import pipeline, which opens one transaction per batch itself
+     * so the batch's checkpoint row commits together with its users.
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public void saveBatchInCurrentTransaction(List<User> userBatch) {
+        persistBatch(userBatch);
+    }
+
+    private void persistBatch(List<User> userBatch) {
+        // hibernate.jdbc.batch_size is only the default: follow the (adaptive) batch size
+        // so one batch = one JDBC batch, whatever size the import currently uses
+        entityManager.unwrap(Session.class).setJdbcBatchSize(userBatch.size());
         userRepository.saveAll(userBatch);
 
         // FLUSH: Forces Hibernate to execute SQL INSERTs immediately for this batch
@@ -0,0 +1,102 @@
+package com.ishan.user_service.service.user;
+
+import com.ishan.user_service.component.exportExecutor.ExportExecutorConfig;
+import com.ishan.user_service.service.exportPipeline.ExportCompressor;
+import com.ishan.user_service.service.exportPipeline.ExportEncoding;
+import com.ishan.user_service.service.exportPipeline.ParallelCsvExporter;
+import com.ishan.user_service.service.job.ExportJobTrackerService;
+import com.ishan.user_service.specification.UserSearchCriteria;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Runs a CSV export as a background job that writes a FILE on the server.
+ *
+ * OLD WAY (/exportCSV, /exportCSV/stream): the export runs in the request thread -> the HTTP
+ * connection stays open for minutes, and a dropped connection throws the whole export away.
+ *
+ * HOW:
+ * - Same CSV as /exportCSV/stream, written by ParallelCsvExporter (keyset segments, bounded memory)
+ *   into <export.jobs.output-dir>/<jobId>.csv(.gz).part, progress goes to the job status
+ * - gzip=true -> compressed on its own thread by ExportCompressor, like the streaming export
+ * - Finished -> renamed to <jobId>.csv(.gz) in ONE step, so a download never sees a half-written file
+ * - Failed -> the .part file is deleted, the job is FAILED with the reason
+ */
+@Service
+public class UserExportAsyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserExportAsyncService.class);
+
+    private final ParallelCsvExporter parallelCsvExporter;
+    private final ExportCompressor exportCompressor;
+    private final ExportJobTrackerService exportJobTrackerService;
+    private final Path outputDir;
+
+    public UserExportAsyncService(ParallelCsvExporter parallelCsvExporter,
+                                  ExportCompressor exportCompressor,
+                                  ExportJobTrackerService exportJobTrackerService,
+                                  @Value("${export.jobs.output-dir:${java.io.tmpdir}/user-exports}") String outputDir) {
+        this.parallelCsvExporter = parallelCsvExporter;
+        this.exportCompressor = exportCompressor;
+        this.exportJobTrackerService = exportJobTrackerService;
+        this.outputDir = Path.of(outputDir);
+    }
+
+    // Runs on the dedicated, bounded export executor (ExportExecutorConfig).
+    // Executor full -> the CALLER gets a TaskRejectedException (see UserExportController)
+    @Async(ExportExecutorConfig.EXPORT_EXECUTOR)
+    public void runExportAsync(String jobId, UserSearchCriteria criteria, boolean gzip) {
+        long startTime = System.currentTimeMillis();
+        Path file = outputDir.resolve(jobId + (gzip ? ".csv.gz" : ".csv"));
+        Path partFile = file.resolveSibling(file.getFileName() + ".part");
+
+        log.info("[Async] Export started | jobId={} filters={} gzip={} file={}", jobId, criteria.describe(), gzip, file);
+        try {
+            exportJobTrackerService.markRunning(jobId, file);
+            Files.createDirectories(outputDir);
+
+            long exportedCount;
+            try (OutputStream fileOut = Files.newOutputStream(partFile)) {
+                OutputStream out = exportCompressor.wrap(fileOut, gzip ? ExportEncoding.GZIP : ExportEncoding.IDENTITY);
+                try {
+                    exportedCount = parallelCsvExporter.export(out, criteria,
+                            (exportedRows, totalRows) -> exportJobTrackerService.updateProgress(jobId, exportedRows, totalRows));
+                } catch (Exception ex) {
+                    // No gzip trailer for a failed export (the .part file is deleted anyway)
+                    exportCompressor.abort(out);
+                    throw ex;
+                }
+                // close() writes the gzip trailer before the file is renamed
+                out.close();
+            }
+            Files.move(partFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            exportJobTrackerService.markCompleted(jobId, file, exportedCount, "Exported " + exportedCount + " users successfully");
+        } catch (Exception ex) {
+            exportJobTrackerService.markFailed(jobId, ex.getMessage());
+            log.error("[Async] Export failed | jobId={}", jobId, ex);
+        } finally {
+            // Only still there when the export did not complete
+            deleteQuietly(partFile);
+            log.info("[Async] Export finished | jobId={} timeTakenSec={}",
+                    jobId, String.format("%.2f", (System.currentTimeMillis() - startTime) / 1000.0));
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("[Async] Could not delete partial export file | file={} reason={}", file, ex.getMessage());
+        }
+    }
+}
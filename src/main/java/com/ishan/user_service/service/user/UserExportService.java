@@ -1,10 +1,12 @@
 package com.ishan.user_service.service.user;
 
+import com.ishan.user_service.specification.UserSearchCriteria;
 import org.springframework.core.io.Resource;
 
 import java.io.OutputStream;
 
 public interface UserExportService {
     Resource exportAllUsersToCSV(String path);
-    void streamUsersAsCsv(OutputStream outputStream);
+    void streamUsersAsCsv(OutputStream outputStream, UserSearchCriteria criteria);
+    void streamUsersAsCsvParallel(OutputStream outputStream, UserSearchCriteria criteria);
 }
@@ -2,12 +2,18 @@ package com.ishan.user_service.service.user;
 
 import com.ishan.user_service.model.User;
 import com.ishan.user_service.repository.UserRepository;
+import com.ishan.user_service.service.exportPipeline.ParallelCsvExporter;
+import com.ishan.user_service.specification.UserSearchCriteria;
+import com.ishan.user_service.specification.UserSpecification;
 import com.ishan.user_service.utility.CSVReadWriteUtility;
 import jakarta.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.io.BufferedWriter;
@@ -15,6 +21,9 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
 
 @Service
@@ -28,39 +37,43 @@ public class UserExportServiceImpl implements UserExportService{
     @Autowired
     private EntityManager entityManager;
 
+    @Autowired
+    private ParallelCsvExporter parallelCsvExporter;
+
     @Override
     public Resource exportAllUsersToCSV(String path) {
 
         // ✅ File-based export (stores CSV on disk and returns it as a Resource)
         // This method is kept for learning and revision purposes.
-        // NOTE: This approach is not memory-friendly for huge datasets if we use findAll()
-        // because it loads ALL users into RAM at once.
+        // For big tables prefer POST /exportCSV/jobs: same file, written in the background.
         log.info("File-based CSV export started. TargetPath={}", path);
 
         long startTime = System.currentTimeMillis();
 
-        // ⚠️ Current implementation loads everything in RAM
-        // Works for learning, but may cause high memory usage for millions of rows.
-        List<User> userList = userRepository.findAll();
-
-        log.info("Fetched all users from DB for file export. TotalUsers={} FetchTime={}ms",
-                userList.size(),
-                (System.currentTimeMillis() - startTime));
-
-        Resource resource = CSVReadWriteUtility.writeCSV(userList, path);
-
-        // ✅ Verify resource generation
-        if (resource == null || !resource.exists()) {
-            log.error("File-based CSV export FAILED. Resource is null OR file not created. Path={}", path);
+        // ❌ OLD: List<User> userList = userRepository.findAll(); -> ALL users in RAM at once,
+        // millions of rows = heap spike / OutOfMemoryError.
+        // ✅ NEW: same keyset segments as the streaming export, written straight into the file
+        // -> memory stays at a few batches whatever the table size.
+        Path csvFilePath = Paths.get(path, "AllUsersCSV.csv");
+        long exportedCount;
+        try {
+            Files.createDirectories(csvFilePath.toAbsolutePath().getParent());
+            try (OutputStream outputStream = Files.newOutputStream(csvFilePath)) {
+                exportedCount = parallelCsvExporter.export(outputStream, UserSearchCriteria.none());
+            }
+        } catch (IOException exception) {
+            log.error("File-based CSV export FAILED. Path={}", csvFilePath, exception);
             return null;
         }
 
+        Resource resource = new FileSystemResource(csvFilePath);
+
         long endTime = System.currentTimeMillis();
         double executionTimeInSeconds = (endTime - startTime) / 1000.0;
 
         log.info("File-based CSV export completed successfully. FileName={} TotalUsers={} TotalTime={}s",
                 resource.getFilename(),
-                userList.size(),
+                exportedCount,
                 executionTimeInSeconds);
 
         return resource;
@@ -85,9 +98,13 @@ public class UserExportServiceImpl implements UserExportService{
      * Same concept here: CSV is streamed chunk-by-chunk.
      */
     @Override
-    public void streamUsersAsCsv(OutputStream outputStream) {
+    public void streamUsersAsCsv(OutputStream outputStream, UserSearchCriteria criteria) {
         long startTime = System.currentTimeMillis();
-        log.info("Started Stream of Users to CSV Export");
+        log.info("Started Stream of Users to CSV Export. Filters={}", criteria);
+
+        // ✅ Filters (same as GET /search) are applied IN the DB query, batch by batch
+        // null when there is nothing to filter -> the plain native keyset query below
+        Specification<User> filter = criteria.isEmpty() ? null : criteria.toSpecification();
 
         // ✅ Batch size = how many rows we fetch + write in one DB call
         // Bigger batch -> fewer DB trips but more memory per batch
@@ -107,7 +124,8 @@ public class UserExportServiceImpl implements UserExportService{
 
         // ✅ Percentage progress requires knowing total records.
         // We run COUNT(*) only once at the beginning (cheap compared to exporting millions).
-        long totalUsers = userRepository.countAllUsers();
+        // Filtered export -> COUNT(*) of the matching users only
+        long totalUsers = filter == null ? userRepository.countAllUsers() : userRepository.count(filter);
 
         log.info("Streaming export setup completed. TotalUsers={} BatchSize={}", totalUsers, size);
 
@@ -172,7 +190,11 @@ public class UserExportServiceImpl implements UserExportService{
                 // Why fast?
                 // DB uses index on id, jumps directly to lastUserId,
                 // and reads next "size" rows without scanning/skipping millions.
-                List<User> users = userRepository.fetchUserUsingNextBatch(lastUserId, size);
+                //
+                // With filters the same keyset cursor is added to the filter's WHERE:
+                // SELECT * FROM users WHERE <filters> AND id > lastUserId ORDER BY id LIMIT size
+                // -> one query per batch of MATCHING users, never an OFFSET over the filtered set
+                List<User> users = fetchNextBatch(filter, lastUserId, size);
 
                 // If the DB returns empty batch -> we've exported everything
                 if (users.isEmpty()) {
@@ -243,4 +265,34 @@ public class UserExportServiceImpl implements UserExportService{
             log.info("Stream of Users to CSV Export completed in {} seconds", executionTimeInSeconds);
         }
     }
+
+    // Next keyset batch: native query when unfiltered, the search Specification + "id > lastUserId" otherwise
+    private List<User> fetchNextBatch(Specification<User> filter, Integer lastUserId, int size) {
+        if (filter == null) {
+            return userRepository.fetchUserUsingNextBatch(lastUserId, size);
+        }
+        return userRepository.findBy(filter.and(UserSpecification.hasIdGreaterThan(lastUserId)),
+                query -> query.sortBy(Sort.by("id")).limit(size).all());
+    }
+
+    /**
+     * Same CSV as streamUsersAsCsv (same header, same rows, same id order), but the batches are
+     * fetched and formatted by several threads at once -> see ParallelCsvExporter.
+     * Uses up to export.parallel.fetch-threads DB connections while it runs.
+     */
+    @Override
+    public void streamUsersAsCsvParallel(OutputStream outputStream, UserSearchCriteria criteria) {
+        long startTime = System.currentTimeMillis();
+        log.info("Started parallel Stream of Users to CSV Export. Filters={}", criteria);
+        try {
+            long exportedCount = parallelCsvExporter.export(outputStream, criteria);
+            log.info("Parallel CSV export finished. exportedCount={}", exportedCount);
+        } catch (IOException exception) {
+            // Same as the sequential export: usually the client cancelled the download
+            log.error("Error while streaming CSV in parallel", exception);
+        } finally {
+            log.info("Parallel Stream of Users to CSV Export completed in {} seconds",
+                    (System.currentTimeMillis() - startTime) / 1000.0);
+        }
+    }
 }
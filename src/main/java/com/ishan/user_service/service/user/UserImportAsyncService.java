@@ -1,8 +1,25 @@
 package com.ishan.user_service.service.user;
 
 
-import com.ishan.user_service.dto.UserDto;
+import com.ishan.user_service.component.importExecutor.ImportExecutorConfig;
+import com.ishan.user_service.customExceptions.ImportJobStoppedException;
 import com.ishan.user_service.service.MockUserGeneratorService;
+import com.ishan.user_service.service.importPipeline.CsvUploadStagingService;
+import com.ishan.user_service.service.importPipeline.CsvUserImportSource;
+import com.ishan.user_service.service.importPipeline.FakerUserImportSource;
+import com.ishan.user_service.service.importPipeline.ImportCheckpoint;
+import com.ishan.user_service.service.importPipeline.ImportCheckpointService;
+import com.ishan.user_service.service.importPipeline.ImportJobOptions;
+import com.ishan.user_service.service.importPipeline.ImportPersistenceEngine;
+import com.ishan.user_service.service.importPipeline.ImportSourceType;
+import com.ishan.user_service.service.importPipeline.LocalCsvFileService;
+import com.ishan.user_service.service.importPipeline.RandomUserImportSourceFactory;
+import com.ishan.user_service.service.importPipeline.UserImportPipeline;
+import com.ishan.user_service.service.importPipeline.UserImportSource;
+import com.ishan.user_service.service.importPipeline.dedup.EmailDedupSession;
+import com.ishan.user_service.service.importPipeline.dedup.EmailDedupStats;
+import com.ishan.user_service.service.importPipeline.dedup.EmailDeduplicator;
+import com.ishan.user_service.service.job.ImportControlRequest;
 import com.ishan.user_service.service.job.ImportUserJobTrackerService;
 import com.ishan.user_service.component.rateLimit.ImportJobCostTier;
 import com.ishan.user_service.component.rateLimit.ImportUsersRateLimitGuardService;
@@ -11,7 +28,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.io.IOException;
+import java.nio.file.Path;
 
 /*@Async works only when the method is called from another Spring bean.
  Self-calls bypass Spring and run synchronously.*/
@@ -19,37 +37,80 @@ import java.util.List;
 public class UserImportAsyncService {
     private static final Logger log = LoggerFactory.getLogger(UserImportAsyncService.class);
 
-    private final UserImportService userImportService;
+    private final UserImportPipeline userImportPipeline;
     private final MockUserGeneratorService mockUserGeneratorService;
     private final ImportUserJobTrackerService importUserJobTrackerService;
     private final ImportUsersRateLimitGuardService rateLimitGuardService;
+    private final ImportCheckpointService importCheckpointService;
+    private final CsvUploadStagingService csvUploadStagingService;
+    private final LocalCsvFileService localCsvFileService;
+    private final RandomUserImportSourceFactory randomUserImportSourceFactory;
+    private final EmailDeduplicator emailDeduplicator;
 
-    public UserImportAsyncService(UserImportService userImportService, MockUserGeneratorService mockUserGeneratorService, ImportUserJobTrackerService importUserJobTrackerService, ImportUsersRateLimitGuardService rateLimitGuardService) {
-        this.userImportService = userImportService;
+    public UserImportAsyncService(UserImportPipeline userImportPipeline, MockUserGeneratorService mockUserGeneratorService, ImportUserJobTrackerService importUserJobTrackerService, ImportUsersRateLimitGuardService rateLimitGuardService, ImportCheckpointService importCheckpointService, CsvUploadStagingService csvUploadStagingService, LocalCsvFileService localCsvFileService, RandomUserImportSourceFactory randomUserImportSourceFactory, EmailDeduplicator emailDeduplicator) {
+        this.userImportPipeline = userImportPipeline;
         this.mockUserGeneratorService = mockUserGeneratorService;
         this.importUserJobTrackerService = importUserJobTrackerService;
         this.rateLimitGuardService = rateLimitGuardService;
+        this.importCheckpointService = importCheckpointService;
+        this.csvUploadStagingService = csvUploadStagingService;
+        this.localCsvFileService = localCsvFileService;
+        this.randomUserImportSourceFactory = randomUserImportSourceFactory;
+        this.emailDeduplicator = emailDeduplicator;
     }
 
-    @Async
+    // NOT async: called by the controller before a job is created -> unavailable engine = 400, no job
+    public void checkEngineAvailable(ImportPersistenceEngine engine) {
+        userImportPipeline.checkEngineAvailable(engine);
+    }
+
+    // Runs on the dedicated, bounded import executor (ImportExecutorConfig), not Spring's shared default one.
+    // Executor full -> the CALLER gets a TaskRejectedException (see UserImportController)
+    @Async(ImportExecutorConfig.IMPORT_EXECUTOR)
     //@Async method must be public and called from another Spring bean.
-    public void runFakerImportAsync(String userId, String jobId, int count, ImportJobCostTier tier) throws InterruptedException {
+    // Also used to RESUME a job: rows already committed by earlier runs (checkpoints) are skipped.
+    // options.source() decides where the users come from (generated users, a staged CSV upload, a server-local file or RandomUser).
+    public void runImportAsync(String userId, String jobId, int count, ImportJobCostTier tier, ImportJobOptions options) throws InterruptedException {
         long startTime = System.currentTimeMillis();
 
-        log.info("[Async] Import started | jobId={} requestedCount={}", jobId, count);
+        log.info("[Async] Import started | jobId={} requestedCount={} source={} engine={} generator={} seed={} duplicates={}",
+                jobId, count, options.source(), options.engine(), options.generator(), options.seed(), options.duplicates());
         //Thread.sleep(5000);
+        EmailDedupSession dedup = null;
         try{
-            List<UserDto> userDtoList = mockUserGeneratorService.generateUsers(count);
-            log.info("[Async] Faker generation done | jobId={} generated={}", jobId, userDtoList.size());
-
             importUserJobTrackerService.markRunning(jobId);
 
-            userImportService.importMultipleUsersFromFakerWithBatchProcessing(jobId,userDtoList);
-            importUserJobTrackerService.markCompleted(jobId, "Imported " + userDtoList.size() + " users successfully");
+            // Empty for a new job; for a resumed job: which rows are already in the DB
+            ImportCheckpoint checkpoint = importCheckpointService.load(jobId);
+            if (!checkpoint.isEmpty()) {
+                log.info("[Async] Resuming import | jobId={} alreadyCommittedRows={} committedPositions={}",
+                        jobId, checkpoint.committedRows(), checkpoint.committedPositions());
+            }
+
+            // Reading/generation and insertion run at the same time (producer/consumer pipeline)
+            // instead of building the whole List<UserDto> first.
+            UserImportSource source = createSource(count, options, checkpoint);
+            // First checking job of this JVM builds the email filter here (keyset scan of users)
+            dedup = emailDeduplicator.openSession(jobId, options.duplicates());
+            long importedCount = userImportPipeline.run(jobId, source, options.engine(), checkpoint, dedup);
+            importUserJobTrackerService.markCompleted(jobId, "Processed " + importedCount + " source rows successfully" + dedupSummary(dedup));
+            discardStagedUpload(options);
+        }catch (ImportJobStoppedException ex){
+            // Operator asked for it -> not a failure; the slot is released in finally like for any other end
+            if (ex.getRequest() == ImportControlRequest.CANCEL) {
+                importUserJobTrackerService.markCancelled(jobId, "Cancelled after processing " + ex.getCommittedRows() + " source rows");
+                discardStagedUpload(options);
+            } else {
+                importUserJobTrackerService.markPaused(jobId, "Paused after processing " + ex.getCommittedRows() + " source rows");
+            }
+            log.info("[Async] Import stopped | jobId={} request={} committedRows={}", jobId, ex.getRequest(), ex.getCommittedRows());
         }catch (Exception ex){
             importUserJobTrackerService.markFailed(jobId, ex.getMessage());
             log.error("[Async] Import failed | jobId={}", jobId, ex);
         }finally {
+            if (dedup != null) {
+                dedup.close();
+            }
             rateLimitGuardService.markJobFinished(userId,jobId,tier);
             double secs = (System.currentTimeMillis() - startTime) / 1000.0;
             log.info("[Async] Import finished | jobId={} timeTakenSec={}",
@@ -58,4 +119,32 @@ public class UserImportAsyncService {
 
     }
 
+    // FAILED / PAUSED jobs keep their staged file, a resume reads it again
+    private UserImportSource createSource(int count, ImportJobOptions options, ImportCheckpoint checkpoint) throws IOException {
+        return switch (options.source()) {
+            case GENERATED -> new FakerUserImportSource(mockUserGeneratorService, count,
+                    options.generator(), options.seed(), checkpoint.committedPositions());
+            case CSV_UPLOAD -> new CsvUserImportSource(Path.of(options.sourceFile()), count, checkpoint.committedPositions());
+            case LOCAL_FILE -> localCsvFileService.openSource(Path.of(options.sourceFile()), count, checkpoint.committedPositions());
+            case RANDOM_USER -> randomUserImportSourceFactory.create(count, options.seed(), checkpoint.committedPositions());
+        };
+    }
+
+    // e.g. ", 12 duplicate emails skipped"
+    private String dedupSummary(EmailDedupSession dedup) {
+        EmailDedupStats stats = dedup.stats();
+        return switch (dedup.policy()) {
+            case SKIP -> ", " + stats.skipped() + " duplicate emails skipped";
+            case SUFFIX -> ", " + stats.suffixed() + " duplicate emails suffixed";
+            case ALLOW, FAIL -> "";
+        };
+    }
+
+    // Only uploads are ours to delete, server-local files belong to whoever dropped them
+    private void discardStagedUpload(ImportJobOptions options) {
+        if (options.source() == ImportSourceType.CSV_UPLOAD) {
+            csvUploadStagingService.discard(options.sourceFile());
+        }
+    }
+
 }
@@ -0,0 +1,88 @@
+package com.ishan.user_service.service.user;
+
+import com.ishan.user_service.customExceptions.ImportJobStateConflictException;
+import com.ishan.user_service.dto.ImportUserJobInfoDto;
+import com.ishan.user_service.model.ImportJob;
+import com.ishan.user_service.repository.ImportJobRepository;
+import com.ishan.user_service.service.importPipeline.CsvUploadStagingService;
+import com.ishan.user_service.service.importPipeline.ImportSourceType;
+import com.ishan.user_service.service.job.ImportControlRequest;
+import com.ishan.user_service.service.job.ImportJobControlRegistry;
+import com.ishan.user_service.service.job.ImportUserJobTrackerService;
+import org.springframework.stereotype.Service;
+
+/**
+ * Operator actions on import jobs: pause and cancel (resume lives in UserImportResumeService).
+ *
+ * WHY?
+ * - Once an import starts it holds DB capacity + a rate-limit slot until the last row
+ * - A mistaken 5M-row request should be stoppable within seconds, not after an hour
+ *
+ * RUNNING job (PENDING / IN_PROGRESS) -> a request is registered, the pipeline stops at the next
+ *   batch boundary and UserImportAsyncService marks it PAUSED / CANCELLED and releases the slot
+ * STOPPED job (PAUSED / FAILED) -> nothing is running, cancel is applied right away
+ */
+@Service
+public class UserImportControlService {
+
+    private final ImportJobRepository importJobRepository;
+    private final ImportJobControlRegistry importJobControlRegistry;
+    private final ImportUserJobTrackerService importUserJobTrackerService;
+    private final CsvUploadStagingService csvUploadStagingService;
+
+    public UserImportControlService(ImportJobRepository importJobRepository,
+                                    ImportJobControlRegistry importJobControlRegistry,
+                                    ImportUserJobTrackerService importUserJobTrackerService,
+                                    CsvUploadStagingService csvUploadStagingService) {
+        this.importJobRepository = importJobRepository;
+        this.importJobControlRegistry = importJobControlRegistry;
+        this.importUserJobTrackerService = importUserJobTrackerService;
+        this.csvUploadStagingService = csvUploadStagingService;
+    }
+
+    /**
+     * @return the job status, or null if the job does not exist
+     */
+    public ImportUserJobInfoDto pause(String jobId) {
+        ImportJob job = importJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return null;
+        }
+        if (!isRunning(job)) {
+            throw new ImportJobStateConflictException(jobId, "paused", "it is " + job.getStatus());
+        }
+        if (job.getControlRequest() == ImportControlRequest.CANCEL) {
+            throw new ImportJobStateConflictException(jobId, "paused", "it is already being cancelled");
+        }
+        importJobControlRegistry.request(jobId, ImportControlRequest.PAUSE);
+        return importUserJobTrackerService.getJobStatus(jobId);
+    }
+
+    /**
+     * @return the job status, or null if the job does not exist
+     */
+    public ImportUserJobInfoDto cancel(String jobId) {
+        ImportJob job = importJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return null;
+        }
+        if (isRunning(job)) {
+            importJobControlRegistry.request(jobId, ImportControlRequest.CANCEL);
+        } else if (job.getStatus() == ImportUserJobInfoDto.ImportStatus.PAUSED
+                || job.getStatus() == ImportUserJobInfoDto.ImportStatus.FAILED) {
+            importUserJobTrackerService.markCancelled(jobId, "Cancelled while " + job.getStatus());
+            // Nothing will resume it any more (uploads only, server-local files are not ours)
+            if (job.getSourceType() == ImportSourceType.CSV_UPLOAD) {
+                csvUploadStagingService.discard(job.getSourceFile());
+            }
+        } else {
+            throw new ImportJobStateConflictException(jobId, "cancelled", "it is already " + job.getStatus());
+        }
+        return importUserJobTrackerService.getJobStatus(jobId);
+    }
+
+    private boolean isRunning(ImportJob job) {
+        return job.getStatus() == ImportUserJobInfoDto.ImportStatus.PENDING
+                || job.getStatus() == ImportUserJobInfoDto.ImportStatus.IN_PROGRESS;
+    }
+}
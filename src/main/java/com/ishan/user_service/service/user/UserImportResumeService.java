@@ -0,0 +1,168 @@
+package com.ishan.user_service.service.user;
+
+import com.ishan.user_service.component.importExecutor.ImportExecutorMonitor;
+import com.ishan.user_service.component.rateLimit.ImportJobCostTier;
+import com.ishan.user_service.component.rateLimit.ImportUsersRateLimitGuardService;
+import com.ishan.user_service.customExceptions.ImportJobNotResumableException;
+import com.ishan.user_service.customExceptions.TooManyRequestsException;
+import com.ishan.user_service.dto.ImportUserJobInfoDto;
+import com.ishan.user_service.model.ImportJob;
+import com.ishan.user_service.repository.ImportJobRepository;
+import com.ishan.user_service.service.importPipeline.ImportJobOptions;
+import com.ishan.user_service.service.importPipeline.ImportSourceType;
+import com.ishan.user_service.service.job.ImportUserJobTrackerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Resumes import jobs that were interrupted (pod restart, crash, DB outage...).
+ *
+ * WHICH JOBS?
+ * - FAILED and PAUSED jobs, on request (POST /api/v1/jobs/{jobId}/resume)
+ * - ORPHANED jobs: PENDING / IN_PROGRESS but no heartbeat for import.resume.stale-after-seconds
+ *   -> the JVM running them is gone. Picked up automatically by a periodic scan (and via the API)
+ *
+ * HOW?
+ * - The job row stores count, engine, generator and seed -> the SAME data set can be regenerated
+ *   (file imports store their staged file instead, it is read again)
+ * - Checkpoint rows tell which source rows are already committed -> only the missing ones are imported
+ * - claim() moves the heartbeat optimistically: if two pods scan at the same time, only one wins
+ *
+ * Resuming skips the rate limit CHECK on purpose: the job was already accepted,
+ * it only re-registers its running lease (markJobStarted).
+ */
+@Service
+public class UserImportResumeService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportResumeService.class);
+
+    private static final EnumSet<ImportUserJobInfoDto.ImportStatus> SHOULD_BE_RUNNING =
+            EnumSet.of(ImportUserJobInfoDto.ImportStatus.PENDING, ImportUserJobInfoDto.ImportStatus.IN_PROGRESS);
+
+    private static final EnumSet<ImportUserJobInfoDto.ImportStatus> RESUMABLE_ON_REQUEST =
+            EnumSet.of(ImportUserJobInfoDto.ImportStatus.FAILED, ImportUserJobInfoDto.ImportStatus.PAUSED);
+
+    private final ImportJobRepository importJobRepository;
+    private final ImportUserJobTrackerService importUserJobTrackerService;
+    private final UserImportAsyncService userImportAsyncService;
+    private final ImportUsersRateLimitGuardService rateLimitGuardService;
+    private final ImportExecutorMonitor importExecutorMonitor;
+
+    private final boolean autoResume;
+    private final long staleAfterSeconds;
+
+    public UserImportResumeService(ImportJobRepository importJobRepository,
+                                   ImportUserJobTrackerService importUserJobTrackerService,
+                                   UserImportAsyncService userImportAsyncService,
+                                   ImportUsersRateLimitGuardService rateLimitGuardService,
+                                   ImportExecutorMonitor importExecutorMonitor,
+                                   @Value("${import.resume.auto:true}") boolean autoResume,
+                                   @Value("${import.resume.stale-after-seconds:120}") long staleAfterSeconds) {
+        this.importJobRepository = importJobRepository;
+        this.importUserJobTrackerService = importUserJobTrackerService;
+        this.userImportAsyncService = userImportAsyncService;
+        this.rateLimitGuardService = rateLimitGuardService;
+        this.importExecutorMonitor = importExecutorMonitor;
+        this.autoResume = autoResume;
+        this.staleAfterSeconds = staleAfterSeconds;
+    }
+
+    /**
+     * Resumes one job on request.
+     * @return the job status, or null if the job does not exist
+     */
+    public ImportUserJobInfoDto resume(String jobId) throws InterruptedException {
+        ImportJob job = importJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return null;
+        }
+        if (job.getStatus() == ImportUserJobInfoDto.ImportStatus.COMPLETED
+                || job.getStatus() == ImportUserJobInfoDto.ImportStatus.CANCELLED) {
+            throw new ImportJobNotResumableException(jobId, "it is already " + job.getStatus());
+        }
+        if (!RESUMABLE_ON_REQUEST.contains(job.getStatus()) && !isOrphaned(job)) {
+            throw new ImportJobNotResumableException(jobId, "it is still running (last heartbeat " + job.getHeartbeatAt() + ")");
+        }
+        if (job.getSourceFile() != null && !Files.exists(Path.of(job.getSourceFile()))) {
+            throw new ImportJobNotResumableException(jobId, "its source file " + job.getSourceFile() + " no longer exists");
+        }
+        if (!claim(job)) {
+            throw new ImportJobNotResumableException(jobId, "it is being resumed by another instance");
+        }
+        start(job);
+        return importUserJobTrackerService.getJobStatus(jobId);
+    }
+
+    /**
+     * Startup + periodic scan for orphaned jobs.
+     * Runs shortly after startup (jobs interrupted by OUR restart) and then every scan interval
+     * (jobs of other instances that died, or whose heartbeat was still fresh at our startup).
+     */
+    @Scheduled(initialDelayString = "${import.resume.scan-initial-delay-ms:15000}",
+            fixedDelayString = "${import.resume.scan-interval-ms:60000}")
+    public void resumeOrphanedJobs() {
+        if (!autoResume) {
+            return;
+        }
+        List<ImportJob> orphanedJobs = importJobRepository.findByStatusInAndHeartbeatAtBefore(SHOULD_BE_RUNNING, staleBefore());
+        for (ImportJob job : orphanedJobs) {
+            if (!importExecutorMonitor.hasCapacity()) {
+                // Do not claim what we cannot queue: the rest is picked up by a later scan (or another instance)
+                log.info("[RESUME] Import executor saturated, postponing orphaned jobs | remaining={}", orphanedJobs.size());
+                return;
+            }
+            try {
+                if (claim(job)) {
+                    log.info("[RESUME] Orphaned import job found, resuming | jobId={} lastHeartbeat={}", job.getJobId(), job.getHeartbeatAt());
+                    start(job);
+                }
+            } catch (Exception ex) {
+                log.error("[RESUME] Could not resume import job | jobId={}", job.getJobId(), ex);
+            }
+        }
+    }
+
+    private void start(ImportJob job) throws InterruptedException {
+        ImportJobCostTier tier = ImportJobCostTier.fromCount(job.getRequestedCount());
+        // Heartbeat starts right away, even while the job waits for a free async thread
+        importUserJobTrackerService.markResuming(job.getJobId());
+        rateLimitGuardService.markJobStarted(job.getUserId(), job.getJobId(), tier);
+        try {
+            userImportAsyncService.runImportAsync(job.getUserId(), job.getJobId(), (int) job.getRequestedCount(), tier, options(job));
+        } catch (TaskRejectedException ex) {
+            // Executor saturated: FAILED again (checkpoints untouched) -> can be resumed later
+            rateLimitGuardService.markJobFinished(job.getUserId(), job.getJobId(), tier);
+            importUserJobTrackerService.markFailed(job.getJobId(), "Resume rejected: import executor saturated, retry later");
+            throw new TooManyRequestsException("Too many import jobs are running or queued, retry later");
+        }
+    }
+
+    // Same source as the first run: generated users are regenerated, files are read again, RandomUser pages re-fetched with the stored seed
+    private ImportJobOptions options(ImportJob job) {
+        ImportSourceType source = job.getSourceType() != null ? job.getSourceType() : ImportSourceType.GENERATED;
+        return new ImportJobOptions(job.getEngine(), job.getGeneratorMode(), job.getSeed(), source, job.getSourceFile(),
+                job.getDuplicatePolicy());
+    }
+
+    private boolean claim(ImportJob job) {
+        return importJobRepository.claim(job.getJobId(), job.getHeartbeatAt(), LocalDateTime.now()) == 1;
+    }
+
+    private boolean isOrphaned(ImportJob job) {
+        return job.getHeartbeatAt() == null || job.getHeartbeatAt().isBefore(staleBefore());
+    }
+
+    private LocalDateTime staleBefore() {
+        return LocalDateTime.now().minusSeconds(staleAfterSeconds);
+    }
+}
@@ -4,6 +4,8 @@ import com.ishan.user_service.dto.UserDto;
 import com.ishan.user_service.mapper.UserDtoToUserMapper;
 import com.ishan.user_service.model.User;
 import com.ishan.user_service.repository.UserRepository;
+import com.ishan.user_service.service.importPipeline.AdaptiveBatchSizer;
+import com.ishan.user_service.service.importPipeline.AdaptiveBatchSizerFactory;
 import com.ishan.user_service.service.job.ImportUserJobTrackerService;
 import jakarta.persistence.EntityManager;
 import org.slf4j.Logger;
@@ -33,6 +35,9 @@ public class UserImportServiceImpl implements UserImportService{
     @Autowired
     private ImportUserJobTrackerService importUserJobTrackerService;
 
+    @Autowired
+    private AdaptiveBatchSizerFactory adaptiveBatchSizerFactory;
+
     private final static Logger log = LoggerFactory.getLogger(UserImportServiceImpl.class);
 
 
@@ -66,7 +71,8 @@ public class UserImportServiceImpl implements UserImportService{
      *
      * HOW IT WORKS:
      * 1. Take the full list of 2 million UserDto objects
-     * 2. Process them in batches of 1,000 at a time
+     * 2. Process them in batches (starting at 1,000, then tuned by AdaptiveBatchSizer
+     *    from the measured commit latency)
      * 3. For each batch:
      *    - Convert 1,000 DTOs to User entities
      *    - Save them to database
@@ -84,32 +90,29 @@ public class UserImportServiceImpl implements UserImportService{
    // @Transactional - If the whole import runs inside ONE big transaction then data is saved permanently ONLY when the method finishes.
     public void importMultipleUsersFromFakerWithBatchProcessing(String jobId, List<UserDto> userDtoList) {
         long startTime = System.currentTimeMillis();
-        // BATCH_SIZE: Number of records to process at once
+        // Batch size: Number of records to process at once
         // Think: How many boxes to load in the truck per trip
-        // 1,000 is optimal - not too small (many trips), not too large (memory issues)
-        int BATCH_SIZE = 1000;
+        // It starts at 1,000 and the sizer grows/shrinks it while watching how long each commit takes
+        // (no single size is best on both an idle box and a busy primary)
+        AdaptiveBatchSizer batchSizer = adaptiveBatchSizerFactory.create(1000);
         int lastReportedPercent = 0;
 
-        // Calculate total batches needed
-        // Example: 2,000,000 records ÷ 1,000 = 2,000 batches
-        int totalBatches = (int) Math.ceil((double) userDtoList.size() / BATCH_SIZE);
-
-        log.info("Starting batch processing: {} total records, {} batches of {} records each",
-                userDtoList.size(), totalBatches, BATCH_SIZE);
+        log.info("Starting batch processing: {} total records, initial batch size {}",
+                userDtoList.size(), batchSizer.currentBatchSize());
 
         // Extra monitoring logs (helps during 1M+ imports)
         // Tracks speed + percentage + estimated completion behavior
         long insertedCount = 0;
 
         // Process each batch one by one
-        for (int batchNumber = 0; batchNumber < totalBatches; batchNumber++) {
+        int batchNumber = 0;
+        int startIndex = 0;
+        while (startIndex < userDtoList.size()) {
 
             // Calculate start and end index for this batch
             // Batch 0: records 0-999
-            // Batch 1: records 1000-1999
-            // Batch 2: records 2000-2999, etc.
-            int startIndex = batchNumber * BATCH_SIZE;
-            int endIndex = Math.min(startIndex + BATCH_SIZE, userDtoList.size());
+            // Batch 1: records 1000-1999 (or 1000-2499 once the sizer grew the batch), etc.
+            int endIndex = Math.min(startIndex + batchSizer.currentBatchSize(), userDtoList.size());
 
             // Extract current batch from the main list
             // subList(0, 1000) means "give me records from index 0 to 999"
@@ -120,7 +123,13 @@ public class UserImportServiceImpl implements UserImportService{
             for (UserDto userDto : currentBatch) {
                 userBatch.add(UserDtoToUserMapper.convertUserDtoToUser(userDto));
             }
+            long commitStart = System.nanoTime();
             userBatchSaverService.saveOneBatch(userBatch);
+            if (batchSizer.recordCommit(userBatch.size(), System.nanoTime() - commitStart)) {
+                List<String> history = batchSizer.history();
+                importUserJobTrackerService.updateBatchSizing(jobId, batchSizer.currentBatchSize(), history);
+                log.info("Batch size changed: {}", history.get(history.size() - 1));
+            }
 
             // Save current batch to database
             // This saves 1,000 records in one go (much faster than one-by-one!)
@@ -134,10 +143,10 @@ public class UserImportServiceImpl implements UserImportService{
             // Without this, all 2M entities would stay in memory = crash!
             //entityManager.clear();
 
-            insertedCount += userBatch.size(); // total inserted so far (last batch may be < 1000)
+            insertedCount += userBatch.size(); // total inserted so far (last batch may be smaller)
 
             //calculate the percentage of work done we will update the progress after every 10%
-            int currentPercentage = (int) (insertedCount * 100.0)/totalBatches;
+            int currentPercentage = (int) ((insertedCount * 100.0) / userDtoList.size());
             if(currentPercentage >= lastReportedPercent + 10 || currentPercentage == 100){
                 importUserJobTrackerService.updateProgress(jobId, currentPercentage);
                 lastReportedPercent = currentPercentage;
@@ -147,7 +156,9 @@ public class UserImportServiceImpl implements UserImportService{
             // Example: "Processed batch 10/2000 (10,000 records)"
             // Log progress every 10 batches to track performance
             // Example: "Processed batch 10/2000 (10,000 records)"
-            if ((batchNumber + 1) % 10 == 0 || (batchNumber + 1) == totalBatches) {
+            batchNumber++;
+            startIndex = endIndex;
+            if (batchNumber % 10 == 0 || startIndex == userDtoList.size()) {
 
                 long now = System.currentTimeMillis();
                 double elapsedSeconds = (now - startTime) / 1000.0;
@@ -162,9 +173,9 @@ public class UserImportServiceImpl implements UserImportService{
                         ? insertedCount
                         : insertedCount / elapsedSeconds;
 
-                log.info("Processed batch {}/{} (Inserted={}/{} | {}% | Speed={} users/sec | Elapsed={}s)",
-                        batchNumber + 1,
-                        totalBatches,
+                log.info("Processed batch {} of size {} (Inserted={}/{} | {}% | Speed={} users/sec | Elapsed={}s)",
+                        batchNumber,
+                        userBatch.size(),
                         insertedCount,
                         userDtoList.size(),
                         String.format("%.2f", percent),
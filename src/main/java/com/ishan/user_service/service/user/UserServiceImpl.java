@@ -7,18 +7,16 @@ import com.ishan.user_service.dto.UserDto;
 import com.ishan.user_service.mapper.UserDtoToUserMapper;
 import com.ishan.user_service.model.User;
 import com.ishan.user_service.repository.UserRepository;
-import com.ishan.user_service.specification.UserSpecification;
+import com.ishan.user_service.specification.UserSearchCriteria;
 import jakarta.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.Objects;
 
 @Service
 public class UserServiceImpl implements UserService {
@@ -49,25 +47,9 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public Page<User> searchUsers(String name, Integer age, String city, String state, Pageable pageable) {
-
-        // Start with a specification that matches ALL records
-        Specification<User> spec = Specification.allOf();
-
-        if(Objects.nonNull(name) && !name.isBlank()){
-            spec = spec.and(UserSpecification.hasName(name));
-        }
-        if(Objects.nonNull(city) && !city.isBlank()){
-            spec = spec.and(UserSpecification.hasCity(city));
-        }
-        if(Objects.nonNull(state) && !state.isBlank()){
-            spec = spec.and(UserSpecification.hasState(state));
-        }
-        if(Objects.nonNull(age)){
-            spec = spec.and(UserSpecification.hasAge(age));
-        }
-
-        return userRepository.findAll(spec, pageable);
+    public Page<User> searchUsers(UserSearchCriteria criteria, Pageable pageable) {
+        // Blank / null filters are skipped, see UserSearchCriteria (shared with the filtered export)
+        return userRepository.findAll(criteria.toSpecification(), pageable);
     }
 
     @Override
@@ -0,0 +1,75 @@
+package com.ishan.user_service.specification;
+
+import com.ishan.user_service.model.User;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.StringJoiner;
+
+/**
+ * The filters of GET /search, in one object so the streaming export can apply EXACTLY the same
+ * conditions (UserSpecification) as the paged search.
+ * Every field is optional: null / blank = "do not filter on it".
+ *
+ * @param deleted null = active and soft-deleted users, false = active only, true = deleted only
+ */
+public record UserSearchCriteria(String name, Integer age, Integer minAge, Integer maxAge,
+                                 String city, String state, Boolean deleted) {
+
+    public static UserSearchCriteria none() {
+        return new UserSearchCriteria(null, null, null, null, null, null, null);
+    }
+
+    // true -> nothing to filter (exports can keep their plain id-range queries)
+    public boolean isEmpty() {
+        return isBlank(name) && age == null && minAge == null && maxAge == null
+                && isBlank(city) && isBlank(state) && deleted == null;
+    }
+
+    // "state=Goa, minAge=30" (only the filters that are set), "none" when empty -> job status / logs
+    public String describe() {
+        StringJoiner filters = new StringJoiner(", ");
+        append(filters, "name", isBlank(name) ? null : name);
+        append(filters, "age", age);
+        append(filters, "minAge", minAge);
+        append(filters, "maxAge", maxAge);
+        append(filters, "city", isBlank(city) ? null : city);
+        append(filters, "state", isBlank(state) ? null : state);
+        append(filters, "deleted", deleted);
+        return filters.length() == 0 ? "none" : filters.toString();
+    }
+
+    public Specification<User> toSpecification() {
+        // Start with a specification that matches ALL records
+        Specification<User> spec = Specification.allOf();
+
+        if (!isBlank(name)) {
+            spec = spec.and(UserSpecification.hasName(name));
+        }
+        if (!isBlank(city)) {
+            spec = spec.and(UserSpecification.hasCity(city));
+        }
+        if (!isBlank(state)) {
+            spec = spec.and(UserSpecification.hasState(state));
+        }
+        if (age != null) {
+            spec = spec.and(UserSpecification.hasAge(age));
+        }
+        if (minAge != null || maxAge != null) {
+            spec = spec.and(UserSpecification.hasAgeBetween(minAge, maxAge));
+        }
+        if (deleted != null) {
+            spec = spec.and(UserSpecification.isDeleted(deleted));
+        }
+        return spec;
+    }
+
+    private static void append(StringJoiner filters, String field, Object value) {
+        if (value != null) {
+            filters.add(field + "=" + value);
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
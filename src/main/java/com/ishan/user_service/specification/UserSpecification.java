@@ -1,6 +1,9 @@
 package com.ishan.user_service.specification;
 
 import com.ishan.user_service.model.User;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
 import org.springframework.data.jpa.domain.Specification;
 
 /**
@@ -11,6 +14,16 @@ import org.springframework.data.jpa.domain.Specification;
  * - Specification does NOT execute queries
  * - It only DESCRIBES the WHERE condition
  * - Spring Data JPA later combines and executes them
+ *
+ * LIMITATION (kept on purpose): name / city / state are case-insensitive CONTAINS matches
+ * (LOWER(col) LIKE '%x%'), which no index can serve.
+ * - GET /search: every page reads the table (plus its COUNT(*))
+ * - Filtered exports: the keyset batches walk the primary key from lastId on
+ *   (WHERE <filters> AND id > lastId ORDER BY id LIMIT n) -> the conditions are checked row by row,
+ *   but the whole export still reads every row only ONCE, not once per batch
+ * - Prefix / equality matches on indexed columns would be faster, but change what /search finds
+ *   ("dun" no longer finds "Dehradun", case-sensitive on some collations) and every extra index
+ *   makes every imported row more expensive to write -> not done
  */
 public class UserSpecification {
 
@@ -55,11 +68,12 @@ public class UserSpecification {
                         criteriaBuilder.lower(
 
                                 /*
-                                 * root.get("name")
+                                 * fullName(root) = firstName + " " + lastName
                                  * - root represents the User table
-                                 * - "name" refers to the 'name' column in the User entity
+                                 * - User has no single 'name' column, so "ishan raghav" must match
+                                 *   across both columns (root.get("name") failed at runtime)
                                  */
-                                root.get("name")
+                                fullName(root, criteriaBuilder)
                         ),
 
                         /*
@@ -91,6 +105,42 @@ public class UserSpecification {
                         root.get("age"), age
                 ));
     }
+
+    // minAge <= age <= maxAge, a null bound is open ("aged 30+" = minAge 30 only)
+    public static Specification<User> hasAgeBetween(Integer minAge, Integer maxAge){
+        return ((root, query, criteriaBuilder) -> {
+            if (minAge != null && maxAge != null) {
+                return criteriaBuilder.between(root.<Integer>get("age"), minAge, maxAge);
+            }
+            return minAge != null
+                    ? criteriaBuilder.greaterThanOrEqualTo(root.<Integer>get("age"), minAge)
+                    : criteriaBuilder.lessThanOrEqualTo(root.<Integer>get("age"), maxAge);
+        });
+    }
+
+    public static Specification<User> isDeleted(boolean deleted){
+        return ((root, query, criteriaBuilder) ->
+                criteriaBuilder.equal(root.get("deleted"), deleted));
+    }
+
+    // Keyset pagination on top of any filter: WHERE <filters> AND id > lastId (exports)
+    public static Specification<User> hasIdGreaterThan(long lastId){
+        return ((root, query, criteriaBuilder) ->
+                criteriaBuilder.greaterThan(root.<Integer>get("id"), (int) lastId));
+    }
+
+    // fromId <= id < toId (one segment of the parallel export)
+    public static Specification<User> hasIdInRange(long fromId, long toId){
+        return ((root, query, criteriaBuilder) ->
+                criteriaBuilder.between(root.<Integer>get("id"), (int) fromId, (int) (toId - 1)));
+    }
+
+    // firstName + " " + lastName, a missing last name counts as ""
+    private static Expression<String> fullName(Root<User> root, CriteriaBuilder criteriaBuilder){
+        return criteriaBuilder.concat(
+                criteriaBuilder.concat(root.<String>get("firstName"), " "),
+                criteriaBuilder.coalesce(root.<String>get("lastName"), ""));
+    }
 }
 
 /*
@@ -1,5 +1,6 @@
 package com.ishan.user_service.utility;
 
+import com.ishan.user_service.dto.UserDto;
 import com.ishan.user_service.model.User;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,6 +19,10 @@ public class CSVReadWriteUtility {
     private static final String NEW_LINE_SEPARATOR = "\n";
     private static final String FILE_HEADER = "id,name,age,gender,city,state,email,mobile";
 
+    // Column positions of FILE_HEADER (used by the CSV import sources)
+    public static final int COLUMN_COUNT = 8;
+    public static final int ID = 0, NAME = 1, AGE = 2, GENDER = 3, CITY = 4, STATE = 5, EMAIL = 6, MOBILE = 7;
+
     public static Resource writeCSV(List<User> userList, String path) {
         long startTime = System.currentTimeMillis();
         String csvFileName = "AllUsersCSV.csv";
@@ -52,7 +57,56 @@ public class CSVReadWriteUtility {
         String email = user.getEmail() != null ? user.getEmail() : "";
         String mobile = user.getMobileNumber() != null ? user.getMobileNumber() : "";
         String name = fName + " " + lName;
-        return String.join(",", id,name,age,gender,city,state,email,mobile);
+        return String.join(",", id, escape(name), age, escape(gender), escape(city), escape(state), escape(email), escape(mobile));
+    }
+
+    /**
+     * RFC 4180 quoting: a value containing a comma, quote or line break is wrapped in quotes
+     * and inner quotes are doubled ("St. John's, NL" -> "\"St. John's, NL\"").
+     * Without it one comma inside a city shifts every following column of that row,
+     * which breaks both the export and the bulk-load import that reads this layout back.
+     */
+    public static String escape(String value){
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * Inverse of toCsvRow(): one parsed row (COLUMN_COUNT values, unquoted) -> UserDto.
+     * - id is ignored, imported users always get new IDs
+     * - "name" is split again on the first space
+     * - empty values become null (an empty age becomes 0 like the users.age column),
+     *   a non-numeric age throws NumberFormatException
+     */
+    public static UserDto toUserDto(String[] fields){
+        String name = fields[NAME] != null ? fields[NAME] : "";
+        int space = name.indexOf(' ');
+        UserDto userDto = new UserDto();
+        userDto.setFirstName(emptyToNull(space < 0 ? name : name.substring(0, space)));
+        userDto.setLastName(space < 0 ? null : emptyToNull(name.substring(space + 1)));
+        String age = fields[AGE];
+        userDto.setAge(age == null || age.isEmpty() ? 0 : Integer.valueOf(age));
+        userDto.setGender(emptyToNull(fields[GENDER]));
+        userDto.setCity(emptyToNull(fields[CITY]));
+        userDto.setState(emptyToNull(fields[STATE]));
+        userDto.setEmail(emptyToNull(fields[EMAIL]));
+        userDto.setPhNum(emptyToNull(fields[MOBILE]));
+        return userDto;
+    }
+
+    // Header line of an import file, trailing \r and a UTF-8 BOM (Excel) tolerated
+    public static boolean isHeader(String line){
+        if (line == null) {
+            return false;
+        }
+        String header = line.startsWith("\uFEFF") ? line.substring(1) : line;
+        return header.strip().equals(FILE_HEADER);
+    }
+
+    private static String emptyToNull(String value){
+        return value == null || value.isEmpty() ? null : value;
     }
 
     public static String getCSVHeader(){
@@ -0,0 +1,56 @@
+package com.ishan.user_service.component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Plain unit test: servlet mocks, no server. Limit for every endpoint except the CSV import = 1KB.
+public class UploadSizeLimitFilterTests {
+
+    private final UploadSizeLimitFilter filter = new UploadSizeLimitFilter("1KB", new ObjectMapper().registerModule(new JavaTimeModule()));
+
+    @Test
+    void shouldRejectLargeMultipartBodies_onOtherEndpoints() throws Exception {
+        MockHttpServletResponse response = run(multipart("/api/v1/users/other", 2048));
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(response.getContentAsString()).contains("\"status\":413");
+    }
+
+    @Test
+    void shouldLetLargeUploadsThrough_onTheCsvImportEndpoint() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(multipart("/api/v1/users/import/csv", 10_000_000), new MockHttpServletResponse(), chain);
+
+        // Reached the servlet -> only the (finite) spring.servlet.multipart limits apply
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    @Test
+    void shouldLetSmallMultipartAndNonMultipartRequestsThrough() throws Exception {
+        assertThat(run(multipart("/api/v1/users/other", 512)).getStatus()).isEqualTo(200);
+
+        MockHttpServletRequest json = new MockHttpServletRequest("POST", "/api/v1/users");
+        json.setContentType("application/json");
+        json.setContent(new byte[4096]);
+        assertThat(run(json).getStatus()).isEqualTo(200);
+    }
+
+    private MockHttpServletResponse run(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest multipart(String path, int bytes) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setContentType("multipart/form-data; boundary=test");
+        request.setContent(new byte[bytes]);
+        return request;
+    }
+}
@@ -0,0 +1,77 @@
+package com.ishan.user_service.component.importExecutor;
+
+import com.ishan.user_service.dto.ImportExecutorStatsDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Plain unit test (no Spring context): builds the executor the way the config does.
+public class ImportExecutorConfigTests {
+
+    private final ImportExecutorConfig config = new ImportExecutorConfig();
+    private final ImportRejectionPolicy rejectionPolicy = config.importRejectionPolicy();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ThreadPoolTaskExecutor executor;
+
+    @AfterEach
+    void shutdown(){
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void submit_shouldRejectAndCount_whenWorkersBusyAndQueueFull() throws InterruptedException {
+        executor = create(1, 1, false);
+        CountDownLatch started = new CountDownLatch(1);
+
+        executor.execute(() -> { started.countDown(); await(); }); // runs
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        executor.execute(this::await);                            // waits in the queue
+
+        assertThatThrownBy(() -> executor.execute(this::await)).isInstanceOf(TaskRejectedException.class);
+
+        ImportExecutorMonitor monitor = new ImportExecutorMonitor(executor, rejectionPolicy, false);
+        ImportExecutorStatsDto stats = monitor.stats();
+        assertThat(stats.getActiveJobs()).isEqualTo(1);
+        assertThat(stats.getQueuedJobs()).isEqualTo(1);
+        assertThat(stats.getRemainingQueueCapacity()).isZero();
+        assertThat(stats.getRejectedJobs()).isEqualTo(1);
+        assertThat(monitor.hasCapacity()).isFalse();
+    }
+
+    @Test
+    void submit_shouldRunOnVirtualThread_whenVirtualThreadsEnabled() throws InterruptedException {
+        executor = create(2, 2, true);
+        CountDownLatch ran = new CountDownLatch(1);
+        boolean[] virtual = new boolean[1];
+
+        executor.execute(() -> {
+            virtual[0] = Thread.currentThread().isVirtual();
+            ran.countDown();
+        });
+
+        assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(virtual[0]).isTrue();
+    }
+
+    private ThreadPoolTaskExecutor create(int concurrency, int queueCapacity, boolean virtualThreads){
+        ThreadPoolTaskExecutor taskExecutor = config.importTaskExecutor(rejectionPolicy, concurrency, queueCapacity, virtualThreads);
+        taskExecutor.initialize();
+        return taskExecutor;
+    }
+
+    private void await(){
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.ishan.user_service.component.randomUserReplay;
+
+import com.ishan.user_service.customExceptions.ExternalUserSourceException;
+import com.ishan.user_service.dto.UserDto;
+import com.ishan.user_service.service.RandomUserClientService;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Plain unit test: records from a local stub of RandomUser, then replays with the stub stopped
+public class RandomUserReplayFilterTests {
+
+    @TempDir
+    Path fixtureDir;
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/", exchange -> {
+            requests.incrementAndGet();
+            String page = exchange.getRequestURI().getRawQuery().replaceAll(".*page=(\\d+).*", "$1");
+            byte[] body = ("{\"results\":[{\"name\":{\"first\":\"Page\",\"last\":\"" + page + "\"},"
+                    + "\"email\":\"page-" + page + "@example.com\",\"dob\":{\"age\":40}}],\"info\":{}}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void replay_shouldServeTheRecordedResponse_withoutNetwork() {
+        List<UserDto> live = client(RandomUserReplayMode.RECORD, false)
+                .fetchRandomUsersPage("abc", 3, 1).collectList().block();
+        assertThat(fixtureDir.toFile().list()).hasSize(1);
+
+        server.stop(0);
+        List<UserDto> replayed = client(RandomUserReplayMode.REPLAY, false)
+                .fetchRandomUsersPage("abc", 3, 1).collectList().block();
+
+        assertThat(replayed).extracting(UserDto::getEmail).containsExactly("page-3@example.com");
+        assertThat(replayed).isEqualTo(live);
+        assertThat(requests.get()).isEqualTo(1);
+    }
+
+    @Test
+    void replay_shouldFail_whenNothingWasRecordedForTheRequest() {
+        RandomUserClientService replay = client(RandomUserReplayMode.REPLAY, false);
+
+        assertThatThrownBy(() -> replay.fetchRandomUsersPage("abc", 1, 1).collectList().block())
+                .isInstanceOf(ExternalUserSourceException.class)
+                .hasMessageContaining("no recorded RandomUser response");
+        assertThat(requests.get()).isZero();
+    }
+
+    @Test
+    void replay_shouldHandOutRecordedFixtures_forUnknownRequests_whenReuseIsOn() {
+        client(RandomUserReplayMode.RECORD, false).fetchRandomUsersPage("abc", 1, 1).collectList().block();
+
+        List<UserDto> replayed = client(RandomUserReplayMode.REPLAY, true)
+                .fetchRandomUsersPage("abc", 99, 1).collectList().block();
+
+        assertThat(replayed).extracting(UserDto::getEmail).containsExactly("page-1@example.com");
+    }
+
+    @Test
+    void record_shouldNotKeepAFixture_whenTheResponseIsCancelledHalfway() throws IOException {
+        // fetchRandomUser() cancels after the first user -> the recording is incomplete
+        client(RandomUserReplayMode.RECORD, false).fetchRandomUser().block();
+
+        try (Stream<Path> files = Files.list(fixtureDir)) {
+            assertThat(files.filter(file -> file.toString().endsWith(".json.gz"))).isEmpty();
+        }
+    }
+
+    private RandomUserClientService client(RandomUserReplayMode mode, boolean reuseFixtures) {
+        RandomUserReplayFilter filter = new RandomUserReplayFilter(mode, fixtureDir, 0, 0, reuseFixtures);
+        return new RandomUserClientService(WebClient.builder().baseUrl(baseUrl).filter(filter).build());
+    }
+}
@@ -0,0 +1,106 @@
+package com.ishan.user_service.controller;
+
+import com.ishan.user_service.model.User;
+import com.ishan.user_service.repository.UserJdbcRepository;
+import com.ishan.user_service.repository.UserRepository;
+import com.ishan.user_service.service.user.UserService;
+import com.ishan.user_service.service.user.UserServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// GET /search on in-memory H2: request parameters -> UserSearchCriteria (shared with the filtered export)
+// -> the real UserServiceImpl; the controller in standalone MockMvc.
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import({UserServiceImpl.class, UserJdbcRepository.class})
+public class UserControllerTests {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserJdbcRepository userJdbcRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAllInBatch();
+        List<User> users = new ArrayList<>();
+        users.add(user(1, "Ishan", "Singh", "Dehradun", "Uttarakhand", 30, false));
+        users.add(user(2, "Rahul", "Ishwar", "Dehradun", "Uttarakhand", 41, false));
+        users.add(user(3, "Ishan", "Verma", "Haridwar", "Uttarakhand", 35, false));
+        users.add(user(4, "Ishan", "Singhal", "Dehradun", "Uttarakhand", 33, true));
+        users.add(user(5, "Manish", "Kumar", "Dehradun", "Uttarakhand", 31, false));
+        users.add(user(6, "Ishan", "Singh", "Panaji", "Goa", 29, false));
+        users.add(user(7, "Maria", "De Souza", "Panaji", "Goa", 40, false));
+        userJdbcRepository.batchInsert(users);
+
+        UserController controller = new UserController();
+        ReflectionTestUtils.setField(controller, "userService", userService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void search_shouldApplyEveryCriterion_withCaseInsensitiveContainsForNameCityAndState() throws Exception {
+        // "ish" anywhere in the full name ("Manish" too), Haridwar / Goa / deleted / too young filtered out
+        mockMvc.perform(get("/api/v1/users/search")
+                        .param("name", "ish")
+                        .param("city", "dehra")
+                        .param("state", "UTTARA")
+                        .param("minAge", "30")
+                        .param("deleted", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.content[*].id", containsInAnyOrder(1, 2, 5)));
+    }
+
+    @Test
+    void search_shouldMatchAcrossFirstAndLastName() throws Exception {
+        mockMvc.perform(get("/api/v1/users/search")
+                        .param("name", "AN SINGH")
+                        .param("state", "uttarakhand"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].id", containsInAnyOrder(1, 4)));
+
+        // A last name with a space in it
+        mockMvc.perform(get("/api/v1/users/search").param("name", "ria de sou"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].id", containsInAnyOrder(7)));
+    }
+
+    private static User user(int id, String firstName, String lastName, String city, String state,
+                             int age, boolean deleted) {
+        return User.builder()
+                .id(id)
+                .firstName(firstName)
+                .lastName(lastName)
+                .email("user" + id + "@hit.com")
+                .city(city)
+                .state(state)
+                .age(age)
+                .mobileNumber("98765" + id)
+                .gender("male")
+                .deleted(deleted)
+                .build();
+    }
+}
@@ -0,0 +1,191 @@
+package com.ishan.user_service.controller;
+
+import com.ishan.user_service.component.WebClientConfig;
+import com.ishan.user_service.component.randomUserReplay.RandomUserReplayFilter;
+import com.ishan.user_service.component.randomUserReplay.RandomUserReplayMode;
+import com.ishan.user_service.component.rateLimit.ImportJobCostTier;
+import com.ishan.user_service.component.rateLimit.ImportUsersRateLimitGuardService;
+import com.ishan.user_service.dto.UserDto;
+import com.ishan.user_service.exceptionHandler.GlobalExceptionHandler;
+import com.ishan.user_service.service.MockUserGeneratorService;
+import com.ishan.user_service.service.RandomUserClientService;
+import com.ishan.user_service.service.importPipeline.CsvUploadStagingService;
+import com.ishan.user_service.service.importPipeline.LocalCsvFileService;
+import com.ishan.user_service.service.importPipeline.dedup.EmailDeduplicator;
+import com.ishan.user_service.service.job.ImportUserJobTrackerService;
+import com.ishan.user_service.service.user.UserImportAsyncService;
+import com.ishan.user_service.service.user.UserImportService;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Plain unit test (no Spring context): the real WebClient of WebClientConfig (Reactor Netty, timeouts)
+// against a local stub of RandomUser, the controller in standalone MockMvc with the GlobalExceptionHandler.
+public class UserImportControllerTests {
+
+    private static final long RESPONSE_TIMEOUT_MS = 300;
+
+    private HttpServer server;
+    private volatile int upstreamStatus = 200;
+    private volatile long upstreamDelayMs = 0;
+
+    private final UserImportService userImportService = mock(UserImportService.class);
+    private final UserImportAsyncService userImportAsyncService = mock(UserImportAsyncService.class);
+    private final ImportUserJobTrackerService importUserJobTrackerService = mock(ImportUserJobTrackerService.class);
+    private final ImportUsersRateLimitGuardService rateLimitGuardService = mock(ImportUsersRateLimitGuardService.class);
+    private final CsvUploadStagingService csvUploadStagingService = mock(CsvUploadStagingService.class);
+    private final LocalCsvFileService localCsvFileService = mock(LocalCsvFileService.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void startStubAndController() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/", exchange -> {
+            try {
+                Thread.sleep(upstreamDelayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = ("{\"results\":["
+                    + "{\"name\":{\"first\":\"Ishan\",\"last\":\"One\"},\"email\":\"one@example.com\",\"dob\":{\"age\":30}},"
+                    + "{\"name\":{\"first\":\"Ishan\",\"last\":\"Two\"},\"email\":\"two@example.com\",\"dob\":{\"age\":31}}"
+                    + "],\"info\":{}}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(upstreamStatus, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        UserImportController controller = new UserImportController(userImportService,
+                new RandomUserClientService(webClient("http://localhost:" + server.getAddress().getPort())),
+                mock(MockUserGeneratorService.class), importUserJobTrackerService,
+                userImportAsyncService, rateLimitGuardService,
+                csvUploadStagingService, localCsvFileService, mock(EmailDeduplicator.class));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importBatch_shouldSaveTheDecodedUsers_andAnswerCreated() throws Exception {
+        MvcResult result = startAsync();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isCreated());
+
+        ArgumentCaptor<List<UserDto>> saved = ArgumentCaptor.forClass(List.class);
+        verify(userImportService).importMultipleUsersFromExternalSource(saved.capture());
+        assertThat(saved.getValue()).extracting(UserDto::getEmail).containsExactly("one@example.com", "two@example.com");
+    }
+
+    @Test
+    void importBatch_shouldAnswerBadGateway_whenUpstreamFails() throws Exception {
+        upstreamStatus = 503;
+
+        MvcResult result = startAsync();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadGateway())
+                .andExpect(jsonPath("$.error").value("External User Source Failed"));
+        verifyNoInteractions(userImportService);
+    }
+
+    @Test
+    void importBatch_shouldAnswerBadGateway_whenUpstreamTimesOut() throws Exception {
+        upstreamDelayMs = RESPONSE_TIMEOUT_MS * 5;
+
+        MvcResult result = startAsync();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadGateway())
+                .andExpect(jsonPath("$.error").value("External User Source Failed"));
+        verifyNoInteractions(userImportService);
+    }
+
+    @Test
+    void importCsv_shouldAnswer429AndUndoJob_whenImportExecutorIsSaturated() throws Exception {
+        Path staged = Path.of("staged-upload.csv");
+        when(csvUploadStagingService.stage(any())).thenReturn(new CsvUploadStagingService.StagedCsvFile(staged, 1200));
+        when(importUserJobTrackerService.createJob(anyString(), anyInt(), any())).thenReturn("job-1");
+        doThrow(new TaskRejectedException("full")).when(userImportAsyncService)
+                .runImportAsync(anyString(), anyString(), anyInt(), any(), any());
+
+        mockMvc.perform(multipart("/api/v1/users/import/csv")
+                        .file(new MockMultipartFile("file", "users.csv", "text/csv", new byte[0]))
+                        .header("X-USER-ID", "user-1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.error").value("Too Many Requests"));
+
+        verify(rateLimitGuardService).markJobFinished("user-1", "job-1", ImportJobCostTier.fromCount(1200));
+        verify(importUserJobTrackerService).markRejected(eq("job-1"), anyString());
+        verify(csvUploadStagingService).discard(staged.toString());
+    }
+
+    @Test
+    void importLocal_shouldAnswerBadRequest_whenEstimateDoesNotFitAnImportJob() throws Exception {
+        when(localCsvFileService.resolve("huge.csv")).thenReturn(Path.of("huge.csv"));
+        when(localCsvFileService.estimateRows(any())).thenReturn(Integer.MAX_VALUE + 1L);
+
+        mockMvc.perform(post("/api/v1/users/import/local")
+                        .param("file", "huge.csv")
+                        .header("X-USER-ID", "user-1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid Import File"));
+
+        verifyNoInteractions(rateLimitGuardService, importUserJobTrackerService, userImportAsyncService);
+    }
+
+    // Tomcat thread released (Mono return value) -> wait for the async result, then dispatch it
+    private MvcResult startAsync() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/v1/users/import/batch").param("count", "2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult(5000);
+        return result;
+    }
+
+    // Built exactly like the application's WebClient, with a short response timeout
+    private static WebClient webClient(String baseUrl) {
+        WebClientConfig config = new WebClientConfig();
+        ReflectionTestUtils.setField(config, "baseUrl", baseUrl);
+        ReflectionTestUtils.setField(config, "maxConnections", 5);
+        ReflectionTestUtils.setField(config, "pendingAcquireTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(config, "maxIdleTimeMs", 30000L);
+        ReflectionTestUtils.setField(config, "connectTimeoutMs", 1000);
+        ReflectionTestUtils.setField(config, "responseTimeoutMs", RESPONSE_TIMEOUT_MS);
+        return config.webClient(new RandomUserReplayFilter(RandomUserReplayMode.OFF, Path.of("unused"), 0, 0, false));
+    }
+}
@@ -0,0 +1,60 @@
+package com.ishan.user_service.mapper;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Plain unit test: same output as replaceAll("\\D", ""), plus an allocation-per-row comparison
+public class PhoneNumberNormalizerTests {
+
+    private static final String[] PHONES = {"(272) 790-0888", "98765-43210", "9876543210", "+91 98765 43210"};
+
+    @Test
+    void digitsOnly_shouldMatchTheRegex() {
+        for (String phone : new String[]{"(272) 790-0888", "+91 98765 43210", "9876543210", "", "abc", "\u0663\u0664-12", "1-2-3"}) {
+            assertThat(PhoneNumberNormalizer.digitsOnly(phone)).isEqualTo(phone.replaceAll("\\D", ""));
+        }
+        assertThat(PhoneNumberNormalizer.digitsOnly(null)).isNull();
+    }
+
+    @Test
+    void digitsOnly_shouldReturnTheSameString_whenItIsDigitsOnlyAlready() {
+        String digits = "9876543210";
+        assertThat(PhoneNumberNormalizer.digitsOnly(digits)).isSameAs(digits);
+    }
+
+    // Micro benchmark, measured with the JVM's per-thread allocation counter (HotSpot)
+    // Locally: regex ~880 bytes/row, digitsOnly ~40 bytes/row (only the result Strings)
+    @Test
+    void digitsOnly_shouldAllocateFarLessPerRow_thanTheRegex() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+
+        int rows = 200_000;
+        // Warm-up so the JIT has compiled both before measuring
+        bytesPerRow(phone -> phone.replaceAll("\\D", ""), rows);
+        bytesPerRow(PhoneNumberNormalizer::digitsOnly, rows);
+
+        long before = bytesPerRow(phone -> phone.replaceAll("\\D", ""), rows);
+        long after = bytesPerRow(PhoneNumberNormalizer::digitsOnly, rows);
+
+        assertThat(after).as("bytes per row: replaceAll=%d, digitsOnly=%d", before, after)
+                .isLessThan(before / 5);
+    }
+
+    private static long bytesPerRow(UnaryOperator<String> normalizer, int rows) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long digits = 0;
+        long start = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < rows; i++) {
+            digits += normalizer.apply(PHONES[i & 3]).length();
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - start;
+        assertThat(digits).isPositive();
+        return allocated / rows;
+    }
+}
@@ -0,0 +1,91 @@
+package com.ishan.user_service.mapper;
+
+import com.ishan.user_service.dto.UserDto;
+import com.ishan.user_service.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Plain unit test: the whole DTO -> entity mapping of one import row, plus its allocation per row
+public class UserDtoToUserMapperTests {
+
+    private static final UserDto[] ROWS = {
+            userDto("Ishan", "Von Rueden", "(272) 790-0888"),
+            userDto("Ann", "Lee", "98765-43210"),
+            userDto("Mary Ann", "O'Neil", "9876543210"),
+            userDto("Solo", null, "+91 98765 43210")};
+
+    @Test
+    void convertUserDtoToUser_shouldCopyEveryField_andKeepOnlyPhoneDigits() {
+        for (UserDto row : ROWS) {
+            User user = UserDtoToUserMapper.convertUserDtoToUser(row);
+            User regexMapped = mapWithRegex(row);
+
+            assertThat(user).usingRecursiveComparison().isEqualTo(regexMapped);
+            assertThat(user.getMobileNumber()).isEqualTo(row.getPhNum().replaceAll("\\D", ""));
+        }
+    }
+
+    // Micro benchmark of the FULL mapping (entity + Strings it creates), not just the phone normalizer,
+    // measured with the JVM's per-thread allocation counter (HotSpot).
+    // The entity itself and the phone digits String are the only allocations left per row.
+    @Test
+    void convertUserDtoToUser_shouldAllocateFarLessPerRow_thanTheRegexMapping() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+
+        int rows = 200_000;
+        // Warm-up so the JIT has compiled both before measuring
+        bytesPerRow(UserDtoToUserMapperTests::mapWithRegex, rows);
+        bytesPerRow(UserDtoToUserMapper::convertUserDtoToUser, rows);
+
+        long before = bytesPerRow(UserDtoToUserMapperTests::mapWithRegex, rows);
+        long after = bytesPerRow(UserDtoToUserMapper::convertUserDtoToUser, rows);
+
+        assertThat(after).as("bytes per row: regex mapping=%d, convertUserDtoToUser=%d", before, after)
+                .isLessThan(before / 3);
+    }
+
+    // The mapping as it was before PhoneNumberNormalizer (regex per row)
+    private static User mapWithRegex(UserDto userDto) {
+        User user = new User();
+        user.setAge(userDto.getAge());
+        user.setCity(userDto.getCity());
+        user.setGender(userDto.getGender());
+        user.setMobileNumber(userDto.getPhNum() == null ? null : userDto.getPhNum().replaceAll("\\D", ""));
+        user.setState(userDto.getState());
+        user.setEmail(userDto.getEmail());
+        user.setFirstName(userDto.getFirstName());
+        user.setLastName(userDto.getLastName());
+        return user;
+    }
+
+    private static long bytesPerRow(Function<UserDto, User> mapper, int rows) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long ages = 0;
+        long start = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < rows; i++) {
+            ages += mapper.apply(ROWS[i & 3]).getAge();
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - start;
+        assertThat(ages).isPositive();
+        return allocated / rows;
+    }
+
+    private static UserDto userDto(String firstName, String lastName, String phNum) {
+        UserDto userDto = new UserDto();
+        userDto.setFirstName(firstName);
+        userDto.setLastName(lastName);
+        userDto.setEmail(firstName.toLowerCase().replace(' ', '.') + "@hit.com");
+        userDto.setCity("Dehradun");
+        userDto.setState("uk");
+        userDto.setAge(28);
+        userDto.setGender("male");
+        userDto.setPhNum(phNum);
+        return userDto;
+    }
+}
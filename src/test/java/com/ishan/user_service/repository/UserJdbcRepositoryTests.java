@@ -0,0 +1,77 @@
+package com.ishan.user_service.repository;
+
+import com.ishan.user_service.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// JPA layer + the JDBC import repositories on in-memory H2.
+// NOT_SUPPORTED: every repository call commits on its own, like during a real import.
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import({UserIdGeneratorRepository.class, UserJdbcRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class UserJdbcRepositoryTests {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserIdGeneratorRepository userIdGeneratorRepository;
+
+    @Autowired
+    private UserJdbcRepository userJdbcRepository;
+
+    @Test
+    void jdbcInsertedUsers_shouldNeverCollideWithHibernateGeneratedIds(){
+        Set<Integer> ids = new HashSet<>();
+
+        // Hibernate first, then JDBC, then Hibernate again
+        ids.addAll(saveWithJpa("jpa-a", 3));
+
+        int[] jdbcIds = userIdGeneratorRepository.reserveIds(2500);
+        List<User> jdbcUsers = new ArrayList<>();
+        for (int i = 0; i < jdbcIds.length; i++) {
+            User user = createTestUser("jdbc" + i + "@hit.com");
+            user.setId(jdbcIds[i]);
+            jdbcUsers.add(user);
+        }
+        userJdbcRepository.batchInsert(jdbcUsers);
+        jdbcUsers.forEach(user -> ids.add(user.getId()));
+
+        ids.addAll(saveWithJpa("jpa-b", 1001));
+
+        assertThat(ids).hasSize(3 + 2500 + 1001);
+        assertThat(userRepository.count()).isEqualTo(3 + 2500 + 1001);
+    }
+
+    private List<Integer> saveWithJpa(String prefix, int count){
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            users.add(createTestUser(prefix + i + "@hit.com"));
+        }
+        return userRepository.saveAllAndFlush(users).stream().map(User::getId).toList();
+    }
+
+    private User createTestUser(String email){
+        return User.builder()
+                .firstName("testOne")
+                .age(28)
+                .email(email)
+                .city("ddun")
+                .state("uk")
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.ishan.user_service.service;
+
+import com.ishan.user_service.dto.UserDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MockUserGeneratorServiceTests {
+
+    private final MockUserGeneratorService fourWorkers = new MockUserGeneratorService(4);
+    private final MockUserGeneratorService oneWorker = new MockUserGeneratorService(1);
+
+    @AfterEach
+    void tearDown(){
+        fourWorkers.shutdown();
+        oneWorker.shutdown();
+    }
+
+    @Test
+    void sameSeedAndCount_shouldGenerateSameUsers_regardlessOfThreadsAndBatching(){
+        List<UserDto> inOneGo = fourWorkers.generateBatch(UserGeneratorMode.FAKER, 42L, 0, 500);
+
+        // Same rows, generated sequentially in uneven batches
+        List<UserDto> inBatches = new ArrayList<>();
+        inBatches.addAll(oneWorker.generateBatch(UserGeneratorMode.FAKER, 42L, 0, 123));
+        inBatches.addAll(oneWorker.generateBatch(UserGeneratorMode.FAKER, 42L, 123, 300));
+        inBatches.addAll(oneWorker.generateBatch(UserGeneratorMode.FAKER, 42L, 423, 77));
+
+        assertThat(inBatches).isEqualTo(inOneGo);
+    }
+
+    @Test
+    void differentSeed_shouldGenerateDifferentUsers(){
+        List<UserDto> first = fourWorkers.generateBatch(UserGeneratorMode.FAKER, 1L, 0, 50);
+        List<UserDto> second = fourWorkers.generateBatch(UserGeneratorMode.FAKER, 2L, 0, 50);
+
+        assertThat(first).doesNotContainNull();
+        assertThat(first).isNotEqualTo(second);
+    }
+
+    @Test
+    void dictionaryMode_shouldBeReproducibleAndProduceCompleteUsers(){
+        List<UserDto> first = fourWorkers.generateBatch(UserGeneratorMode.DICTIONARY, 7L, 1000, 200);
+        List<UserDto> again = oneWorker.generateBatch(UserGeneratorMode.DICTIONARY, 7L, 1000, 200);
+
+        assertThat(again).isEqualTo(first);
+        assertThat(first).allSatisfy(user -> {
+            assertThat(user.getFirstName()).isNotBlank();
+            assertThat(user.getLastName()).isNotBlank();
+            assertThat(user.getCity()).isNotBlank();
+            assertThat(user.getState()).isNotBlank();
+            assertThat(user.getAge()).isBetween(16, 98);
+            assertThat(user.getGender()).isIn("Male", "Female");
+            assertThat(user.getEmail()).matches("[a-z]+\\.[a-z]+\\d+@[a-z]+\\.com");
+            assertThat(user.getPhNum()).matches("[2-9]\\d{2}-\\d{3}-\\d{4}");
+        });
+    }
+}
@@ -0,0 +1,97 @@
+package com.ishan.user_service.service;
+
+import com.ishan.user_service.customExceptions.ExternalUserSourceException;
+import com.ishan.user_service.dto.UserDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RandomUserResultsDecoderTests {
+
+    private static final String RESPONSE = """
+            {"results":[
+              {"gender":"female","name":{"title":"Ms","first":"Aria","last":"Roy"},
+               "location":{"street":{"number":12,"name":"Main St"},"city":"Pune","state":"Maharashtra","coordinates":{"latitude":"1"}},
+               "email":"aria.roy@example.com","login":{"uuid":"x"},"dob":{"date":"1990-01-01","age":34},
+               "cell":"(981)-234-5678","picture":{"large":"a.jpg"}},
+              {"gender":"male","name":{"title":"Mr","first":"Ben","last":"O\\"Neil"},
+               "location":{"city":"Perth","state":"WA"},"email":"ben@example.com","dob":{"age":51},"cell":"0412 345 678"}
+            ],"info":{"seed":"abc","results":2,"page":1,"version":"1.4"}}
+            """;
+
+    @Test
+    void decode_shouldEmitUsersAsTheirObjectsComplete_whateverTheChunkBoundaries(){
+        // 7-byte chunks: tokens, strings and numbers are cut in the middle
+        RandomUserResultsDecoder decoder = new RandomUserResultsDecoder();
+        List<UserDto> users = new ArrayList<>();
+        for (DataBuffer chunk : chunks(RESPONSE, 7)) {
+            users.addAll(decoder.decode(chunk));
+        }
+        users.addAll(decoder.finish());
+
+        assertThat(users).hasSize(2);
+        UserDto aria = users.get(0);
+        assertThat(aria.getFirstName()).isEqualTo("Aria");
+        assertThat(aria.getLastName()).isEqualTo("Roy");
+        assertThat(aria.getCity()).isEqualTo("Pune");
+        assertThat(aria.getState()).isEqualTo("Maharashtra");
+        assertThat(aria.getAge()).isEqualTo(34);
+        assertThat(aria.getEmail()).isEqualTo("aria.roy@example.com");
+        assertThat(aria.getGender()).isEqualTo("female");
+        assertThat(aria.getPhNum()).isEqualTo("9812345678");
+        assertThat(users.get(1).getLastName()).isEqualTo("O\"Neil");
+        assertThat(users.get(1).getPhNum()).isEqualTo("0412345678");
+    }
+
+    @Test
+    void decode_shouldNotHoldCompletedUsers_betweenChunks(){
+        RandomUserResultsDecoder decoder = new RandomUserResultsDecoder();
+        int cut = RESPONSE.indexOf("{\"gender\":\"male\"");
+
+        // First user is emitted as soon as its object is complete, before the rest arrives
+        List<UserDto> first = decoder.decode(buffer(RESPONSE.substring(0, cut)));
+        assertThat(first).extracting(UserDto::getFirstName).containsExactly("Aria");
+        assertThat(decoder.decode(buffer(RESPONSE.substring(cut)))).extracting(UserDto::getFirstName).containsExactly("Ben");
+        assertThat(decoder.finish()).isEmpty();
+    }
+
+    @Test
+    void finish_shouldFail_whenResponseIsCutOff(){
+        RandomUserResultsDecoder decoder = new RandomUserResultsDecoder();
+        decoder.decode(buffer(RESPONSE.substring(0, RESPONSE.length() / 2)));
+
+        assertThatThrownBy(decoder::finish)
+                .isInstanceOf(ExternalUserSourceException.class);
+    }
+
+    @Test
+    void finish_shouldReportUpstreamError(){
+        RandomUserResultsDecoder decoder = new RandomUserResultsDecoder();
+        decoder.decode(buffer("{\"error\":\"Uh oh, something has gone wrong.\"}"));
+
+        assertThatThrownBy(decoder::finish)
+                .isInstanceOf(ExternalUserSourceException.class)
+                .hasMessageContaining("Uh oh, something has gone wrong.");
+    }
+
+    private List<DataBuffer> chunks(String json, int size){
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> chunks = new ArrayList<>();
+        for (int start = 0; start < bytes.length; start += size) {
+            chunks.add(DefaultDataBufferFactory.sharedInstance.wrap(Arrays.copyOfRange(bytes, start, Math.min(bytes.length, start + size))));
+        }
+        return chunks;
+    }
+
+    private DataBuffer buffer(String json){
+        return DefaultDataBufferFactory.sharedInstance.wrap(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
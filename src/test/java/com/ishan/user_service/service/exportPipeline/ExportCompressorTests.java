@@ -0,0 +1,175 @@
+package com.ishan.user_service.service.exportPipeline;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Plain unit test: Accept-Encoding negotiation + the off-thread compressing stream
+public class ExportCompressorTests {
+
+    // Tiny chunks so one export crosses many chunk hand-offs, ONE compressor thread
+    private final ExportCompressor exportCompressor = new ExportCompressor(1, 8 * 1024, 2, 1);
+
+    @AfterEach
+    void shutdown() {
+        exportCompressor.shutdown();
+    }
+
+    @Test
+    void negotiate_shouldPickTheBestAcceptedEncoding() {
+        assertThat(ExportEncoding.negotiate(null)).isEqualTo(ExportEncoding.IDENTITY);
+        assertThat(ExportEncoding.negotiate("gzip, deflate, br")).isEqualTo(ExportEncoding.GZIP);
+        assertThat(ExportEncoding.negotiate("gzip;q=0.5, deflate")).isEqualTo(ExportEncoding.DEFLATE);
+        assertThat(ExportEncoding.negotiate("br, zstd")).isEqualTo(ExportEncoding.IDENTITY);
+        assertThat(ExportEncoding.negotiate("*")).isEqualTo(ExportEncoding.GZIP);
+        assertThat(ExportEncoding.negotiate("gzip;q=0, *")).isEqualTo(ExportEncoding.DEFLATE);
+        assertThat(ExportEncoding.negotiate("identity, gzip;q=0.3")).isEqualTo(ExportEncoding.IDENTITY);
+    }
+
+    @Test
+    void wrap_shouldGzipEverythingWritten_andMakeEachFlushedBatchDecodable() throws IOException {
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        String firstBatch = rows(0, 500);
+        String secondBatch = rows(500, 3000);
+
+        OutputStream out = exportCompressor.wrap(response, ExportEncoding.GZIP);
+        out.write(firstBatch.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+        // Sync flush: the first batch can be decoded before the stream is finished
+        assertThat(awaitDecodable(response, firstBatch.length())).isEqualTo(firstBatch);
+
+        out.write(secondBatch.getBytes(StandardCharsets.UTF_8));
+        out.close();
+
+        String csv = new String(new GZIPInputStream(new ByteArrayInputStream(response.toByteArray())).readAllBytes(),
+                StandardCharsets.UTF_8);
+        assertThat(csv).isEqualTo(firstBatch + secondBatch);
+        assertThat(response.size()).isLessThan(csv.length() / 4);
+    }
+
+    @Test
+    void wrap_shouldDeflate_andLeaveIdentityUntouched() throws IOException {
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        String csv = rows(0, 2000);
+        try (OutputStream out = exportCompressor.wrap(response, ExportEncoding.DEFLATE)) {
+            out.write(csv.getBytes(StandardCharsets.UTF_8));
+        }
+        assertThat(new String(new InflaterInputStream(new ByteArrayInputStream(response.toByteArray())).readAllBytes(),
+                StandardCharsets.UTF_8)).isEqualTo(csv);
+
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        assertThat(exportCompressor.wrap(plain, ExportEncoding.IDENTITY)).isSameAs(plain);
+    }
+
+    @Test
+    void write_shouldFail_onceTheClientIsGone() throws IOException {
+        OutputStream brokenResponse = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+        OutputStream out = exportCompressor.wrap(brokenResponse, ExportEncoding.GZIP);
+
+        assertThatThrownBy(() -> {
+            byte[] batch = rows(0, 500).getBytes(StandardCharsets.UTF_8);
+            for (int i = 0; i < 1000; i++) {
+                out.write(batch);
+                out.flush();
+            }
+            out.close();
+        }).isInstanceOf(IOException.class).hasMessageContaining("Export compression failed");
+    }
+
+    @Test
+    void abort_shouldEndTheStreamWithoutTrailer_soTheTruncatedExportCannotBeDecoded() throws IOException {
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        String firstBatch = rows(0, 500);
+
+        OutputStream out = exportCompressor.wrap(response, ExportEncoding.GZIP);
+        out.write(firstBatch.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+        awaitDecodable(response, firstBatch.length());
+        // e.g. the DB query of the next batch failed
+        exportCompressor.abort(out);
+
+        assertThatThrownBy(() -> new GZIPInputStream(new ByteArrayInputStream(response.toByteArray())).readAllBytes())
+                .isInstanceOf(EOFException.class);
+        assertThatThrownBy(out::flush).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void wrap_shouldCompressOnTheCallingThread_whenAllCompressorThreadsAreBusy() throws IOException {
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+        String csv = rows(0, 2000);
+
+        // The only compressor thread belongs to the first export until it is closed
+        OutputStream firstOut = exportCompressor.wrap(first, ExportEncoding.GZIP);
+        OutputStream secondOut = exportCompressor.wrap(second, ExportEncoding.GZIP);
+        assertThat(secondOut).isNotInstanceOf(CompressingExportStream.class);
+
+        secondOut.write(csv.getBytes(StandardCharsets.UTF_8));
+        secondOut.close();
+        firstOut.write(csv.getBytes(StandardCharsets.UTF_8));
+        firstOut.close();
+
+        for (ByteArrayOutputStream response : List.of(first, second)) {
+            assertThat(new String(new GZIPInputStream(new ByteArrayInputStream(response.toByteArray())).readAllBytes(),
+                    StandardCharsets.UTF_8)).isEqualTo(csv);
+        }
+    }
+
+    @Test
+    void abort_shouldEndAnInlineStreamWithoutTrailer_too() throws IOException {
+        OutputStream busy = exportCompressor.wrap(new ByteArrayOutputStream(), ExportEncoding.GZIP);
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+
+        OutputStream out = exportCompressor.wrap(response, ExportEncoding.GZIP);
+        out.write(rows(0, 500).getBytes(StandardCharsets.UTF_8));
+        out.flush();
+        exportCompressor.abort(out);
+        busy.close();
+
+        assertThatThrownBy(() -> new GZIPInputStream(new ByteArrayInputStream(response.toByteArray())).readAllBytes())
+                .isInstanceOf(EOFException.class);
+    }
+
+    private static String rows(int from, int to) {
+        StringBuilder csv = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            csv.append(i).append(",User ").append(i).append(",30,male,Dehradun,Uttarakhand,user")
+                    .append(i).append("@example.com,98765").append(i).append('\n');
+        }
+        return csv.toString();
+    }
+
+    // Decodes the first length bytes from what has arrived so far (no gzip trailer yet),
+    // retrying while the compressor thread is still writing them
+    private static String awaitDecodable(ByteArrayOutputStream response, int length) throws IOException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (true) {
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(response.toByteArray()))) {
+                return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+            } catch (EOFException ex) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw ex;
+                }
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.ishan.user_service.service.exportPipeline;
+
+import com.ishan.user_service.model.User;
+import com.ishan.user_service.repository.UserJdbcRepository;
+import com.ishan.user_service.repository.UserRepository;
+import com.ishan.user_service.specification.UserSearchCriteria;
+import com.ishan.user_service.utility.CSVReadWriteUtility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Parallel export on in-memory H2, tiny segments so ordering + the LIMIT follow-up query are exercised.
+// NOT_SUPPORTED: the rows must be committed, the fetch threads use their own connections.
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import({ParallelCsvExporter.class, UserJdbcRepository.class})
+@TestPropertySource(properties = {"export.parallel.fetch-threads=3", "export.parallel.batch-size=7"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ParallelCsvExporterTests {
+
+    @Autowired
+    private ParallelCsvExporter parallelCsvExporter;
+
+    @Autowired
+    private UserJdbcRepository userJdbcRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void cleanTable() {
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void export_shouldWriteEveryUserOnce_inIdOrder_acrossSparseAndDenseIdRanges() throws Exception {
+        List<User> users = insertSparseAndDenseUsers();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = parallelCsvExporter.export(out, UserSearchCriteria.none());
+
+        assertThat(exported).isEqualTo(users.size());
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(expectedCsv(users));
+    }
+
+    @Test
+    void export_shouldWriteOnlyMatchingUsers_inIdOrder_whenFiltered() throws Exception {
+        List<User> users = insertSparseAndDenseUsers();
+        UserSearchCriteria criteria = new UserSearchCriteria("LAST, 5", null, 30, 40, "DDU", null, false);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = parallelCsvExporter.export(out, criteria);
+
+        List<User> matching = users.stream()
+                .filter(user -> (user.getFirstName() + " " + user.getLastName()).toLowerCase().contains("last, 5"))
+                .filter(user -> user.getAge() >= 30 && user.getAge() <= 40)
+                .filter(user -> !user.isDeleted())
+                .toList();
+        assertThat(matching).isNotEmpty();
+        assertThat(exported).isEqualTo(matching.size());
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(expectedCsv(matching));
+    }
+
+    @Test
+    void export_shouldWriteOnlyTheHeader_whenThereAreNoUsers() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThat(parallelCsvExporter.export(out, UserSearchCriteria.none())).isZero();
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(CSVReadWriteUtility.getCSVHeader());
+    }
+
+    // Sparse ids 1, 41, 81 ... (wide segments) + a dense block much bigger than batch-size
+    // (follow-up queries), inserted shuffled: the order must come from the export
+    private List<User> insertSparseAndDenseUsers() {
+        List<User> users = new ArrayList<>();
+        for (int id = 1; id < 2000; id += 40) {
+            users.add(createTestUser(id));
+        }
+        for (int id = 5000; id < 5300; id++) {
+            users.add(createTestUser(id));
+        }
+        List<User> shuffled = new ArrayList<>(users);
+        Collections.shuffle(shuffled, new Random(7));
+        userJdbcRepository.batchInsert(shuffled);
+        return users;
+    }
+
+    private static String expectedCsv(List<User> users) {
+        StringBuilder expected = new StringBuilder(CSVReadWriteUtility.getCSVHeader());
+        for (User user : users) {
+            expected.append(CSVReadWriteUtility.toCsvRow(user)).append('\n');
+        }
+        return expected.toString();
+    }
+
+    private User createTestUser(int id) {
+        return User.builder()
+                .id(id)
+                .firstName("first" + id)
+                .lastName("last, " + id)
+                .email("export" + id + "@hit.com")
+                .city("ddun")
+                .state("uk")
+                .age(20 + id % 50)
+                .mobileNumber("98765" + id)
+                .gender(id % 2 == 0 ? "male" : "female")
+                .deleted(id % 3 == 0)
+                .build();
+    }
+}
@@ -0,0 +1,50 @@
+package com.ishan.user_service.service.importPipeline;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveBatchSizerTests {
+
+    private static final long MS = 1_000_000;
+
+    // window of 2 commits, target latency 500ms, bounds 200..4000
+    private final AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(true, 1000, 200, 4000, 500, 2, 3);
+
+    @Test
+    void fastCommits_shouldGrowBatchSize_untilThroughputStopsImproving(){
+        commitWindow(1000, 100);                      // 10k rows/sec -> best so far
+        assertThat(sizer.currentBatchSize()).isEqualTo(1500);
+
+        commitWindow(1500, 150);                      // still 10k rows/sec -> no gain
+        assertThat(sizer.currentBatchSize()).isEqualTo(1000);
+        assertThat(sizer.history()).last().asString().contains("1500 -> 1000");
+    }
+
+    @Test
+    void slowCommit_shouldHalveBatchSize_butNotBelowMinimum(){
+        commitWindow(1000, 800);
+        assertThat(sizer.currentBatchSize()).isEqualTo(500);
+
+        commitWindow(500, 700);
+        commitWindow(250, 700);
+        assertThat(sizer.currentBatchSize()).isEqualTo(200);
+        assertThat(sizer.history()).last().asString().contains("> target 500ms");
+    }
+
+    @Test
+    void commitsOfAnOldBatchSize_shouldBeIgnored(){
+        commitWindow(1000, 100);
+        assertThat(sizer.currentBatchSize()).isEqualTo(1500);
+
+        // batches built before the change are still in flight
+        assertThat(sizer.recordCommit(1000, 5000 * MS)).isFalse();
+        assertThat(sizer.recordCommit(1000, 5000 * MS)).isFalse();
+        assertThat(sizer.currentBatchSize()).isEqualTo(1500);
+    }
+
+    private void commitWindow(int rows, long latencyMillis){
+        sizer.recordCommit(rows, latencyMillis * MS);
+        sizer.recordCommit(rows, latencyMillis * MS);
+    }
+}
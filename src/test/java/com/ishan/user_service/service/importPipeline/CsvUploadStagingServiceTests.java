@@ -0,0 +1,90 @@
+package com.ishan.user_service.service.importPipeline;
+
+import com.ishan.user_service.dto.ImportUserJobInfoDto;
+import com.ishan.user_service.model.ImportJob;
+import com.ishan.user_service.repository.ImportJobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Retention sweep of staged uploads on in-memory H2, staging dir = a temp folder.
+// retention-minutes=60, files are aged by setting their modification time.
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import(CsvUploadStagingService.class)
+@TestPropertySource(properties = "import.csv-upload.retention-minutes=60")
+public class CsvUploadStagingServiceTests {
+
+    @TempDir
+    static Path stagingDir;
+
+    @DynamicPropertySource
+    static void stagingProperties(DynamicPropertyRegistry registry) {
+        registry.add("import.csv-upload.staging-dir", () -> stagingDir.toString());
+    }
+
+    @Autowired
+    private CsvUploadStagingService csvUploadStagingService;
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    @BeforeEach
+    void cleanJobs() {
+        importJobRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void expireOldUploads_shouldDeleteOldUploads_butKeepFilesOfRunningJobs() throws Exception {
+        Path abandoned = stagedFile("users-upload-abandoned.csv", Duration.ofHours(3));
+        Path running = stagedFile("users-upload-running.csv", Duration.ofHours(3));
+        Path recent = stagedFile("users-upload-recent.csv", Duration.ofMinutes(5));
+        // Not one of ours (shared temp dir)
+        Path foreign = stagedFile("someone-else.csv", Duration.ofHours(3));
+        saveJob("job-running", running, ImportUserJobInfoDto.ImportStatus.IN_PROGRESS);
+        saveJob("job-paused", abandoned, ImportUserJobInfoDto.ImportStatus.PAUSED);
+
+        csvUploadStagingService.expireOldUploads();
+
+        assertThat(abandoned).doesNotExist();
+        assertThat(running).exists();
+        assertThat(recent).exists();
+        assertThat(foreign).exists();
+    }
+
+    private Path stagedFile(String name, Duration age) throws Exception {
+        Path file = Files.writeString(stagingDir.resolve(name), "id,name\n");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(age)));
+        return file;
+    }
+
+    private void saveJob(String jobId, Path sourceFile, ImportUserJobInfoDto.ImportStatus status) {
+        importJobRepository.save(ImportJob.builder()
+                .jobId(jobId)
+                .userId("user-1")
+                .requestedCount(10)
+                .engine(ImportPersistenceEngine.JDBC)
+                .sourceType(ImportSourceType.CSV_UPLOAD)
+                .sourceFile(sourceFile.toString())
+                .status(status)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+}
@@ -0,0 +1,123 @@
+package com.ishan.user_service.service.importPipeline;
+
+import com.ishan.user_service.dto.UserDto;
+import com.ishan.user_service.model.User;
+import com.ishan.user_service.utility.CSVReadWriteUtility;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Plain unit test: reads files written with CSVReadWriteUtility, i.e. what our export produces
+public class CsvUserImportSourceTests {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void nextBatch_shouldReadBackExportedRows_includingQuotedValues() throws Exception {
+        Path csv = writeCsv(
+                user(1, "Ishan", "Von Rueden", "ishan@hit.com", "Dehradun"),
+                // comma, quote and line break inside values
+                user(2, "Ann", "O\"Neil", "ann@hit.com", "St. John's, NL"),
+                user(3, "Solo", null, "solo@hit.com", "Line\nBreak"));
+
+        List<ImportBatch> batches = readAll(new CsvUserImportSource(csv, 3, new RangeSet()), 2);
+
+        assertThat(batches).extracting(ImportBatch::startPosition).containsExactly(0L, 2L);
+        List<UserDto> users = batches.stream().flatMap(batch -> batch.users().stream()).toList();
+        assertThat(users).extracting(UserDto::getFirstName).containsExactly("Ishan", "Ann", "Solo");
+        assertThat(users.get(0).getLastName()).isEqualTo("Von Rueden");
+        assertThat(users.get(0).getAge()).isEqualTo(28);
+        assertThat(users.get(1).getLastName()).isEqualTo("O\"Neil");
+        assertThat(users.get(1).getCity()).isEqualTo("St. John's, NL");
+        assertThat(users.get(2).getLastName()).isNull();
+        assertThat(users.get(2).getCity()).isEqualTo("Line\nBreak");
+        assertThat(users.get(2).getPhNum()).isEqualTo("9876543210");
+    }
+
+    @Test
+    void nextBatch_shouldSkipCommittedRows_whenResuming() throws Exception {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            users.add(user(i, "user" + i, "last", "user" + i + "@hit.com", "ddun"));
+        }
+        Path csv = writeCsv(users.toArray(User[]::new));
+        RangeSet committed = new RangeSet();
+        committed.add(0, 4);
+        committed.add(6, 8);
+
+        List<ImportBatch> batches = readAll(new CsvUserImportSource(csv, 10, committed), 5);
+
+        assertThat(batches).extracting(ImportBatch::startPosition).containsExactly(4L, 8L);
+        assertThat(batches.stream().flatMap(batch -> batch.users().stream()).map(UserDto::getFirstName))
+                .containsExactly("user4", "user5", "user8", "user9");
+    }
+
+    @Test
+    void nextBatch_shouldReportLine_whenRowIsInvalid() throws Exception {
+        Path csv = tempDir.resolve("broken.csv");
+        Files.writeString(csv, CSVReadWriteUtility.getCSVHeader()
+                + "1,Ishan Rawat,28,male,ddun,uk,ishan@hit.com,9876543210\n"
+                + "2,Ann Lee,28,female,ddun\n", StandardCharsets.UTF_8);
+
+        try (CsvUserImportSource source = new CsvUserImportSource(csv, 2, new RangeSet())) {
+            assertThatThrownBy(() -> source.nextBatch(10))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("line 3")
+                    .hasMessageContaining("expected 8 columns, found 5");
+        }
+    }
+
+    @Test
+    void constructor_shouldRejectFileWithoutUsersHeader() throws Exception {
+        Path csv = tempDir.resolve("other.csv");
+        Files.writeString(csv, "a,b,c\n1,2,3\n", StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> new CsvUserImportSource(csv, 1, new RangeSet()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Not a users CSV");
+    }
+
+    private List<ImportBatch> readAll(CsvUserImportSource source, int batchSize) throws Exception {
+        List<ImportBatch> batches = new ArrayList<>();
+        try (source) {
+            ImportBatch batch;
+            while ((batch = source.nextBatch(batchSize)) != null) {
+                batches.add(batch);
+            }
+        }
+        return batches;
+    }
+
+    private Path writeCsv(User... users) throws Exception {
+        StringBuilder csv = new StringBuilder(CSVReadWriteUtility.getCSVHeader());
+        for (User user : users) {
+            csv.append(CSVReadWriteUtility.toCsvRow(user)).append('\n');
+        }
+        Path file = tempDir.resolve("users.csv");
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private User user(int id, String firstName, String lastName, String email, String city){
+        return User.builder()
+                .id(id)
+                .firstName(firstName)
+                .lastName(lastName)
+                .email(email)
+                .city(city)
+                .state("uk")
+                .age(28)
+                .gender("male")
+                .mobileNumber("9876543210")
+                .build();
+    }
+}
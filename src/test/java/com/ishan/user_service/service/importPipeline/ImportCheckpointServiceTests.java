@@ -0,0 +1,79 @@
+package com.ishan.user_service.service.importPipeline;
+
+import com.ishan.user_service.model.User;
+import com.ishan.user_service.repository.ImportJobCheckpointRepository;
+import com.ishan.user_service.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Checkpoint rows + users on in-memory H2.
+// NOT_SUPPORTED: every batch commits (or rolls back) on its own, like during a real import.
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import(ImportCheckpointService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ImportCheckpointServiceTests {
+
+    @Autowired
+    private ImportCheckpointService importCheckpointService;
+
+    @Autowired
+    private ImportJobCheckpointRepository importJobCheckpointRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void commitBatch_shouldRollBackCheckpointWithUsers_whenWriteFails(){
+        long usersBefore = userRepository.count();
+        importCheckpointService.commitBatch("job-a", batch(0, 0, 2), () -> saveUser("a0@hit.com"));
+
+        assertThatThrownBy(() -> importCheckpointService.commitBatch("job-a", batch(1, 2, 4), () -> {
+            saveUser("a2@hit.com");
+            throw new IllegalStateException("DB down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        // Only the first batch landed: its user AND its checkpoint, nothing of the second one
+        assertThat(userRepository.count()).isEqualTo(usersBefore + 1);
+        assertThat(importJobCheckpointRepository.findByJobId("job-a")).hasSize(1);
+    }
+
+    @Test
+    void load_shouldRebuildCommittedPositionsAndNextBatchNumber(){
+        importCheckpointService.commitBatch("job-b", batch(0, 0, 2), () -> {});
+        importCheckpointService.commitBatch("job-b", batch(2, 4, 6), () -> {});
+        importCheckpointService.commitBatch("job-other", batch(0, 0, 2), () -> {});
+
+        ImportCheckpoint checkpoint = importCheckpointService.load("job-b");
+
+        assertThat(checkpoint.committedRows()).isEqualTo(4);
+        assertThat(checkpoint.committedPositions().toString()).isEqualTo("0-1,4-5");
+        assertThat(checkpoint.committedBatchNumbers().toString()).isEqualTo("0,2");
+        assertThat(checkpoint.nextBatchNumber()).isEqualTo(3);
+        assertThat(importCheckpointService.load("job-new").isEmpty()).isTrue();
+    }
+
+    // Batch of (end - start) placeholder rows; only positions matter for the checkpoint
+    private ImportBatch batch(int batchNumber, long start, long end){
+        return new ImportBatch(batchNumber, start, end, List.of());
+    }
+
+    private void saveUser(String email){
+        User user = new User();
+        user.setFirstName("Checkpoint");
+        user.setAge(30);
+        user.setEmail(email);
+        userRepository.save(user);
+    }
+}
@@ -0,0 +1,73 @@
+package com.ishan.user_service.service.importPipeline;
+
+import com.ishan.user_service.customExceptions.InvalidImportFileException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Plain unit test: base dir and an "outside" dir inside one temp folder
+public class LocalCsvFileServiceTests {
+
+    @TempDir
+    Path tempDir;
+
+    private Path baseDir;
+    private Path outsideDir;
+    private LocalCsvFileService localCsvFileService;
+
+    @BeforeEach
+    void createDirs() throws Exception {
+        baseDir = Files.createDirectories(tempDir.resolve("imports"));
+        outsideDir = Files.createDirectories(tempDir.resolve("secret"));
+        localCsvFileService = new LocalCsvFileService(baseDir.toString(), 64 * 1024, 1, 4 * 1024 * 1024);
+    }
+
+    @AfterEach
+    void stopParsers(){
+        localCsvFileService.shutdown();
+    }
+
+    @Test
+    void resolve_shouldReturnTheRealPath_ofAFileInsideTheBaseDir() throws Exception {
+        Path file = Files.writeString(baseDir.resolve("nightly.csv"), "id,name\n");
+
+        assertThat(localCsvFileService.resolve("nightly.csv")).isEqualTo(file.toRealPath());
+    }
+
+    @Test
+    void resolve_shouldReject_pathsLeavingTheBaseDir() throws Exception {
+        Files.writeString(outsideDir.resolve("passwords.csv"), "id,name\n");
+
+        assertThatThrownBy(() -> localCsvFileService.resolve("../secret/passwords.csv"))
+                .isInstanceOf(InvalidImportFileException.class)
+                .hasMessageContaining("inside the import directory");
+    }
+
+    @Test
+    void resolve_shouldReject_symlinksPointingOutOfTheBaseDir() throws Exception {
+        Path secret = Files.writeString(outsideDir.resolve("passwords.csv"), "id,name\n");
+        Files.createSymbolicLink(baseDir.resolve("innocent.csv"), secret);
+        Files.createSymbolicLink(baseDir.resolve("linked-dir"), outsideDir);
+
+        assertThatThrownBy(() -> localCsvFileService.resolve("innocent.csv"))
+                .isInstanceOf(InvalidImportFileException.class)
+                .hasMessageContaining("inside the import directory");
+        assertThatThrownBy(() -> localCsvFileService.resolve("linked-dir/passwords.csv"))
+                .isInstanceOf(InvalidImportFileException.class)
+                .hasMessageContaining("inside the import directory");
+    }
+
+    @Test
+    void resolve_shouldReject_missingFiles(){
+        assertThatThrownBy(() -> localCsvFileService.resolve("missing.csv"))
+                .isInstanceOf(InvalidImportFileException.class)
+                .hasMessageContaining("No readable file");
+    }
+}
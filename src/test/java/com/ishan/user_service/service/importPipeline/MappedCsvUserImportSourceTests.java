@@ -0,0 +1,124 @@
+package com.ishan.user_service.service.importPipeline;
+
+import com.ishan.user_service.dto.UserDto;
+import com.ishan.user_service.model.User;
+import com.ishan.user_service.utility.CSVReadWriteUtility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Plain unit test: tiny chunks so one file is split into many chunks parsed in parallel
+public class MappedCsvUserImportSourceTests {
+
+    @TempDir
+    Path tempDir;
+
+    private final ExecutorService parserPool = Executors.newFixedThreadPool(3);
+
+    @AfterEach
+    void stopParsers(){
+        parserPool.shutdownNow();
+    }
+
+    @Test
+    void nextBatch_shouldReturnSameRowsInFileOrder_asStreamingSource() throws Exception {
+        Path csv = writeCsv(2000, "\n");
+
+        List<ImportBatch> mapped = readAll(new MappedCsvUserImportSource(csv, 2000, new RangeSet(), 512, parserPool, 4), 300);
+        List<ImportBatch> streamed = readAll(new CsvUserImportSource(csv, 2000, new RangeSet()), 300);
+
+        assertThat(mapped).extracting(ImportBatch::startPosition).containsExactlyElementsOf(
+                streamed.stream().map(ImportBatch::startPosition).toList());
+        assertThat(users(mapped)).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(users(streamed));
+        assertThat(users(mapped).get(7).getCity()).isEqualTo("City, 7");
+        assertThat(users(mapped).get(7).getLastName()).isEqualTo("O\"Neil");
+    }
+
+    @Test
+    void nextBatch_shouldHandleCrLfLineEnds() throws Exception {
+        Path csv = writeCsv(50, "\r\n");
+
+        List<UserDto> users = users(readAll(new MappedCsvUserImportSource(csv, 50, new RangeSet(), 256, parserPool, 2), 20));
+
+        assertThat(users).hasSize(50);
+        assertThat(users.get(49).getPhNum()).isEqualTo("9876543210");
+        assertThat(users.get(49).getAge()).isEqualTo(49);
+    }
+
+    @Test
+    void nextBatch_shouldSkipCommittedRows_whenResuming() throws Exception {
+        Path csv = writeCsv(100, "\n");
+        RangeSet committed = new RangeSet();
+        committed.add(0, 40);
+        committed.add(50, 95);
+
+        List<ImportBatch> batches = readAll(new MappedCsvUserImportSource(csv, 100, committed, 300, parserPool, 2), 30);
+
+        assertThat(batches).extracting(ImportBatch::startPosition).containsExactly(40L, 95L);
+        assertThat(batches).extracting(ImportBatch::endPosition).containsExactly(50L, 100L);
+        assertThat(users(batches).getFirst().getFirstName()).isEqualTo("user40");
+    }
+
+    @Test
+    void nextBatch_shouldReportByteOffset_whenRowIsInvalid() throws Exception {
+        Path csv = tempDir.resolve("broken.csv");
+        String header = CSVReadWriteUtility.getCSVHeader();
+        Files.writeString(csv, header + "1,Ishan Rawat,abc,male,ddun,uk,ishan@hit.com,9876543210\n", StandardCharsets.UTF_8);
+
+        try (MappedCsvUserImportSource source = new MappedCsvUserImportSource(csv, 1, new RangeSet(), 1024, parserPool, 2)) {
+            assertThatThrownBy(() -> source.nextBatch(10))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("byte offset " + header.length())
+                    .hasMessageContaining("age is not a number");
+        }
+    }
+
+    private List<ImportBatch> readAll(UserImportSource source, int batchSize) throws Exception {
+        List<ImportBatch> batches = new ArrayList<>();
+        try (source) {
+            ImportBatch batch;
+            while ((batch = source.nextBatch(batchSize)) != null) {
+                batches.add(batch);
+            }
+        }
+        return batches;
+    }
+
+    private List<UserDto> users(List<ImportBatch> batches){
+        return batches.stream().flatMap(batch -> batch.users().stream()).toList();
+    }
+
+    // Every 7th row has a comma and a quote inside values
+    private Path writeCsv(int rows, String lineEnd) throws Exception {
+        StringBuilder csv = new StringBuilder(CSVReadWriteUtility.getCSVHeader().strip()).append(lineEnd);
+        for (int i = 0; i < rows; i++) {
+            boolean quoted = i % 7 == 0;
+            User user = User.builder()
+                    .id(i + 1)
+                    .firstName("user" + i)
+                    .lastName(quoted ? "O\"Neil" : i % 5 == 0 ? null : "last" + i)
+                    .email("user" + i + "@hit.com")
+                    .city(quoted ? "City, " + i : "ddun")
+                    .state("uk")
+                    .age(i)
+                    .gender("male")
+                    .mobileNumber("9876543210")
+                    .build();
+            csv.append(CSVReadWriteUtility.toCsvRow(user)).append(lineEnd);
+        }
+        Path file = tempDir.resolve("users.csv");
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+        return file;
+    }
+}
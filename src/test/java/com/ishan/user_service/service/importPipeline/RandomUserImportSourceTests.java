@@ -0,0 +1,177 @@
+package com.ishan.user_service.service.importPipeline;
+
+import com.ishan.user_service.customExceptions.ExternalUserSourceException;
+import com.ishan.user_service.dto.UserDto;
+import com.ishan.user_service.service.RandomUserClientService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+// Plain unit test against a local stub of RandomUser (JDK HttpServer), never the real API
+public class RandomUserImportSourceTests {
+
+    private HttpServer server;
+    private RandomUserClientService client;
+
+    // page -> status codes to answer before serving the page normally
+    private final Map<Integer, Queue<Integer>> failures = new ConcurrentHashMap<>();
+    private final Queue<Integer> requestedPages = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/", this::answer);
+        server.start();
+        client = new RandomUserClientService(WebClient.builder()
+                .baseUrl("http://localhost:" + server.getAddress().getPort())
+                .build());
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void nextBatch_shouldReturnAllPagesInOrder_evenWhenFetchedConcurrentlyAndRetried() throws Exception {
+        // Page 2 fails once with a 503 -> retried, still handed out after page 1
+        failures.put(2, new ConcurrentLinkedQueue<>(List.of(503)));
+
+        List<ImportBatch> batches = readAll(factory(5, 3).create(12, 42L, new RangeSet()), 4);
+
+        assertThat(emails(batches)).containsExactlyElementsOf(expectedEmails(0, 12, 5));
+        for (ImportBatch batch : batches) {
+            assertThat(batch.endPosition() - batch.startPosition()).isEqualTo(batch.size());
+        }
+        assertThat(batches.get(batches.size() - 1).endPosition()).isEqualTo(12);
+        // 3 pages (the last one shorter) + 1 retry
+        assertThat(requests.get()).isEqualTo(4);
+    }
+
+    @Test
+    void nextBatch_shouldFetchOnlyMissingPages_andNeverSpanCommittedRows_onResume() throws Exception {
+        RangeSet committed = new RangeSet();
+        committed.add(0, 5);   // page 0 fully committed -> not requested
+        committed.add(7, 9);   // inside page 1
+
+        List<ImportBatch> batches = readAll(factory(5, 2).create(12, 42L, committed), 10);
+
+        assertThat(requestedPages).containsExactlyInAnyOrder(2, 3);
+        assertThat(batches).extracting(ImportBatch::startPosition, ImportBatch::endPosition)
+                .containsExactly(
+                        tuple(5L, 7L),
+                        tuple(9L, 12L));
+        List<String> expected = new ArrayList<>(expectedEmails(5, 7, 5));
+        expected.addAll(expectedEmails(9, 12, 5));
+        assertThat(emails(batches)).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void nextBatch_shouldFailWithoutRetry_onClientError() throws Exception {
+        failures.put(1, new ConcurrentLinkedQueue<>(List.of(400)));
+
+        try (RandomUserImportSource source = factory(5, 1).create(5, 42L, new RangeSet())) {
+            assertThatThrownBy(() -> source.nextBatch(5)).isInstanceOf(RuntimeException.class);
+        }
+        assertThat(requests.get()).isEqualTo(1);
+    }
+
+    @Test
+    void nextBatch_shouldFailTheJob_whenRetriesAreExhausted() throws Exception {
+        failures.put(1, new ConcurrentLinkedQueue<>(List.of(500, 500, 500, 500)));
+
+        try (RandomUserImportSource source = factory(5, 1).create(5, 42L, new RangeSet())) {
+            assertThatThrownBy(() -> source.nextBatch(5)).isInstanceOf(ExternalUserSourceException.class);
+        }
+        // first attempt + 2 retries
+        assertThat(requests.get()).isEqualTo(3);
+    }
+
+    private RandomUserImportSourceFactory factory(int pageSize, int concurrency) {
+        return new RandomUserImportSourceFactory(client, pageSize, concurrency, 2, 1, 5);
+    }
+
+    private static List<ImportBatch> readAll(RandomUserImportSource source, int maxRows) throws Exception {
+        List<ImportBatch> batches = new ArrayList<>();
+        try (source) {
+            ImportBatch batch;
+            while ((batch = source.nextBatch(maxRows)) != null) {
+                batches.add(batch);
+            }
+        }
+        return batches;
+    }
+
+    private static List<String> emails(List<ImportBatch> batches) {
+        return batches.stream().flatMap(batch -> batch.users().stream()).map(UserDto::getEmail).toList();
+    }
+
+    // Row position -> email the stub serves for it (pages are 1-based on the wire)
+    private static List<String> expectedEmails(long from, long to, int pageSize) {
+        List<String> emails = new ArrayList<>();
+        for (long position = from; position < to; position++) {
+            emails.add("user-" + (position / pageSize + 1) + "-" + (position % pageSize) + "@example.com");
+        }
+        return emails;
+    }
+
+    private void answer(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        Map<String, String> query = new HashMap<>();
+        for (String pair : exchange.getRequestURI().getRawQuery().split("&")) {
+            String[] keyValue = pair.split("=", 2);
+            query.put(keyValue[0], keyValue.length > 1 ? keyValue[1] : "");
+        }
+        int page = Integer.parseInt(query.get("page"));
+        int results = Integer.parseInt(query.get("results"));
+
+        Integer failure = failures.getOrDefault(page, new ConcurrentLinkedQueue<>()).poll();
+        if (failure != null) {
+            send(exchange, failure, "{\"error\":\"stub failure\"}");
+            return;
+        }
+        requestedPages.add(page);
+        StringBuilder body = new StringBuilder("{\"results\":[");
+        for (int i = 0; i < results; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append("{\"gender\":\"female\",\"name\":{\"first\":\"F").append(i)
+                    .append("\",\"last\":\"L\"},\"location\":{\"city\":\"Pune\",\"state\":\"MH\"},")
+                    .append("\"email\":\"user-").append(page).append('-').append(i).append("@example.com\",")
+                    .append("\"dob\":{\"age\":30},\"cell\":\"123\"}");
+        }
+        body.append("],\"info\":{\"seed\":\"").append(query.get("seed")).append("\",\"page\":").append(page).append("}}");
+        send(exchange, 200, body.toString());
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
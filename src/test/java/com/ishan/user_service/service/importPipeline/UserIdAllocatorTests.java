@@ -0,0 +1,113 @@
+package com.ishan.user_service.service.importPipeline;
+
+import com.ishan.user_service.model.User;
+import com.ishan.user_service.repository.UserIdBlockRepository;
+import com.ishan.user_service.repository.UserIdGeneratorRepository;
+import com.ishan.user_service.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Allocator + id_generator on in-memory H2, NOT_SUPPORTED so every reservation commits like in a real import
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import({UserIdBlockRepository.class, UserIdGeneratorRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class UserIdAllocatorTests {
+
+    @Autowired
+    private UserIdBlockRepository userIdBlockRepository;
+
+    // NOT the context's singleton: blocks and counters left over by another test would change how many
+    // reservations this one needs. The id_generator row is still shared, like between nodes.
+    private UserIdAllocator userIdAllocator;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void newAllocator(){
+        userIdAllocator = new UserIdAllocator(userIdBlockRepository, 10000, 1_000_000);
+    }
+
+    @Test
+    void allocatedRanges_shouldNeverCollideWithHibernateGeneratedIds(){
+        Set<Integer> ids = new HashSet<>();
+
+        // Hibernate, a whole job reserved up front, Hibernate again, then a refill past the reservation
+        ids.addAll(saveWithJpa("jpa-a", 3));
+        userIdAllocator.reserveAhead(2500);
+        addRange(ids, userIdAllocator.allocate(1500), 1500);
+        ids.addAll(saveWithJpa("jpa-b", 1001));
+        addRange(ids, userIdAllocator.allocate(1000), 1000);
+        addRange(ids, userIdAllocator.allocate(700), 700);
+        ids.addAll(saveWithJpa("jpa-c", 5));
+
+        assertThat(ids).hasSize(3 + 1500 + 1001 + 1000 + 700 + 5);
+        assertThat(userIdAllocator.stats().getDbReservations()).isEqualTo(2);
+    }
+
+    @Test
+    void allocate_shouldHandOutDisjointRanges_whenWritersRaceForTheSameBlocks() throws Exception {
+        userIdAllocator.reserveAhead(5000);
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+
+        ExecutorService writers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int writer = 0; writer < 4; writer++) {
+                results.add(writers.submit(() -> {
+                    for (int batch = 0; batch < 50; batch++) {
+                        addRange(ids, userIdAllocator.allocate(97), 97);
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            writers.shutdownNow();
+        }
+
+        assertThat(ids).hasSize(4 * 50 * 97);
+        assertThat(userIdAllocator.stats().getAllocations()).isEqualTo(4 * 50);
+    }
+
+    // Fails the test on the first ID handed out twice
+    private void addRange(Set<Integer> ids, int firstId, int count){
+        for (int id = firstId; id < firstId + count; id++) {
+            assertThat(ids.add(id)).as("duplicate id %d", id).isTrue();
+        }
+    }
+
+    private List<Integer> saveWithJpa(String prefix, int count){
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            users.add(User.builder()
+                    .firstName("testOne")
+                    .age(28)
+                    .email(prefix + i + "@hit.com")
+                    .city("ddun")
+                    .state("uk")
+                    .build());
+        }
+        return userRepository.saveAllAndFlush(users).stream().map(User::getId).toList();
+    }
+}
@@ -0,0 +1,346 @@
+package com.ishan.user_service.service.importPipeline;
+
+import com.ishan.user_service.component.rateLimit.ImportJobCostTier;
+import com.ishan.user_service.customExceptions.BatchImportFailedException;
+import com.ishan.user_service.customExceptions.ImportJobStoppedException;
+import com.ishan.user_service.dto.UserDto;
+import com.ishan.user_service.model.ImportJobCheckpoint;
+import com.ishan.user_service.model.User;
+import com.ishan.user_service.repository.ImportJobCheckpointRepository;
+import com.ishan.user_service.service.importPipeline.writer.JpaUserBatchWriter;
+import com.ishan.user_service.service.job.FairImportScheduler;
+import com.ishan.user_service.service.job.ImportControlRequest;
+import com.ishan.user_service.service.job.ImportJobControlRegistry;
+import com.ishan.user_service.service.job.ImportUserJobTrackerService;
+import com.ishan.user_service.service.user.UserBatchSaverService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+// Plain unit test (no Spring context): the pipeline only needs a saver, a tracker, a checkpoint service and a control registry.
+public class UserImportPipelineTests {
+
+    private final UserBatchSaverService saverService = mock(UserBatchSaverService.class);
+    private final ImportUserJobTrackerService trackerService = mock(ImportUserJobTrackerService.class);
+    private final ImportCheckpointService checkpointService = mock(ImportCheckpointService.class);
+    private final ImportJobControlRegistry controlRegistry = mock(ImportJobControlRegistry.class);
+    private final ImportWriterPool writerPool = new ImportWriterPool(4, 10);
+    private final FairImportScheduler scheduler = new FairImportScheduler(8, 1000);
+
+    @AfterEach
+    void stopWriterPool(){
+        writerPool.shutdown();
+    }
+
+    // The tracker does this for real jobs (createJob + markRunning); the scheduler refuses unknown jobs
+    @BeforeEach
+    void registerJobsWithScheduler(){
+        for (String jobId : List.of("job-1", "job-2")) {
+            scheduler.jobQueued(jobId, "user-" + jobId, ImportJobCostTier.MEDIUM);
+            scheduler.jobStarted(jobId);
+        }
+    }
+
+    @BeforeEach
+    void runWritesInsideCheckpointTransaction(){
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(2).run();
+            return null;
+        }).when(checkpointService).commitBatch(anyString(), any(ImportBatch.class), any(Runnable.class));
+    }
+
+    @Test
+    void run_shouldSaveEveryBatchProducedBySource(){
+        AtomicLong savedRows = new AtomicLong();
+        doAnswer(invocation -> {
+            List<User> batch = invocation.getArgument(0);
+            savedRows.addAndGet(batch.size());
+            return null;
+        }).when(saverService).saveBatchInCurrentTransaction(anyList());
+
+        UserImportPipeline pipeline = new UserImportPipeline(List.of(new JpaUserBatchWriter(saverService)), trackerService, fixedBatchSizes(), checkpointService, controlRegistry, scheduler, writerPool, 2, 100, 3);
+
+        long imported = runQuietly(pipeline, new CountingSource(1050, null));
+
+        assertThat(imported).isEqualTo(1050);
+        assertThat(savedRows.get()).isEqualTo(1050);
+        verify(saverService, times(11)).saveBatchInCurrentTransaction(anyList());
+        verify(trackerService).updateProgress("job-1", 1050);
+        verify(trackerService).updateCommittedBatches("job-1", 11, "0-10");
+    }
+
+    @Test
+    void run_shouldReportCommittedBatches_whenOneWriterFails(){
+        // Batch starting at position 300 (batch number 3) fails, every other batch commits
+        doAnswer(invocation -> {
+            List<User> batch = invocation.getArgument(0);
+            if (batch.getFirst().getFirstName().equals("user300")) {
+                throw new IllegalStateException("DB down");
+            }
+            return null;
+        }).when(saverService).saveBatchInCurrentTransaction(anyList());
+
+        UserImportPipeline pipeline = new UserImportPipeline(List.of(new JpaUserBatchWriter(saverService)), trackerService, fixedBatchSizes(), checkpointService, controlRegistry, scheduler, writerPool, 2, 100, 1);
+
+        assertThatThrownBy(() -> pipeline.run("job-1", new CountingSource(1000, null), ImportPersistenceEngine.JPA, ImportCheckpoint.empty()))
+                .isInstanceOf(BatchImportFailedException.class)
+                .hasMessageContaining("Batch write failed: DB down")
+                .hasMessageContaining("committedBatches=0-2");
+    }
+
+    @Test
+    void run_shouldFail_whenSourceFailsMidWay(){
+        UserImportPipeline pipeline = new UserImportPipeline(List.of(new JpaUserBatchWriter(saverService)), trackerService, fixedBatchSizes(), checkpointService, controlRegistry, scheduler, writerPool, 2, 100, 3);
+
+        assertThatThrownBy(() -> pipeline.run("job-1", new CountingSource(1000, 500L), ImportPersistenceEngine.JPA, ImportCheckpoint.empty()))
+                .isInstanceOf(BatchImportFailedException.class)
+                .hasMessageContaining("Import source failed")
+                .hasMessageContaining("committedBatches=0-4");
+    }
+
+    @Test
+    void run_shouldContinueAfterCheckpoint_whenResuming(){
+        AtomicLong savedRows = new AtomicLong();
+        doAnswer(invocation -> {
+            List<User> batch = invocation.getArgument(0);
+            savedRows.addAndGet(batch.size());
+            return null;
+        }).when(saverService).saveBatchInCurrentTransaction(anyList());
+
+        // Previous run committed positions [0, 500) as batches 0-4
+        RangeSet positions = new RangeSet();
+        positions.add(0, 500);
+        RangeSet batchNumbers = new RangeSet();
+        batchNumbers.add(0, 5);
+        ImportCheckpoint checkpoint = new ImportCheckpoint(positions, batchNumbers, 500, 5);
+
+        UserImportPipeline pipeline = new UserImportPipeline(List.of(new JpaUserBatchWriter(saverService)), trackerService, fixedBatchSizes(), checkpointService, controlRegistry, scheduler, writerPool, 2, 100, 2);
+
+        long imported = runQuietly(pipeline, new CountingSource(1000, null, 500), checkpoint);
+
+        // Only the missing half is written, but progress / batches cover the whole job
+        assertThat(savedRows.get()).isEqualTo(500);
+        assertThat(imported).isEqualTo(1000);
+        verify(trackerService).updateProgress("job-1", 1000);
+        verify(trackerService).updateCommittedBatches("job-1", 10, "0-9");
+    }
+
+    @Test
+    void run_shouldStopAtBatchBoundary_whenCancelled(){
+        // Operator cancels while batch 2 (positions 200-299) is being written
+        AtomicReference<ImportControlRequest> request = new AtomicReference<>();
+        when(controlRegistry.requested("job-1")).thenAnswer(invocation -> request.get());
+        AtomicLong savedRows = new AtomicLong();
+        doAnswer(invocation -> {
+            List<User> batch = invocation.getArgument(0);
+            savedRows.addAndGet(batch.size());
+            if (batch.getFirst().getFirstName().equals("user200")) {
+                request.set(ImportControlRequest.CANCEL);
+            }
+            return null;
+        }).when(saverService).saveBatchInCurrentTransaction(anyList());
+
+        UserImportPipeline pipeline = new UserImportPipeline(List.of(new JpaUserBatchWriter(saverService)), trackerService, fixedBatchSizes(), checkpointService, controlRegistry, scheduler, writerPool, 2, 100, 1);
+
+        assertThatThrownBy(() -> pipeline.run("job-1", new CountingSource(100_000, null), ImportPersistenceEngine.JPA, ImportCheckpoint.empty()))
+                .isInstanceOfSatisfying(ImportJobStoppedException.class, ex -> {
+                    assertThat(ex.getRequest()).isEqualTo(ImportControlRequest.CANCEL);
+                    assertThat(ex.getCommittedRows()).isEqualTo(300);
+                });
+        // Nothing written after the request, the request is consumed
+        assertThat(savedRows.get()).isEqualTo(300);
+        verify(controlRegistry).unregister("job-1");
+    }
+
+    @Test
+    void run_shouldShareTheWriterPool_betweenConcurrentJobs() throws Exception {
+        // ONE shared writer thread, two jobs with 3 writer slots each: both finish, never 2 commits at once
+        ImportWriterPool singleWriter = new ImportWriterPool(1, 10);
+        AtomicInteger concurrentWrites = new AtomicInteger();
+        AtomicInteger maxConcurrentWrites = new AtomicInteger();
+        AtomicLong savedRows = new AtomicLong();
+        doAnswer(invocation -> {
+            maxConcurrentWrites.accumulateAndGet(concurrentWrites.incrementAndGet(), Math::max);
+            List<User> batch = invocation.getArgument(0);
+            savedRows.addAndGet(batch.size());
+            concurrentWrites.decrementAndGet();
+            return null;
+        }).when(saverService).saveBatchInCurrentTransaction(anyList());
+        UserImportPipeline pipeline = new UserImportPipeline(List.of(new JpaUserBatchWriter(saverService)), trackerService, fixedBatchSizes(), checkpointService, controlRegistry, scheduler, singleWriter, 2, 100, 3);
+
+        try {
+            AtomicLong secondJobImported = new AtomicLong();
+            Thread secondJob = Thread.ofPlatform().start(() -> {
+                try {
+                    secondJobImported.set(pipeline.run("job-2", new CountingSource(700, null), ImportPersistenceEngine.JPA, ImportCheckpoint.empty()));
+                } catch (Exception e) {
+                    throw new AssertionError(e);
+                }
+            });
+            long firstJobImported = runQuietly(pipeline, new CountingSource(900, null));
+            secondJob.join();
+
+            assertThat(firstJobImported).isEqualTo(900);
+            assertThat(secondJobImported.get()).isEqualTo(700);
+            assertThat(savedRows.get()).isEqualTo(1600);
+            assertThat(maxConcurrentWrites.get()).isEqualTo(1);
+        } finally {
+            singleWriter.shutdown();
+        }
+    }
+
+    @Test
+    void run_shouldCheckpointButNotWriteOrSample_batchesEmptiedByDedup(){
+        AdaptiveBatchSizerFactory sizerFactory = spy(fixedBatchSizes());
+        AdaptiveBatchSizer sizer = spy(fixedBatchSizes().create(100));
+        doReturn(sizer).when(sizerFactory).create(anyInt());
+        UserImportPipeline pipeline = new UserImportPipeline(List.of(new JpaUserBatchWriter(saverService)), trackerService, sizerFactory, checkpointService, controlRegistry, scheduler, writerPool, 2, 100, 2);
+
+        long processed = runQuietly(pipeline, everySecondBatchEmptied(new CountingSource(1000, null)));
+
+        // Progress counts source positions: the emptied batches are processed too
+        assertThat(processed).isEqualTo(1000);
+        verify(trackerService).updateProgress("job-1", 1000);
+        verify(checkpointService, times(10)).commitBatch(anyString(), any(ImportBatch.class), any(Runnable.class));
+        verify(saverService, times(5)).saveBatchInCurrentTransaction(anyList());
+        verify(sizer, times(5)).recordCommit(anyInt(), anyLong());
+        verify(sizer, never()).recordCommit(eq(0), anyLong());
+    }
+
+    @Test
+    void run_shouldResumeWithSameProcessedCount_afterBatchesEmptiedByDedup(){
+        // Real checkpoint service (its load() rebuilds the count) over an in-memory checkpoint table
+        List<ImportJobCheckpoint> checkpointRows = new ArrayList<>();
+        ImportJobCheckpointRepository checkpointRepository = mock(ImportJobCheckpointRepository.class);
+        doAnswer(invocation -> {
+            checkpointRows.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        }).when(checkpointRepository).save(any(ImportJobCheckpoint.class));
+        when(checkpointRepository.findByJobId("job-1")).thenAnswer(invocation -> List.copyOf(checkpointRows));
+        ImportCheckpointService realCheckpoints = new ImportCheckpointService(checkpointRepository, mock(PlatformTransactionManager.class));
+
+        AtomicLong savedRows = new AtomicLong();
+        doAnswer(invocation -> {
+            List<User> batch = invocation.getArgument(0);
+            savedRows.addAndGet(batch.size());
+            return null;
+        }).when(saverService).saveBatchInCurrentTransaction(anyList());
+        UserImportPipeline pipeline = new UserImportPipeline(List.of(new JpaUserBatchWriter(saverService)), trackerService, fixedBatchSizes(), realCheckpoints, controlRegistry, scheduler, writerPool, 2, 100, 3);
+
+        // First run: batches 0-4 committed (1 and 3 emptied by de-dup), then the source breaks
+        assertThatThrownBy(() -> pipeline.run("job-1", everySecondBatchEmptied(new CountingSource(1000, 500L)), ImportPersistenceEngine.JPA, ImportCheckpoint.empty()))
+                .isInstanceOf(BatchImportFailedException.class)
+                .hasMessageContaining("committedBatches=0-4");
+        verify(trackerService).updateProgress("job-1", 500);
+
+        // The checkpoint rebuilds exactly what the live ledger reported
+        ImportCheckpoint checkpoint = realCheckpoints.load("job-1");
+        assertThat(checkpoint.committedRows()).isEqualTo(500);
+        assertThat(checkpoint.committedPositions().toString()).isEqualTo("0-499");
+
+        long processed = runQuietly(pipeline, everySecondBatchEmptied(new CountingSource(1000, null, 500)), checkpoint);
+
+        assertThat(processed).isEqualTo(1000);
+        assertThat(savedRows.get()).isEqualTo(500);
+        verify(trackerService).updateProgress("job-1", 1000);
+        verify(trackerService).updateCommittedBatches("job-1", 10, "0-9");
+        assertThat(checkpointRows).hasSize(10);
+    }
+
+    // Odd batches (by position, so a resumed source empties the same ones) lost all their rows to duplicate emails
+    private static UserImportSource everySecondBatchEmptied(CountingSource counting){
+        return new UserImportSource() {
+            @Override
+            public ImportBatch nextBatch(int maxRows) {
+                ImportBatch batch = counting.nextBatch(maxRows);
+                if (batch == null || (batch.startPosition() / 100) % 2 == 0) {
+                    return batch;
+                }
+                return new ImportBatch(batch.startPosition(), batch.endPosition(), List.of());
+            }
+
+            @Override
+            public long estimatedTotalRows() {
+                return counting.estimatedTotalRows();
+            }
+        };
+    }
+
+    private long runQuietly(UserImportPipeline pipeline, UserImportSource source){
+        return runQuietly(pipeline, source, ImportCheckpoint.empty());
+    }
+
+    private long runQuietly(UserImportPipeline pipeline, UserImportSource source, ImportCheckpoint resumeFrom){
+        try {
+            return pipeline.run("job-1", source, ImportPersistenceEngine.JPA, resumeFrom);
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    // Emits simple users; optionally throws once it reaches failAtPosition
+    private static class CountingSource implements UserImportSource {
+        private final long total;
+        private final Long failAtPosition;
+        private long next;
+
+        CountingSource(long total, Long failAtPosition) {
+            this(total, failAtPosition, 0);
+        }
+
+        CountingSource(long total, Long failAtPosition, long startAt) {
+            this.total = total;
+            this.failAtPosition = failAtPosition;
+            this.next = startAt;
+        }
+
+        @Override
+        public ImportBatch nextBatch(int maxRows) {
+            if (failAtPosition != null && next >= failAtPosition) {
+                throw new IllegalArgumentException("broken source");
+            }
+            if (next >= total) {
+                return null;
+            }
+            int size = (int) Math.min(maxRows, total - next);
+            List<UserDto> users = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                UserDto userDto = new UserDto();
+                userDto.setFirstName("user" + (next + i));
+                userDto.setAge(30);
+                userDto.setEmail("user" + (next + i) + "@test.com");
+                users.add(userDto);
+            }
+            ImportBatch batch = new ImportBatch(next, next + size, users);
+            next += size;
+            return batch;
+        }
+
+        @Override
+        public long estimatedTotalRows() {
+            return total;
+        }
+    }
+
+    // Adaptive sizing off -> deterministic batch count
+    private AdaptiveBatchSizerFactory fixedBatchSizes(){
+        return new AdaptiveBatchSizerFactory(false, 100, 100, 500, 5, 10);
+    }
+}
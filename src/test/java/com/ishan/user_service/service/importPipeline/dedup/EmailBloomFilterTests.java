@@ -0,0 +1,37 @@
+package com.ishan.user_service.service.importPipeline.dedup;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Plain unit test: no false negatives ever, false positives close to the configured rate
+public class EmailBloomFilterTests {
+
+    @Test
+    void mightContain_shouldNeverMissARecordedEmail_andRarelyFlagANewOne() {
+        EmailBloomFilter filter = new EmailBloomFilter(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+
+        for (int i = 0; i < 100_000; i++) {
+            assertThat(filter.mightContain("user" + i + "@example.com")).isTrue();
+        }
+        int falsePositives = 0;
+        for (int i = 100_000; i < 200_000; i++) {
+            if (filter.mightContain("user" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(2_000);
+        assertThat(filter.isOverCapacity()).isFalse();
+    }
+
+    @Test
+    void sizeInBytes_shouldFollowTheBudget_notTheEmails() {
+        // ~9.6 bits per expected email at 1%
+        EmailBloomFilter filter = new EmailBloomFilter(10_000_000, 0.01);
+
+        assertThat(filter.sizeInBytes()).isBetween(11_000_000L, 13_000_000L);
+    }
+}
@@ -0,0 +1,117 @@
+package com.ishan.user_service.service.importPipeline.dedup;
+
+import com.ishan.user_service.customExceptions.DuplicateEmailException;
+import com.ishan.user_service.dto.UserDto;
+import com.ishan.user_service.model.User;
+import com.ishan.user_service.repository.UserJdbcRepository;
+import com.ishan.user_service.repository.UserRepository;
+import com.ishan.user_service.service.importPipeline.ImportBatch;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Filter warm-up (keyset scan) + exact checks against the users table on in-memory H2
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import({EmailDeduplicator.class, UserJdbcRepository.class})
+@TestPropertySource(properties = "import.dedup.expected-emails=100000")
+public class EmailDeduplicatorTests {
+
+    @Autowired
+    private EmailDeduplicator emailDeduplicator;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void skip_shouldDropEmailsAlreadyInTheDbOrEarlierInTheImport_andKeepPositions() {
+        saveUser("skip-existing@example.com");
+
+        try (EmailDedupSession session = emailDeduplicator.openSession("job-skip", DuplicateEmailPolicy.SKIP)) {
+            ImportBatch result = session.apply(batch(10, "skip-existing@example.com", "skip-new@example.com",
+                    "skip-new@example.com", null));
+
+            assertThat(result.users()).extracting(UserDto::getEmail).containsExactly("skip-new@example.com", null);
+            assertThat(result.startPosition()).isEqualTo(10);
+            assertThat(result.endPosition()).isEqualTo(14);
+            assertThat(session.stats().duplicates()).isEqualTo(2);
+            assertThat(session.stats().skipped()).isEqualTo(2);
+            assertThat(session.stats().checked()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void suffix_shouldImportDuplicatesUnderTheFirstFreeVariant() {
+        saveUser("suffix@example.com");
+        saveUser("suffix+1@example.com");
+
+        try (EmailDedupSession session = emailDeduplicator.openSession("job-suffix", DuplicateEmailPolicy.SUFFIX)) {
+            ImportBatch result = session.apply(batch(0, "suffix@example.com", "suffix@example.com"));
+
+            assertThat(result.users()).extracting(UserDto::getEmail)
+                    .containsExactly("suffix+2@example.com", "suffix+3@example.com");
+            assertThat(session.stats().suffixed()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void fail_shouldStopOnTheFirstDuplicate() {
+        saveUser("fail@example.com");
+
+        try (EmailDedupSession session = emailDeduplicator.openSession("job-fail", DuplicateEmailPolicy.FAIL)) {
+            assertThatThrownBy(() -> session.apply(batch(100, "fail-ok@example.com", "fail@example.com")))
+                    .isInstanceOf(DuplicateEmailException.class)
+                    .hasMessageContaining("position 101");
+        }
+    }
+
+    @Test
+    void emailsOfBatchesNotCommittedYet_shouldBeDuplicatesForOtherJobs_untilReleased() {
+        EmailDedupSession first = emailDeduplicator.openSession("job-a", DuplicateEmailPolicy.SKIP);
+        EmailDedupSession second = emailDeduplicator.openSession("job-b", DuplicateEmailPolicy.SKIP);
+
+        first.apply(batch(0, "in-flight@example.com"));
+        assertThat(second.apply(batch(0, "in-flight@example.com")).users()).isEmpty();
+
+        // job-a failed before committing -> the email is free again
+        first.close();
+        assertThat(second.apply(batch(1, "in-flight@example.com")).users()).hasSize(1);
+        second.close();
+    }
+
+    @Test
+    void allow_shouldLeaveBatchesUntouched() {
+        saveUser("allow@example.com");
+
+        try (EmailDedupSession session = emailDeduplicator.openSession("job-allow", DuplicateEmailPolicy.ALLOW)) {
+            ImportBatch batch = batch(0, "allow@example.com", "allow@example.com");
+
+            assertThat(session.apply(batch)).isSameAs(batch);
+        }
+    }
+
+    private void saveUser(String email) {
+        userRepository.saveAndFlush(User.builder().firstName("Existing").lastName("User").email(email).age(30).build());
+    }
+
+    private static ImportBatch batch(long startPosition, String... emails) {
+        List<UserDto> users = new ArrayList<>();
+        for (String email : emails) {
+            UserDto user = new UserDto();
+            user.setFirstName("Imported");
+            user.setEmail(email);
+            users.add(user);
+        }
+        return new ImportBatch(0, startPosition, startPosition + emails.length, users);
+    }
+}
@@ -0,0 +1,100 @@
+package com.ishan.user_service.service.importPipeline.writer;
+
+import com.ishan.user_service.dto.UserDto;
+import com.ishan.user_service.model.User;
+import com.ishan.user_service.repository.UserBulkLoadRepository;
+import com.ishan.user_service.repository.UserIdBlockRepository;
+import com.ishan.user_service.repository.UserIdGeneratorRepository;
+import com.ishan.user_service.repository.UserRepository;
+import com.ishan.user_service.service.importPipeline.ImportBatch;
+import com.ishan.user_service.service.importPipeline.UserIdAllocator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+// BULK_LOAD engine against H2 (CSVREAD path), NOT_SUPPORTED so the writer commits like in a real import
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import({BulkLoadUserBatchWriter.class, UserBulkLoadRepository.class, UserIdAllocator.class,
+        UserIdBlockRepository.class, UserIdGeneratorRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BulkLoadUserBatchWriterTests {
+
+    @Autowired
+    private BulkLoadUserBatchWriter bulkLoadUserBatchWriter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void writeBatch_shouldLoadStagedCsvWithNativeLoader(){
+        List<UserDto> users = List.of(
+                createTestUser("Ishan", "Von Rueden", "ishan@hit.com", "Dehradun"),
+                // comma + quote must survive the CSV round trip
+                createTestUser("Ann", "O\"Neil", "ann@hit.com", "St. John's, NL"),
+                createTestUser("Solo", null, "solo@hit.com", null),
+                // multi-word first name must not be re-split on the first space
+                createTestUser("Mary Ann", "Lee", "maryann@hit.com", "Dehradun"));
+
+        bulkLoadUserBatchWriter.writeBatch(new ImportBatch(0, 4, users).withBatchNumber(0));
+
+        List<User> saved = userRepository.findAll();
+        assertThat(saved).hasSize(4);
+        assertThat(saved).extracting(User::getId).doesNotContainNull().doesNotHaveDuplicates();
+
+        User ishan = findByEmail(saved, "ishan@hit.com");
+        assertThat(ishan.getFirstName()).isEqualTo("Ishan");
+        assertThat(ishan.getLastName()).isEqualTo("Von Rueden");
+        assertThat(ishan.getAge()).isEqualTo(28);
+        assertThat(ishan.getMobileNumber()).isEqualTo("9876543210");
+
+        User ann = findByEmail(saved, "ann@hit.com");
+        assertThat(ann.getLastName()).isEqualTo("O\"Neil");
+        assertThat(ann.getCity()).isEqualTo("St. John's, NL");
+
+        User solo = findByEmail(saved, "solo@hit.com");
+        assertThat(solo.getLastName()).isNull();
+        assertThat(solo.getCity()).isNull();
+
+        User maryAnn = findByEmail(saved, "maryann@hit.com");
+        assertThat(maryAnn.getFirstName()).isEqualTo("Mary Ann");
+        assertThat(maryAnn.getLastName()).isEqualTo("Lee");
+    }
+
+    @Test
+    void checkAvailable_shouldPassOnH2(){
+        assertThatCode(() -> bulkLoadUserBatchWriter.checkAvailable()).doesNotThrowAnyException();
+    }
+
+    @Test
+    void preferredBatchSize_shouldDefaultToAFewThousandRows(){
+        assertThat(bulkLoadUserBatchWriter.preferredBatchSize()).isEqualTo(5000);
+    }
+
+    private User findByEmail(List<User> users, String email){
+        return users.stream().filter(user -> email.equals(user.getEmail())).findFirst().orElseThrow();
+    }
+
+    private UserDto createTestUser(String firstName, String lastName, String email, String city){
+        UserDto userDto = new UserDto();
+        userDto.setFirstName(firstName);
+        userDto.setLastName(lastName);
+        userDto.setEmail(email);
+        userDto.setCity(city);
+        userDto.setState("uk");
+        userDto.setAge(28);
+        userDto.setGender("male");
+        userDto.setPhNum("98765-43210");
+        return userDto;
+    }
+}
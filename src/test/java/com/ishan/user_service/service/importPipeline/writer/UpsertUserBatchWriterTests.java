@@ -0,0 +1,95 @@
+package com.ishan.user_service.service.importPipeline.writer;
+
+import com.ishan.user_service.dto.UserDto;
+import com.ishan.user_service.model.User;
+import com.ishan.user_service.repository.UserIdBlockRepository;
+import com.ishan.user_service.repository.UserIdGeneratorRepository;
+import com.ishan.user_service.repository.UserJdbcRepository;
+import com.ishan.user_service.repository.UserRepository;
+import com.ishan.user_service.service.importPipeline.ImportBatch;
+import com.ishan.user_service.service.importPipeline.UserIdAllocator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// UPSERT engine against H2, NOT_SUPPORTED so the writer commits like in a real import
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import({UpsertUserBatchWriter.class, UserJdbcRepository.class, UserIdAllocator.class,
+        UserIdBlockRepository.class, UserIdGeneratorRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class UpsertUserBatchWriterTests {
+
+    @Autowired
+    private UpsertUserBatchWriter upsertUserBatchWriter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void writeBatch_shouldUpdateExistingUsers_andInsertNewOnes(){
+        User existing = userRepository.save(User.builder()
+                .firstName("Old").lastName("Name").email("upsert-existing@hit.com")
+                .city("Dehradun").state("uk").age(40).mobileNumber("111").gender("male").build());
+
+        // Refreshed row without city/age -> those keep the stored values
+        UserDto refreshed = createTestUser("New", "upsert-existing@hit.com", null, 0);
+        UserDto fresh = createTestUser("Fresh", "upsert-fresh@hit.com", "Pune", 30);
+
+        upsertUserBatchWriter.writeBatch(new ImportBatch(0, 2, List.of(refreshed, fresh)).withBatchNumber(0));
+
+        User updated = userRepository.findById(existing.getId()).orElseThrow();
+        assertThat(updated.getFirstName()).isEqualTo("New");
+        assertThat(updated.getCity()).isEqualTo("Dehradun");
+        assertThat(updated.getAge()).isEqualTo(40);
+        assertThat(findByEmail("upsert-existing@hit.com")).hasSize(1);
+
+        List<User> inserted = findByEmail("upsert-fresh@hit.com");
+        assertThat(inserted).hasSize(1);
+        assertThat(inserted.get(0).getCity()).isEqualTo("Pune");
+    }
+
+    @Test
+    void writeBatch_shouldKeepTheLastRow_whenTheBatchRepeatsAnEmail(){
+        List<UserDto> users = List.of(
+                createTestUser("First", "upsert-repeat@hit.com", "Pune", 30),
+                createTestUser("Last", "UPSERT-Repeat@hit.com", "Delhi", 31),
+                createTestUser("NoMail", null, "Agra", 32),
+                createTestUser("NoMailEither", null, "Agra", 33));
+
+        upsertUserBatchWriter.writeBatch(new ImportBatch(0, 4, users).withBatchNumber(0));
+
+        List<User> repeated = userRepository.findAll().stream()
+                .filter(user -> user.getEmail() != null && user.getEmail().equalsIgnoreCase("upsert-repeat@hit.com"))
+                .toList();
+        assertThat(repeated).extracting(User::getFirstName).containsExactly("Last");
+        assertThat(userRepository.findAll()).extracting(User::getFirstName)
+                .contains("NoMail", "NoMailEither");
+    }
+
+    private List<User> findByEmail(String email){
+        return userRepository.findAll().stream().filter(user -> email.equals(user.getEmail())).toList();
+    }
+
+    private UserDto createTestUser(String firstName, String email, String city, int age){
+        UserDto userDto = new UserDto();
+        userDto.setFirstName(firstName);
+        userDto.setLastName("Tester");
+        userDto.setEmail(email);
+        userDto.setCity(city);
+        userDto.setState("uk");
+        userDto.setAge(age);
+        userDto.setGender("male");
+        userDto.setPhNum("98765-43210");
+        return userDto;
+    }
+}
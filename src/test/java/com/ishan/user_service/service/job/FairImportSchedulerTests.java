@@ -0,0 +1,102 @@
+package com.ishan.user_service.service.job;
+
+import com.ishan.user_service.component.rateLimit.ImportJobCostTier;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Plain unit test: real threads blocking on the scheduler, one permit so the grant order is deterministic.
+public class FairImportSchedulerTests {
+
+    @Test
+    void acquire_shouldServeSmallJobBeforeXlBatchesThatWereWaitingLonger() throws Exception {
+        FairImportScheduler scheduler = new FairImportScheduler(1, 100);
+        scheduler.jobQueued("holder", "user-h", ImportJobCostTier.MEDIUM);
+        scheduler.jobStarted("holder");
+        scheduler.jobQueued("xl", "user-a", ImportJobCostTier.XL);
+        scheduler.jobStarted("xl");
+        scheduler.jobQueued("small", "user-b", ImportJobCostTier.SMALL);
+        scheduler.jobStarted("small");
+
+        // The only permit is taken -> everything below has to wait
+        scheduler.acquire("holder", 1);
+
+        List<String> grantOrder = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> writers = new ArrayList<>();
+        // XL batches are queued FIRST: FIFO would serve them first
+        for (int i = 0; i < 3; i++) {
+            writers.add(startWriter(scheduler, "xl", 200, grantOrder));
+        }
+        for (int i = 0; i < 3; i++) {
+            writers.add(startWriter(scheduler, "small", 100, grantOrder));
+        }
+        awaitAllWaiting(writers);
+        assertThat(scheduler.status("small").queuePosition()).isPositive();
+
+        scheduler.release("holder");
+        for (Thread writer : writers) {
+            writer.join(5000);
+        }
+
+        // SMALL (weight 8) gets 800 rows per turn, XL (weight 1) needs two turns per 200-row batch
+        assertThat(grantOrder).containsExactly("small", "small", "small", "xl", "xl", "xl");
+    }
+
+    @Test
+    void status_shouldReportQueuePositionOfJobsWaitingForAWorker(){
+        FairImportScheduler scheduler = new FairImportScheduler(4, 1000);
+        scheduler.jobQueued("first", "user-a", ImportJobCostTier.SMALL);
+        scheduler.jobQueued("second", "user-b", ImportJobCostTier.SMALL);
+
+        assertThat(scheduler.status("second").queuePosition()).isEqualTo(2);
+
+        scheduler.jobStarted("first");
+        assertThat(scheduler.status("second").queuePosition()).isEqualTo(1);
+        // Running without a batch waiting -> not in line
+        assertThat(scheduler.status("first").queuePosition()).isZero();
+
+        scheduler.jobFinished("first");
+        assertThat(scheduler.status("first")).isNull();
+    }
+
+    @Test
+    void acquire_shouldFailFast_forJobsThatWereNeverRegisteredOrStarted(){
+        FairImportScheduler scheduler = new FairImportScheduler(4, 1000);
+        scheduler.jobQueued("queued", "user-a", ImportJobCostTier.SMALL);
+
+        // No owner / tier known -> never scheduled under a made-up user
+        assertThatThrownBy(() -> scheduler.jobStarted("unknown")).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> scheduler.acquire("unknown", 10)).isInstanceOf(IllegalStateException.class);
+        // Registered but still waiting for a worker -> no batches yet
+        assertThatThrownBy(() -> scheduler.acquire("queued", 10)).isInstanceOf(IllegalStateException.class);
+        assertThat(scheduler.status("unknown")).isNull();
+    }
+
+    private Thread startWriter(FairImportScheduler scheduler, String jobId, int rows, List<String> grantOrder){
+        return Thread.ofPlatform().start(() -> {
+            try {
+                scheduler.acquire(jobId, rows);
+                grantOrder.add(jobId);
+                scheduler.release(jobId);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    // Every writer is parked inside acquire()
+    private void awaitAllWaiting(List<Thread> writers) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (writers.stream().anyMatch(writer -> writer.getState() != Thread.State.WAITING)) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("writers did not block on the scheduler");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.ishan.user_service.service.user;
+
+import com.ishan.user_service.component.exportExecutor.ExportExecutorConfig;
+import com.ishan.user_service.dto.ExportJobInfoDto;
+import com.ishan.user_service.model.User;
+import com.ishan.user_service.repository.ExportJobRepository;
+import com.ishan.user_service.repository.UserJdbcRepository;
+import com.ishan.user_service.repository.UserRepository;
+import com.ishan.user_service.service.exportPipeline.ExportCompressor;
+import com.ishan.user_service.service.exportPipeline.ParallelCsvExporter;
+import com.ishan.user_service.service.job.ExportJobTrackerServiceImpl;
+import com.ishan.user_service.specification.UserSearchCriteria;
+import com.ishan.user_service.utility.CSVReadWriteUtility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Export jobs on in-memory H2 into a temp folder. @EnableAsync on UserServiceApplication is active in the
+// slice too, so the export executor is replaced by a SYNCHRONOUS one: runExportAsync returns once the job ended.
+// retention-minutes=0 -> every finished job is old enough to expire when the cleanup runs.
+// NOT_SUPPORTED: the rows must be committed, the export fetch threads use their own connections.
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import({UserExportAsyncService.class, ExportJobTrackerServiceImpl.class, ParallelCsvExporter.class,
+        ExportCompressor.class, UserJdbcRepository.class, UserExportAsyncServiceTests.SyncExportExecutor.class})
+@TestPropertySource(properties = {"export.parallel.batch-size=7", "export.jobs.retention-minutes=0"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class UserExportAsyncServiceTests {
+
+    // Same bean name as ExportExecutorConfig, runs the job on the calling (test) thread
+    @TestConfiguration
+    static class SyncExportExecutor {
+        @Bean(name = ExportExecutorConfig.EXPORT_EXECUTOR)
+        TaskExecutor exportTaskExecutor() {
+            return new SyncTaskExecutor();
+        }
+    }
+
+    @TempDir
+    static Path outputDir;
+
+    @DynamicPropertySource
+    static void exportProperties(DynamicPropertyRegistry registry) {
+        registry.add("export.jobs.output-dir", () -> outputDir.toString());
+    }
+
+    @Autowired
+    private UserExportAsyncService userExportAsyncService;
+
+    @Autowired
+    private ExportJobTrackerServiceImpl exportJobTrackerService;
+
+    @Autowired
+    private ExportJobRepository exportJobRepository;
+
+    @Autowired
+    private UserJdbcRepository userJdbcRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void cleanTables() {
+        userRepository.deleteAllInBatch();
+        exportJobRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void runExportAsync_shouldWriteMatchingUsersToAFile_andMarkTheJobCompleted() throws Exception {
+        List<User> users = insertUsers(60);
+        UserSearchCriteria activeOnly = new UserSearchCriteria(null, null, null, null, null, null, false);
+
+        String jobId = exportJobTrackerService.createJob(activeOnly, false);
+        userExportAsyncService.runExportAsync(jobId, activeOnly, false);
+
+        List<User> active = users.stream().filter(user -> !user.isDeleted()).toList();
+        ExportJobInfoDto status = exportJobTrackerService.getJobStatus(jobId);
+        assertThat(status.getStatus()).isEqualTo(ExportJobInfoDto.ExportStatus.COMPLETED);
+        assertThat(status.getFilters()).isEqualTo("deleted=false");
+        assertThat(status.getExportedCount()).isEqualTo(active.size());
+        assertThat(status.getTotalCount()).isEqualTo(active.size());
+        assertThat(status.getDownloadUrl()).isEqualTo("/api/v1/users/exportCSV/jobs/" + jobId + "/file");
+
+        Path file = exportJobTrackerService.findArtifact(jobId);
+        assertThat(file).isNotNull();
+        assertThat(Files.readString(file)).isEqualTo(expectedCsv(active));
+        assertThat(status.getFileSizeBytes()).isEqualTo(Files.size(file));
+        // Only the finished file is left, no .part
+        try (var files = Files.list(outputDir)) {
+            assertThat(files.filter(path -> path.getFileName().toString().endsWith(".part"))).isEmpty();
+        }
+    }
+
+    @Test
+    void runExportAsync_shouldWriteAGzipFile_whenGzipIsRequested() throws Exception {
+        List<User> users = insertUsers(40);
+
+        String jobId = exportJobTrackerService.createJob(UserSearchCriteria.none(), true);
+        userExportAsyncService.runExportAsync(jobId, UserSearchCriteria.none(), true);
+
+        ExportJobInfoDto status = exportJobTrackerService.getJobStatus(jobId);
+        assertThat(status.getStatus()).isEqualTo(ExportJobInfoDto.ExportStatus.COMPLETED);
+        assertThat(status.getFileName()).endsWith(".csv.gz");
+
+        Path file = exportJobTrackerService.findArtifact(jobId);
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(expectedCsv(users));
+        }
+    }
+
+    @Test
+    void expireOldJobs_shouldDeleteTheFile_andMarkTheJobExpired() throws Exception {
+        insertUsers(10);
+        String jobId = exportJobTrackerService.createJob(UserSearchCriteria.none(), false);
+        userExportAsyncService.runExportAsync(jobId, UserSearchCriteria.none(), false);
+        Path file = exportJobTrackerService.findArtifact(jobId);
+        assertThat(file).exists();
+        Thread.sleep(5);
+
+        exportJobTrackerService.expireOldJobs();
+
+        assertThat(file).doesNotExist();
+        assertThat(exportJobTrackerService.findArtifact(jobId)).isNull();
+        assertThat(exportJobTrackerService.getJobStatus(jobId).getStatus()).isEqualTo(ExportJobInfoDto.ExportStatus.EXPIRED);
+        assertThat(exportJobRepository.findById(jobId).orElseThrow().getStatus()).isEqualTo(ExportJobInfoDto.ExportStatus.EXPIRED);
+    }
+
+    private List<User> insertUsers(int count) {
+        List<User> users = new ArrayList<>();
+        for (int id = 1; id <= count; id++) {
+            users.add(User.builder()
+                    .id(id)
+                    .firstName("first" + id)
+                    .lastName("last" + id)
+                    .email("exportjob" + id + "@hit.com")
+                    .city("ddun")
+                    .state("uk")
+                    .age(20 + id % 50)
+                    .mobileNumber("98765" + id)
+                    .gender(id % 2 == 0 ? "male" : "female")
+                    .deleted(id % 3 == 0)
+                    .build());
+        }
+        userJdbcRepository.batchInsert(users);
+        return users;
+    }
+
+    private static String expectedCsv(List<User> users) {
+        StringBuilder expected = new StringBuilder(CSVReadWriteUtility.getCSVHeader());
+        for (User user : users) {
+            expected.append(CSVReadWriteUtility.toCsvRow(user)).append('\n');
+        }
+        return expected.toString();
+    }
+}
@@ -0,0 +1,131 @@
+package com.ishan.user_service.service.user;
+
+import com.ishan.user_service.model.User;
+import com.ishan.user_service.repository.UserJdbcRepository;
+import com.ishan.user_service.repository.UserRepository;
+import com.ishan.user_service.service.exportPipeline.ParallelCsvExporter;
+import com.ishan.user_service.specification.UserSearchCriteria;
+import com.ishan.user_service.utility.CSVReadWriteUtility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Sequential (keyset) filtered export on in-memory H2: more matching rows than one 1000-row batch,
+// and the SAME UserSearchCriteria given to GET /search (UserService.searchUsers) must find the same users.
+// NOT_SUPPORTED: the rows must be committed, like for the other export tests.
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import({UserExportServiceImpl.class, UserServiceImpl.class, ParallelCsvExporter.class, UserJdbcRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class UserExportServiceTests {
+
+    @Autowired
+    private UserExportService userExportService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserJdbcRepository userJdbcRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private List<User> users;
+
+    @BeforeEach
+    void insertUsers() {
+        userRepository.deleteAllInBatch();
+        users = new ArrayList<>();
+        for (int id = 1; id <= 3000; id++) {
+            users.add(User.builder()
+                    .id(id)
+                    .firstName("first" + id)
+                    .lastName("last" + id)
+                    .email("search" + id + "@hit.com")
+                    .city(id % 4 == 0 ? "haridwar" : "ddun")
+                    .state("uk")
+                    .age(20 + id % 50)
+                    .mobileNumber("98765" + id)
+                    .gender(id % 2 == 0 ? "male" : "female")
+                    .deleted(id % 3 == 0)
+                    .build());
+        }
+        userJdbcRepository.batchInsert(users);
+    }
+
+    @Test
+    void streamUsersAsCsv_shouldExportOnlyMatchingUsers_acrossSeveralKeysetBatches() {
+        UserSearchCriteria criteria = new UserSearchCriteria(null, null, null, null, "ddun", "uk", false);
+
+        List<User> matching = matching(user -> user.getCity().equals("ddun") && !user.isDeleted());
+        assertThat(matching).hasSizeGreaterThan(1000);
+        assertThat(export(criteria)).isEqualTo(expectedCsv(matching));
+    }
+
+    @Test
+    void streamUsersAsCsv_shouldMatchNameCityAndState_caseInsensitively_anywhereInTheValue() {
+        UserSearchCriteria criteria = new UserSearchCriteria("AST12", null, 30, null, "DUN", "U", null);
+
+        List<User> matching = matching(user -> fullName(user).contains("ast12")
+                && user.getAge() >= 30 && user.getCity().contains("dun"));
+        assertThat(matching).isNotEmpty();
+        assertThat(export(criteria)).isEqualTo(expectedCsv(matching));
+
+        // Across first and last name
+        assertThat(export(new UserSearchCriteria("T12 LAST1", null, null, null, null, null, null)))
+                .isEqualTo(expectedCsv(matching(user -> fullName(user).contains("t12 last1"))));
+    }
+
+    @Test
+    void searchUsers_shouldFindExactlyTheUsersTheExportWrites_forTheSameCriteria() {
+        UserSearchCriteria criteria = new UserSearchCriteria("first1", null, 25, 45, "ddun", "uk", false);
+
+        List<Integer> searched = userService.searchUsers(criteria, PageRequest.of(0, 5000)).getContent().stream()
+                .map(User::getId)
+                .toList();
+
+        List<User> matching = matching(user -> fullName(user).contains("first1")
+                && user.getAge() >= 25 && user.getAge() <= 45 && user.getCity().equals("ddun") && !user.isDeleted());
+        assertThat(matching).isNotEmpty();
+        assertThat(searched).containsExactlyInAnyOrderElementsOf(matching.stream().map(User::getId).toList());
+        assertThat(export(criteria)).isEqualTo(expectedCsv(matching));
+    }
+
+    private String export(UserSearchCriteria criteria) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        userExportService.streamUsersAsCsv(out, criteria);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static String fullName(User user) {
+        return user.getFirstName() + " " + user.getLastName();
+    }
+
+    private List<User> matching(Predicate<User> filter) {
+        return users.stream().filter(filter).toList();
+    }
+
+    private static String expectedCsv(List<User> users) {
+        StringBuilder expected = new StringBuilder(CSVReadWriteUtility.getCSVHeader());
+        for (User user : users) {
+            expected.append(CSVReadWriteUtility.toCsvRow(user)).append('\n');
+        }
+        return expected.toString();
+    }
+}